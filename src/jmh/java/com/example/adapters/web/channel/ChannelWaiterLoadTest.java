@@ -0,0 +1,176 @@
+package com.example.adapters.web.channel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Load test for idle desktops waiting on a channel, run against a started application
+ * Opens waiters until the target count or the first failure, then reports the server's heap after a full GC
+ * and its resident memory and thread count, each per waiter. Compares the SSE stream with the WebSocket:
+ *
+ *   java -cp ... com.example.adapters.web.channel.ChannelWaiterLoadTest sse 10000 $(pgrep -f quarkus-run)
+ *   java -cp ... com.example.adapters.web.channel.ChannelWaiterLoadTest websocket 10000 <pid>
+ *
+ * Needs jcmd on the path and a file descriptor limit above the waiter count on both sides, and the application
+ * started with -Dapp.rate-limit.qr.requests-per-minute=0 since every waiter fetches /auth/qr.
+ */
+public class ChannelWaiterLoadTest {
+
+    private static final int WAITERS_PER_CHANNEL = 10;
+    private static final Pattern CHANNEL = Pattern.compile("\"channel\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern HEAP_USED = Pattern.compile("total \\d+K, used (\\d+)K");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("usage: ChannelWaiterLoadTest <sse|websocket> <waiters> <server-pid> [host] [port]");
+            System.exit(2);
+        }
+        String transport = args[0];
+        int target = Integer.parseInt(args[1]);
+        long pid = Long.parseLong(args[2]);
+        String host = args.length > 3 ? args[3] : "localhost";
+        int port = args.length > 4 ? Integer.parseInt(args[4]) : 8080;
+
+        HttpClient http = HttpClient.newHttpClient();
+        long heapBefore = heapUsedAfterGc(pid);
+        long rssBefore = procStatus(pid, "VmRSS");
+        long threadsBefore = procStatus(pid, "Threads");
+
+        List<Socket> waiters = new ArrayList<>(target);
+        String channel = null;
+        long startedAt = System.nanoTime();
+        try {
+            while (waiters.size() < target) {
+                if (waiters.size() % WAITERS_PER_CHANNEL == 0) {
+                    channel = newChannel(http, host, port);
+                }
+                waiters.add("sse".equals(transport)
+                    ? openEventStream(host, port, channel)
+                    : openWebSocket(host, port, channel));
+            }
+        } catch (IOException e) {
+            System.out.printf("Stopped after %d waiters: %s%n", waiters.size(), e.getMessage());
+        }
+        double openSeconds = (System.nanoTime() - startedAt) / 1e9;
+
+        long heapAfter = heapUsedAfterGc(pid);
+        long rssAfter = procStatus(pid, "VmRSS");
+        long threadsAfter = procStatus(pid, "Threads");
+        int opened = Math.max(1, waiters.size());
+
+        System.out.printf("transport=%s waiters=%d open-rate=%.0f/s%n", transport, waiters.size(), waiters.size() / openSeconds);
+        System.out.printf("heap per waiter: %.0f bytes (%d KB -> %d KB after GC)%n",
+            (heapAfter - heapBefore) * 1024.0 / opened, heapBefore, heapAfter);
+        System.out.printf("rss per waiter:  %.0f bytes (%d KB -> %d KB)%n",
+            (rssAfter - rssBefore) * 1024.0 / opened, rssBefore, rssAfter);
+        System.out.printf("server threads:  %d -> %d%n", threadsBefore, threadsAfter);
+
+        for (Socket waiter : waiters) {
+            waiter.close();
+        }
+    }
+
+    public static String newChannel(HttpClient http, String host, int port) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(
+            HttpRequest.newBuilder(URI.create("http://" + host + ":" + port + "/auth/qr")).build(),
+            HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = CHANNEL.matcher(response.body());
+        if (!matcher.find()) {
+            throw new IOException("No channel in /auth/qr response: " + response.statusCode());
+        }
+        return matcher.group(1);
+    }
+
+    static Socket openEventStream(String host, int port, String channel) throws IOException {
+        Socket socket = new Socket(host, port);
+        send(socket, "GET /auth/channel/" + channel + "/events HTTP/1.1\r\nHost: " + host
+            + "\r\nAccept: text/event-stream\r\n\r\n");
+        expectStatus(socket, "200");
+        return socket;
+    }
+
+    static Socket openWebSocket(String host, int port, String channel) throws IOException {
+        return openWebSocketPath(host, port, "/" + channel);
+    }
+
+    static Socket openWebSocketPath(String host, int port, String path, String... extraHeaders) throws IOException {
+        Socket socket = new Socket(host, port);
+        byte[] key = new byte[16];
+        ThreadLocalRandom.current().nextBytes(key);
+        StringBuilder request = new StringBuilder("GET " + path + " HTTP/1.1\r\nHost: " + host
+            + "\r\nUpgrade: websocket\r\nConnection: Upgrade\r\nSec-WebSocket-Version: 13\r\nSec-WebSocket-Key: "
+            + Base64.getEncoder().encodeToString(key) + "\r\n");
+        for (String header : extraHeaders) {
+            request.append(header).append("\r\n");
+        }
+        send(socket, request.append("\r\n").toString());
+        expectStatus(socket, "101");
+        return socket;
+    }
+
+    private static void send(Socket socket, String request) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(request.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    // Reads the response head, leaving any body bytes unread
+    private static void expectStatus(Socket socket, String status) throws IOException {
+        InputStream in = socket.getInputStream();
+        StringBuilder head = new StringBuilder();
+        while (!head.toString().endsWith("\r\n\r\n")) {
+            int next = in.read();
+            if (next < 0) {
+                throw new IOException("Connection closed during handshake");
+            }
+            head.append((char) next);
+        }
+        if (!head.toString().startsWith("HTTP/1.1 " + status)) {
+            socket.close();
+            throw new IOException("Unexpected response: " + head.substring(0, head.indexOf("\r\n")));
+        }
+    }
+
+    private static long heapUsedAfterGc(long pid) throws IOException, InterruptedException {
+        jcmd(pid, "GC.run");
+        String info = jcmd(pid, "GC.heap_info");
+        Matcher matcher = HEAP_USED.matcher(info);
+        long used = 0;
+        while (matcher.find()) {
+            used += Long.parseLong(matcher.group(1)); // One line per generation, or one for a region-based heap
+        }
+        return used;
+    }
+
+    private static String jcmd(long pid, String command) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder("jcmd", Long.toString(pid), command).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        process.waitFor();
+        return output;
+    }
+
+    // Value of a /proc/<pid>/status field, kB for memory fields
+    private static long procStatus(long pid, String field) throws IOException {
+        for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+            if (line.startsWith(field + ":")) {
+                return Long.parseLong(line.replaceAll("[^0-9]", ""));
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.adapters.web.channel;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test for the channel WebSocket, run against a started application
+ * Measures the handshake rate of connections opened and closed by several clients, and the latency from a
+ * phone sending its credentials to the desktop receiving the result. Start the application once per
+ * app.websocket.server value to compare the Jakarta endpoint with the Vert.x one:
+ *
+ *   java -cp ... com.example.adapters.web.channel.WebSocketLoadTest connect 20000 8
+ *   java -cp ... com.example.adapters.web.channel.WebSocketLoadTest latency 2000
+ *
+ * Both fetch channels from /auth/qr, start the application with -Dapp.rate-limit.qr.requests-per-minute=0.
+ */
+public class WebSocketLoadTest {
+
+    private static final int CONNECTIONS_PER_CHANNEL = 10;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int RESULT_TIMEOUT_MILLIS = 5000;
+    // A real phone scans the QR code long after the desktop connected, the desktop may register after its 101
+    private static final int SCAN_DELAY_MILLIS = 10;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: WebSocketLoadTest <connect|latency> <count> [clients] [host] [port]");
+            System.exit(2);
+        }
+        int count = Integer.parseInt(args[1]);
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        String host = args.length > 3 ? args[3] : "localhost";
+        int port = args.length > 4 ? Integer.parseInt(args[4]) : 8080;
+
+        if ("connect".equals(args[0])) {
+            connectionRate(host, port, count, clients);
+        } else {
+            messageLatency(host, port, count);
+        }
+    }
+
+    private static void connectionRate(String host, int port, int count, int clients) throws Exception {
+        HttpClient http = HttpClient.newHttpClient();
+        List<String> channels = new ArrayList<>();
+        for (int i = 0; i < count / CONNECTIONS_PER_CHANNEL + 1; i++) {
+            channels.add(ChannelWaiterLoadTest.newChannel(http, host, port));
+        }
+
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        long startedAt = System.nanoTime();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            workers.add(executor.submit(() -> {
+                int index;
+                while ((index = next.getAndIncrement()) < count) {
+                    String channel = channels.get(index / CONNECTIONS_PER_CHANNEL);
+                    try (Socket socket = ChannelWaiterLoadTest.openWebSocket(host, port, channel)) {
+                        writeFrame(socket, 0x8, new byte[] {0x03, (byte) 0xE8});
+                        readFrame(socket);
+                    } catch (IOException e) {
+                        failures.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        executor.shutdown();
+
+        System.out.printf("connections=%d clients=%d failures=%d rate=%.0f/s%n",
+            count, clients, failures.get(), count / seconds);
+    }
+
+    private static void messageLatency(String host, int port, int rounds) throws Exception {
+        HttpClient http = HttpClient.newHttpClient();
+        long[] micros = new long[rounds];
+        int measured = 0;
+        int lost = 0;
+        for (int round = -WARMUP_ROUNDS; round < rounds; round++) {
+            String channel = ChannelWaiterLoadTest.newChannel(http, host, port);
+            try (Socket desktop = ChannelWaiterLoadTest.openWebSocket(host, port, channel);
+                 Socket phone = ChannelWaiterLoadTest.openWebSocketPath(host, port, "/" + channel + "?role=phone")) {
+                desktop.setSoTimeout(RESULT_TIMEOUT_MILLIS);
+                Thread.sleep(SCAN_DELAY_MILLIS);
+                byte[] credentials = ("auth:load-" + round + ":token").getBytes(StandardCharsets.UTF_8);
+                long sentAt = System.nanoTime();
+                writeFrame(phone, 0x1, credentials);
+                readFrame(desktop);
+                if (round >= 0) {
+                    micros[measured++] = (System.nanoTime() - sentAt) / 1000;
+                }
+            } catch (SocketTimeoutException e) {
+                lost++;
+            }
+        }
+        Arrays.sort(micros, 0, measured);
+        System.out.printf("rounds=%d lost=%d latency p50=%dus p90=%dus p99=%dus max=%dus%n", measured, lost,
+            micros[measured / 2], micros[measured * 9 / 10], micros[measured * 99 / 100], micros[measured - 1]);
+    }
+
+    // Client frames must be masked, payloads here stay below 126 bytes
+    private static void writeFrame(Socket socket, int opcode, byte[] payload) throws IOException {
+        byte[] mask = new byte[4];
+        ThreadLocalRandom.current().nextBytes(mask);
+        byte[] frame = new byte[6 + payload.length];
+        frame[0] = (byte) (0x80 | opcode);
+        frame[1] = (byte) (0x80 | payload.length);
+        System.arraycopy(mask, 0, frame, 2, 4);
+        for (int i = 0; i < payload.length; i++) {
+            frame[6 + i] = (byte) (payload[i] ^ mask[i & 3]);
+        }
+        OutputStream out = socket.getOutputStream();
+        out.write(frame);
+        out.flush();
+    }
+
+    // Returns the payload of the next server frame
+    private static byte[] readFrame(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(socket.getInputStream());
+        in.readUnsignedByte();
+        long length = in.readUnsignedByte() & 0x7F;
+        if (length == 126) {
+            length = in.readUnsignedShort();
+        } else if (length == 127) {
+            length = in.readLong();
+        }
+        byte[] payload = new byte[(int) length];
+        in.readFully(payload);
+        return payload;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.adapters.web.rest;
+
+import com.example.adapters.web.channel.ChannelWaiterLoadTest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load test of the REST adapter, run against a started application
+ * Each client sends its next request as soon as the previous one is answered; completions after the first fifth
+ * of the run are counted for throughput and latency percentiles. Start the application once per execution mode,
+ * with the limits that would otherwise answer most requests 429 or 503 turned off:
+ *
+ *   java -Dapp.rate-limit.qr.requests-per-minute=0 -Dapp.concurrency.enabled=false -jar quarkus-run.jar
+ *   java -Dapp.execution.threads=virtual ... -jar quarkus-run.jar        (Java 21, or a -Pjava21 build)
+ *   java -cp ... com.example.adapters.web.rest.ExecutionModeLoadTest 10000 60 /auth/qr
+ *   java -cp ... com.example.adapters.web.rest.ExecutionModeLoadTest 10000 60 /auth/channel/{channel}/state
+ *
+ * {channel} is replaced by a channel created up front. Needs a file descriptor limit above the client count on
+ * both sides, every client holds a connection.
+ */
+public class ExecutionModeLoadTest {
+
+    private static final int MAX_SAMPLES = 1 << 22;
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final long[] latencies = new long[MAX_SAMPLES];
+    private final AtomicInteger samples = new AtomicInteger();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile long measureFrom;
+    private volatile long stopAt;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: ExecutionModeLoadTest <clients> <seconds> [path] [host] [port]");
+            System.exit(2);
+        }
+        int clients = Integer.parseInt(args[0]);
+        int seconds = Integer.parseInt(args[1]);
+        String path = args.length > 2 ? args[2] : "/auth/qr";
+        String host = args.length > 3 ? args[3] : "localhost";
+        int port = args.length > 4 ? Integer.parseInt(args[4]) : 8080;
+
+        new ExecutionModeLoadTest().run(clients, seconds, path, host, port);
+    }
+
+    private void run(int clients, int seconds, String path, String host, int port) throws Exception {
+        if (path.contains("{channel}")) {
+            path = path.replace("{channel}", ChannelWaiterLoadTest.newChannel(http, host, port));
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://" + host + ":" + port + path))
+            .timeout(Duration.ofSeconds(60)).build();
+
+        long startedAt = System.nanoTime();
+        measureFrom = startedAt + seconds * 1_000_000_000L / 5;
+        stopAt = startedAt + seconds * 1_000_000_000L;
+        CountDownLatch finished = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            send(request, finished);
+        }
+        finished.await();
+
+        int count = Math.min(samples.get(), MAX_SAMPLES);
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        double measuredSeconds = (stopAt - measureFrom) / 1e9;
+        System.out.printf("clients=%d path=%s requests=%d throughput=%.0f/s errors=%d non-2xx=%d%n",
+            clients, path, samples.get(), samples.get() / measuredSeconds, errors.get(), rejected.get());
+        System.out.printf("latency ms: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+            percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+            percentile(sorted, 0.999), count > 0 ? sorted[count - 1] / 1e6 : 0);
+    }
+
+    // One client: the next request is sent from the completion of the previous one
+    private void send(HttpRequest request, CountDownLatch finished) {
+        long sentAt = System.nanoTime();
+        if (sentAt >= stopAt) {
+            finished.countDown();
+            return;
+        }
+        http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+            long completedAt = System.nanoTime();
+            if (sentAt >= measureFrom) {
+                if (failure != null) {
+                    errors.incrementAndGet();
+                } else {
+                    if (response.statusCode() >= 300 && response.statusCode() != 304) {
+                        rejected.incrementAndGet();
+                    }
+                    int sample = samples.getAndIncrement();
+                    if (sample < MAX_SAMPLES) {
+                        latencies[sample] = completedAt - sentAt;
+                    }
+                }
+            }
+            send(request, finished);
+        });
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+    }
+}
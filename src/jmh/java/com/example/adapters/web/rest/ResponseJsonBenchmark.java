@@ -0,0 +1,92 @@
+package com.example.adapters.web.rest;
+
+import com.example.adapters.web.rest.SystemRestAdapter.HealthReport;
+import com.example.application.authentication.QRAuthenticationApplicationService.ChannelValidationResult;
+import com.example.application.authentication.QRAuthenticationApplicationService.QRAuthenticationResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response bodies of /auth/qr, /auth/channel/{id}/validate and /api/system/health
+ * Compares the former toMap() plus Jackson path with the fixed-shape writers; run with -prof gc for the
+ * allocation per body:
+ *
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark="ResponseJson -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseJsonBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FixedShapeJsonWriter.QRCode qrWriter = new FixedShapeJsonWriter.QRCode();
+    private final FixedShapeJsonWriter.ChannelValidation validationWriter = new FixedShapeJsonWriter.ChannelValidation();
+    private final FixedShapeJsonWriter.Health healthWriter = new FixedShapeJsonWriter.Health();
+
+    private QRAuthenticationResponse qrResponse;
+    private ChannelValidationResult validationResult;
+
+    @Setup
+    public void setUp() {
+        // A QR code PNG is around 1.5 KB, about 2 KB once base64 encoded
+        byte[] png = new byte[1536];
+        ThreadLocalRandom.current().nextBytes(png);
+        qrResponse = new QRAuthenticationResponse("data:image/png;base64," + Base64.getEncoder().encodeToString(png),
+            "Xq3bKiMQU2AbDer7xxGo4CnHlop3CtnN5qC_gvuVyaQ", System.currentTimeMillis() + 300_000);
+        validationResult = new ChannelValidationResult(true, "valid", System.currentTimeMillis() + 300_000);
+    }
+
+    @Benchmark
+    public byte[] qrJackson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(qrResponse.toMap());
+    }
+
+    @Benchmark
+    public byte[] qrFixedShape() {
+        return qrWriter.encode(qrResponse);
+    }
+
+    @Benchmark
+    public byte[] validationJackson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(validationResult.toMap());
+    }
+
+    @Benchmark
+    public byte[] validationFixedShape() {
+        return validationWriter.encode(validationResult);
+    }
+
+    @Benchmark
+    public byte[] healthJackson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(Map.of(
+            "status", "healthy",
+            "message", "QR Authentication Service is healthy",
+            "timestamp", Instant.now().toString(),
+            "version", "2.0"));
+    }
+
+    @Benchmark
+    public byte[] healthFixedShape() {
+        // Millisecond clock, as the coarse application clock ticks every 10 ms probes mostly share a timestamp
+        return healthWriter.encode(new HealthReport("QR Authentication Service is healthy", System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.infrastructure.authentication;
+
+import com.example.domain.authentication.TokenIntrospection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Introspection of a 100-token batch, the unit of work of POST /auth/tokens/introspect
+ * Throughput is reported per benchmark thread, i.e. per core when run with -t 1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenIntrospectionBenchmark {
+
+    private static final long HOUR = 3_600_000L;
+    private static final int BATCH = 100;
+    private static final int LIVE_TOKENS = 10_000;
+
+    @Param({"opaque", "signed"})
+    String format;
+
+    private TokenStore store;
+    private TokenVerificationCache cache;
+    private String[] tokens;
+
+    @Setup
+    public void setUp() {
+        store = "signed".equals(format)
+            ? new SignedTokenStore(Map.of(1, "benchmark-signing-key-0123456789".getBytes(StandardCharsets.UTF_8)),
+                1, 24 * HOUR, HOUR, System::currentTimeMillis)
+            : new BucketedTokenStore(24 * HOUR, HOUR, 5, System::currentTimeMillis);
+        cache = new TokenVerificationCache(store, 2 * LIVE_TOKENS, HOUR, System::currentTimeMillis);
+        tokens = new String[LIVE_TOKENS];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = store.issue("user" + i);
+            cache.introspect(tokens[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void cachedBatch(Blackhole blackhole) {
+        int start = ThreadLocalRandom.current().nextInt(tokens.length - BATCH);
+        for (int i = start; i < start + BATCH; i++) {
+            TokenIntrospection introspection = cache.introspect(tokens[i]);
+            blackhole.consume(introspection);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void uncachedBatch(Blackhole blackhole) {
+        int start = ThreadLocalRandom.current().nextInt(tokens.length - BATCH);
+        for (int i = start; i < start + BATCH; i++) {
+            String username = store.usernameFor(tokens[i]);
+            blackhole.consume(username);
+            blackhole.consume(store.expiresAtMillis(tokens[i]));
+        }
+    }
+}
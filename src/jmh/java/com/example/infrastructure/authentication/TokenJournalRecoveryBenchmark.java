@@ -0,0 +1,94 @@
+package com.example.infrastructure.authentication;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup recovery time of the token journal, replaying a snapshot or a raw journal
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TokenJournalRecoveryBenchmark {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Param({"1000000"})
+    int liveTokens;
+
+    @Param({"journal", "snapshot"})
+    String source;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("token-journal-benchmark");
+        BucketedTokenStore store = newStore();
+        try (TokenJournal journal = new TokenJournal(directory, 256, Long.MAX_VALUE)) {
+            journal.recover((type, body) -> { }, sink -> store.forEachLive((tokenValue, username, expiresAtMillis) -> {
+                try {
+                    sink.issue(tokenValue, username, expiresAtMillis);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            // Append without waiting per record so the writer groups them into large batches
+            CompletableFuture<Void> last = CompletableFuture.completedFuture(null);
+            for (int i = 0; i < liveTokens; i++) {
+                String username = "user" + i;
+                String tokenValue = store.issue(username);
+                last = journal.appendIssue(tokenValue, username, store.expiresAtMillis(tokenValue));
+            }
+            last.join();
+            if ("snapshot".equals(source)) {
+                journal.requestCompaction().join();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int recover() throws IOException {
+        try (JournaledTokenStore store = open()) {
+            return store.cleanup();
+        }
+    }
+
+    private JournaledTokenStore open() throws IOException {
+        return JournaledTokenStore.open(newStore(), directory, 256, Long.MAX_VALUE);
+    }
+
+    private static BucketedTokenStore newStore() {
+        return new BucketedTokenStore(24 * HOUR, HOUR, 5, System::currentTimeMillis);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.infrastructure.authentication;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token validity check: map-based bucketed store versus self-verifying signed tokens
+ * Run with -prof gc to compare allocation per check
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenVerificationBenchmark {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Param({"10000", "1000000"})
+    int liveTokens;
+
+    private BucketedTokenStore bucketedStore;
+    private SignedTokenStore signedStore;
+    private String[] bucketedTokens;
+    private String[] signedTokens;
+
+    @Setup
+    public void setUp() {
+        bucketedStore = new BucketedTokenStore(24 * HOUR, HOUR, 5, System::currentTimeMillis);
+        signedStore = new SignedTokenStore(
+            Map.of(1, "benchmark-signing-key-0123456789".getBytes(StandardCharsets.UTF_8)),
+            1, 24 * HOUR, HOUR, System::currentTimeMillis);
+
+        bucketedTokens = new String[liveTokens];
+        signedTokens = new String[1024];
+        for (int i = 0; i < liveTokens; i++) {
+            bucketedTokens[i] = bucketedStore.issue("user" + i);
+        }
+        for (int i = 0; i < signedTokens.length; i++) {
+            signedTokens[i] = signedStore.issue("user" + i);
+        }
+    }
+
+    @Benchmark
+    public boolean bucketedStoreLookup() {
+        return bucketedStore.isValid(bucketedTokens[ThreadLocalRandom.current().nextInt(bucketedTokens.length)]);
+    }
+
+    @Benchmark
+    public boolean signedTokenVerify() {
+        return signedStore.isValid(signedTokens[ThreadLocalRandom.current().nextInt(signedTokens.length)]);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.infrastructure.messaging;
+
+import com.example.domain.time.EpochClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency from a phone message published on node B to its delivery on node A holding the desktop
+ * Each benchmark thread owns a channel and waits for its own message, the other threads are the load.
+ * maxBatch=1 flushes every record on its own, larger batches share frames within the flush interval.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class ChannelBusLatencyBenchmark {
+
+    @Param({"1", "64"})
+    int maxBatch;
+
+    private final Map<String, BlockingQueue<String>> deliveries = new ConcurrentHashMap<>();
+    private final AtomicInteger channelIds = new AtomicInteger();
+    private ChannelMessageBus desktopNode;
+    private ChannelMessageBus phoneNode;
+
+    @Setup
+    public void setUp() {
+        InProcessBusHub hub = new InProcessBusHub();
+        desktopNode = new BatchingChannelMessageBus(hub.connect("a"), maxBatch, 1, 1000, EpochClock.SYSTEM);
+        phoneNode = new BatchingChannelMessageBus(hub.connect("b"), maxBatch, 1, 1000, EpochClock.SYSTEM);
+        desktopNode.listen(new ChannelMessageBus.Listener() {
+            @Override
+            public void onMessage(String channel, String message) {
+                deliveries.get(channel).add(message);
+            }
+
+            @Override
+            public void onClose(String channel) {
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        desktopNode.close();
+        phoneNode.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Channel {
+        String id;
+        BlockingQueue<String> received;
+
+        @Setup(Level.Trial)
+        public void setUp(ChannelBusLatencyBenchmark bus) throws InterruptedException {
+            id = "channel-" + bus.channelIds.incrementAndGet();
+            received = new ArrayBlockingQueue<>(16);
+            bus.deliveries.put(id, received);
+            bus.desktopNode.subscribe(id);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (bus.phoneNode.metrics().get("remoteSubscriptions") < bus.channelIds.get()
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+        }
+    }
+
+    @Benchmark
+    public String phoneToDesktop(Channel channel) throws InterruptedException {
+        phoneNode.publish(channel.id, "{\"status\":\"success\"}");
+        return channel.received.poll(5, TimeUnit.SECONDS);
+    }
+}
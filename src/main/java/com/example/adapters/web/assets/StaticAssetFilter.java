@@ -0,0 +1,109 @@
+package com.example.adapters.web.assets;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves the login and QR pages from {@link StaticAssets} instead of META-INF/resources
+ * The pages are read from the class path and compressed once at startup; requests are answered on the event
+ * loop with the best encoding the client accepts, Vary: Accept-Encoding, a content-hash ETag and Cache-Control,
+ * or 304 when If-None-Match names the copy the client already holds. Nothing is read or compressed per request.
+ */
+@ApplicationScoped
+public class StaticAssetFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StaticAssetFilter.class);
+    private static final String RESOURCES = "META-INF/resources/";
+    static final List<String> PAGES = List.of("index.html", "login.html", "qr.html", "websocket-client.html");
+    // After CORS, ahead of the static resource handler
+    private static final int BEFORE_STATIC_RESOURCES = -101;
+    private static final CharSequence ACCEPT_ENCODING = HttpHeaders.createOptimized("Accept-Encoding");
+
+    private final StaticAssets assets;
+
+    /**
+     * @param maxAgeSeconds how long browsers may reuse a page before revalidating it with its ETag
+     */
+    @Inject
+    public StaticAssetFilter(
+            @ConfigProperty(name = "app.static.enabled", defaultValue = "true") boolean enabled,
+            @ConfigProperty(name = "app.static.max-age-seconds", defaultValue = "300") long maxAgeSeconds) {
+        this.assets = enabled ? new StaticAssets(readPages(), true, maxAgeSeconds) : null;
+    }
+
+    void registerRoutes(@Observes Router router) {
+        if (assets == null) {
+            return;
+        }
+        for (String page : PAGES) {
+            register(router, "/" + page, assets.get("/" + page));
+        }
+        register(router, "/", assets.get("/index.html"));
+        LOGGER.info("Serving {} static pages from memory", PAGES.size());
+    }
+
+    private static void register(Router router, String path, StaticAssets.Asset asset) {
+        if (asset != null) {
+            router.get(path).order(BEFORE_STATIC_RESOURCES).handler(context -> serve(context, asset));
+            router.head(path).order(BEFORE_STATIC_RESOURCES).handler(context -> serve(context, asset));
+        }
+    }
+
+    private static void serve(RoutingContext context, StaticAssets.Asset asset) {
+        StaticAssets.Variant variant = asset.select(context.request().getHeader(HttpHeaders.ACCEPT_ENCODING));
+        HttpServerResponse response = context.response();
+        MultiMap headers = response.headers();
+        headers.set(HttpHeaders.VARY, ACCEPT_ENCODING);
+        headers.set(HttpHeaders.ETAG, variant.etag());
+        headers.set(HttpHeaders.CACHE_CONTROL, variant.cacheControl());
+
+        if (variant.matches(context.request().getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatusCode(304).end();
+            return;
+        }
+        headers.set(HttpHeaders.CONTENT_TYPE, asset.contentType());
+        headers.set(HttpHeaders.CONTENT_LENGTH, variant.contentLength());
+        if (variant.encoding() != null) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, variant.encoding());
+        }
+        if (context.request().method() == HttpMethod.HEAD) {
+            response.end();
+        } else {
+            response.end(variant.body());
+        }
+    }
+
+    private static Map<String, byte[]> readPages() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        Map<String, byte[]> pages = new LinkedHashMap<>();
+        for (String page : PAGES) {
+            try (InputStream in = classLoader.getResourceAsStream(RESOURCES + page)) {
+                if (in == null) {
+                    LOGGER.warn("Static page not found on the class path: {}", page);
+                    continue;
+                }
+                pages.put("/" + page, in.readAllBytes());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read static page " + page, e);
+            }
+        }
+        return pages;
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.adapters.web.assets;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-memory copies of the static pages, each encoded once as identity, gzip and brotli
+ * Every variant carries its body and the header values it is sent with, so serving one is a lookup and a write.
+ * Entity tags are derived from a hash of the page content and differ per encoding, as the bytes do; a variant
+ * is only kept when it is smaller than the identity one. Brotli is skipped when its native library is missing.
+ */
+public final class StaticAssets {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StaticAssets.class);
+    static final String GZIP = "gzip";
+    static final String BROTLI = "br";
+    static final String IDENTITY = "identity";
+    private static final int TAG_BYTES = 12;
+
+    private final Map<String, Asset> assets = new HashMap<>();
+
+    /**
+     * @param pages content of each page by request path
+     * @param brotli whether to build brotli variants, when the encoder is available
+     * @param maxAgeSeconds how long browsers may reuse a page without revalidating it
+     */
+    public StaticAssets(Map<String, byte[]> pages, boolean brotli, long maxAgeSeconds) {
+        CharSequence cacheControl = HttpHeaders.createOptimized("public, max-age=" + maxAgeSeconds);
+        brotli = brotli && brotliAvailable();
+        for (Map.Entry<String, byte[]> page : pages.entrySet()) {
+            byte[] content = page.getValue();
+            String tag = contentTag(content);
+            Variant identity = new Variant(null, content, tag, cacheControl);
+            Variant gzip = smaller(new Variant(GZIP, gzip(content), tag + ".gz", cacheControl), identity);
+            Variant br = brotli ? smaller(new Variant(BROTLI, brotli(content), tag + ".br", cacheControl), identity) : null;
+            assets.put(page.getKey(), new Asset(contentType(page.getKey()), identity, gzip, br));
+        }
+    }
+
+    // Loads the native library on first use
+    private static boolean brotliAvailable() {
+        if (Brotli4jLoader.isAvailable()) {
+            return true;
+        }
+        LOGGER.warn("Brotli encoder unavailable, static pages are served with gzip only",
+            Brotli4jLoader.getUnavailabilityCause());
+        return false;
+    }
+
+    /**
+     * @return the page served at a path, null if none
+     */
+    public Asset get(String path) {
+        return assets.get(path);
+    }
+
+    /**
+     * A page and its encoded variants
+     */
+    public record Asset(CharSequence contentType, Variant identity, Variant gzip, Variant brotli) {
+
+        /**
+         * @param acceptEncoding the request's Accept-Encoding header, may be null
+         * @return the variant to send: the accepted encoding with the highest quality, brotli before gzip
+         * before identity on ties; identity, always acceptable, when no encoding is
+         */
+        public Variant select(String acceptEncoding) {
+            if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+                return identity;
+            }
+            double brotliQuality = brotli != null ? quality(acceptEncoding, BROTLI) : 0;
+            double gzipQuality = gzip != null ? quality(acceptEncoding, GZIP) : 0;
+            double identityQuality = quality(acceptEncoding, IDENTITY);
+            if (brotliQuality > 0 && brotliQuality >= gzipQuality && brotliQuality >= identityQuality) {
+                return brotli;
+            }
+            if (gzipQuality > 0 && gzipQuality >= identityQuality) {
+                return gzip;
+            }
+            return identity;
+        }
+    }
+
+    /**
+     * One encoding of a page with its precomputed header values
+     * @param encoding the Content-Encoding, null for identity
+     */
+    public record Variant(CharSequence encoding, Buffer body, CharSequence contentLength, String entityTag,
+                          CharSequence etag, CharSequence cacheControl) {
+
+        Variant(String encoding, byte[] body, String entityTag, CharSequence cacheControl) {
+            this(encoding != null ? HttpHeaders.createOptimized(encoding) : null, Buffer.buffer(body),
+                HttpHeaders.createOptimized(Integer.toString(body.length)), entityTag,
+                HttpHeaders.createOptimized('"' + entityTag + '"'), cacheControl);
+        }
+
+        /**
+         * Weak comparison, as If-None-Match requires: W/ prefixes are ignored
+         * @param ifNoneMatch the request's If-None-Match header, may be null
+         * @return whether the client's copy is this variant
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                candidate = candidate.trim();
+                if (candidate.equals("*")) {
+                    return true;
+                }
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if (candidate.length() == entityTag.length() + 2 && candidate.charAt(0) == '"'
+                    && candidate.startsWith(entityTag, 1) && candidate.endsWith("\"")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * @return the q-value given to an encoding, 1 when listed without one, the * value or 0 when not listed
+     */
+    static double quality(String acceptEncoding, String encoding) {
+        double wildcard = 0;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (!coding.equals(encoding) && !coding.equals("*")) {
+                continue;
+            }
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals(encoding)) {
+                return quality;
+            }
+            wildcard = quality;
+        }
+        return wildcard;
+    }
+
+    private static Variant smaller(Variant encoded, Variant identity) {
+        return encoded.body().length() < identity.body().length() ? encoded : null;
+    }
+
+    private static String contentTag(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, TAG_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] brotli(byte[] content) {
+        try {
+            return Encoder.compress(content, new Encoder.Parameters().setQuality(11).setMode(Encoder.Mode.TEXT));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static CharSequence contentType(String path) {
+        return HttpHeaders.createOptimized(path.endsWith(".html")
+            ? "text/html;charset=UTF-8"
+            : "application/octet-stream");
+    }
+}
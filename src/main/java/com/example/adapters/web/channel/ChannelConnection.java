@@ -0,0 +1,33 @@
+package com.example.adapters.web.channel;
+
+/**
+ * A client connection attached to an authentication channel
+ * Abstracts the transport so the registry can fan out without knowing about sockets
+ */
+public interface ChannelConnection {
+
+    /**
+     * @return whether the connection can still receive messages
+     */
+    boolean isOpen();
+
+    /**
+     * Queues a text message for the client without blocking the caller
+     */
+    void sendText(String message);
+
+    /**
+     * Asks the client to prove it is still there, its answer counts as activity
+     */
+    void ping();
+
+    /**
+     * @return epoch millis of the last message or ping answer from the client
+     */
+    long lastActivityMillis();
+
+    /**
+     * Closes the connection, a no-op if already closed
+     */
+    void close();
+}
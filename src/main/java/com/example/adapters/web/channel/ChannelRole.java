@@ -0,0 +1,22 @@
+package com.example.adapters.web.channel;
+
+import java.util.Locale;
+
+/**
+ * Side of an authentication channel a connection belongs to
+ * The desktop shows the QR code and waits for the result, the phone scans it and authenticates
+ */
+public enum ChannelRole {
+    DESKTOP,
+    PHONE;
+
+    /**
+     * Parses the role requested by a client, connections without a recognised role are desktops
+     */
+    public static ChannelRole fromParameter(String value) {
+        if (value != null && value.toLowerCase(Locale.ROOT).equals("phone")) {
+            return PHONE;
+        }
+        return DESKTOP;
+    }
+}
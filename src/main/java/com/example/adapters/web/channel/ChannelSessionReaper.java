@@ -0,0 +1,187 @@
+package com.example.adapters.web.channel;
+
+import com.example.domain.time.EpochClock;
+import com.example.infrastructure.scheduling.TimingWheel;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closes channel connections that went silent or outlived their channel
+ * Every watched connection holds two timeouts on the {@link TimingWheel}: an idle check that pings a silent
+ * client and drops it if the ping goes unanswered, and the channel expiry, at which the client is told the
+ * channel expired and the socket is closed. Reaped connections are removed from the registry even when the
+ * close frame never arrives.
+ */
+@ApplicationScoped
+public class ChannelSessionReaper {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChannelSessionReaper.class);
+    static final String EXPIRED_MESSAGE = ChannelStatus.EXPIRED.json();
+
+    private final TimingWheel timingWheel;
+    private final ChannelSessionRegistry sessionRegistry;
+    private final EpochClock clock;
+    private final long idleMillis;
+    private final long pongTimeoutMillis;
+    private final ConcurrentMap<ChannelConnection, Watch> watches = new ConcurrentHashMap<>();
+    private final LongAdder pinged = new LongAdder();
+    private final LongAdder reapedIdle = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    /**
+     * @param idleMillis silence after which a client is pinged
+     * @param pongTimeoutMillis time a pinged client has to answer before it is dropped
+     */
+    @Inject
+    public ChannelSessionReaper(TimingWheel timingWheel, ChannelSessionRegistry sessionRegistry, EpochClock clock,
+                                @ConfigProperty(name = "app.websocket.idle-timeout-millis", defaultValue = "30000") long idleMillis,
+                                @ConfigProperty(name = "app.websocket.pong-timeout-millis", defaultValue = "10000") long pongTimeoutMillis) {
+        this.timingWheel = timingWheel;
+        this.sessionRegistry = sessionRegistry;
+        this.clock = clock;
+        this.idleMillis = idleMillis;
+        this.pongTimeoutMillis = pongTimeoutMillis;
+    }
+
+    /**
+     * Starts watching a registered connection
+     * @param channelExpiresAtMillis epoch millis at which the channel expires
+     */
+    public void watch(String channel, ChannelConnection connection, long channelExpiresAtMillis) {
+        Watch watch = new Watch(channel, connection);
+        Watch previous = watches.put(connection, watch);
+        if (previous != null) {
+            previous.cancel();
+        }
+        long now = clock.millis();
+        watch.expiry = timingWheel.schedule(() -> expire(watch),
+            Math.max(0, channelExpiresAtMillis - now), TimeUnit.MILLISECONDS);
+        watch.idleCheck = timingWheel.schedule(() -> checkIdle(watch), idleMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts watching a connection that outlives its channels for silence only
+     * The connection is not unregistered from any channel when dropped, its close handler does that
+     */
+    public void watchIdle(ChannelConnection connection) {
+        Watch watch = new Watch(null, connection);
+        Watch previous = watches.put(connection, watch);
+        if (previous != null) {
+            previous.cancel();
+        }
+        watch.idleCheck = timingWheel.schedule(() -> checkIdle(watch), idleMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops watching a connection, call when it closes
+     */
+    public void unwatch(ChannelConnection connection) {
+        Watch watch = watches.remove(connection);
+        if (watch != null) {
+            watch.cancel();
+        }
+    }
+
+    /**
+     * @return number of connections being watched
+     */
+    public int watchedCount() {
+        return watches.size();
+    }
+
+    public Map<String, Long> metrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("watched", (long) watches.size());
+        metrics.put("pinged", pinged.sum());
+        metrics.put("reapedIdle", reapedIdle.sum());
+        metrics.put("expired", expired.sum());
+        return metrics;
+    }
+
+    // Runs on the wheel thread only, so a watch never has two idle checks pending
+    private void checkIdle(Watch watch) {
+        if (watches.get(watch.connection) != watch) {
+            return;
+        }
+        ChannelConnection connection = watch.connection;
+        if (!connection.isOpen()) {
+            drop(watch);
+            return;
+        }
+        long now = clock.millis();
+        long lastActivity = connection.lastActivityMillis();
+        if (watch.pingSentAt >= 0 && lastActivity < watch.pingSentAt) {
+            LOGGER.info("Closing unresponsive connection on channel: {}", watch.channel);
+            reapedIdle.increment();
+            drop(watch);
+            connection.close();
+            return;
+        }
+        if (now - lastActivity >= idleMillis) {
+            watch.pingSentAt = now;
+            pinged.increment();
+            connection.ping();
+            watch.idleCheck = timingWheel.schedule(() -> checkIdle(watch), pongTimeoutMillis, TimeUnit.MILLISECONDS);
+        } else {
+            watch.pingSentAt = -1;
+            watch.idleCheck = timingWheel.schedule(() -> checkIdle(watch),
+                lastActivity + idleMillis - now, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void expire(Watch watch) {
+        if (watches.get(watch.connection) != watch) {
+            return;
+        }
+        LOGGER.info("Channel expired, closing connection on channel: {}", watch.channel);
+        expired.increment();
+        drop(watch);
+        if (watch.connection.isOpen()) {
+            watch.connection.sendText(EXPIRED_MESSAGE);
+        }
+        watch.connection.close();
+    }
+
+    private void drop(Watch watch) {
+        if (watches.remove(watch.connection, watch)) {
+            watch.cancel();
+        }
+        if (watch.channel != null) {
+            sessionRegistry.unregister(watch.channel, watch.connection);
+        }
+    }
+
+    private static final class Watch {
+        final String channel;
+        final ChannelConnection connection;
+        volatile TimingWheel.Timeout expiry;
+        volatile TimingWheel.Timeout idleCheck;
+        volatile long pingSentAt = -1;
+
+        Watch(String channel, ChannelConnection connection) {
+            this.channel = channel;
+            this.connection = connection;
+        }
+
+        void cancel() {
+            TimingWheel.Timeout currentExpiry = expiry;
+            if (currentExpiry != null) {
+                currentExpiry.cancel();
+            }
+            TimingWheel.Timeout currentIdleCheck = idleCheck;
+            if (currentIdleCheck != null) {
+                currentIdleCheck.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.adapters.web.channel;
+
+import com.example.infrastructure.messaging.ChannelMessageBus;
+import com.example.infrastructure.messaging.LocalChannelMessageBus;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Index from authentication channel to the connections attached to it
+ * Desktop and phone connections are kept in separate sets, and a channel may hold several of each
+ * (reloads, a second tab). Sending touches only the channel's own connections, so its cost does not
+ * grow with the number of open sockets. Empty channels are dropped when their last connection leaves.
+ * The registry subscribes to the {@link ChannelMessageBus} for every channel it holds, so messages published
+ * on another node reach the connections held here. Connections are counted as they attach and leave.
+ */
+@ApplicationScoped
+public class ChannelSessionRegistry {
+
+    private final ConcurrentMap<String, ChannelConnections> channels = new ConcurrentHashMap<>();
+    private final ChannelMessageBus messageBus;
+    private final LongAdder connectionCount = new LongAdder();
+
+    @Inject
+    public ChannelSessionRegistry(ChannelMessageBus messageBus) {
+        this.messageBus = messageBus;
+        messageBus.listen(new ChannelMessageBus.Listener() {
+            @Override
+            public void onMessage(String channel, String message) {
+                broadcast(channel, message);
+            }
+
+            @Override
+            public void onClose(String channel) {
+                closeChannel(channel);
+            }
+        });
+    }
+
+    /**
+     * Registry confined to this node
+     */
+    public ChannelSessionRegistry() {
+        this(new LocalChannelMessageBus());
+    }
+
+    /**
+     * Attaches a connection to a channel under the given role
+     */
+    public void register(String channel, ChannelRole role, ChannelConnection connection) {
+        // Added inside compute, so a concurrent unregister cannot drop the entry under us
+        channels.compute(channel, (id, connections) -> {
+            ChannelConnections target = connections;
+            if (target == null) {
+                target = new ChannelConnections();
+                messageBus.subscribe(channel);
+            }
+            if (target.forRole(role).add(connection)) {
+                connectionCount.increment();
+            }
+            return target;
+        });
+    }
+
+    /**
+     * Detaches a connection from a channel, whatever its role
+     * @return true if the connection was registered
+     */
+    public boolean unregister(String channel, ChannelConnection connection) {
+        boolean[] removed = new boolean[1];
+        channels.computeIfPresent(channel, (id, connections) -> {
+            removed[0] = connections.desktops.remove(connection) | connections.phones.remove(connection);
+            if (removed[0]) {
+                connectionCount.decrement();
+            }
+            if (connections.isEmpty()) {
+                messageBus.unsubscribe(channel);
+                return null;
+            }
+            return connections;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Sends a message to every connection of a channel, on whichever node holds them
+     */
+    public void publish(String channel, String message) {
+        messageBus.publish(channel, message);
+    }
+
+    /**
+     * Closes every connection of a channel, on whichever node holds them
+     */
+    public void publishClose(String channel) {
+        messageBus.publishClose(channel);
+    }
+
+    /**
+     * Sends a message to every open connection of a channel held by this node
+     * @return number of connections the message was queued on
+     */
+    public int broadcast(String channel, String message) {
+        ChannelConnections connections = channels.get(channel);
+        if (connections == null) {
+            return 0;
+        }
+        return sendAll(connections.desktops, message) + sendAll(connections.phones, message);
+    }
+
+    /**
+     * Sends a message to the open connections of a channel holding the given role
+     * @return number of connections the message was queued on
+     */
+    public int send(String channel, ChannelRole role, String message) {
+        ChannelConnections connections = channels.get(channel);
+        return connections != null ? sendAll(connections.forRole(role), message) : 0;
+    }
+
+    /**
+     * Removes a channel held by this node and closes all of its connections
+     * @return number of connections closed
+     */
+    public int closeChannel(String channel) {
+        ChannelConnections connections = channels.remove(channel);
+        if (connections == null) {
+            return 0;
+        }
+        messageBus.unsubscribe(channel);
+        List<ChannelConnection> closing = new ArrayList<>(connections.desktops);
+        closing.addAll(connections.phones);
+        connectionCount.add(-closing.size());
+        closing.forEach(ChannelConnection::close);
+        return closing.size();
+    }
+
+    /**
+     * @return a snapshot of the connections of a channel holding the given role
+     */
+    public List<ChannelConnection> connections(String channel, ChannelRole role) {
+        ChannelConnections connections = channels.get(channel);
+        return connections != null ? List.copyOf(connections.forRole(role)) : List.of();
+    }
+
+    /**
+     * @return number of channels with at least one connection
+     */
+    public int channelCount() {
+        return channels.size();
+    }
+
+    /**
+     * @return number of connections held by this node, over all channels and roles
+     */
+    public long connectionCount() {
+        return connectionCount.sum();
+    }
+
+    private static int sendAll(Set<ChannelConnection> connections, String message) {
+        int sent = 0;
+        for (ChannelConnection connection : connections) {
+            if (connection.isOpen()) {
+                connection.sendText(message);
+                sent++;
+            }
+        }
+        return sent;
+    }
+
+    private static final class ChannelConnections {
+        final Set<ChannelConnection> desktops = ConcurrentHashMap.newKeySet(2);
+        final Set<ChannelConnection> phones = ConcurrentHashMap.newKeySet(2);
+
+        Set<ChannelConnection> forRole(ChannelRole role) {
+            return role == ChannelRole.PHONE ? phones : desktops;
+        }
+
+        boolean isEmpty() {
+            return desktops.isEmpty() && phones.isEmpty();
+        }
+    }
+}
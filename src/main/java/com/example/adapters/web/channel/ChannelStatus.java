@@ -0,0 +1,56 @@
+package com.example.adapters.web.channel;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Status messages sent to channel clients, serialized once at startup
+ * The same text goes to every client of a status, connections speaking another protocol recognise it with
+ * {@link #fromJson(String)} and send their own pre-built frame instead.
+ */
+public enum ChannelStatus {
+    INVALID_CHANNEL("invalid_channel", "This authentication channel does not exist or has expired"),
+    INVALID_MESSAGE("invalid_message", "Invalid authentication message format"),
+    CONNECTION_ERROR("server_error", "Error processing connection"),
+    AUTHENTICATION_ERROR("server_error", "Error processing authentication"),
+    EXPIRED("expired", "This authentication channel has expired"),
+    UNAUTHORIZED("unauthorized", "The bearer token is missing, invalid or expired");
+
+    private static final Map<String, ChannelStatus> BY_JSON = new HashMap<>();
+
+    static {
+        for (ChannelStatus status : values()) {
+            BY_JSON.put(status.json, status);
+        }
+    }
+
+    private final String code;
+    private final String json;
+
+    ChannelStatus(String code, String message) {
+        this.code = code;
+        // Codes and messages are constants without characters that need escaping
+        this.json = "{\"status\":\"" + code + "\",\"message\":\"" + message + "\"}";
+    }
+
+    /**
+     * @return the status field clients switch on
+     */
+    public String code() {
+        return code;
+    }
+
+    /**
+     * @return the JSON message, the same instance on every call
+     */
+    public String json() {
+        return json;
+    }
+
+    /**
+     * @return the status a JSON message was built from, null for any other message
+     */
+    public static ChannelStatus fromJson(String message) {
+        return BY_JSON.get(message);
+    }
+}
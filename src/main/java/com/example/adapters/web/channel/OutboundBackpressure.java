@@ -0,0 +1,95 @@
+package com.example.adapters.web.channel;
+
+import com.example.infrastructure.metrics.LatencyHistogram;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * High-water marks and slow-consumer policy shared by every channel connection, and their send metrics
+ * Each connection sends through its own {@link OutboundWindow}; a client whose unacknowledged writes exceed
+ * either mark is under backpressure until they drain.
+ */
+@ApplicationScoped
+public class OutboundBackpressure {
+
+    final int highWaterMessages;
+    final long highWaterBytes;
+    final SlowConsumerPolicy policy;
+
+    final LongAdder started = new LongAdder();
+    final LongAdder completed = new LongAdder();
+    final LongAdder failed = new LongAdder();
+    final LongAdder coalesced = new LongAdder();
+    final LongAdder dropped = new LongAdder();
+    final LongAdder disconnected = new LongAdder();
+    final LongAdder backpressureEvents = new LongAdder();
+    final AtomicInteger backpressured = new AtomicInteger();
+    final LongAdder inFlightBytes = new LongAdder();
+    private final LongAdder completionNanos = new LongAdder();
+    private final AtomicLong maxCompletionNanos = new AtomicLong();
+    private final LatencyHistogram deliveryLatency = new LatencyHistogram();
+
+    /**
+     * @param highWaterMessages unacknowledged messages per connection above which the policy applies
+     * @param highWaterBytes unacknowledged characters per connection above which the policy applies
+     * @param policy what to do with messages sent while a connection is over a mark
+     */
+    @Inject
+    public OutboundBackpressure(
+            @ConfigProperty(name = "app.websocket.high-water-messages", defaultValue = "32") int highWaterMessages,
+            @ConfigProperty(name = "app.websocket.high-water-bytes", defaultValue = "65536") long highWaterBytes,
+            @ConfigProperty(name = "app.websocket.slow-consumer-policy", defaultValue = "coalesce") SlowConsumerPolicy policy) {
+        this.highWaterMessages = highWaterMessages;
+        this.highWaterBytes = highWaterBytes;
+        this.policy = policy;
+    }
+
+    /**
+     * Opens the outbound window of a new connection
+     */
+    public OutboundWindow window(OutboundWindow.Writer writer, Runnable closer) {
+        return new OutboundWindow(this, writer, closer);
+    }
+
+    public Map<String, Long> metrics() {
+        long completedCount = completed.sum() + failed.sum();
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("sendsStarted", started.sum());
+        metrics.put("sendsCompleted", completed.sum());
+        metrics.put("sendsFailed", failed.sum());
+        metrics.put("inFlightBytes", inFlightBytes.sum());
+        metrics.put("backpressured", (long) backpressured.get());
+        metrics.put("backpressureEvents", backpressureEvents.sum());
+        metrics.put("coalesced", coalesced.sum());
+        metrics.put("dropped", dropped.sum());
+        metrics.put("disconnected", disconnected.sum());
+        metrics.put("sendCompletionAvgMicros", completedCount == 0 ? 0
+            : TimeUnit.NANOSECONDS.toMicros(completionNanos.sum() / completedCount));
+        metrics.put("sendCompletionMaxMicros", TimeUnit.NANOSECONDS.toMicros(maxCompletionNanos.get()));
+        return metrics;
+    }
+
+    /**
+     * @return time from handing a message to the socket to the completion of its write, for messages delivered
+     */
+    public LatencyHistogram deliveryLatency() {
+        return deliveryLatency;
+    }
+
+    void recordCompletion(long nanos, boolean succeeded) {
+        (succeeded ? completed : failed).increment();
+        if (succeeded) {
+            deliveryLatency.record(nanos);
+        }
+        completionNanos.add(nanos);
+        maxCompletionNanos.accumulateAndGet(nanos, Math::max);
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.adapters.web.channel;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Outbound messages of one connection, bounded by the {@link OutboundBackpressure} high-water marks
+ * Tracks the messages and characters written but not yet acknowledged by the transport. Over either mark,
+ * new messages are coalesced, dropped or make the connection close, depending on the policy, so a stalled
+ * client cannot make the server buffer without limit. Writes are handed to the transport outside the lock,
+ * in order, by whichever thread finds the window idle; completions may arrive on any thread.
+ */
+public final class OutboundWindow {
+
+    /**
+     * Transport write under a window, must not block
+     */
+    public interface Writer {
+
+        /**
+         * Queues a message, the listener runs once the transport has written it or failed to
+         */
+        void write(String message, CompletionListener listener);
+    }
+
+    /**
+     * Outcome of one transport write
+     */
+    public interface CompletionListener {
+        void completed(boolean succeeded);
+    }
+
+    private final OutboundBackpressure backpressure;
+    private final Writer writer;
+    private final Runnable closer;
+    private final Queue<String> ready = new ArrayDeque<>();
+    private int inFlightMessages;
+    private long inFlightBytes;
+    private String coalesced;
+    private boolean overHighWater;
+    private boolean draining;
+    private boolean closed;
+    private boolean transportClosed;
+
+    /**
+     * @param writer queues messages on the transport
+     * @param closer closes the transport after the writes already queued, must not block
+     */
+    OutboundWindow(OutboundBackpressure backpressure, Writer writer, Runnable closer) {
+        this.backpressure = backpressure;
+        this.writer = writer;
+        this.closer = closer;
+    }
+
+    /**
+     * Sends a message, or applies the slow-consumer policy if the client is over a high-water mark
+     */
+    public void send(String message) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (coalesced == null && fits(message)) {
+                admit(message);
+            } else {
+                enterBackpressure();
+                switch (backpressure.policy) {
+                    case COALESCE -> {
+                        if (coalesced != null) {
+                            backpressure.coalesced.increment();
+                        }
+                        coalesced = message;
+                    }
+                    case DROP -> backpressure.dropped.increment();
+                    case DISCONNECT -> {
+                        backpressure.disconnected.increment();
+                        closeLocked();
+                    }
+                }
+            }
+        }
+        drain();
+    }
+
+    /**
+     * Closes the connection once the queued messages, including a coalesced one, are handed to the transport
+     */
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (coalesced != null) {
+                admit(coalesced);
+                coalesced = null;
+            }
+            closeLocked();
+        }
+        drain();
+    }
+
+    /**
+     * @return whether the client is over a high-water mark
+     */
+    public synchronized boolean isBackpressured() {
+        return overHighWater;
+    }
+
+    synchronized int inFlightMessages() {
+        return inFlightMessages;
+    }
+
+    private boolean fits(String message) {
+        return inFlightMessages < backpressure.highWaterMessages
+            && inFlightBytes + message.length() <= backpressure.highWaterBytes;
+    }
+
+    private void admit(String message) {
+        inFlightMessages++;
+        inFlightBytes += message.length();
+        backpressure.inFlightBytes.add(message.length());
+        ready.add(message);
+    }
+
+    private void enterBackpressure() {
+        if (!overHighWater) {
+            overHighWater = true;
+            backpressure.backpressureEvents.increment();
+            backpressure.backpressured.incrementAndGet();
+        }
+    }
+
+    private void closeLocked() {
+        closed = true;
+        if (overHighWater) {
+            overHighWater = false;
+            backpressure.backpressured.decrementAndGet();
+        }
+    }
+
+    // The thread that empties the queue of a closed window closes the transport, after the last write
+    private void drain() {
+        synchronized (this) {
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        while (true) {
+            String message;
+            boolean closeTransport = false;
+            synchronized (this) {
+                message = ready.poll();
+                if (message == null) {
+                    draining = false;
+                    if (closed && !transportClosed) {
+                        transportClosed = true;
+                        closeTransport = true;
+                    }
+                }
+            }
+            if (message == null) {
+                if (closeTransport) {
+                    closer.run();
+                }
+                return;
+            }
+            long startedAt = System.nanoTime();
+            backpressure.started.increment();
+            try {
+                writer.write(message, succeeded -> completed(message, startedAt, succeeded));
+            } catch (RuntimeException e) {
+                completed(message, startedAt, false);
+            }
+        }
+    }
+
+    private void completed(String message, long startedAt, boolean succeeded) {
+        backpressure.recordCompletion(System.nanoTime() - startedAt, succeeded);
+        synchronized (this) {
+            inFlightMessages--;
+            inFlightBytes -= message.length();
+            backpressure.inFlightBytes.add(-message.length());
+            if (closed) {
+                return;
+            }
+            if (coalesced != null && fits(coalesced)) {
+                admit(coalesced);
+                coalesced = null;
+            }
+            if (overHighWater && coalesced == null && fits("")) {
+                overHighWater = false;
+                backpressure.backpressured.decrementAndGet();
+            }
+        }
+        drain();
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.adapters.web.channel;
+
+import com.example.adapters.web.json.JsonBytes;
+import com.example.application.authentication.QRAuthenticationApplicationService.QRAuthenticationResponse;
+import com.example.domain.time.EpochClock;
+import com.example.infrastructure.scheduling.TimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Long-lived desktop connection that is pushed a fresh QR code before each channel expires
+ * The first QR code is sent as soon as the session starts; a new channel is rendered off the I/O threads
+ * shortly before the current one expires and pushed on the same connection. The desktop stays registered
+ * on a rotated-out channel until it expires, so a phone that scanned the previous code still reaches it, then
+ * the channel is discarded rather than left for the expiry sweep.
+ * A result on any of its channels completes the session like any other desktop. Each rotation asks the
+ * client's QR rate limit first; when its bucket is empty the rotation waits for a token, so a desktop cannot
+ * create channels faster than it could through /auth/qr.
+ */
+public final class RotatingDesktopSession {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RotatingDesktopSession.class);
+    static final String QR_STATUS = "qr";
+    private static final byte[] CHANNEL = JsonBytes.fragment("{\"status\":\"" + QR_STATUS + "\",\"channel\":");
+    private static final byte[] QR = JsonBytes.fragment(",\"qr\":");
+    private static final byte[] EXPIRES_AT = JsonBytes.fragment(",\"expiresAt\":");
+    private static final byte[] END = JsonBytes.fragment("}");
+    // Floor for the next rotation, a channel shorter-lived than the lead time must not rotate in a loop
+    private static final long MIN_ROTATION_DELAY_MILLIS = 1000;
+
+    private final ChannelConnection connection;
+    private final ChannelSessionRegistry sessionRegistry;
+    private final TimingWheel timingWheel;
+    private final EpochClock clock;
+    private final Supplier<QRAuthenticationResponse> qrSource;
+    private final Executor renderer;
+    private final long rotationLeadMillis;
+    private final LongSupplier rotationPermit;
+    private final Consumer<String> retiredChannels;
+    // channel -> timeout that retires it
+    private final Map<String, TimingWheel.Timeout> channels = new HashMap<>();
+    private TimingWheel.Timeout rotation;
+    private boolean closed;
+
+    /**
+     * @param qrSource creates a channel and renders its QR code, may block
+     * @param renderer runs qrSource off the I/O and timer threads
+     * @param rotationLeadMillis how long before a channel expires its successor is pushed
+     */
+    public RotatingDesktopSession(ChannelConnection connection, ChannelSessionRegistry sessionRegistry,
+                                  TimingWheel timingWheel, EpochClock clock,
+                                  Supplier<QRAuthenticationResponse> qrSource, Executor renderer,
+                                  long rotationLeadMillis) {
+        this(connection, sessionRegistry, timingWheel, clock, qrSource, renderer, rotationLeadMillis, () -> 0);
+    }
+
+    /**
+     * @param rotationPermit takes a token for the next channel: 0 if granted, otherwise microseconds until one
+     *                       is available; not asked for the first channel, the connection itself paid for it
+     */
+    public RotatingDesktopSession(ChannelConnection connection, ChannelSessionRegistry sessionRegistry,
+                                  TimingWheel timingWheel, EpochClock clock,
+                                  Supplier<QRAuthenticationResponse> qrSource, Executor renderer,
+                                  long rotationLeadMillis, LongSupplier rotationPermit) {
+        this(connection, sessionRegistry, timingWheel, clock, qrSource, renderer, rotationLeadMillis, rotationPermit,
+            channel -> { });
+    }
+
+    /**
+     * @param retiredChannels told each channel the session leaves at its expiry, so it can be discarded
+     */
+    public RotatingDesktopSession(ChannelConnection connection, ChannelSessionRegistry sessionRegistry,
+                                  TimingWheel timingWheel, EpochClock clock,
+                                  Supplier<QRAuthenticationResponse> qrSource, Executor renderer,
+                                  long rotationLeadMillis, LongSupplier rotationPermit,
+                                  Consumer<String> retiredChannels) {
+        this.connection = connection;
+        this.sessionRegistry = sessionRegistry;
+        this.timingWheel = timingWheel;
+        this.clock = clock;
+        this.qrSource = qrSource;
+        this.renderer = renderer;
+        this.rotationLeadMillis = rotationLeadMillis;
+        this.rotationPermit = rotationPermit;
+        this.retiredChannels = retiredChannels;
+    }
+
+    /**
+     * Renders and pushes the first QR code
+     */
+    public void start() {
+        renderer.execute(this::createChannel);
+    }
+
+    /**
+     * Stops rotating and leaves every channel, call when the connection closes
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (rotation != null) {
+            rotation.cancel();
+        }
+        channels.forEach((channel, retirement) -> {
+            retirement.cancel();
+            sessionRegistry.unregister(channel, connection);
+        });
+        channels.clear();
+    }
+
+    /**
+     * @return channels the session currently receives results on
+     */
+    public synchronized int channelCount() {
+        return channels.size();
+    }
+
+    private void rotate() {
+        long waitMicros = rotationPermit.getAsLong();
+        if (waitMicros > 0) {
+            synchronized (this) {
+                if (!closed) {
+                    rotation = scheduleRotation(Math.max(MIN_ROTATION_DELAY_MILLIS,
+                        TimeUnit.MICROSECONDS.toMillis(waitMicros) + 1));
+                }
+            }
+            LOGGER.debug("Desktop session rotation rate limited for {} µs", waitMicros);
+            return;
+        }
+        createChannel();
+    }
+
+    private TimingWheel.Timeout scheduleRotation(long delayMillis) {
+        return timingWheel.schedule(() -> renderer.execute(this::rotate), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void createChannel() {
+        QRAuthenticationResponse next;
+        try {
+            next = qrSource.get();
+        } catch (RuntimeException e) {
+            LOGGER.error("Cannot create a channel for the desktop session", e);
+            connection.sendText(ChannelStatus.CONNECTION_ERROR.json());
+            connection.close();
+            return;
+        }
+
+        String channel = next.getChannel();
+        synchronized (this) {
+            if (closed) {
+                return; // The unused channel simply expires
+            }
+            sessionRegistry.register(channel, ChannelRole.DESKTOP, connection);
+            connection.sendText(message(next));
+
+            long now = clock.millis();
+            long expiresAt = next.getExpiresAtMillis();
+            channels.put(channel, timingWheel.schedule(() -> retire(channel),
+                Math.max(0, expiresAt - now), TimeUnit.MILLISECONDS));
+            rotation = scheduleRotation(Math.max(MIN_ROTATION_DELAY_MILLIS, expiresAt - rotationLeadMillis - now));
+        }
+        LOGGER.debug("Desktop session moved to channel: {}", channel);
+    }
+
+    // Runs on the wheel thread
+    private void retire(String channel) {
+        synchronized (this) {
+            if (channels.remove(channel) == null) {
+                return;
+            }
+            sessionRegistry.unregister(channel, connection);
+        }
+        retiredChannels.accept(channel);
+    }
+
+    static String message(QRAuthenticationResponse response) {
+        byte[] expiresAt = JsonBytes.fragment(Long.toString(response.getExpiresAtMillis()));
+        byte[] out = new byte[CHANNEL.length + JsonBytes.stringLength(response.getChannel()) + QR.length
+            + JsonBytes.stringLength(response.getQrCode()) + EXPIRES_AT.length + expiresAt.length + END.length];
+        int position = JsonBytes.write(out, 0, CHANNEL);
+        position = JsonBytes.writeString(out, position, response.getChannel());
+        position = JsonBytes.write(out, position, QR);
+        position = JsonBytes.writeString(out, position, response.getQrCode());
+        position = JsonBytes.write(out, position, EXPIRES_AT);
+        position = JsonBytes.write(out, position, expiresAt);
+        JsonBytes.write(out, position, END);
+        return new String(out, StandardCharsets.UTF_8);
+    }
+}
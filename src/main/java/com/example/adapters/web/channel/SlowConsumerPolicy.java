@@ -0,0 +1,13 @@
+package com.example.adapters.web.channel;
+
+/**
+ * What a connection does with a message while its client is not reading fast enough
+ */
+public enum SlowConsumerPolicy {
+    /** Keep only the newest message, sent once the client catches up */
+    COALESCE,
+    /** Discard the message */
+    DROP,
+    /** Close the connection */
+    DISCONNECT
+}
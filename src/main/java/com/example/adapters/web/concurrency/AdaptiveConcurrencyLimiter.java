@@ -0,0 +1,151 @@
+package com.example.adapters.web.concurrency;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that follows the latency of completed requests
+ * Gradient algorithm: a short and a long moving average of the response time are compared, when the short
+ * one rises above the long one times the tolerance the limit shrinks in proportion, otherwise it grows by
+ * about its square root per sample while requests actually use it. Admission is a CAS on the in-flight
+ * count against the share of the limit the request's {@link RequestPriority} may use; a request over its
+ * share is refused at once rather than queued.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 600;
+    // When the long average is this far above the short one, load dropped: let it catch up faster
+    private static final double RECOVERY_RATIO = 2;
+    private static final double RECOVERY_DECAY = 0.95;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<RequestPriority, LongAdder> accepted = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, LongAdder> shed = new EnumMap<>(RequestPriority.class);
+    private volatile int limit;
+    // Guarded by this
+    private double estimatedLimit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    /**
+     * @param initialLimit limit before any request completed
+     * @param minLimit floor the limit never shrinks below
+     * @param maxLimit ceiling the limit never grows above
+     * @param tolerance how far the short latency average may exceed the long one before the limit shrinks
+     * @param smoothing weight of each new estimate, between 0 and 1
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance,
+                                      double smoothing) {
+        if (minLimit < 1 || maxLimit < minLimit || tolerance < 1 || smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("Invalid concurrency limiter settings");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+        for (RequestPriority priority : RequestPriority.values()) {
+            accepted.put(priority, new LongAdder());
+            shed.put(priority, new LongAdder());
+        }
+    }
+
+    /**
+     * Admits a request if its priority class still has room under the current limit
+     * @return true if admitted, the caller must then call {@link #release} exactly once
+     */
+    public boolean tryAcquire(RequestPriority priority) {
+        int allowed = priority.allowedInFlight(limit);
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                shed.get(priority).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.get(priority).increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends an admitted request
+     * @param rttNanos time from admission to response
+     * @param sample false when the time says nothing about load, e.g. an error or a dropped connection
+     */
+    public void release(long rttNanos, boolean sample) {
+        int current = inFlight.getAndDecrement();
+        if (sample) {
+            update(rttNanos, current);
+        }
+    }
+
+    private synchronized void update(long rttNanos, int inFlightAtRelease) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+        shortRttNanos += (rttNanos - shortRttNanos) / SHORT_WINDOW;
+        longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+        if (longRttNanos / shortRttNanos > RECOVERY_RATIO) {
+            longRttNanos *= RECOVERY_DECAY;
+        }
+        // Requests far below the limit say nothing about what more concurrency would do
+        if (inFlightAtRelease < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1, tolerance * longRttNanos / shortRttNanos));
+        double next = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        next = estimatedLimit * (1 - smoothing) + next * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, next));
+        limit = (int) estimatedLimit;
+    }
+
+    /**
+     * @return the current concurrency limit
+     */
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * @return requests admitted and not yet released
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return limit, in-flight requests, latency averages and admitted and shed requests per priority
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("limit", limit);
+        metrics.put("inFlight", inFlight.get());
+        synchronized (this) {
+            metrics.put("shortRttMicros", (long) shortRttNanos / TimeUnit.MICROSECONDS.toNanos(1));
+            metrics.put("longRttMicros", (long) longRttNanos / TimeUnit.MICROSECONDS.toNanos(1));
+        }
+        for (RequestPriority priority : RequestPriority.values()) {
+            String name = priority.name().toLowerCase(Locale.ROOT);
+            metrics.put(name + "Accepted", accepted.get(priority).sum());
+            metrics.put(name + "Shed", shed.get(priority).sum());
+        }
+        return metrics;
+    }
+}
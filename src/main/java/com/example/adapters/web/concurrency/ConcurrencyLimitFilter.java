@@ -0,0 +1,129 @@
+package com.example.adapters.web.concurrency;
+
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.Route;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Load shedding in front of the REST adapters
+ * Every REST request is admitted by one {@link AdaptiveConcurrencyLimiter} under its {@link RequestPriority}:
+ * logins, channel validation and state and token introspection first, new QR codes next, /api/system last.
+ * A request its class has no room for is answered 503 with Retry-After on the event loop, instead of waiting
+ * in a worker queue while the server is already overloaded. Only successful responses feed the latency
+ * estimate; throttled logins and errors would teach it the wrong response time. A login the failed-login
+ * throttle will hold back gives its slot back through {@link #releaseEarly} before waiting, so slow failing
+ * attempts cannot fill the limit. Health and metrics are never shed: a busy server must not look dead to its
+ * probes. Event streams and WebSockets are long-lived and not limited here. Runs after the per-client rate limits.
+ */
+@ApplicationScoped
+public class ConcurrencyLimitFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+    // After the rate limits and the Jakarta endpoints, ahead of the REST resources
+    private static final int AFTER_RATE_LIMITS = -99;
+    private static final String SHED_BODY = "{\"error\":\"Server overloaded, retry shortly\"}";
+    private static final String RETRY_AFTER_SECONDS = "1";
+    private static final Set<String> NEVER_SHED = Set.of("/api/system/health", "/api/system/metrics");
+    private static final String ADMISSION = ConcurrencyLimitFilter.class.getName() + ".admission";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final boolean enabled;
+
+    @Inject
+    public ConcurrencyLimitFilter(
+            @ConfigProperty(name = "app.concurrency.enabled", defaultValue = "true") boolean enabled,
+            @ConfigProperty(name = "app.concurrency.initial-limit", defaultValue = "64") int initialLimit,
+            @ConfigProperty(name = "app.concurrency.min-limit", defaultValue = "8") int minLimit,
+            @ConfigProperty(name = "app.concurrency.max-limit", defaultValue = "512") int maxLimit,
+            @ConfigProperty(name = "app.concurrency.tolerance", defaultValue = "2.0") double tolerance,
+            @ConfigProperty(name = "app.concurrency.smoothing", defaultValue = "0.2") double smoothing) {
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, tolerance, smoothing);
+        this.enabled = enabled;
+    }
+
+    void registerRoutes(@Observes Router router) {
+        if (!enabled) {
+            return;
+        }
+        route(router.post("/auth/login"), RequestPriority.CRITICAL);
+        route(router.get("/auth/channel/:channelId/validate"), RequestPriority.CRITICAL);
+        route(router.get("/auth/channel/:channelId/state"), RequestPriority.CRITICAL);
+        route(router.post("/auth/tokens/introspect"), RequestPriority.CRITICAL);
+        route(router.get("/auth/qr"), RequestPriority.NORMAL);
+        router.route("/api/system/*").order(AFTER_RATE_LIMITS).handler(context -> {
+            if (NEVER_SHED.contains(context.normalizedPath())) {
+                context.next();
+            } else {
+                admit(context, RequestPriority.BACKGROUND);
+            }
+        });
+    }
+
+    private void route(Route route, RequestPriority priority) {
+        route.order(AFTER_RATE_LIMITS).handler(context -> admit(context, priority));
+    }
+
+    /**
+     * Gives back the slot of an admitted request that is about to wait without using the server, unsampled
+     * Does nothing for requests that were not admitted here or were already released.
+     */
+    public static void releaseEarly(RoutingContext context) {
+        Admission admission = context != null ? context.get(ADMISSION) : null;
+        if (admission != null) {
+            admission.release(false);
+        }
+    }
+
+    private void admit(RoutingContext context, RequestPriority priority) {
+        if (!limiter.tryAcquire(priority)) {
+            LOGGER.debug("Shed {} request {} {} at limit {}", priority, context.request().method(),
+                context.normalizedPath(), limiter.limit());
+            context.response()
+                .setStatusCode(503)
+                .putHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .putHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .end(SHED_BODY);
+            return;
+        }
+        Admission admission = new Admission(limiter);
+        context.put(ADMISSION, admission);
+        context.addEndHandler(ended -> admission.release(
+            ended.succeeded() && context.response().getStatusCode() < 400));
+        context.next();
+    }
+
+    // One admitted request, released exactly once: early when it is about to wait, or when it ends
+    private static final class Admission {
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long startedAt = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Admission(AdaptiveConcurrencyLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        void release(boolean sample) {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - startedAt, sample);
+            }
+        }
+    }
+
+    /**
+     * @return limiter state and admitted and shed requests per priority
+     */
+    public Map<String, Object> metrics() {
+        return limiter.metrics();
+    }
+}
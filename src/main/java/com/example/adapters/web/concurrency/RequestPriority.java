@@ -0,0 +1,28 @@
+package com.example.adapters.web.concurrency;
+
+/**
+ * Priority classes of the concurrency limiter, from the most to the least important
+ * Each class may only use a share of the current limit, so as requests pile up the lower classes are
+ * shed first and the remaining capacity goes to finishing logins already under way.
+ */
+public enum RequestPriority {
+    /** Logins, channel validation and state, token introspection */
+    CRITICAL(1.0),
+    /** New QR codes */
+    NORMAL(0.75),
+    /** System information and monitoring */
+    BACKGROUND(0.5);
+
+    private final double share;
+
+    RequestPriority(double share) {
+        this.share = share;
+    }
+
+    /**
+     * @return requests of this class allowed in flight under the given limit
+     */
+    int allowedInFlight(int limit) {
+        return Math.max(1, (int) (limit * share));
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.adapters.web.json;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * UTF-8 JSON encoding of fixed-shape payloads straight into an exactly sized byte array
+ * Callers pre-encode the constant fragments of a payload once, e.g. {"qr":" and ","channel":", then size the
+ * array from the fragments and {@link #stringLength} of each value and fill it with {@link #write} and
+ * {@link #writeString}. No map, tree or intermediate string is built; an ASCII value without characters to
+ * escape is copied as is.
+ */
+public final class JsonBytes {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private JsonBytes() {
+    }
+
+    /**
+     * @return the UTF-8 bytes of a constant fragment, which must already be valid JSON text
+     */
+    public static byte[] fragment(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return a value encoded as a complete JSON string, quotes included, for values reused across payloads
+     */
+    public static byte[] string(String value) {
+        byte[] out = new byte[stringLength(value)];
+        writeString(out, 0, value);
+        return out;
+    }
+
+    /**
+     * @return bytes {@link #writeString} will write for the value, quotes included
+     */
+    public static int stringLength(String value) {
+        int plain = plainPrefix(value);
+        int length = 2 + plain;
+        for (int i = plain; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                length += 2;
+            } else if (c < 0x20) {
+                length += 6;
+            } else if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (isPair(value, i)) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Writes a value as a JSON string, quotes included
+     * @return the position after the closing quote
+     */
+    public static int writeString(byte[] out, int position, String value) {
+        out[position++] = '"';
+        int plain = plainPrefix(value);
+        for (int i = 0; i < plain; i++) {
+            out[position++] = (byte) value.charAt(i);
+        }
+        for (int i = plain; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out[position++] = '\\';
+                out[position++] = (byte) c;
+            } else if (c < 0x20) {
+                out[position++] = '\\';
+                out[position++] = 'u';
+                out[position++] = '0';
+                out[position++] = '0';
+                out[position++] = HEX[c >> 4];
+                out[position++] = HEX[c & 0xF];
+            } else if (c < 0x80) {
+                out[position++] = (byte) c;
+            } else if (c < 0x800) {
+                out[position++] = (byte) (0xC0 | c >> 6);
+                out[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (isPair(value, i)) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out[position++] = (byte) (0xF0 | codePoint >> 18);
+                out[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                out[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                out[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                // A lone surrogate has no UTF-8 form, replaced like String.getBytes does
+                out[position++] = '?';
+            } else {
+                out[position++] = (byte) (0xE0 | c >> 12);
+                out[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                out[position++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        out[position++] = '"';
+        return position;
+    }
+
+    // Length of the leading run of printable ASCII that needs no escaping, usually the whole value
+    private static int plainPrefix(String value) {
+        int i = 0;
+        while (i < value.length()) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c >= 0x80 || c == '"' || c == '\\') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isPair(String value, int index) {
+        return Character.isHighSurrogate(value.charAt(index)) && index + 1 < value.length()
+            && Character.isLowSurrogate(value.charAt(index + 1));
+    }
+
+    /**
+     * Copies a pre-encoded fragment
+     * @return the position after it
+     */
+    public static int write(byte[] out, int position, byte[] fragment) {
+        System.arraycopy(fragment, 0, out, position, fragment.length);
+        return position + fragment.length;
+    }
+}
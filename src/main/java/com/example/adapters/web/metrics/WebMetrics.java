@@ -0,0 +1,96 @@
+package com.example.adapters.web.metrics;
+
+import com.example.adapters.web.channel.ChannelSessionRegistry;
+import com.example.adapters.web.channel.OutboundBackpressure;
+import com.example.infrastructure.metrics.Counter;
+import com.example.infrastructure.metrics.LatencyHistogram;
+import com.example.infrastructure.metrics.MetricsRegistry;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Request and connection metrics of the web adapters, exported by {@link MetricsRegistry}
+ * QR generation, login and channel validation are timed from the first route, ahead of the rate and
+ * concurrency limits, to the end of the response, and counted by status class. Requests the limits reject
+ * (429, 503) are counted but not timed, so the latencies describe requests that did the work. Open channels,
+ * connections and WebSocket delivery times are exported from the counts their owners keep.
+ */
+@ApplicationScoped
+public class WebMetrics {
+
+    // Ahead of the rate limits and static pages (-101) and the concurrency limiter (-99)
+    private static final int BEFORE_LIMITS = -102;
+    private static final String REQUESTS = "qrlog_http_requests_total";
+    private static final String DURATION = "qrlog_http_request_duration_seconds";
+
+    private final boolean enabled;
+    private final Endpoint qr;
+    private final Endpoint login;
+    private final Endpoint validate;
+
+    @Inject
+    public WebMetrics(MetricsRegistry metrics, ChannelSessionRegistry sessionRegistry, OutboundBackpressure backpressure,
+                      @ConfigProperty(name = "app.metrics.requests.enabled", defaultValue = "true") boolean enabled) {
+        this.enabled = enabled;
+        this.qr = new Endpoint(metrics, "qr");
+        this.login = new Endpoint(metrics, "login");
+        this.validate = new Endpoint(metrics, "validate");
+        metrics.gauge("qrlog_websocket_channels", "Channels with at least one connection on this node",
+            sessionRegistry::channelCount);
+        metrics.gauge("qrlog_websocket_connections", "Channel WebSocket connections on this node",
+            sessionRegistry::connectionCount);
+        metrics.register("qrlog_websocket_delivery_seconds",
+            "Time from handing a channel message to the socket to the completion of its write",
+            backpressure.deliveryLatency());
+    }
+
+    void registerRoutes(@Observes Router router) {
+        if (!enabled) {
+            return;
+        }
+        router.get("/auth/qr").order(BEFORE_LIMITS).handler(context -> time(context, qr));
+        router.post("/auth/login").order(BEFORE_LIMITS).handler(context -> time(context, login));
+        router.get("/auth/channel/:channelId/validate").order(BEFORE_LIMITS).handler(context -> time(context, validate));
+    }
+
+    private static void time(RoutingContext context, Endpoint endpoint) {
+        long startedAt = System.nanoTime();
+        context.addEndHandler(ended -> endpoint.record(ended.succeeded() ? context.response().getStatusCode() : 0,
+            System.nanoTime() - startedAt));
+        context.next();
+    }
+
+    // Counters per status class and the latency histogram of one endpoint, looked up once
+    private static final class Endpoint {
+        final Counter[] byStatusClass = new Counter[6];
+        final Counter aborted;
+        final LatencyHistogram latency;
+
+        Endpoint(MetricsRegistry metrics, String endpoint) {
+            for (int statusClass = 2; statusClass < byStatusClass.length; statusClass++) {
+                byStatusClass[statusClass] = metrics.counter(REQUESTS, "Requests to the timed endpoints by status class",
+                    "endpoint", endpoint, "status", statusClass + "xx");
+            }
+            aborted = metrics.counter(REQUESTS, "Requests to the timed endpoints by status class",
+                "endpoint", endpoint, "status", "aborted");
+            latency = metrics.histogram(DURATION, "Time to answer the timed endpoints, rejected requests excluded",
+                "endpoint", endpoint);
+        }
+
+        void record(int status, long nanos) {
+            int statusClass = status / 100;
+            if (statusClass < 2 || statusClass >= byStatusClass.length) {
+                aborted.increment(); // Closed before a final response was sent
+                return;
+            }
+            byStatusClass[statusClass].increment();
+            if (status != 429 && status != 503) {
+                latency.record(nanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.adapters.web.ratelimit;
+
+import com.example.domain.time.EpochClock;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client rate limits in front of the endpoints that cost the most per request
+ * /auth/qr creates a channel and renders an image, /auth/login hashes a password, a phone join checks a token
+ * against a channel; each has its own {@link TokenBucketTable} keyed by client address. Desktop sessions draw
+ * from the QR bucket too: once to connect, and once per rotation through {@link #acquireQr}. Runs on the event
+ * loop ahead of the REST adapters, so a rejected request is answered 429 with Retry-After before any resource method or worker thread is involved.
+ * The address honours X-Forwarded-For only when quarkus.http.proxy.proxy-address-forwarding is enabled,
+ * like the login throttle, so clients cannot pick their own bucket. A limit of 0 requests per minute disables it.
+ */
+@ApplicationScoped
+public class RateLimitFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RateLimitFilter.class);
+    // After CORS, so rejections still carry its headers, and ahead of the Jakarta endpoints and REST resources
+    private static final int BEFORE_RESOURCES = -101;
+    private static final String REJECTED_BODY = "{\"error\":\"Too many requests\"}";
+    private static final String UNKNOWN_CLIENT = "unknown";
+    private static final String DESKTOP_SESSION = "/desktop/session";
+    private static final String JOIN = "/auth/channel/:channelId/join";
+
+    private final TokenBucketTable qrLimit;
+    private final TokenBucketTable loginLimit;
+    private final TokenBucketTable joinLimit;
+
+    @Inject
+    public RateLimitFilter(
+            @ConfigProperty(name = "app.rate-limit.table-size", defaultValue = "65536") int tableSize,
+            @ConfigProperty(name = "app.rate-limit.qr.requests-per-minute", defaultValue = "30") double qrRate,
+            @ConfigProperty(name = "app.rate-limit.qr.burst", defaultValue = "10") int qrBurst,
+            @ConfigProperty(name = "app.rate-limit.login.requests-per-minute", defaultValue = "60") double loginRate,
+            @ConfigProperty(name = "app.rate-limit.login.burst", defaultValue = "10") int loginBurst,
+            @ConfigProperty(name = "app.rate-limit.join.requests-per-minute", defaultValue = "60") double joinRate,
+            @ConfigProperty(name = "app.rate-limit.join.burst", defaultValue = "10") int joinBurst,
+            EpochClock clock) {
+        this.qrLimit = qrRate > 0 ? new TokenBucketTable(tableSize, qrRate, qrBurst, clock) : null;
+        this.loginLimit = loginRate > 0 ? new TokenBucketTable(tableSize, loginRate, loginBurst, clock) : null;
+        this.joinLimit = joinRate > 0 ? new TokenBucketTable(tableSize, joinRate, joinBurst, clock) : null;
+    }
+
+    void registerRoutes(@Observes Router router) {
+        if (qrLimit != null) {
+            router.get("/auth/qr").order(BEFORE_RESOURCES).handler(context -> limit(context, qrLimit));
+            router.get(DESKTOP_SESSION).order(BEFORE_RESOURCES).handler(context -> limit(context, qrLimit));
+        }
+        if (loginLimit != null) {
+            router.post("/auth/login").order(BEFORE_RESOURCES).handler(context -> limit(context, loginLimit));
+        }
+        if (joinLimit != null) {
+            router.get(JOIN).order(BEFORE_RESOURCES).handler(context -> limit(context, joinLimit));
+        }
+    }
+
+    /**
+     * Takes a token from a client's QR bucket outside of a request, for a desktop session rotating its channel
+     * @return 0 if the client may create a channel now, otherwise microseconds until it may
+     */
+    public long acquireQr(String client) {
+        return qrLimit != null ? qrLimit.tryAcquire(client) : 0;
+    }
+
+    /**
+     * @return the key of a client's buckets
+     */
+    public static String client(SocketAddress address) {
+        return address != null && address.hostAddress() != null ? address.hostAddress() : UNKNOWN_CLIENT;
+    }
+
+    private static void limit(RoutingContext context, TokenBucketTable limit) {
+        String client = client(context.request().remoteAddress());
+        long waitMicros = limit.tryAcquire(client);
+        if (waitMicros == 0) {
+            context.next();
+            return;
+        }
+        long retryAfterSeconds = Math.max(1, (waitMicros + TimeUnit.SECONDS.toMicros(1) - 1) / TimeUnit.SECONDS.toMicros(1));
+        LOGGER.debug("Rate limited {} {} for client: {}", context.request().method(), context.normalizedPath(), client);
+        context.response()
+            .setStatusCode(429)
+            .putHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+            .putHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+            .end(REJECTED_BODY);
+    }
+
+    /**
+     * @return metrics of each enabled limit, by endpoint
+     */
+    public Map<String, Map<String, Long>> metrics() {
+        Map<String, Map<String, Long>> metrics = new LinkedHashMap<>();
+        if (qrLimit != null) {
+            metrics.put("qr", qrLimit.metrics());
+        }
+        if (loginLimit != null) {
+            metrics.put("login", loginLimit.metrics());
+        }
+        if (joinLimit != null) {
+            metrics.put("join", joinLimit.metrics());
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.adapters.web.ratelimit;
+
+import com.example.domain.time.EpochClock;
+
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-client token buckets in a fixed-size, lock-free table
+ * Each bucket is kept as its theoretical arrival time (GCRA): one long that a request advances by the
+ * emission interval with a single CAS, and that is full again once it lies in the past. A client key hashes
+ * to a stripe of four slots, key and arrival time side by side so a stripe fills one cache line. A client
+ * without a slot claims an empty one, or evicts a bucket that has been idle long enough to be full; when the
+ * whole stripe is busy it shares the stripe's overflow bucket, so a flood of new addresses is limited as one
+ * client instead of evicting everybody else. Memory is fixed by the table size, acquiring allocates nothing.
+ */
+public final class TokenBucketTable {
+
+    private static final int SLOTS_PER_STRIPE = 4;
+    private static final long EMPTY = 0;
+    private static final long MIX = 0x9E3779B97F4A7C15L;
+
+    // [2 * slot] client fingerprint, [2 * slot + 1] theoretical arrival time in micros since origin
+    private final AtomicLongArray slots;
+    private final AtomicLongArray overflow;
+    private final int stripeMask;
+    private final long intervalMicros;
+    private final long toleranceMicros;
+    private final EpochClock clock;
+    private final long originMillis;
+    private final long seed = new SecureRandom().nextLong();
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    /**
+     * @param size buckets in the table, rounded up to a power of two
+     * @param requestsPerMinute sustained rate allowed per client
+     * @param burst requests a client may send at once after being idle
+     * @param clock millisecond clock
+     */
+    public TokenBucketTable(int size, double requestsPerMinute, int burst, EpochClock clock) {
+        if (requestsPerMinute <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        int stripes = Integer.highestOneBit(Math.max(1, (size - 1) / SLOTS_PER_STRIPE)) << 1;
+        this.slots = new AtomicLongArray(2 * SLOTS_PER_STRIPE * stripes);
+        this.overflow = new AtomicLongArray(stripes);
+        this.stripeMask = stripes - 1;
+        this.intervalMicros = Math.max(1, (long) (TimeUnit.MINUTES.toMicros(1) / requestsPerMinute));
+        this.toleranceMicros = (burst - 1) * intervalMicros;
+        this.clock = clock;
+        this.originMillis = clock.millis();
+    }
+
+    /**
+     * Takes one token from a client's bucket
+     * @param client the client key, typically its address
+     * @return 0 if the request may proceed, otherwise the microseconds until a token is available
+     */
+    public long tryAcquire(String client) {
+        long fingerprint = fingerprint(client);
+        long now = TimeUnit.MILLISECONDS.toMicros(clock.millis() - originMillis);
+        int stripe = (int) fingerprint & stripeMask;
+        int first = stripe * SLOTS_PER_STRIPE * 2;
+
+        for (;;) {
+            int empty = -1;
+            int idle = -1;
+            long idleKey = EMPTY;
+            for (int index = first; index < first + SLOTS_PER_STRIPE * 2; index += 2) {
+                long key = slots.get(index);
+                if (key == fingerprint) {
+                    return acquire(slots, index + 1, now);
+                }
+                if (key == EMPTY) {
+                    empty = empty < 0 ? index : empty;
+                } else if (idle < 0 && slots.get(index + 1) <= now) {
+                    // Idle long enough to be full again, the bucket holds nothing worth keeping
+                    idle = index;
+                    idleKey = key;
+                }
+            }
+            if (empty < 0 && idle < 0) {
+                overflowed.increment();
+                return acquire(overflow, stripe, now);
+            }
+            int candidate = empty >= 0 ? empty : idle;
+            long previous = empty >= 0 ? EMPTY : idleKey;
+            // A full bucket needs no reset, its arrival time is already in the past
+            if (slots.compareAndSet(candidate, previous, fingerprint)) {
+                if (previous != EMPTY) {
+                    evicted.increment();
+                }
+                return acquire(slots, candidate + 1, now);
+            }
+            // Another client claimed the slot first, look again
+        }
+    }
+
+    private long acquire(AtomicLongArray buckets, int index, long now) {
+        for (;;) {
+            long arrival = buckets.get(index);
+            long start = Math.max(arrival, now);
+            long wait = start - now - toleranceMicros;
+            if (wait > 0) {
+                rejected.increment();
+                return wait;
+            }
+            if (buckets.compareAndSet(index, arrival, start + intervalMicros)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    private long fingerprint(String client) {
+        long hash = seed;
+        for (int i = 0; i < client.length(); i++) {
+            hash = (hash ^ client.charAt(i)) * MIX;
+        }
+        hash ^= hash >>> 32;
+        hash *= MIX;
+        hash ^= hash >>> 29;
+        return hash == EMPTY ? 1 : hash;
+    }
+
+    /**
+     * @return allowed and rejected requests, idle buckets evicted, requests limited through an overflow bucket
+     */
+    public Map<String, Long> metrics() {
+        return Map.of(
+            "allowed", allowed.sum(),
+            "rejected", rejected.sum(),
+            "evicted", evicted.sum(),
+            "overflowed", overflowed.sum());
+    }
+}
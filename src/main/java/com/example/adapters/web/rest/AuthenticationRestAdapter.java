@@ -1,21 +1,32 @@
 package com.example.adapters.web.rest;
 
+import com.example.adapters.web.concurrency.ConcurrencyLimitFilter;
 import com.example.application.ports.primary.QRAuthenticationUseCases;
 import com.example.domain.authentication.AuthenticationCredentials;
 import com.example.domain.authentication.AuthenticationException;
-import com.example.domain.authentication.AuthenticationToken;
+import com.example.domain.authentication.AuthenticationThrottledException;
+import com.example.domain.authentication.ChannelState;
+import com.example.infrastructure.execution.HandlerExecutor;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.RoutingContext;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 /**
  * REST adapter for authentication operations
  * This is a primary adapter that exposes HTTP endpoints for the authentication use cases
  * Following hexagonal architecture, this adapter translates HTTP requests into domain operations
+ * Endpoints hand their work to the {@link HandlerExecutor}, worker threads or virtual threads
  */
 @Path("/auth")
 @Produces(MediaType.APPLICATION_JSON)
@@ -24,11 +35,19 @@ public class AuthenticationRestAdapter {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(AuthenticationRestAdapter.class);
     
+    private static final EntityTag[] STATE_TAGS = stateTags();
+    private static final CacheControl REVALIDATE = revalidateCacheControl();
+    
     private final QRAuthenticationUseCases authenticationUseCases;
+    private final HandlerExecutor handlerExecutor;
+    private final IntrospectionClients introspectionClients;
 
     @Inject
-    public AuthenticationRestAdapter(QRAuthenticationUseCases authenticationUseCases) {
+    public AuthenticationRestAdapter(QRAuthenticationUseCases authenticationUseCases, HandlerExecutor handlerExecutor,
+                                     IntrospectionClients introspectionClients) {
         this.authenticationUseCases = authenticationUseCases;
+        this.handlerExecutor = handlerExecutor;
+        this.introspectionClients = introspectionClients;
     }
 
     /**
@@ -37,13 +56,18 @@ public class AuthenticationRestAdapter {
      */
     @GET
     @Path("/qr")
-    public Response generateQRCode(@Context HttpHeaders httpHeaders, @Context UriInfo uriInfo) {
+    public CompletionStage<Response> generateQRCode(@Context HttpHeaders httpHeaders, @Context UriInfo uriInfo) {
+        return handlerExecutor.supply(() -> createQRCode(httpHeaders, uriInfo));
+    }
+
+    private Response createQRCode(HttpHeaders httpHeaders, UriInfo uriInfo) {
         try {
             String baseUri = buildBaseUri(httpHeaders, uriInfo);
             LOGGER.info("QR code requested for base URI: {}", baseUri);
             
+            // Written by FixedShapeJsonWriter.QRCode
             var response = authenticationUseCases.createQRAuthentication(baseUri);
-            return Response.ok(response.toMap()).build();
+            return Response.ok(response).build();
             
         } catch (IllegalArgumentException e) {
             LOGGER.warn("Invalid request for QR code generation: {}", e.getMessage());
@@ -62,40 +86,64 @@ public class AuthenticationRestAdapter {
     /**
      * Authenticates user with username and password
      * Primary port: User authentication use case
+     * Credential verification runs on a dedicated pool, a saturated pool answers 429 with Retry-After
+     * Repeated failures per username and per client address are delayed, then answered with 429; a delayed
+     * attempt gives its concurrency limiter slot back while it waits
      */
     @POST
     @Path("/login")
     @Consumes(MediaType.MULTIPART_FORM_DATA)
-    public Response authenticateUser(
+    public CompletionStage<Response> authenticateUser(
             @FormParam("username") String username, 
-            @FormParam("password") String password) {
+            @FormParam("password") String password,
+            @Context HttpServerRequest request,
+            @Context RoutingContext routingContext) {
         
+        AuthenticationCredentials credentials;
         try {
             // Domain object creation handles validation
-            AuthenticationCredentials credentials = AuthenticationCredentials.of(username, password);
-            AuthenticationToken token = authenticationUseCases.authenticateUser(credentials);
-            
-            LOGGER.info("User authenticated successfully: {}", credentials.getUsername());
-            return Response.ok(Map.of("token", token.getValue())).build();
-            
+            credentials = AuthenticationCredentials.of(username, password);
         } catch (IllegalArgumentException e) {
             LOGGER.warn("Invalid authentication request: {}", e.getMessage());
-            return Response.status(Response.Status.BAD_REQUEST)
+            return CompletableFuture.completedFuture(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build());
+        }
+        
+        // Honours X-Forwarded-For only when quarkus.http.proxy.proxy-address-forwarding is enabled
+        String clientAddress = request.remoteAddress() != null ? request.remoteAddress().hostAddress() : null;
+        // A throttled attempt waits out its delay without holding a concurrency slot
+        if (authenticationUseCases.loginDelayMillis(credentials.getUsername(), clientAddress) > 0) {
+            ConcurrencyLimitFilter.releaseEarly(routingContext);
+        }
+        return authenticationUseCases.authenticateUserAsync(credentials, clientAddress)
+                .handle((token, failure) -> {
+                    if (failure == null) {
+                        LOGGER.info("User authenticated successfully: {}", credentials.getUsername());
+                        return Response.ok(Map.of("token", token.getValue())).build();
+                    }
+                    return authenticationFailure(failure instanceof CompletionException ? failure.getCause() : failure);
+                });
+    }
+    
+    private Response authenticationFailure(Throwable failure) {
+        if (failure instanceof AuthenticationThrottledException e) {
+            LOGGER.warn("Authentication throttled: {}", e.getMessage());
+            return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, e.getRetryAfterSeconds())
                     .entity(Map.of("error", e.getMessage()))
                     .build();
-                    
-        } catch (AuthenticationException e) {
+        }
+        if (failure instanceof AuthenticationException e) {
             LOGGER.warn("Authentication failed: {}", e.getMessage());
             return Response.status(Response.Status.UNAUTHORIZED)
                     .entity(Map.of("error", e.getMessage()))
                     .build();
-                    
-        } catch (Exception e) {
-            LOGGER.error("Unexpected error during authentication", e);
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(Map.of("error", "Authentication service temporarily unavailable"))
-                    .build();
         }
+        LOGGER.error("Unexpected error during authentication", failure);
+        return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(Map.of("error", "Authentication service temporarily unavailable"))
+                .build();
     }
 
     /**
@@ -104,7 +152,11 @@ public class AuthenticationRestAdapter {
      */
     @GET
     @Path("/channel/{channelId}/validate")
-    public Response validateChannel(@PathParam("channelId") String channelId) {
+    public CompletionStage<Response> validateChannel(@PathParam("channelId") String channelId) {
+        return handlerExecutor.supply(() -> scanChannel(channelId));
+    }
+
+    private Response scanChannel(String channelId) {
         try {
             if (channelId == null || channelId.trim().isEmpty()) {
                 return Response.status(Response.Status.BAD_REQUEST)
@@ -112,8 +164,9 @@ public class AuthenticationRestAdapter {
                         .build();
             }
             
-            var result = authenticationUseCases.validateChannel(channelId);
-            return Response.ok(result.toMap()).build();
+            // Written by FixedShapeJsonWriter.ChannelValidation
+            var result = authenticationUseCases.scanChannel(channelId);
+            return Response.ok(result).build();
             
         } catch (Exception e) {
             LOGGER.error("Error validating channel: {}", channelId, e);
@@ -123,6 +176,95 @@ public class AuthenticationRestAdapter {
         }
     }
     
+    /**
+     * Returns the lifecycle state of a channel
+     * Supports conditional requests: the state itself is the entity tag, so pollers get 304 until it changes
+     */
+    @GET
+    @Path("/channel/{channelId}/state")
+    public CompletionStage<Response> getChannelState(@PathParam("channelId") String channelId,
+                                                     @Context Request request) {
+        return handlerExecutor.supply(() -> channelState(channelId, request));
+    }
+
+    private Response channelState(String channelId, Request request) {
+        try {
+            var result = authenticationUseCases.getChannelState(channelId);
+            if (!result.isFound()) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity(Map.of("error", "Channel not found"))
+                        .build();
+            }
+            
+            EntityTag entityTag = STATE_TAGS[result.getState().ordinal()];
+            Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+            if (notModified != null) {
+                return notModified.cacheControl(REVALIDATE).build();
+            }
+            return Response.ok(result.toMap()).tag(entityTag).cacheControl(REVALIDATE).build();
+            
+        } catch (Exception e) {
+            LOGGER.error("Error reading channel state: {}", channelId, e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", "Channel state lookup failed"))
+                    .build();
+        }
+    }
+    
+    /**
+     * Describes a batch of tokens for backend services
+     * Primary port: Token introspection use case
+     * Callers authenticate as an {@link IntrospectionClients} client, anyone else gets 401 before any token is
+     * looked at. Results follow the request order; token values are not echoed back
+     */
+    @POST
+    @Path("/tokens/introspect")
+    public CompletionStage<Response> introspectTokens(@HeaderParam(HttpHeaders.AUTHORIZATION) String authorization,
+                                                      IntrospectionRequest request) {
+        String client = introspectionClients.authenticate(authorization);
+        if (client == null) {
+            LOGGER.warn("Refused token introspection without valid client credentials");
+            return CompletableFuture.completedFuture(Response.status(Response.Status.UNAUTHORIZED)
+                    .header(HttpHeaders.WWW_AUTHENTICATE, IntrospectionClients.CHALLENGE)
+                    .entity(Map.of("error", "Client authentication required"))
+                    .build());
+        }
+        LOGGER.debug("Token introspection by client {}", client);
+        return handlerExecutor.supply(() -> introspect(request));
+    }
+
+    private Response introspect(IntrospectionRequest request) {
+        try {
+            List<String> tokens = request != null ? request.tokens : null;
+            var results = authenticationUseCases.introspectTokens(tokens);
+            
+            List<Map<String, Object>> body = new ArrayList<>(results.size());
+            for (var result : results) {
+                body.add(result.toMap());
+            }
+            return Response.ok(Map.of("results", body)).build();
+            
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid introspection request: {}", e.getMessage());
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+                    
+        } catch (Exception e) {
+            LOGGER.error("Token introspection failed", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", "Token introspection failed"))
+                    .build();
+        }
+    }
+    
+    /**
+     * Request body of the introspection endpoint
+     */
+    public static class IntrospectionRequest {
+        public List<String> tokens;
+    }
+    
     /**
      * Builds the base URI from headers and request info
      * Helper method for URI construction in proxy/load balancer scenarios
@@ -157,6 +299,21 @@ public class AuthenticationRestAdapter {
         return uriInfo.getBaseUri().toString().replaceAll("/$", "");
     }
     
+    private static CacheControl revalidateCacheControl() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoCache(true);
+        return cacheControl;
+    }
+    
+    private static EntityTag[] stateTags() {
+        ChannelState[] states = ChannelState.values();
+        EntityTag[] tags = new EntityTag[states.length];
+        for (ChannelState state : states) {
+            tags[state.ordinal()] = new EntityTag(state.externalName());
+        }
+        return tags;
+    }
+    
     private boolean isDefaultPort(String scheme, int port) {
         return ("http".equals(scheme) && port == 80) || 
                ("https".equals(scheme) && port == 443);
@@ -0,0 +1,193 @@
+package com.example.adapters.web.rest;
+
+import com.example.adapters.web.json.JsonBytes;
+import com.example.adapters.web.rest.SystemRestAdapter.ApplicationInfo;
+import com.example.adapters.web.rest.SystemRestAdapter.HealthReport;
+import com.example.application.authentication.QRAuthenticationApplicationService.ChannelValidationResult;
+import com.example.application.authentication.QRAuthenticationApplicationService.QRAuthenticationResponse;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+import org.jboss.resteasy.reactive.server.spi.ResteasyReactiveResourceInfo;
+import org.jboss.resteasy.reactive.server.spi.ServerMessageBodyWriter;
+import org.jboss.resteasy.reactive.server.spi.ServerRequestContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.time.Instant;
+
+/**
+ * Hand-written JSON writers for the hottest fixed-shape responses
+ * Each payload is encoded with {@link JsonBytes} into one exactly sized array that becomes the response
+ * body as is, with its constant fragments encoded once; Jackson never walks a map for these types. A writer
+ * bound to the concrete entity type is preferred over the generic Jackson one.
+ */
+public abstract class FixedShapeJsonWriter<T> implements ServerMessageBodyWriter<T> {
+
+    private final Class<T> type;
+
+    FixedShapeJsonWriter(Class<T> type) {
+        this.type = type;
+    }
+
+    /**
+     * @return the complete JSON body of a payload
+     */
+    abstract byte[] encode(T payload);
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, ResteasyReactiveResourceInfo target,
+                               MediaType mediaType) {
+        return this.type == type;
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return this.type == type;
+    }
+
+    @Override
+    public void writeResponse(T payload, Type genericType, ServerRequestContext context) {
+        context.serverResponse().end(encode(payload));
+    }
+
+    @Override
+    public void writeTo(T payload, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        entityStream.write(encode(payload));
+    }
+
+    /**
+     * {"qr":"...","channel":"..."}
+     */
+    @Provider
+    @Produces(MediaType.APPLICATION_JSON)
+    public static class QRCode extends FixedShapeJsonWriter<QRAuthenticationResponse> {
+        private static final byte[] QR = JsonBytes.fragment("{\"qr\":");
+        private static final byte[] CHANNEL = JsonBytes.fragment(",\"channel\":");
+        private static final byte[] END = JsonBytes.fragment("}");
+
+        public QRCode() {
+            super(QRAuthenticationResponse.class);
+        }
+
+        @Override
+        byte[] encode(QRAuthenticationResponse payload) {
+            byte[] out = new byte[QR.length + JsonBytes.stringLength(payload.getQrCode()) + CHANNEL.length
+                + JsonBytes.stringLength(payload.getChannel()) + END.length];
+            int position = JsonBytes.write(out, 0, QR);
+            position = JsonBytes.writeString(out, position, payload.getQrCode());
+            position = JsonBytes.write(out, position, CHANNEL);
+            position = JsonBytes.writeString(out, position, payload.getChannel());
+            JsonBytes.write(out, position, END);
+            return out;
+        }
+    }
+
+    /**
+     * {"status":"valid"} or {"status":"invalid"}, both built once
+     */
+    @Provider
+    @Produces(MediaType.APPLICATION_JSON)
+    public static class ChannelValidation extends FixedShapeJsonWriter<ChannelValidationResult> {
+        private static final byte[] VALID = JsonBytes.fragment("{\"status\":\"valid\"}");
+        private static final byte[] INVALID = JsonBytes.fragment("{\"status\":\"invalid\"}");
+        private static final byte[] STATUS = JsonBytes.fragment("{\"status\":");
+        private static final byte[] END = JsonBytes.fragment("}");
+
+        public ChannelValidation() {
+            super(ChannelValidationResult.class);
+        }
+
+        @Override
+        byte[] encode(ChannelValidationResult payload) {
+            String status = payload.getStatus();
+            if ("valid".equals(status)) {
+                return VALID;
+            }
+            if ("invalid".equals(status)) {
+                return INVALID;
+            }
+            byte[] out = new byte[STATUS.length + JsonBytes.stringLength(status) + END.length];
+            JsonBytes.write(out, JsonBytes.writeString(out, JsonBytes.write(out, 0, STATUS), status), END);
+            return out;
+        }
+    }
+
+    /**
+     * {"status":"healthy","message":"...","timestamp":"...","version":"2.0"}
+     */
+    @Provider
+    @Produces(MediaType.APPLICATION_JSON)
+    public static class Health extends FixedShapeJsonWriter<HealthReport> {
+        private static final byte[] MESSAGE = JsonBytes.fragment("{\"status\":\"healthy\",\"message\":");
+        private static final byte[] TIMESTAMP = JsonBytes.fragment(",\"timestamp\":");
+        private static final byte[] END = JsonBytes.fragment(",\"version\":\"" + SystemRestAdapter.VERSION + "\"}");
+        private final Timestamps timestamps = new Timestamps();
+
+        public Health() {
+            super(HealthReport.class);
+        }
+
+        @Override
+        byte[] encode(HealthReport payload) {
+            byte[] timestamp = timestamps.json(payload.timestampMillis());
+            byte[] out = new byte[MESSAGE.length + JsonBytes.stringLength(payload.message()) + TIMESTAMP.length
+                + timestamp.length + END.length];
+            int position = JsonBytes.write(out, 0, MESSAGE);
+            position = JsonBytes.writeString(out, position, payload.message());
+            position = JsonBytes.write(out, position, TIMESTAMP);
+            position = JsonBytes.write(out, position, timestamp);
+            JsonBytes.write(out, position, END);
+            return out;
+        }
+    }
+
+    /**
+     * {"application":"...","version":"2.0","architecture":"...","timestamp":"..."}
+     */
+    @Provider
+    @Produces(MediaType.APPLICATION_JSON)
+    public static class Info extends FixedShapeJsonWriter<ApplicationInfo> {
+        private static final byte[] TIMESTAMP = JsonBytes.fragment("{\"application\":\"" + SystemRestAdapter.APPLICATION
+            + "\",\"version\":\"" + SystemRestAdapter.VERSION + "\",\"architecture\":\""
+            + SystemRestAdapter.ARCHITECTURE + "\",\"timestamp\":");
+        private static final byte[] END = JsonBytes.fragment("}");
+        private final Timestamps timestamps = new Timestamps();
+
+        public Info() {
+            super(ApplicationInfo.class);
+        }
+
+        @Override
+        byte[] encode(ApplicationInfo payload) {
+            byte[] timestamp = timestamps.json(payload.timestampMillis());
+            byte[] out = new byte[TIMESTAMP.length + timestamp.length + END.length];
+            JsonBytes.write(out, JsonBytes.write(out, JsonBytes.write(out, 0, TIMESTAMP), timestamp), END);
+            return out;
+        }
+    }
+
+    /**
+     * ISO-8601 timestamps as JSON strings, formatted once per distinct millisecond
+     * Probes arriving within one tick of the application clock share the last one.
+     */
+    static final class Timestamps {
+        private volatile Timestamp last = new Timestamp(Long.MIN_VALUE, null);
+
+        byte[] json(long millis) {
+            Timestamp timestamp = last;
+            if (timestamp.millis != millis) {
+                timestamp = new Timestamp(millis, JsonBytes.string(Instant.ofEpochMilli(millis).toString()));
+                last = timestamp;
+            }
+            return timestamp.json;
+        }
+
+        private record Timestamp(long millis, byte[] json) {
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.adapters.web.rest;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Backend services allowed to call token introspection, authenticated with HTTP Basic client credentials
+ * Clients are configured as "clientId:secret" pairs separated by commas; secrets are compared in constant time.
+ * Without configured clients every call is refused, so introspection is never open to browsers or phones.
+ */
+@ApplicationScoped
+public class IntrospectionClients {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IntrospectionClients.class);
+    private static final String BASIC = "basic ";
+    static final String CHALLENGE = "Basic realm=\"token-introspection\", charset=\"UTF-8\"";
+
+    private final Map<String, byte[]> secrets = new HashMap<>();
+
+    @Inject
+    public IntrospectionClients(@ConfigProperty(name = "auth.tokens.introspection.clients") Optional<String> clients) {
+        if (clients.isEmpty() || clients.get().isBlank()) {
+            LOGGER.warn("No auth.tokens.introspection.clients configured, token introspection is refused");
+            return;
+        }
+        for (String pair : clients.get().split(",")) {
+            int separator = pair.indexOf(':');
+            String secret = separator > 0 ? pair.substring(separator + 1).trim() : "";
+            if (secret.isEmpty() || pair.substring(0, separator).isBlank()) {
+                throw new IllegalArgumentException("Introspection clients must be formatted as clientId:secret");
+            }
+            secrets.put(pair.substring(0, separator).trim(), secret.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * @param authorization the request's Authorization header, may be null
+     * @return the authenticated client ID, or null if the credentials are missing or wrong
+     */
+    public String authenticate(String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, BASIC, 0, BASIC.length())) {
+            return null;
+        }
+        String credentials;
+        try {
+            credentials = new String(Base64.getDecoder().decode(authorization.substring(BASIC.length()).trim()),
+                StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int separator = credentials.indexOf(':');
+        if (separator <= 0) {
+            return null;
+        }
+        String clientId = credentials.substring(0, separator);
+        byte[] expected = secrets.get(clientId);
+        byte[] presented = credentials.substring(separator + 1).getBytes(StandardCharsets.UTF_8);
+        return expected != null && MessageDigest.isEqual(expected, presented) ? clientId : null;
+    }
+}
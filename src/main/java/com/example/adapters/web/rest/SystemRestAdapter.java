@@ -1,6 +1,13 @@
 package com.example.adapters.web.rest;
 
+import com.example.adapters.web.channel.ChannelSessionReaper;
+import com.example.adapters.web.channel.ChannelSessionRegistry;
+import com.example.adapters.web.channel.OutboundBackpressure;
+import com.example.adapters.web.concurrency.ConcurrencyLimitFilter;
+import com.example.adapters.web.ratelimit.RateLimitFilter;
 import com.example.application.ports.primary.SystemUseCases;
+import com.example.domain.time.EpochClock;
+import com.example.infrastructure.metrics.MetricsRegistry;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
@@ -20,12 +27,33 @@ import java.util.Map;
 public class SystemRestAdapter {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(SystemRestAdapter.class);
+    static final String APPLICATION = "QR Authentication System";
+    static final String VERSION = "2.0";
+    static final String ARCHITECTURE = "Hexagonal Architecture with DDD";
+    static final String PROMETHEUS_TEXT = "text/plain; version=0.0.4; charset=utf-8";
     
     private final SystemUseCases systemUseCases;
+    private final ChannelSessionRegistry sessionRegistry;
+    private final ChannelSessionReaper sessionReaper;
+    private final OutboundBackpressure backpressure;
+    private final RateLimitFilter rateLimitFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+    private final MetricsRegistry metrics;
+    private final EpochClock clock;
 
     @Inject
-    public SystemRestAdapter(SystemUseCases systemUseCases) {
+    public SystemRestAdapter(SystemUseCases systemUseCases, ChannelSessionRegistry sessionRegistry,
+                             ChannelSessionReaper sessionReaper, OutboundBackpressure backpressure,
+                             RateLimitFilter rateLimitFilter, ConcurrencyLimitFilter concurrencyLimitFilter,
+                             MetricsRegistry metrics, EpochClock clock) {
         this.systemUseCases = systemUseCases;
+        this.sessionRegistry = sessionRegistry;
+        this.sessionReaper = sessionReaper;
+        this.backpressure = backpressure;
+        this.rateLimitFilter = rateLimitFilter;
+        this.concurrencyLimitFilter = concurrencyLimitFilter;
+        this.metrics = metrics;
+        this.clock = clock;
     }
 
     /**
@@ -38,12 +66,7 @@ public class SystemRestAdapter {
         try {
             String healthStatus = systemUseCases.checkHealth();
             
-            return Response.ok(Map.of(
-                "status", "healthy",
-                "message", healthStatus,
-                "timestamp", Instant.now().toString(),
-                "version", "2.0"
-            )).build();
+            return Response.ok(new HealthReport(healthStatus, clock.millis())).build();
             
         } catch (Exception e) {
             LOGGER.error("Health check failed", e);
@@ -63,14 +86,60 @@ public class SystemRestAdapter {
     @GET
     @Path("/info")
     public Response getApplicationInfo() {
+        return Response.ok(new ApplicationInfo(clock.millis())).build();
+    }
+
+    /**
+     * Credential verification metrics: queue wait versus hashing time, rejections
+     * Primary port: System monitoring use case
+     */
+    @GET
+    @Path("/authentication")
+    public Response getAuthenticationMetrics() {
+        return Response.ok(systemUseCases.getAuthenticationMetrics()).build();
+    }
+
+    /**
+     * Channel connection metrics: open channels, reaped sockets, slow consumers and send completion times
+     */
+    @GET
+    @Path("/channels")
+    public Response getChannelMetrics() {
         return Response.ok(Map.of(
-            "application", "QR Authentication System",
-            "version", "2.0",
-            "architecture", "Hexagonal Architecture with DDD",
-            "timestamp", Instant.now().toString()
+            "channels", sessionRegistry.channelCount(),
+            "reaper", sessionReaper.metrics(),
+            "backpressure", backpressure.metrics()
         )).build();
     }
 
+    /**
+     * Per-client rate limit metrics: allowed and rejected requests, evicted and overflowing buckets
+     */
+    @GET
+    @Path("/rate-limits")
+    public Response getRateLimitMetrics() {
+        return Response.ok(rateLimitFilter.metrics()).build();
+    }
+
+    /**
+     * Concurrency limiter metrics: current limit, latency averages, admitted and shed requests per priority
+     */
+    @GET
+    @Path("/concurrency")
+    public Response getConcurrencyMetrics() {
+        return Response.ok(concurrencyLimitFilter.metrics()).build();
+    }
+
+    /**
+     * Counters, gauges and latency summaries in the Prometheus text format, for scraping
+     */
+    @GET
+    @Path("/metrics")
+    @Produces(PROMETHEUS_TEXT)
+    public String getMetrics() {
+        return metrics.scrape();
+    }
+
     /**
      * Manual cleanup trigger for maintenance
      * Primary port: System maintenance use case
@@ -99,4 +168,16 @@ public class SystemRestAdapter {
                     .build();
         }
     }
+
+    /**
+     * Body of a healthy health check, written by {@link FixedShapeJsonWriter.Health}
+     */
+    public record HealthReport(String message, long timestampMillis) {
+    }
+
+    /**
+     * Body of the info endpoint, written by {@link FixedShapeJsonWriter.Info}
+     */
+    public record ApplicationInfo(long timestampMillis) {
+    }
 }
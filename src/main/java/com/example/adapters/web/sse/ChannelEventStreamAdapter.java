@@ -0,0 +1,85 @@
+package com.example.adapters.web.sse;
+
+import com.example.adapters.web.channel.ChannelRole;
+import com.example.adapters.web.channel.OutboundBackpressure;
+import com.example.adapters.web.channel.ChannelSessionReaper;
+import com.example.adapters.web.channel.ChannelSessionRegistry;
+import com.example.adapters.web.channel.ChannelStatus;
+import com.example.application.ports.primary.QRAuthenticationUseCases;
+import com.example.domain.time.EpochClock;
+import io.quarkus.vertx.web.Route;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Server-Sent Events adapter for the desktop side of an authentication channel
+ * The desktop only waits for one result, so a plain HTTP stream replaces a bidirectional WebSocket session.
+ * The stream runs on the Vert.x event loop without a thread per waiter; it is registered in the
+ * {@link ChannelSessionRegistry} as a desktop, so it receives the same result and expiry messages as
+ * the WebSocket endpoint. The phone keeps using the WebSocket.
+ */
+@ApplicationScoped
+public class ChannelEventStreamAdapter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChannelEventStreamAdapter.class);
+    private static final String INVALID_CHANNEL = SseChannelConnection.event(ChannelStatus.INVALID_CHANNEL.json());
+
+    private final QRAuthenticationUseCases authenticationUseCases;
+    private final ChannelSessionRegistry sessionRegistry;
+    private final ChannelSessionReaper sessionReaper;
+    private final EpochClock clock;
+    private final OutboundBackpressure backpressure;
+
+    @Inject
+    public ChannelEventStreamAdapter(QRAuthenticationUseCases authenticationUseCases,
+                                     ChannelSessionRegistry sessionRegistry,
+                                     ChannelSessionReaper sessionReaper, EpochClock clock,
+                                     OutboundBackpressure backpressure) {
+        this.authenticationUseCases = authenticationUseCases;
+        this.sessionRegistry = sessionRegistry;
+        this.sessionReaper = sessionReaper;
+        this.clock = clock;
+        this.backpressure = backpressure;
+    }
+
+    /**
+     * Streams the channel's messages until the result is delivered or the channel expires
+     * Primary port: Channel connection establishment use case
+     */
+    @Route(path = "/auth/channel/:channelId/events", methods = Route.HttpMethod.GET)
+    void events(RoutingContext context) {
+        String channel = context.pathParam("channelId");
+        HttpServerResponse response = context.response()
+            .setChunked(true)
+            .putHeader("Content-Type", "text/event-stream")
+            .putHeader("Cache-Control", "no-cache")
+            .putHeader("X-Accel-Buffering", "no");
+
+        var validationResult = authenticationUseCases.validateChannel(channel);
+        if (!validationResult.isValid()) {
+            LOGGER.warn("Invalid channel event stream attempt: {}", channel);
+            response.end(INVALID_CHANNEL);
+            return;
+        }
+
+        SseChannelConnection connection = new SseChannelConnection(response, context.vertx().getOrCreateContext(), clock,
+            backpressure);
+        // Ended by us once the channel is done, closed when the client goes away
+        response.endHandler(ignored -> release(channel, connection));
+        response.closeHandler(ignored -> release(channel, connection));
+        response.write(": connected\n\n");
+        sessionRegistry.register(channel, ChannelRole.DESKTOP, connection);
+        sessionReaper.watch(channel, connection, validationResult.getExpiresAtMillis());
+        LOGGER.info("Event stream opened for channel: {}", channel);
+    }
+
+    private void release(String channel, SseChannelConnection connection) {
+        LOGGER.debug("Event stream closed for channel: {}", channel);
+        sessionReaper.unwatch(connection);
+        sessionRegistry.unregister(channel, connection);
+    }
+}
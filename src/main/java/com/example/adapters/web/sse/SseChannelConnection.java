@@ -0,0 +1,88 @@
+package com.example.adapters.web.sse;
+
+import com.example.adapters.web.channel.ChannelConnection;
+import com.example.adapters.web.channel.OutboundBackpressure;
+import com.example.adapters.web.channel.OutboundWindow;
+import com.example.domain.time.EpochClock;
+import io.vertx.core.Context;
+import io.vertx.core.http.HttpServerResponse;
+
+/**
+ * ChannelConnection over a Server-Sent Events response
+ * Writes are handed to the response's event loop, callers on any thread never block. The stream is one-way,
+ * so a ping is a comment line and counts as activity once the write succeeds; a dead client fails the write
+ * and closes the response. Events go through an {@link OutboundWindow}, pings bypass it.
+ */
+final class SseChannelConnection implements ChannelConnection {
+
+    private static final String PING = ": ping\n\n";
+
+    private final HttpServerResponse response;
+    private final Context context;
+    private final EpochClock clock;
+    private final OutboundWindow outbound;
+    private volatile long lastActivityMillis;
+
+    SseChannelConnection(HttpServerResponse response, Context context, EpochClock clock,
+                         OutboundBackpressure backpressure) {
+        this.response = response;
+        this.context = context;
+        this.clock = clock;
+        this.outbound = backpressure.window(this::write, this::end);
+        this.lastActivityMillis = clock.millis();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !response.closed() && !response.ended();
+    }
+
+    @Override
+    public void sendText(String message) {
+        outbound.send(event(message));
+    }
+
+    @Override
+    public void ping() {
+        write(PING, result -> {
+            if (result) {
+                lastActivityMillis = clock.millis();
+            }
+        });
+    }
+
+    @Override
+    public long lastActivityMillis() {
+        return lastActivityMillis;
+    }
+
+    @Override
+    public void close() {
+        outbound.close();
+    }
+
+    private void end() {
+        context.runOnContext(ignored -> {
+            if (isOpen()) {
+                response.end();
+            }
+        });
+    }
+
+    /**
+     * Formats a message as one SSE event, line breaks become continuation data lines
+     */
+    static String event(String message) {
+        return "data: " + message.replace("\n", "\ndata: ") + "\n\n";
+    }
+
+    private void write(String chunk, OutboundWindow.CompletionListener listener) {
+        context.runOnContext(ignored -> {
+            if (!isOpen()) {
+                listener.completed(false);
+                return;
+            }
+            response.write(chunk, result -> listener.completed(result.succeeded()));
+        });
+    }
+}
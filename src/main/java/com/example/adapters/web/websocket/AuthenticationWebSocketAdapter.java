@@ -1,11 +1,14 @@
 package com.example.adapters.web.websocket;
 
-import com.example.application.authentication.QRAuthenticationApplicationService.ChannelAuthenticationResult;
+import com.example.adapters.web.channel.ChannelConnection;
+import com.example.adapters.web.channel.ChannelRole;
+import com.example.adapters.web.channel.ChannelSessionReaper;
+import com.example.adapters.web.channel.ChannelSessionRegistry;
+import com.example.adapters.web.channel.ChannelStatus;
+import com.example.adapters.web.channel.OutboundBackpressure;
 import com.example.application.ports.primary.QRAuthenticationUseCases;
-import com.example.domain.authentication.AuthenticationCredentials;
-import com.example.domain.authentication.AuthenticationException;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.domain.time.EpochClock;
+import com.example.infrastructure.execution.HandlerExecutor;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.websocket.*;
@@ -15,29 +18,47 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.nio.ByteBuffer;
+import java.util.List;
 
 /**
  * WebSocket adapter for real-time authentication channels
  * This is a primary adapter that handles WebSocket connections for the authentication use case
  * Following hexagonal architecture, this adapter translates WebSocket events into domain operations
+ * Desktops connect to /{channel}, phones to /{channel}?role=phone; sessions are tracked in the
+ * {@link ChannelSessionRegistry} so results reach only the sockets of their own channel, and watched by the
+ * {@link ChannelSessionReaper} so silent clients and expired channels do not hold sockets open.
+ * Clients offering the {@link BinaryChannelProtocol} subprotocol get binary frames instead of JSON text.
+ * Messages are handled through the {@link HandlerExecutor}, on the I/O thread or on a virtual thread.
  */
-@ServerEndpoint("/{channel}")
+@ServerEndpoint(value = "/{channel}", subprotocols = BinaryChannelProtocol.SUBPROTOCOL)
 @ApplicationScoped
 public class AuthenticationWebSocketAdapter {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(AuthenticationWebSocketAdapter.class);
+    private static final String CONNECTION_PROPERTY = "channelConnection";
     
     private final QRAuthenticationUseCases authenticationUseCases;
-    private final ObjectMapper objectMapper;
-    private final ConcurrentMap<String, Session> sessions;
+    private final ChannelSessionRegistry sessionRegistry;
+    private final ChannelSessionReaper sessionReaper;
+    private final EpochClock clock;
+    private final ChannelMessageHandler messageHandler;
+    private final OutboundBackpressure backpressure;
+    private final HandlerExecutor handlerExecutor;
 
     @Inject
-    public AuthenticationWebSocketAdapter(QRAuthenticationUseCases authenticationUseCases) {
+    public AuthenticationWebSocketAdapter(QRAuthenticationUseCases authenticationUseCases,
+                                          ChannelSessionRegistry sessionRegistry,
+                                          ChannelSessionReaper sessionReaper, EpochClock clock,
+                                          ChannelMessageHandler messageHandler, OutboundBackpressure backpressure,
+                                          HandlerExecutor handlerExecutor) {
         this.authenticationUseCases = authenticationUseCases;
-        this.objectMapper = new ObjectMapper();
-        this.sessions = new ConcurrentHashMap<>();
+        this.sessionRegistry = sessionRegistry;
+        this.sessionReaper = sessionReaper;
+        this.clock = clock;
+        this.messageHandler = messageHandler;
+        this.backpressure = backpressure;
+        this.handlerExecutor = handlerExecutor;
     }
 
     /**
@@ -54,18 +75,22 @@ public class AuthenticationWebSocketAdapter {
             
             if (!validationResult.isValid()) {
                 LOGGER.warn("Invalid channel connection attempt: {}", channel);
-                sendErrorAndClose(session, "invalid_channel", 
-                    "This authentication channel does not exist or has expired");
+                sendErrorAndClose(session, ChannelStatus.INVALID_CHANNEL);
                 return;
             }
             
-            // Store session for valid channel
-            sessions.put(channel, session);
-            LOGGER.debug("Session stored for valid channel: {}", channel);
+            // Register session for valid channel under the role the client asked for
+            ChannelRole role = ChannelRole.fromParameter(firstParameter(session, "role"));
+            WebSocketChannelConnection connection =
+                new WebSocketChannelConnection(session, clock, backpressure, isBinary(session));
+            session.getUserProperties().put(CONNECTION_PROPERTY, connection);
+            sessionRegistry.register(channel, role, connection);
+            sessionReaper.watch(channel, connection, validationResult.getExpiresAtMillis());
+            LOGGER.debug("Session registered as {} for valid channel: {}", role, channel);
             
         } catch (Exception e) {
             LOGGER.error("Error during WebSocket connection for channel: {}", channel, e);
-            sendErrorAndClose(session, "server_error", "Error processing connection");
+            sendErrorAndClose(session, ChannelStatus.CONNECTION_ERROR);
         }
     }
 
@@ -75,7 +100,7 @@ public class AuthenticationWebSocketAdapter {
     @OnClose
     public void onClose(Session session, @PathParam("channel") String channel) {
         LOGGER.info("WebSocket connection closed for channel: {}", channel);
-        sessions.remove(channel);
+        unregister(session, channel);
     }
 
     /**
@@ -84,7 +109,15 @@ public class AuthenticationWebSocketAdapter {
     @OnError
     public void onError(Session session, @PathParam("channel") String channel, Throwable throwable) {
         LOGGER.error("WebSocket error for channel: {}", channel, throwable);
-        sessions.remove(channel);
+        unregister(session, channel);
+    }
+
+    /**
+     * Handle answers to the reaper's pings
+     */
+    @OnMessage
+    public void onPong(PongMessage pong, Session session) {
+        markActive(session);
     }
 
     /**
@@ -92,131 +125,87 @@ public class AuthenticationWebSocketAdapter {
      * Primary port: Authentication via channel use case
      */
     @OnMessage
-    public void onMessage(String message, @PathParam("channel") String channel) {
+    public void onMessage(String message, Session session, @PathParam("channel") String channel) {
         LOGGER.info("WebSocket message received for channel: {}", channel);
+        markActive(session);
         
-        try {
-            // Parse and validate authentication message
-            AuthenticationMessage authMessage = parseAuthenticationMessage(message);
-            if (authMessage == null) {
-                sendError(channel, "invalid_message", "Invalid authentication message format");
-                return;
-            }
-            /* 
-                * Authentication is done through REST
-                // Create credentials from message
-                AuthenticationCredentials credentials = AuthenticationCredentials.of(
-                    authMessage.username(), authMessage.password()
-                );
-                
-                // Process authentication via channel
-                var result = authenticationUseCases.authenticateViaChannel(channel, credentials);
-                // Send success response
-                sendMessage(channel, result.toMap());
-            */
-            
-            var result = new ChannelAuthenticationResult(
-                authMessage.username(), 
-                authMessage.password(), // Placeholder, actual token generation is done in REST
-                "success"
-            );
-            sendMessage(channel, result.toMap());
-
-            // Close the channel after successful authentication
-            closeChannel(channel);
-            
-            LOGGER.info("Authentication successful for channel: {}, user: {}", 
-                channel, result.getUsername());
-            
-/*         } catch (AuthenticationException e) {
-            LOGGER.warn("Authentication failed for channel: {}, error: {}", channel, e.getMessage());
-            
-            if (e.getMessage().contains("channel")) {
-                sendError(channel, "expired_channel", e.getMessage());
-            } else {
-                sendError(channel, "authentication_failed", e.getMessage());
-            } */
-        } catch (Exception e) {
-            LOGGER.error("Unexpected error processing message for channel: {}", channel, e);
-            sendError(channel, "server_error", "Error processing authentication");
-        }
+        handlerExecutor.dispatch(() -> sendError(session, messageHandler.handle(channel, message)));
     }
-    
+
     /**
-     * Parse authentication message from WebSocket
-     * Expected format: "auth:username:password"
+     * Handle incoming binary frames of the binary subprotocol
+     * Primary port: Authentication via channel use case
      */
-    private AuthenticationMessage parseAuthenticationMessage(String message) {
-        if (message == null || !message.startsWith("auth:")) {
-            return null;
-        }
-        
-        String[] parts = message.split(":", 3);
-        if (parts.length < 3) {
-            return null;
-        }
-        
-        return new AuthenticationMessage(parts[1], parts[2]);
+    @OnMessage
+    public void onBinaryMessage(ByteBuffer frame, Session session, @PathParam("channel") String channel) {
+        LOGGER.info("WebSocket binary message received for channel: {}", channel);
+        markActive(session);
+
+        // Decoded here, the frame's buffer is reused once this method returns
+        var credentials = BinaryChannelProtocol.decodeAuthentication(frame);
+        handlerExecutor.dispatch(() -> sendError(session, credentials == null
+            ? ChannelStatus.INVALID_MESSAGE
+            : messageHandler.authenticate(channel, credentials.username(), credentials.token())));
     }
-    
+
     /**
-     * Send message to a specific channel
+     * Send an error to this session only, in the session's protocol
      */
-    private void sendMessage(String channel, Object messageData) {
-        Session session = sessions.get(channel);
-        if (session == null || !session.isOpen()) {
-            LOGGER.warn("Cannot send message, no active session for channel: {}", channel);
+    private void sendError(Session session, ChannelStatus error) {
+        if (error == null || !session.isOpen()) {
             return;
         }
-        
-        try {
-            String jsonMessage = objectMapper.writeValueAsString(messageData);
-            session.getOpenSessions().forEach(s -> {
-                if (s.getPathParameters().get("channel").equals(channel)) {
-                    s.getAsyncRemote().sendText(jsonMessage);
-                }
-            });
-            LOGGER.debug("Message sent to channel: {}", channel);
-            
-        } catch (JsonProcessingException e) {
-            LOGGER.error("Error serializing message for channel: {}", channel, e);
+        if (isBinary(session)) {
+            session.getAsyncRemote().sendBinary(BinaryChannelProtocol.status(error));
+        } else {
+            session.getAsyncRemote().sendText(error.json());
         }
     }
     
     /**
-     * Send error message to a specific channel
+     * Send error message and close the session once it is written
+     * Called on the IO thread, where the blocking remote is not available
      */
-    private void sendError(String channel, String errorCode, String errorMessage) {
-        ErrorMessage error = new ErrorMessage(errorCode, errorMessage);
-        sendMessage(channel, error);
-    }
-    
-    /**
-     * Send error message and immediately close the session
-     */
-    private void sendErrorAndClose(Session session, String errorCode, String errorMessage) {
+    private void sendErrorAndClose(Session session, ChannelStatus error) {
         try {
-            ErrorMessage error = new ErrorMessage(errorCode, errorMessage);
-            String jsonMessage = objectMapper.writeValueAsString(error);
-            session.getBasicRemote().sendText(jsonMessage);
-            
+            SendHandler close = ignored -> closeSession(session);
+            if (isBinary(session)) {
+                session.getAsyncRemote().sendBinary(BinaryChannelProtocol.status(error), close);
+            } else {
+                session.getAsyncRemote().sendText(error.json(), close);
+            }
         } catch (Exception e) {
             LOGGER.error("Error sending error message", e);
-        } finally {
             closeSession(session);
         }
     }
+
+    private static boolean isBinary(Session session) {
+        return BinaryChannelProtocol.SUBPROTOCOL.equals(session.getNegotiatedSubprotocol());
+    }
     
     /**
-     * Close a channel and its associated session
+     * Remove a session from the registry, sessions rejected on open were never registered
      */
-    private void closeChannel(String channel) {
-        Session session = sessions.remove(channel);
-        if (session != null) {
-            closeSession(session);
+    private void unregister(Session session, String channel) {
+        Object connection = session.getUserProperties().get(CONNECTION_PROPERTY);
+        if (connection instanceof ChannelConnection channelConnection) {
+            sessionReaper.unwatch(channelConnection);
+            sessionRegistry.unregister(channel, channelConnection);
+        }
+    }
+    
+    private static void markActive(Session session) {
+        if (session.getUserProperties().get(CONNECTION_PROPERTY) instanceof WebSocketChannelConnection connection) {
+            connection.markActive();
         }
     }
     
+    private static String firstParameter(Session session, String name) {
+        List<String> values = session.getRequestParameterMap().get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+    
     /**
      * Safely close a WebSocket session
      */
@@ -229,16 +218,4 @@ public class AuthenticationWebSocketAdapter {
             LOGGER.error("Error closing WebSocket session", e);
         }
     }
-    
-    /**
-     * Record for authentication message parsing
-     * Internal data structure for message handling
-     */
-    private record AuthenticationMessage(String username, String password) {}
-    
-    /**
-     * Record for error messages sent to clients
-     * External contract for error communication
-     */
-    public record ErrorMessage(String status, String message) {}
 }
@@ -0,0 +1,191 @@
+package com.example.adapters.web.websocket;
+
+import com.example.adapters.web.channel.ChannelStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Binary frames of the qrlog.bin.v1 WebSocket subprotocol
+ * Clients offering the subprotocol in Sec-WebSocket-Protocol exchange these frames instead of JSON text,
+ * strings are an unsigned 16-bit big-endian length followed by UTF-8 bytes:
+ *
+ *   0x01 AUTH    username, token     phone to server
+ *   0x81 RESULT  username, token     server to desktop and phone
+ *   0x82 STATUS  one status byte     server to client
+ *
+ * Status frames are built once and shared read-only; callers send a duplicate so the position of the
+ * shared buffer never moves. A result is published as one message string handed to every connection of the
+ * channel, so its frame is built once from the typed fields when the message is created, see
+ * {@link #prepareResult}, and found again by the identity of that string. Only messages from another node or
+ * evicted from the small cache of recent frames are parsed back from JSON.
+ */
+final class BinaryChannelProtocol {
+
+    static final String SUBPROTOCOL = "qrlog.bin.v1";
+
+    static final byte AUTH = 0x01;
+    static final byte RESULT = (byte) 0x81;
+    static final byte STATUS = (byte) 0x82;
+
+    static final byte INVALID_CHANNEL = 1;
+    static final byte INVALID_MESSAGE = 2;
+    static final byte SERVER_ERROR = 3;
+    static final byte EXPIRED = 4;
+    static final byte UNAUTHORIZED = 5;
+
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Map<ChannelStatus, ByteBuffer> STATUS_FRAMES = new EnumMap<>(ChannelStatus.class);
+    private static final int RECENT_FRAMES = 64; // Power of two, results published at about the same time
+    private static final AtomicReferenceArray<EncodedMessage> RECENT = new AtomicReferenceArray<>(RECENT_FRAMES);
+
+    static {
+        for (ChannelStatus status : ChannelStatus.values()) {
+            byte code = switch (status) {
+                case INVALID_CHANNEL -> INVALID_CHANNEL;
+                case INVALID_MESSAGE -> INVALID_MESSAGE;
+                case CONNECTION_ERROR, AUTHENTICATION_ERROR -> SERVER_ERROR;
+                case EXPIRED -> EXPIRED;
+                case UNAUTHORIZED -> UNAUTHORIZED;
+            };
+            STATUS_FRAMES.put(status, ByteBuffer.wrap(new byte[] {STATUS, code}).asReadOnlyBuffer());
+        }
+    }
+
+    /**
+     * Credentials carried by an AUTH frame
+     */
+    record Credentials(String username, String token) {}
+
+    private record EncodedMessage(String message, ByteBuffer frame) {}
+
+    private BinaryChannelProtocol() {
+    }
+
+    /**
+     * @return the shared frame of a status, ready to send
+     */
+    static ByteBuffer status(ChannelStatus status) {
+        return STATUS_FRAMES.get(status).duplicate();
+    }
+
+    /**
+     * Translates a channel message, as published in JSON, into its binary frame
+     * @return the frame, null if the message has no binary form
+     */
+    static ByteBuffer encode(String message) {
+        ChannelStatus status = ChannelStatus.fromJson(message);
+        if (status != null) {
+            return status(status);
+        }
+        EncodedMessage recent = RECENT.get(slot(message));
+        if (recent != null && recent.message() == message) {
+            return recent.frame().duplicate();
+        }
+        ByteBuffer frame = parseResult(message);
+        if (frame == null) {
+            return null;
+        }
+        // Remembered, so the other connections of the channel on this node reuse it
+        return remember(message, frame);
+    }
+
+    /**
+     * Builds the RESULT frame of a result message as the message is created, before any connection sends it
+     */
+    static void prepareResult(String message, String username, String token) {
+        ByteBuffer frame = result(username, token);
+        if (frame != null) {
+            remember(message, frame);
+        }
+    }
+
+    private static ByteBuffer remember(String message, ByteBuffer frame) {
+        ByteBuffer shared = frame.asReadOnlyBuffer();
+        RECENT.set(slot(message), new EncodedMessage(message, shared));
+        return shared.duplicate();
+    }
+
+    private static int slot(String message) {
+        return System.identityHashCode(message) & (RECENT_FRAMES - 1);
+    }
+
+    private static ByteBuffer parseResult(String message) {
+        try {
+            JsonNode result = OBJECT_MAPPER.readTree(message);
+            JsonNode username = result.get("username");
+            JsonNode token = result.get("token");
+            if (username == null || token == null) {
+                return null;
+            }
+            return result(username.asText(), token.asText());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return a RESULT frame, null if a field is too long for the format
+     */
+    static ByteBuffer result(String username, String token) {
+        byte[] usernameBytes = username.getBytes(StandardCharsets.UTF_8);
+        byte[] tokenBytes = token.getBytes(StandardCharsets.UTF_8);
+        if (usernameBytes.length > MAX_STRING_BYTES || tokenBytes.length > MAX_STRING_BYTES) {
+            return null;
+        }
+        ByteBuffer frame = ByteBuffer.allocate(5 + usernameBytes.length + tokenBytes.length);
+        frame.put(RESULT);
+        putString(frame, usernameBytes);
+        putString(frame, tokenBytes);
+        return frame.flip();
+    }
+
+    /**
+     * Reads an AUTH frame without moving the position of the given buffer
+     * @return the credentials, null if the frame is not a well-formed AUTH frame
+     */
+    static Credentials decodeAuthentication(ByteBuffer frame) {
+        ByteBuffer in = frame.duplicate();
+        if (!in.hasRemaining() || in.get() != AUTH) {
+            return null;
+        }
+        String username = getString(in);
+        String token = username != null ? getString(in) : null;
+        if (token == null || in.hasRemaining()) {
+            return null;
+        }
+        return new Credentials(username, token);
+    }
+
+    private static void putString(ByteBuffer frame, byte[] bytes) {
+        frame.putShort((short) bytes.length);
+        frame.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        if (in.remaining() < 2) {
+            return null;
+        }
+        int length = Short.toUnsignedInt(in.getShort());
+        if (in.remaining() < length) {
+            return null;
+        }
+        String value;
+        if (in.hasArray()) {
+            value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.adapters.web.websocket;
+
+import com.example.adapters.web.websocket.ChannelMessageHandler.JoinResult;
+import com.example.infrastructure.execution.HandlerExecutor;
+import io.quarkus.vertx.http.HttpServerOptionsCustomizer;
+import io.vertx.core.Context;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * WebSocket adapter for phones joining a channel in a single round trip
+ * The channel is in the path and the bearer token in the handshake: browsers offer the subprotocols
+ * "qrlog.join.v1" and "bearer.&lt;token&gt;", other clients may send an Authorization header instead. The join
+ * is processed before the upgrade, so the first and only frame the phone receives is the result, or the status
+ * that rejected it, and the socket is then closed. Replaces validating over REST, connecting to the channel
+ * and sending "auth:username:token". Served by Vert.x whichever channel WebSocket server is configured.
+ */
+@ApplicationScoped
+public class ChannelJoinWebSocketAdapter implements HttpServerOptionsCustomizer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChannelJoinWebSocketAdapter.class);
+    static final String PATH = "/auth/channel/:channelId/join";
+    static final String SUBPROTOCOL = "qrlog.join.v1";
+    static final String BEARER_PROTOCOL_PREFIX = "bearer.";
+    private static final String BEARER_SCHEME = "Bearer ";
+
+    private final ChannelMessageHandler messageHandler;
+    private final HandlerExecutor handlerExecutor;
+
+    @Inject
+    public ChannelJoinWebSocketAdapter(ChannelMessageHandler messageHandler, HandlerExecutor handlerExecutor) {
+        this.messageHandler = messageHandler;
+        this.handlerExecutor = handlerExecutor;
+    }
+
+    void registerRoute(@Observes Router router) {
+        router.get(PATH).handler(this::upgrade);
+    }
+
+    @Override
+    public void customizeHttpServer(HttpServerOptions options) {
+        addSubProtocol(options);
+    }
+
+    @Override
+    public void customizeHttpsServer(HttpServerOptions options) {
+        addSubProtocol(options);
+    }
+
+    private static void addSubProtocol(HttpServerOptions options) {
+        // The bearer entry is never selected, the server answers with the join protocol
+        List<String> subProtocols = options.getWebSocketSubProtocols() != null
+            ? new ArrayList<>(options.getWebSocketSubProtocols())
+            : new ArrayList<>();
+        subProtocols.add(SUBPROTOCOL);
+        options.setWebSocketSubProtocols(subProtocols);
+    }
+
+    private void upgrade(RoutingContext context) {
+        HttpServerRequest request = context.request();
+        if (!"websocket".equalsIgnoreCase(request.getHeader(HttpHeaders.UPGRADE))) {
+            context.next();
+            return;
+        }
+        String channel = context.pathParam("channelId");
+        String token = bearerToken(request.getHeader("Sec-WebSocket-Protocol"),
+            request.getHeader(HttpHeaders.AUTHORIZATION));
+
+        if (!handlerExecutor.isVirtual()) {
+            // In-memory channel and token lookups, cheap enough for the event loop
+            respond(request, channel, messageHandler.join(channel, token));
+            return;
+        }
+        // The upgrade itself goes back to the request's event loop once the join is decided
+        Context eventLoop = context.vertx().getOrCreateContext();
+        request.pause();
+        handlerExecutor.dispatch(() -> {
+            JoinResult result = messageHandler.join(channel, token);
+            eventLoop.runOnContext(ignored -> respond(request, channel, result));
+        });
+    }
+
+    private void respond(HttpServerRequest request, String channel, JoinResult result) {
+        String frame = result.error() != null ? result.error().json() : result.message();
+        if (result.error() != null) {
+            LOGGER.warn("Phone join rejected for channel: {}, status: {}", channel, result.error().code());
+        }
+
+        request.toWebSocket()
+            .onSuccess(webSocket -> webSocket.writeTextMessage(frame)
+                .onComplete(ignored -> webSocket.close()))
+            .onFailure(failure -> LOGGER.warn("Phone join upgrade failed for channel: {}", channel, failure));
+    }
+
+    /**
+     * Reads the bearer token of a join handshake
+     * @param protocols the Sec-WebSocket-Protocol header, may be null
+     * @param authorization the Authorization header, may be null
+     * @return the token, null if the handshake carries none
+     */
+    static String bearerToken(String protocols, String authorization) {
+        if (authorization != null && authorization.regionMatches(true, 0, BEARER_SCHEME, 0, BEARER_SCHEME.length())) {
+            String token = authorization.substring(BEARER_SCHEME.length()).trim();
+            return token.isEmpty() ? null : token;
+        }
+        if (protocols == null) {
+            return null;
+        }
+        for (String protocol : protocols.split(",")) {
+            protocol = protocol.trim();
+            if (protocol.startsWith(BEARER_PROTOCOL_PREFIX) && protocol.length() > BEARER_PROTOCOL_PREFIX.length()) {
+                return protocol.substring(BEARER_PROTOCOL_PREFIX.length());
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.adapters.web.websocket;
+
+import com.example.adapters.web.channel.ChannelSessionRegistry;
+import com.example.adapters.web.channel.ChannelStatus;
+import com.example.adapters.web.json.JsonBytes;
+import com.example.application.authentication.QRAuthenticationApplicationService.ChannelAuthenticationResult;
+import com.example.application.ports.primary.QRAuthenticationUseCases;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Message contract of the channel WebSocket, shared by the Jakarta and Vert.x endpoints
+ * A phone sends "auth:username:token", or an AUTH frame of {@link BinaryChannelProtocol}; the channel is
+ * completed, then the result is published to every connection of the channel, on whichever node holds them,
+ * and the channel closed. Errors are returned to the caller, which sends them to the offending connection only
+ * in that connection's protocol. A phone joining through {@link ChannelJoinWebSocketAdapter} skips the message
+ * and is verified from its handshake instead.
+ */
+@ApplicationScoped
+public class ChannelMessageHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChannelMessageHandler.class);
+    private static final String AUTH_PREFIX = "auth:";
+    private static final byte[] RESULT_STATUS = JsonBytes.fragment("{\"status\":");
+    private static final byte[] RESULT_USERNAME = JsonBytes.fragment(",\"username\":");
+    private static final byte[] RESULT_TOKEN = JsonBytes.fragment(",\"token\":");
+    private static final byte[] RESULT_END = JsonBytes.fragment("}");
+
+    private final QRAuthenticationUseCases authenticationUseCases;
+    private final ChannelSessionRegistry sessionRegistry;
+
+    @Inject
+    public ChannelMessageHandler(QRAuthenticationUseCases authenticationUseCases,
+                                 ChannelSessionRegistry sessionRegistry) {
+        this.authenticationUseCases = authenticationUseCases;
+        this.sessionRegistry = sessionRegistry;
+    }
+
+    /**
+     * Handles a text message received on a channel
+     * Primary port: Authentication via channel use case
+     * @return the error for the sender, null if the message was handled
+     */
+    public ChannelStatus handle(String channel, String message) {
+        // Expected format: "auth:username:token", the token may itself contain colons
+        if (message == null || !message.startsWith(AUTH_PREFIX)) {
+            return ChannelStatus.INVALID_MESSAGE;
+        }
+        int separator = message.indexOf(':', AUTH_PREFIX.length());
+        if (separator < 0) {
+            return ChannelStatus.INVALID_MESSAGE;
+        }
+        return authenticate(channel, message.substring(AUTH_PREFIX.length(), separator),
+            message.substring(separator + 1));
+    }
+
+    /**
+     * Completes the channel and publishes the credentials a phone forwarded
+     * Primary port: Authentication via channel use case
+     * @return the error for the sender, null if the channel was completed
+     */
+    public ChannelStatus authenticate(String channel, String username, String token) {
+        try {
+            // Consumed first, only one phone's result reaches the desktop and a consumed channel publishes nothing
+            if (!authenticationUseCases.completeChannel(channel)) {
+                return ChannelStatus.INVALID_CHANNEL;
+            }
+
+            // Authentication is done through REST, the phone forwards the token it obtained there
+            var result = new ChannelAuthenticationResult(username, token, "success");
+            sessionRegistry.publish(channel, resultMessage(result));
+            LOGGER.debug("Message published to channel: {}", channel);
+
+            // Close the channel after successful authentication
+            sessionRegistry.publishClose(channel);
+
+            LOGGER.info("Authentication successful for channel: {}, user: {}",
+                channel, result.getUsername());
+            return null;
+
+        } catch (Exception e) {
+            LOGGER.error("Unexpected error processing message for channel: {}", channel, e);
+            return ChannelStatus.AUTHENTICATION_ERROR;
+        }
+    }
+
+    /**
+     * Joins a phone to a channel with the bearer token of its handshake, in one step
+     * Primary port: Authentication via channel use case
+     * The channel is validated, the token verified and the channel consumed before the result is published;
+     * the username comes from the token rather than from the client.
+     * @return the result message for the phone, or the error for it
+     */
+    public JoinResult join(String channel, String token) {
+        try {
+            if (!authenticationUseCases.validateChannel(channel).isValid()) {
+                return JoinResult.failed(ChannelStatus.INVALID_CHANNEL);
+            }
+            var introspection = token == null || token.isEmpty()
+                ? null
+                : authenticationUseCases.introspectTokens(List.of(token)).get(0);
+            if (introspection == null || !introspection.isActive()) {
+                return JoinResult.failed(ChannelStatus.UNAUTHORIZED);
+            }
+            // Consumed first, a second join with the same channel finds it gone
+            if (!authenticationUseCases.completeChannel(channel)) {
+                return JoinResult.failed(ChannelStatus.INVALID_CHANNEL);
+            }
+
+            var result = new ChannelAuthenticationResult(introspection.getUsername(), token, "success");
+            String message = resultMessage(result);
+            sessionRegistry.publish(channel, message);
+            sessionRegistry.publishClose(channel);
+
+            LOGGER.info("Phone joined channel: {}, user: {}", channel, result.getUsername());
+            return JoinResult.joined(message);
+
+        } catch (Exception e) {
+            LOGGER.error("Unexpected error joining channel: {}", channel, e);
+            return JoinResult.failed(ChannelStatus.AUTHENTICATION_ERROR);
+        }
+    }
+
+    /**
+     * Outcome of a join, exactly one of message and error is set
+     */
+    public record JoinResult(String message, ChannelStatus error) {
+
+        static JoinResult joined(String message) {
+            return new JoinResult(message, null);
+        }
+
+        static JoinResult failed(ChannelStatus error) {
+            return new JoinResult(null, error);
+        }
+    }
+
+    /**
+     * Encodes a result the way {@link ChannelAuthenticationResult#toMap()} would serialize, without the map
+     */
+    static String resultMessage(ChannelAuthenticationResult result) {
+        byte[] out = new byte[RESULT_STATUS.length + JsonBytes.stringLength(result.getStatus())
+            + RESULT_USERNAME.length + JsonBytes.stringLength(result.getUsername())
+            + RESULT_TOKEN.length + JsonBytes.stringLength(result.getToken()) + RESULT_END.length];
+        int position = JsonBytes.write(out, 0, RESULT_STATUS);
+        position = JsonBytes.writeString(out, position, result.getStatus());
+        position = JsonBytes.write(out, position, RESULT_USERNAME);
+        position = JsonBytes.writeString(out, position, result.getUsername());
+        position = JsonBytes.write(out, position, RESULT_TOKEN);
+        position = JsonBytes.writeString(out, position, result.getToken());
+        JsonBytes.write(out, position, RESULT_END);
+        String message = new String(out, StandardCharsets.UTF_8);
+        BinaryChannelProtocol.prepareResult(message, result.getUsername(), result.getToken());
+        return message;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.adapters.web.websocket;
+
+import com.example.adapters.web.channel.ChannelSessionReaper;
+import com.example.adapters.web.channel.ChannelSessionRegistry;
+import com.example.adapters.web.channel.OutboundBackpressure;
+import com.example.adapters.web.channel.RotatingDesktopSession;
+import com.example.adapters.web.ratelimit.RateLimitFilter;
+import com.example.application.ports.primary.QRAuthenticationUseCases;
+import com.example.domain.time.EpochClock;
+import com.example.infrastructure.execution.HandlerExecutor;
+import com.example.infrastructure.scheduling.TimingWheel;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.net.HostAndPort;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executor;
+
+/**
+ * WebSocket adapter for desktops that keep one connection open across QR codes
+ * A desktop connecting to /desktop/session is sent a QR code and its channel right away, then a fresh one
+ * shortly before each channel expires, see {@link RotatingDesktopSession}. This replaces fetching /auth/qr
+ * and reconnecting every few minutes on screens left open all day. Results and errors use the same messages
+ * as the channel WebSocket, QR codes arrive as {"status":"qr","channel":...,"qr":...,"expiresAt":...}.
+ * Served by Vert.x whichever channel WebSocket server is configured. Connecting and every rotation draw on
+ * the client's /auth/qr rate limit, see {@link RateLimitFilter}.
+ */
+@ApplicationScoped
+public class DesktopSessionWebSocketAdapter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DesktopSessionWebSocketAdapter.class);
+    static final String PATH = "/desktop/session";
+
+    private final QRAuthenticationUseCases authenticationUseCases;
+    private final ChannelSessionRegistry sessionRegistry;
+    private final ChannelSessionReaper sessionReaper;
+    private final TimingWheel timingWheel;
+    private final EpochClock clock;
+    private final OutboundBackpressure backpressure;
+    private final Executor renderer;
+    private final long rotationLeadMillis;
+    private final RateLimitFilter rateLimitFilter;
+
+    /**
+     * @param rotationLeadMillis how long before a channel expires the desktop is pushed its successor
+     */
+    @Inject
+    public DesktopSessionWebSocketAdapter(QRAuthenticationUseCases authenticationUseCases,
+                                          ChannelSessionRegistry sessionRegistry,
+                                          ChannelSessionReaper sessionReaper, TimingWheel timingWheel,
+                                          EpochClock clock, OutboundBackpressure backpressure,
+                                          HandlerExecutor handlerExecutor, RateLimitFilter rateLimitFilter,
+                                          @ConfigProperty(name = "app.desktop.rotation-lead-millis", defaultValue = "30000") long rotationLeadMillis) {
+        this.authenticationUseCases = authenticationUseCases;
+        this.sessionRegistry = sessionRegistry;
+        this.sessionReaper = sessionReaper;
+        this.timingWheel = timingWheel;
+        this.clock = clock;
+        this.backpressure = backpressure;
+        // QR rendering is CPU work, keep it off the event loops and the timer thread
+        this.renderer = handlerExecutor.executor();
+        this.rotationLeadMillis = rotationLeadMillis;
+        this.rateLimitFilter = rateLimitFilter;
+    }
+
+    void registerRoute(@Observes Router router) {
+        router.get(PATH).handler(this::upgrade);
+    }
+
+    private void upgrade(RoutingContext context) {
+        HttpServerRequest request = context.request();
+        if (!"websocket".equalsIgnoreCase(request.getHeader("Upgrade"))) {
+            context.next();
+            return;
+        }
+        // Scheme and host already reflect forwarded headers when proxy address forwarding is enabled
+        HostAndPort authority = request.authority();
+        String baseUri = request.scheme() + "://" + (authority == null ? request.localAddress().host()
+            : authority.port() >= 0 ? authority.host() + ':' + authority.port() : authority.host());
+
+        String client = RateLimitFilter.client(request.remoteAddress());
+
+        request.toWebSocket()
+            .onSuccess(webSocket -> open(webSocket, baseUri, client))
+            .onFailure(failure -> LOGGER.warn("Desktop session upgrade failed", failure));
+    }
+
+    private void open(ServerWebSocket webSocket, String baseUri, String client) {
+        VertxChannelConnection connection = new VertxChannelConnection(webSocket, clock, backpressure, false);
+        RotatingDesktopSession session = new RotatingDesktopSession(connection, sessionRegistry, timingWheel, clock,
+            () -> authenticationUseCases.createQRAuthentication(baseUri), renderer, rotationLeadMillis,
+            () -> rateLimitFilter.acquireQr(client), authenticationUseCases::discardChannel);
+
+        webSocket.pongHandler(ignored -> connection.markActive());
+        webSocket.textMessageHandler(ignored -> connection.markActive());
+        webSocket.exceptionHandler(failure -> LOGGER.error("Desktop session error", failure));
+        webSocket.closeHandler(ignored -> {
+            LOGGER.info("Desktop session closed");
+            sessionReaper.unwatch(connection);
+            session.close();
+        });
+
+        sessionReaper.watchIdle(connection);
+        session.start();
+        LOGGER.info("Desktop session opened for base URI: {}", baseUri);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.adapters.web.websocket;
+
+import com.example.adapters.web.channel.ChannelConnection;
+import com.example.adapters.web.channel.OutboundBackpressure;
+import com.example.adapters.web.channel.OutboundWindow;
+import com.example.domain.time.EpochClock;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.ServerWebSocket;
+
+import java.nio.ByteBuffer;
+
+/**
+ * ChannelConnection over a Vert.x server WebSocket
+ * Vert.x queues writes on the socket's event loop, callers on any thread never block; messages go through an
+ * {@link OutboundWindow} so that queue stays bounded for a client that stops reading. Sockets that negotiated
+ * the {@link BinaryChannelProtocol} receive them as binary frames.
+ */
+final class VertxChannelConnection implements ChannelConnection {
+
+    private final ServerWebSocket webSocket;
+    private final EpochClock clock;
+    private final OutboundWindow outbound;
+    private final boolean binary;
+    private volatile long lastActivityMillis;
+
+    VertxChannelConnection(ServerWebSocket webSocket, EpochClock clock, OutboundBackpressure backpressure,
+                           boolean binary) {
+        this.webSocket = webSocket;
+        this.clock = clock;
+        this.binary = binary;
+        this.outbound = backpressure.window(this::write, this::closeWebSocket);
+        this.lastActivityMillis = clock.millis();
+    }
+
+    /**
+     * Records that the client sent a message or answered a ping
+     */
+    void markActive() {
+        lastActivityMillis = clock.millis();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !webSocket.isClosed();
+    }
+
+    @Override
+    public void sendText(String message) {
+        outbound.send(message);
+    }
+
+    @Override
+    public void ping() {
+        webSocket.writePing(Buffer.buffer());
+    }
+
+    @Override
+    public long lastActivityMillis() {
+        return lastActivityMillis;
+    }
+
+    @Override
+    public void close() {
+        outbound.close();
+    }
+
+    private void write(String message, OutboundWindow.CompletionListener listener) {
+        ByteBuffer frame = binary ? BinaryChannelProtocol.encode(message) : null;
+        if (frame != null) {
+            webSocket.writeBinaryMessage(toBuffer(frame)).onComplete(result -> listener.completed(result.succeeded()));
+        } else {
+            webSocket.writeTextMessage(message).onComplete(result -> listener.completed(result.succeeded()));
+        }
+    }
+
+    /**
+     * Copies a frame into a Vert.x buffer, leaving the position of shared read-only frames untouched
+     */
+    static Buffer toBuffer(ByteBuffer frame) {
+        byte[] bytes = new byte[frame.remaining()];
+        frame.duplicate().get(bytes);
+        return Buffer.buffer(bytes);
+    }
+
+    private void closeWebSocket() {
+        if (!webSocket.isClosed()) {
+            webSocket.close();
+        }
+    }
+}
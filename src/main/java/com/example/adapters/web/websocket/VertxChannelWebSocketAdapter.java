@@ -0,0 +1,166 @@
+package com.example.adapters.web.websocket;
+
+import com.example.adapters.web.channel.ChannelRole;
+import com.example.adapters.web.channel.ChannelSessionReaper;
+import com.example.adapters.web.channel.ChannelSessionRegistry;
+import com.example.adapters.web.channel.ChannelStatus;
+import com.example.adapters.web.channel.OutboundBackpressure;
+import com.example.application.ports.primary.QRAuthenticationUseCases;
+import com.example.domain.time.EpochClock;
+import com.example.infrastructure.execution.HandlerExecutor;
+import io.quarkus.vertx.http.HttpServerOptionsCustomizer;
+import io.vertx.core.Future;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.ServerWebSocket;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * WebSocket adapter for authentication channels running directly on the Vert.x event loops
+ * Alternative to {@link AuthenticationWebSocketAdapter} with the same path and message contract, enabled with
+ * app.websocket.server=vertx. The handshake is validated against the in-memory channel repository before the
+ * upgrade, and every write is queued on the socket's event loop, so no worker thread is involved. Messages are
+ * handled on the event loop too, or on virtual threads when the {@link HandlerExecutor} uses them.
+ * When disabled, or for plain HTTP requests, the route passes the request on. The {@link BinaryChannelProtocol}
+ * subprotocol is added to the ones the Vert.x HTTP server negotiates.
+ */
+@ApplicationScoped
+public class VertxChannelWebSocketAdapter implements HttpServerOptionsCustomizer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VertxChannelWebSocketAdapter.class);
+    // quarkus-websockets installs the Jakarta endpoints as an HTTP filter of priority 100, i.e. route order -100
+    private static final int BEFORE_JAKARTA_ENDPOINTS = -101;
+
+    private final QRAuthenticationUseCases authenticationUseCases;
+    private final ChannelSessionRegistry sessionRegistry;
+    private final ChannelSessionReaper sessionReaper;
+    private final ChannelMessageHandler messageHandler;
+    private final EpochClock clock;
+    private final OutboundBackpressure backpressure;
+    private final HandlerExecutor handlerExecutor;
+    private final boolean enabled;
+
+    @Inject
+    public VertxChannelWebSocketAdapter(QRAuthenticationUseCases authenticationUseCases,
+                                        ChannelSessionRegistry sessionRegistry,
+                                        ChannelSessionReaper sessionReaper,
+                                        ChannelMessageHandler messageHandler, EpochClock clock,
+                                        OutboundBackpressure backpressure, HandlerExecutor handlerExecutor,
+                                        @ConfigProperty(name = "app.websocket.server", defaultValue = "jakarta") String server) {
+        this.authenticationUseCases = authenticationUseCases;
+        this.sessionRegistry = sessionRegistry;
+        this.sessionReaper = sessionReaper;
+        this.messageHandler = messageHandler;
+        this.clock = clock;
+        this.backpressure = backpressure;
+        this.handlerExecutor = handlerExecutor;
+        this.enabled = "vertx".equalsIgnoreCase(server);
+    }
+
+    void registerRoute(@Observes Router router) {
+        if (enabled) {
+            // Ahead of the Jakarta endpoint, which then never sees an upgrade
+            router.get("/:channel").order(BEFORE_JAKARTA_ENDPOINTS).handler(this::upgrade);
+            LOGGER.info("Channel WebSocket served by Vert.x");
+        }
+    }
+
+    @Override
+    public void customizeHttpServer(HttpServerOptions options) {
+        addSubProtocol(options);
+    }
+
+    @Override
+    public void customizeHttpsServer(HttpServerOptions options) {
+        addSubProtocol(options);
+    }
+
+    private void addSubProtocol(HttpServerOptions options) {
+        if (!enabled) {
+            return;
+        }
+        List<String> subProtocols = options.getWebSocketSubProtocols() != null
+            ? new ArrayList<>(options.getWebSocketSubProtocols())
+            : new ArrayList<>();
+        subProtocols.add(BinaryChannelProtocol.SUBPROTOCOL);
+        options.setWebSocketSubProtocols(subProtocols);
+    }
+
+    private void upgrade(RoutingContext context) {
+        if (!"websocket".equalsIgnoreCase(context.request().getHeader("Upgrade"))) {
+            context.next();
+            return;
+        }
+        String channel = context.pathParam("channel");
+        ChannelRole role = ChannelRole.fromParameter(context.queryParams().get("role"));
+        var validationResult = authenticationUseCases.validateChannel(channel);
+
+        context.request().toWebSocket()
+            .onSuccess(webSocket -> {
+                if (validationResult.isValid()) {
+                    open(webSocket, channel, role, validationResult.getExpiresAtMillis());
+                } else {
+                    LOGGER.warn("Invalid channel connection attempt: {}", channel);
+                    write(webSocket, isBinary(webSocket), ChannelStatus.INVALID_CHANNEL)
+                        .onComplete(ignored -> webSocket.close());
+                }
+            })
+            .onFailure(failure -> LOGGER.warn("WebSocket upgrade failed for channel: {}", channel, failure));
+    }
+
+    private void open(ServerWebSocket webSocket, String channel, ChannelRole role, long expiresAtMillis) {
+        // Register before anything else, the client may already be telling the other side to send
+        boolean binary = isBinary(webSocket);
+        VertxChannelConnection connection = new VertxChannelConnection(webSocket, clock, backpressure, binary);
+        sessionRegistry.register(channel, role, connection);
+        sessionReaper.watch(channel, connection, expiresAtMillis);
+
+        webSocket.pongHandler(ignored -> connection.markActive());
+        webSocket.textMessageHandler(message -> {
+            LOGGER.info("WebSocket message received for channel: {}", channel);
+            connection.markActive();
+            handlerExecutor.dispatch(() -> sendError(webSocket, binary, messageHandler.handle(channel, message)));
+        });
+        webSocket.binaryMessageHandler(frame -> {
+            LOGGER.info("WebSocket binary message received for channel: {}", channel);
+            connection.markActive();
+            var credentials = BinaryChannelProtocol.decodeAuthentication(ByteBuffer.wrap(frame.getBytes()));
+            handlerExecutor.dispatch(() -> sendError(webSocket, binary, credentials == null
+                ? ChannelStatus.INVALID_MESSAGE
+                : messageHandler.authenticate(channel, credentials.username(), credentials.token())));
+        });
+        webSocket.exceptionHandler(failure -> LOGGER.error("WebSocket error for channel: {}", channel, failure));
+        webSocket.closeHandler(ignored -> {
+            LOGGER.info("WebSocket connection closed for channel: {}", channel);
+            sessionReaper.unwatch(connection);
+            sessionRegistry.unregister(channel, connection);
+        });
+        LOGGER.info("WebSocket connection opened for channel: {}, registered as {}", channel, role);
+    }
+
+    private static void sendError(ServerWebSocket webSocket, boolean binary, ChannelStatus error) {
+        if (error != null && !webSocket.isClosed()) {
+            write(webSocket, binary, error);
+        }
+    }
+
+    private static Future<Void> write(ServerWebSocket webSocket, boolean binary, ChannelStatus status) {
+        return binary
+            ? webSocket.writeBinaryMessage(VertxChannelConnection.toBuffer(BinaryChannelProtocol.status(status)))
+            : webSocket.writeTextMessage(status.json());
+    }
+
+    private static boolean isBinary(ServerWebSocket webSocket) {
+        return BinaryChannelProtocol.SUBPROTOCOL.equals(webSocket.subProtocol());
+    }
+}
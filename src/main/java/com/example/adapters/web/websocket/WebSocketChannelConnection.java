@@ -0,0 +1,93 @@
+package com.example.adapters.web.websocket;
+
+import com.example.adapters.web.channel.ChannelConnection;
+import com.example.adapters.web.channel.OutboundBackpressure;
+import com.example.adapters.web.channel.OutboundWindow;
+import com.example.domain.time.EpochClock;
+import jakarta.websocket.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * ChannelConnection over a Jakarta WebSocket session
+ * Messages go through an {@link OutboundWindow}, so a client that stops reading cannot queue them without limit;
+ * sessions that negotiated the {@link BinaryChannelProtocol} receive them as binary frames
+ */
+final class WebSocketChannelConnection implements ChannelConnection {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebSocketChannelConnection.class);
+
+    private static final ByteBuffer EMPTY_PING = ByteBuffer.allocate(0);
+
+    private final Session session;
+    private final EpochClock clock;
+    private final OutboundWindow outbound;
+    private final boolean binary;
+    private volatile long lastActivityMillis;
+
+    WebSocketChannelConnection(Session session, EpochClock clock, OutboundBackpressure backpressure, boolean binary) {
+        this.session = session;
+        this.clock = clock;
+        this.binary = binary;
+        this.outbound = backpressure.window(this::write, this::closeSession);
+        this.lastActivityMillis = clock.millis();
+    }
+
+    /**
+     * Records that the client sent a message or answered a ping
+     */
+    void markActive() {
+        lastActivityMillis = clock.millis();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return session.isOpen();
+    }
+
+    @Override
+    public void sendText(String message) {
+        outbound.send(message);
+    }
+
+    @Override
+    public void ping() {
+        try {
+            session.getAsyncRemote().sendPing(EMPTY_PING.duplicate());
+        } catch (IOException | IllegalStateException e) {
+            LOGGER.debug("Cannot ping WebSocket session: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public long lastActivityMillis() {
+        return lastActivityMillis;
+    }
+
+    @Override
+    public void close() {
+        outbound.close();
+    }
+
+    private void write(String message, OutboundWindow.CompletionListener listener) {
+        ByteBuffer frame = binary ? BinaryChannelProtocol.encode(message) : null;
+        if (frame != null) {
+            session.getAsyncRemote().sendBinary(frame, result -> listener.completed(result.isOK()));
+        } else {
+            session.getAsyncRemote().sendText(message, result -> listener.completed(result.isOK()));
+        }
+    }
+
+    private void closeSession() {
+        try {
+            if (session.isOpen()) {
+                session.close();
+            }
+        } catch (IOException e) {
+            LOGGER.error("Error closing WebSocket session", e);
+        }
+    }
+}
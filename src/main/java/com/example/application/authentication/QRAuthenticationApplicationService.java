@@ -13,8 +13,11 @@ import org.slf4j.LoggerFactory;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Application service for QR-based authentication
@@ -24,6 +27,7 @@ import java.util.Map;
 public class QRAuthenticationApplicationService implements QRAuthenticationUseCases, SystemUseCases {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(QRAuthenticationApplicationService.class);
+    public static final int MAX_INTROSPECTION_BATCH = 1000;
     
     private final AuthenticationChannelRepository channelRepository;
     private final AuthenticationService authenticationService;
@@ -61,7 +65,7 @@ public class QRAuthenticationApplicationService implements QRAuthenticationUseCa
             
             LOGGER.info("Created QR authentication with channel: {}", channel.getId());
             
-            return new QRAuthenticationResponse(qrCodeBase64, channel.getId());
+            return new QRAuthenticationResponse(qrCodeBase64, channel.getId(), channel.getExpiresAtMillis());
             
         } catch (URISyntaxException e) {
             LOGGER.error("Invalid URI for QR authentication: {}", baseUri, e);
@@ -84,6 +88,29 @@ public class QRAuthenticationApplicationService implements QRAuthenticationUseCa
         return authenticationService.authenticate(credentials);
     }
 
+    /**
+     * Authenticates user credentials without blocking the calling I/O thread
+     * @param credentials the user credentials
+     * @param clientAddress the client address, null if unknown
+     * @return stage completed with the token, or failed with an AuthenticationException
+     */
+    public CompletionStage<AuthenticationToken> authenticateUserAsync(AuthenticationCredentials credentials,
+                                                                      String clientAddress) {
+        LOGGER.info("Authenticating user: {}", credentials.getUsername());
+        
+        return authenticationService.authenticateAsync(credentials, clientAddress);
+    }
+
+    /**
+     * Reads the current failed-login delay for an attempt without counting it
+     * @param username the attempted username
+     * @param clientAddress the client address, null if unknown
+     * @return delay in milliseconds, 0 if the attempt would be verified right away
+     */
+    public long loginDelayMillis(String username, String clientAddress) {
+        return authenticationService.loginDelayMillis(username, clientAddress);
+    }
+
     /**
      * Processes authentication through a channel
      * @param channelId the authentication channel ID
@@ -106,7 +133,8 @@ public class QRAuthenticationApplicationService implements QRAuthenticationUseCa
         // Authenticate user
         AuthenticationToken token = authenticationService.authenticate(credentials);
         
-        // Mark channel as used
+        // Mark channel as authenticated, then consume it
+        channel.markAsAuthenticated();
         channelRepository.markAsUsed(channelId);
         
         LOGGER.info("Channel authentication successful for channel: {}, user: {}", channelId, credentials.getUsername());
@@ -128,12 +156,86 @@ public class QRAuthenticationApplicationService implements QRAuthenticationUseCa
             return new ChannelValidationResult(false, "invalid");
         }
         
-        boolean isValid = channelRepository.existsAndValid(channelId);
+        AuthenticationChannel channel = channelRepository.findByIdIfValid(channelId);
+        boolean isValid = channel != null;
         String status = isValid ? "valid" : "invalid";
         
         LOGGER.debug("Channel validation - ID: {}, Valid: {}", channelId, isValid);
         
-        return new ChannelValidationResult(isValid, status);
+        return new ChannelValidationResult(isValid, status, isValid ? channel.getExpiresAtMillis() : -1);
+    }
+
+    /**
+     * Validates a channel on behalf of the device that opened its login page
+     * A valid channel is moved to the SCANNED state so the desktop can show progress
+     * @param channelId the channel ID to check
+     * @return channel validation result
+     */
+    public ChannelValidationResult scanChannel(String channelId) {
+        ChannelValidationResult result = validateChannel(channelId);
+        if (result.isValid()) {
+            AuthenticationChannel channel = channelRepository.findById(channelId);
+            if (channel != null && channel.markAsScanned()) {
+                LOGGER.debug("Channel scanned: {}", channelId);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Completes a channel after its authentication result has been delivered
+     * @param channelId the channel ID to complete
+     * @return true if the channel was still open and is now consumed
+     */
+    public boolean completeChannel(String channelId) {
+        AuthenticationChannel channel = channelRepository.findByIdIfValid(channelId);
+        // Only the caller that moves the channel to AUTHENTICATED consumes it
+        if (channel == null || !channel.markAsAuthenticated()) {
+            return false;
+        }
+        channelRepository.markAsUsed(channelId);
+        return true;
+    }
+
+    /**
+     * Drops a channel nobody listens on anymore instead of waiting for the expiry sweep
+     * @param channelId the channel ID to drop
+     */
+    public void discardChannel(String channelId) {
+        channelRepository.delete(channelId);
+    }
+
+    /**
+     * Reads the current lifecycle state of a channel
+     * @param channelId the channel ID to inspect
+     * @return channel state result, not found if the channel is unknown or already evicted
+     */
+    public ChannelStateResult getChannelState(String channelId) {
+        AuthenticationChannel channel = channelRepository.findById(channelId);
+        if (channel == null) {
+            return ChannelStateResult.NOT_FOUND;
+        }
+        return ChannelStateResult.of(channel.getState());
+    }
+
+    /**
+     * Describes a batch of tokens for backend services
+     * @param tokenValues raw token values, at most {@link #MAX_INTROSPECTION_BATCH}
+     * @return one result per token, in request order
+     */
+    public List<TokenIntrospectionResult> introspectTokens(List<String> tokenValues) {
+        if (tokenValues == null || tokenValues.isEmpty()) {
+            throw new IllegalArgumentException("At least one token is required");
+        }
+        if (tokenValues.size() > MAX_INTROSPECTION_BATCH) {
+            throw new IllegalArgumentException("At most " + MAX_INTROSPECTION_BATCH + " tokens per request");
+        }
+        
+        List<TokenIntrospectionResult> results = new ArrayList<>(tokenValues.size());
+        for (String tokenValue : tokenValues) {
+            results.add(new TokenIntrospectionResult(authenticationService.introspect(tokenValue)));
+        }
+        return results;
     }
 
     /**
@@ -154,10 +256,16 @@ public class QRAuthenticationApplicationService implements QRAuthenticationUseCa
     public static class QRAuthenticationResponse {
         private final String qrCode;
         private final String channel;
+        private final long expiresAtMillis;
         
         public QRAuthenticationResponse(String qrCode, String channel) {
+            this(qrCode, channel, -1);
+        }
+        
+        public QRAuthenticationResponse(String qrCode, String channel, long expiresAtMillis) {
             this.qrCode = qrCode;
             this.channel = channel;
+            this.expiresAtMillis = expiresAtMillis;
         }
         
         public Map<String, String> toMap() {
@@ -169,6 +277,7 @@ public class QRAuthenticationApplicationService implements QRAuthenticationUseCa
         
         public String getQrCode() { return qrCode; }
         public String getChannel() { return channel; }
+        public long getExpiresAtMillis() { return expiresAtMillis; }
     }
     
     public static class ChannelAuthenticationResult {
@@ -198,10 +307,16 @@ public class QRAuthenticationApplicationService implements QRAuthenticationUseCa
     public static class ChannelValidationResult {
         private final boolean valid;
         private final String status;
+        private final long expiresAtMillis;
         
         public ChannelValidationResult(boolean valid, String status) {
+            this(valid, status, -1);
+        }
+        
+        public ChannelValidationResult(boolean valid, String status, long expiresAtMillis) {
             this.valid = valid;
             this.status = status;
+            this.expiresAtMillis = expiresAtMillis;
         }
         
         public Map<String, String> toMap() {
@@ -212,6 +327,62 @@ public class QRAuthenticationApplicationService implements QRAuthenticationUseCa
         
         public boolean isValid() { return valid; }
         public String getStatus() { return status; }
+        public long getExpiresAtMillis() { return expiresAtMillis; }
+    }
+    
+    public static class ChannelStateResult {
+        static final ChannelStateResult NOT_FOUND = new ChannelStateResult(null);
+        private static final ChannelStateResult[] BY_STATE = new ChannelStateResult[ChannelState.values().length];
+        
+        static {
+            for (ChannelState state : ChannelState.values()) {
+                BY_STATE[state.ordinal()] = new ChannelStateResult(state);
+            }
+        }
+        
+        private final ChannelState state;
+        private final Map<String, String> map;
+        
+        private ChannelStateResult(ChannelState state) {
+            this.state = state;
+            this.map = state != null ? Map.of("state", state.externalName()) : Map.of();
+        }
+        
+        static ChannelStateResult of(ChannelState state) {
+            return BY_STATE[state.ordinal()];
+        }
+        
+        public Map<String, String> toMap() {
+            return map;
+        }
+        
+        public boolean isFound() { return state != null; }
+        public ChannelState getState() { return state; }
+    }
+    
+    public static class TokenIntrospectionResult {
+        private static final Map<String, Object> INACTIVE_MAP = Map.of("active", false);
+        
+        private final TokenIntrospection introspection;
+        
+        public TokenIntrospectionResult(TokenIntrospection introspection) {
+            this.introspection = introspection;
+        }
+        
+        public Map<String, Object> toMap() {
+            if (!introspection.isActive()) {
+                return INACTIVE_MAP;
+            }
+            Map<String, Object> map = new HashMap<>();
+            map.put("active", true);
+            map.put("username", introspection.getUsername());
+            map.put("expiresAt", introspection.getExpiresAtMillis());
+            return map;
+        }
+        
+        public boolean isActive() { return introspection.isActive(); }
+        public String getUsername() { return introspection.getUsername(); }
+        public long getExpiresAtMillis() { return introspection.getExpiresAtMillis(); }
     }
     
     // Implementation of SystemUseCases
@@ -224,4 +395,9 @@ public class QRAuthenticationApplicationService implements QRAuthenticationUseCa
     public String getWelcomeMessage() {
         return "Hello, QR Authentication!";
     }
+    
+    @Override
+    public Map<String, Long> getAuthenticationMetrics() {
+        return authenticationService.metrics();
+    }
 }
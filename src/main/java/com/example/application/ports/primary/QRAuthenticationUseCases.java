@@ -6,6 +6,11 @@ import com.example.domain.authentication.AuthenticationToken;
 import com.example.application.authentication.QRAuthenticationApplicationService.QRAuthenticationResponse;
 import com.example.application.authentication.QRAuthenticationApplicationService.ChannelValidationResult;
 import com.example.application.authentication.QRAuthenticationApplicationService.ChannelAuthenticationResult;
+import com.example.application.authentication.QRAuthenticationApplicationService.ChannelStateResult;
+import com.example.application.authentication.QRAuthenticationApplicationService.TokenIntrospectionResult;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Primary port for QR-based authentication use cases
@@ -34,6 +39,27 @@ public interface QRAuthenticationUseCases {
      */
     AuthenticationToken authenticateUser(AuthenticationCredentials credentials) throws AuthenticationException;
     
+    /**
+     * Authenticates user credentials without blocking the caller
+     * Use case: Authenticate user with username/password from an I/O thread
+     * 
+     * @param credentials the user credentials
+     * @param clientAddress the client address used to throttle repeated failures, null if unknown
+     * @return stage completed with the token, or failed with an AuthenticationException
+     */
+    CompletionStage<AuthenticationToken> authenticateUserAsync(AuthenticationCredentials credentials,
+                                                               String clientAddress);
+    
+    /**
+     * Tells how long a login attempt would currently be held back by the failed-login throttle
+     * Use case: Adapter releases what it holds for a login that will wait
+     * 
+     * @param username the attempted username
+     * @param clientAddress the client address, null if unknown
+     * @return delay in milliseconds, 0 if the attempt would be verified right away
+     */
+    long loginDelayMillis(String username, String clientAddress);
+    
     /**
      * Processes authentication through a specific channel
      * Use case: Authenticate via QR code channel (WebSocket)
@@ -54,4 +80,49 @@ public interface QRAuthenticationUseCases {
      * @return validation result with status
      */
     ChannelValidationResult validateChannel(String channelId);
+    
+    /**
+     * Validates a channel for the device that opened its login page
+     * Use case: Phone scanned the QR code, desktop should see progress
+     * 
+     * @param channelId the channel ID to validate
+     * @return validation result with status
+     */
+    ChannelValidationResult scanChannel(String channelId);
+    
+    /**
+     * Completes a channel once its authentication result has been delivered
+     * Use case: QR login finished, channel must not be reused
+     * 
+     * @param channelId the channel ID to complete
+     * @return true if the channel was open and is now consumed
+     */
+    boolean completeChannel(String channelId);
+
+    /**
+     * Drops a channel its desktop no longer listens on
+     * Use case: Desktop session rotated away from a channel that reached its expiry
+     * 
+     * @param channelId the channel ID to drop
+     */
+    void discardChannel(String channelId);
+    
+    /**
+     * Reads the lifecycle state of a channel
+     * Use case: Desktop or dashboard polling login progress
+     * 
+     * @param channelId the channel ID to inspect
+     * @return state result, not found if the channel is unknown
+     */
+    ChannelStateResult getChannelState(String channelId);
+    
+    /**
+     * Describes a batch of tokens
+     * Use case: Backend service checks tokens presented to it
+     * 
+     * @param tokenValues the raw token values
+     * @return one result per token, in request order
+     * @throws IllegalArgumentException if the batch is empty or too large
+     */
+    List<TokenIntrospectionResult> introspectTokens(List<String> tokenValues);
 }
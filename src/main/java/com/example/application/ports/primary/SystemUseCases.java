@@ -1,5 +1,7 @@
 package com.example.application.ports.primary;
 
+import java.util.Map;
+
 /**
  * Primary port for system-level operations
  * Following hexagonal architecture, this interface exposes system use cases
@@ -17,4 +19,10 @@ public interface SystemUseCases {
      * @return system welcome message
      */
     String getWelcomeMessage();
+    
+    /**
+     * Authentication metrics use case
+     * @return credential verification counters and timings
+     */
+    Map<String, Long> getAuthenticationMetrics();
 }
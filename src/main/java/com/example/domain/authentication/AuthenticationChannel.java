@@ -1,57 +1,157 @@
 package com.example.domain.authentication;
 
+import com.example.domain.time.EpochClock;
+
 import java.time.Instant;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
- * Value object representing an authentication channel
- * Immutable and contains business logic for channel validation
+ * Entity representing an authentication channel
+ * Identity and timestamps are immutable; the lifecycle state is a single int updated with CAS,
+ * so transitions are lock-free and allocate nothing
+ * Timestamps are epoch milliseconds read from an {@link EpochClock}, expiry checks are primitive comparisons
  */
 public final class AuthenticationChannel {
+    private static final AtomicIntegerFieldUpdater<AuthenticationChannel> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(AuthenticationChannel.class, "state");
+
     private final String id;
-    private final Instant createdAt;
-    private final Instant expiresAt;
-    private final boolean active;
+    private final long createdAtMillis;
+    private final long expiresAtMillis;
+    private final EpochClock clock;
+    private volatile int state;
 
-    private AuthenticationChannel(String id, Instant createdAt, Instant expiresAt, boolean active) {
+    private AuthenticationChannel(String id, long createdAtMillis, long expiresAtMillis, EpochClock clock,
+                                  ChannelState state) {
         this.id = Objects.requireNonNull(id, "Channel ID cannot be null");
-        this.createdAt = Objects.requireNonNull(createdAt, "Created timestamp cannot be null");
-        this.expiresAt = Objects.requireNonNull(expiresAt, "Expiration timestamp cannot be null");
-        this.active = active;
-        
+        this.createdAtMillis = createdAtMillis;
+        this.expiresAtMillis = expiresAtMillis;
+        this.clock = Objects.requireNonNull(clock, "Clock cannot be null");
+        this.state = state.ordinal();
+
         if (id.trim().isEmpty()) {
             throw new IllegalArgumentException("Channel ID cannot be empty");
         }
-        if (createdAt.isAfter(expiresAt)) {
+        if (createdAtMillis > expiresAtMillis) {
             throw new IllegalArgumentException("Created timestamp cannot be after expiration");
         }
     }
 
+    public static AuthenticationChannel create(String id, long createdAtMillis, long expiresAtMillis, EpochClock clock) {
+        return new AuthenticationChannel(id, createdAtMillis, expiresAtMillis, clock, ChannelState.ISSUED);
+    }
+
     public static AuthenticationChannel create(String id, Instant createdAt, Instant expiresAt) {
-        return new AuthenticationChannel(id, createdAt, expiresAt, true);
+        return create(id, toMillis(createdAt, "Created timestamp cannot be null"),
+                toMillis(expiresAt, "Expiration timestamp cannot be null"), EpochClock.SYSTEM);
     }
 
     public static AuthenticationChannel createExpired(String id, Instant createdAt, Instant expiresAt) {
-        return new AuthenticationChannel(id, createdAt, expiresAt, false);
+        return new AuthenticationChannel(id, toMillis(createdAt, "Created timestamp cannot be null"),
+                toMillis(expiresAt, "Expiration timestamp cannot be null"), EpochClock.SYSTEM, ChannelState.CONSUMED);
     }
 
     public boolean isExpired() {
-        return !active || Instant.now().isAfter(expiresAt);
+        return isExpiredAt(clock.millis());
+    }
+
+    /**
+     * @param nowMillis current time in epoch milliseconds
+     * @return true if consumed or past expiry
+     */
+    public boolean isExpiredAt(long nowMillis) {
+        return !isActive() || nowMillis > expiresAtMillis;
+    }
+
+    /**
+     * @param nowMillis current time in epoch milliseconds
+     * @return true if past expiry, whatever the state
+     */
+    public boolean isPastExpiryAt(long nowMillis) {
+        return nowMillis > expiresAtMillis;
     }
 
     public boolean isValid() {
-        return active && !isExpired();
+        return !isExpired();
+    }
+
+    /**
+     * Returns the effective lifecycle state
+     * A channel that passed its expiry before being consumed reports EXPIRED
+     */
+    public ChannelState getState() {
+        ChannelState current = ChannelState.ofOrdinal(state);
+        if (current != ChannelState.CONSUMED && clock.millis() > expiresAtMillis) {
+            return ChannelState.EXPIRED;
+        }
+        return current;
     }
 
+    /**
+     * Records that the login page for this channel has been opened
+     * @return true if this call performed the transition
+     */
+    public boolean markAsScanned() {
+        return advanceTo(ChannelState.SCANNED);
+    }
+
+    /**
+     * Records that a user has authenticated through this channel
+     * @return true if this call performed the transition
+     */
+    public boolean markAsAuthenticated() {
+        return advanceTo(ChannelState.AUTHENTICATED);
+    }
+
+    /**
+     * Moves the channel to its terminal CONSUMED state
+     * @return true if this call performed the transition
+     */
+    public boolean consume() {
+        return advanceTo(ChannelState.CONSUMED);
+    }
+
+    /**
+     * Moves the channel to its terminal CONSUMED state
+     * @return this channel, for compatibility with callers of the former immutable API
+     */
     public AuthenticationChannel markAsUsed() {
-        return new AuthenticationChannel(id, createdAt, expiresAt, false);
+        consume();
+        return this;
+    }
+
+    /**
+     * Moves the state forward to the target, never backwards
+     * Expired channels cannot advance except to CONSUMED
+     */
+    private boolean advanceTo(ChannelState target) {
+        int next = target.ordinal();
+        for (;;) {
+            int current = state;
+            if (current >= next) {
+                return false;
+            }
+            if (target != ChannelState.CONSUMED && clock.millis() > expiresAtMillis) {
+                return false;
+            }
+            if (STATE.compareAndSet(this, current, next)) {
+                return true;
+            }
+        }
     }
 
     // Getters
     public String getId() { return id; }
-    public Instant getCreatedAt() { return createdAt; }
-    public Instant getExpiresAt() { return expiresAt; }
-    public boolean isActive() { return active; }
+    public long getCreatedAtMillis() { return createdAtMillis; }
+    public long getExpiresAtMillis() { return expiresAtMillis; }
+    public Instant getCreatedAt() { return Instant.ofEpochMilli(createdAtMillis); }
+    public Instant getExpiresAt() { return Instant.ofEpochMilli(expiresAtMillis); }
+    public boolean isActive() { return state != ChannelState.CONSUMED.ordinal(); }
+
+    private static long toMillis(Instant instant, String message) {
+        return Objects.requireNonNull(instant, message).toEpochMilli();
+    }
 
     @Override
     public boolean equals(Object o) {
@@ -70,8 +170,7 @@ public final class AuthenticationChannel {
     public String toString() {
         return "AuthenticationChannel{" +
                 "id='" + id + '\'' +
-                ", active=" + active +
-                ", expired=" + isExpired() +
+                ", state=" + getState() +
                 '}';
     }
 }
@@ -19,11 +19,25 @@ public interface AuthenticationChannelRepository {
     AuthenticationChannel findByIdIfValid(String channelId);
     
     /**
-     * Marks a channel as used and removes it from active channels
+     * Finds an authentication channel by its ID regardless of its lifecycle state
+     * Consumed channels stay visible until their expiry so their final state can be observed
+     * @param channelId the channel ID to search for
+     * @return the channel if still retained, null otherwise
+     */
+    AuthenticationChannel findById(String channelId);
+    
+    /**
+     * Marks a channel as used, moving it to its terminal CONSUMED state
      * @param channelId the channel to mark as used
      */
     void markAsUsed(String channelId);
     
+    /**
+     * Removes a channel ahead of the expiry sweep, whatever its state
+     * @param channelId the channel nobody will use anymore
+     */
+    void delete(String channelId);
+    
     /**
      * Removes expired channels from the repository
      */
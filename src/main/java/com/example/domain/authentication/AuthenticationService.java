@@ -1,5 +1,9 @@
 package com.example.domain.authentication;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 /**
  * Port (interface) for authentication service
  * Domain service that handles authentication business logic
@@ -14,10 +18,68 @@ public interface AuthenticationService {
      */
     AuthenticationToken authenticate(AuthenticationCredentials credentials) throws AuthenticationException;
     
+    /**
+     * Authenticates user credentials without blocking the caller
+     * Implementations with expensive verification run it off the calling thread
+     * @param credentials the user credentials
+     * @return stage completed with the token, or failed with an AuthenticationException
+     */
+    default CompletionStage<AuthenticationToken> authenticateAsync(AuthenticationCredentials credentials) {
+        try {
+            return CompletableFuture.completedFuture(authenticate(credentials));
+        } catch (AuthenticationException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    /**
+     * Authenticates user credentials without blocking the caller, attributing the attempt to a client address
+     * Implementations may use the address to throttle repeated failures
+     * @param credentials the user credentials
+     * @param clientAddress the client address, null if unknown
+     * @return stage completed with the token, or failed with an AuthenticationException
+     */
+    default CompletionStage<AuthenticationToken> authenticateAsync(AuthenticationCredentials credentials,
+                                                                   String clientAddress) {
+        return authenticateAsync(credentials);
+    }
+    
+    /**
+     * Tells how long an attempt would currently wait before its credentials are verified
+     * Lets a caller give back what it holds for the request while the attempt waits
+     * @param username the attempted username
+     * @param clientAddress the client address, null if unknown
+     * @return delay in milliseconds, 0 if an attempt would be verified right away
+     */
+    default long loginDelayMillis(String username, String clientAddress) {
+        return 0;
+    }
+    
     /**
      * Validates if a token is still valid
      * @param token the token to validate
      * @return true if token is valid
      */
     boolean isTokenValid(AuthenticationToken token);
+    
+    /**
+     * Describes a token: whether it is active, its owner and its expiry
+     * @param tokenValue the raw token value, may be malformed
+     * @return introspection result, inactive for unknown, expired or revoked tokens
+     */
+    TokenIntrospection introspect(String tokenValue);
+    
+    /**
+     * Revokes every token issued to a user
+     * @param username the user whose tokens are revoked
+     */
+    void revokeAllForUser(String username);
+    
+    /**
+     * Operational counters of the authentication service
+     * @return metric name to value, empty if the implementation exposes none
+     */
+    default Map<String, Long> metrics() {
+        return Map.of();
+    }
 }
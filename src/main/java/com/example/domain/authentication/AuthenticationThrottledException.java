@@ -0,0 +1,27 @@
+package com.example.domain.authentication;
+
+/**
+ * Domain exception for authentication attempts refused before credentials are checked
+ * Carries the number of seconds the client should wait before retrying
+ */
+public class AuthenticationThrottledException extends AuthenticationException {
+
+    private final long retryAfterSeconds;
+
+    public AuthenticationThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public static AuthenticationThrottledException verifierSaturated(long retryAfterSeconds) {
+        return new AuthenticationThrottledException("Too many concurrent login attempts", retryAfterSeconds);
+    }
+
+    public static AuthenticationThrottledException tooManyFailures(long retryAfterSeconds) {
+        return new AuthenticationThrottledException("Too many failed login attempts, try again later", retryAfterSeconds);
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.domain.authentication;
+
+/**
+ * Lifecycle states of an authentication channel
+ * States only move forward: ISSUED -> SCANNED -> AUTHENTICATED -> CONSUMED.
+ * EXPIRED is never stored, it is derived when the channel outlives its expiry before being consumed.
+ */
+public enum ChannelState {
+    ISSUED("issued"),
+    SCANNED("scanned"),
+    AUTHENTICATED("authenticated"),
+    CONSUMED("consumed"),
+    EXPIRED("expired");
+
+    private static final ChannelState[] VALUES = values();
+
+    private final String externalName;
+
+    ChannelState(String externalName) {
+        this.externalName = externalName;
+    }
+
+    static ChannelState ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * @return lowercase name used in the external contract (REST and WebSocket payloads)
+     */
+    public String externalName() {
+        return externalName;
+    }
+
+    public boolean isTerminal() {
+        return this == CONSUMED || this == EXPIRED;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.domain.authentication;
+
+/**
+ * Value object describing what a token grants
+ * Immutable; inactive tokens carry no owner or expiry
+ */
+public final class TokenIntrospection {
+    private static final TokenIntrospection INACTIVE = new TokenIntrospection(false, null, -1);
+
+    private final boolean active;
+    private final String username;
+    private final long expiresAtMillis;
+
+    private TokenIntrospection(boolean active, String username, long expiresAtMillis) {
+        this.active = active;
+        this.username = username;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public static TokenIntrospection active(String username, long expiresAtMillis) {
+        return new TokenIntrospection(true, username, expiresAtMillis);
+    }
+
+    public static TokenIntrospection inactive() {
+        return INACTIVE;
+    }
+
+    public boolean isActive() { return active; }
+    public String getUsername() { return username; }
+    public long getExpiresAtMillis() { return expiresAtMillis; }
+
+    @Override
+    public String toString() {
+        return "TokenIntrospection{active=" + active + ", username='" + username + "'}";
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.domain.authentication;
+
+import java.util.List;
+
+/**
+ * Port (interface) for the user directory
+ * Maps usernames to encoded password hashes
+ */
+public interface UserCredentialStore {
+
+    /**
+     * Looks up the encoded password hash of a user
+     * @param username the username
+     * @return encoded hash, null if the user is unknown
+     */
+    String findCredentialHash(String username);
+
+    /**
+     * Replaces a user's hash if it still equals the expected one, used to upgrade hash parameters
+     * @param username the username
+     * @param expectedHash hash the caller verified against
+     * @param newHash replacement hash
+     * @return true if replaced, false if it changed meanwhile or the store is read-only
+     */
+    boolean replaceCredentialHash(String username, String expectedHash, String newHash);
+
+    /**
+     * @return false if {@link #replaceCredentialHash} never replaces anything, so no upgraded hash is worth computing
+     */
+    boolean supportsHashUpgrade();
+
+    /**
+     * Reads a few stored hashes, used to match the parameters of the hashes users actually have
+     * @param limit maximum number of hashes returned
+     * @return up to limit encoded hashes in no particular order, empty if the store is empty
+     */
+    List<String> sampleCredentialHashes(int limit);
+
+    /**
+     * @return number of users in the store
+     */
+    int size();
+}
@@ -0,0 +1,16 @@
+package com.example.domain.time;
+
+/**
+ * Port (interface) for reading the current time
+ * Returns epoch milliseconds as a primitive, so expiry checks compare longs and allocate nothing
+ */
+@FunctionalInterface
+public interface EpochClock {
+
+    EpochClock SYSTEM = System::currentTimeMillis;
+
+    /**
+     * @return current time in epoch milliseconds
+     */
+    long millis();
+}
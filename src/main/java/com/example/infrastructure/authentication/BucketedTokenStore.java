@@ -0,0 +1,386 @@
+package com.example.infrastructure.authentication;
+
+import com.example.domain.time.EpochClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * In-memory token store organized in rotating generation buckets
+ * Every token lands in the bucket of its issue generation (issue time / bucket width) and carries
+ * that generation in its value, so a lookup goes straight to one bucket. Expiry drops whole buckets
+ * in O(1) instead of scanning individual entries.
+ * A secondary per-user index caps the number of live tokens per user and supports epoch revocation.
+ */
+public final class BucketedTokenStore implements TokenStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BucketedTokenStore.class);
+    private static final int TOKEN_SIZE_BYTES = 32;
+    private static final char GENERATION_SEPARATOR = '.';
+
+    private final long lifetimeMillis;
+    private final long bucketMillis;
+    private final int maxTokensPerUser;
+    private final EpochClock clock;
+    private final AtomicReferenceArray<Bucket> ring;
+    private final ConcurrentMap<String, UserSessions> userSessions = new ConcurrentHashMap<>();
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    /**
+     * @param lifetimeMillis token lifetime
+     * @param bucketMillis width of one generation bucket
+     * @param maxTokensPerUser maximum live tokens per user, the oldest is evicted above it
+     * @param clock millisecond clock used for issue times and expiry checks
+     */
+    public BucketedTokenStore(long lifetimeMillis, long bucketMillis, int maxTokensPerUser, EpochClock clock) {
+        if (lifetimeMillis <= 0 || bucketMillis <= 0) {
+            throw new IllegalArgumentException("Token lifetime and bucket width must be positive");
+        }
+        if (maxTokensPerUser < 1) {
+            throw new IllegalArgumentException("Maximum tokens per user must be at least 1");
+        }
+        this.lifetimeMillis = lifetimeMillis;
+        this.bucketMillis = bucketMillis;
+        this.maxTokensPerUser = maxTokensPerUser;
+        this.clock = clock;
+        // One slot per generation a live token can belong to, plus the one being filled
+        this.ring = new AtomicReferenceArray<>((int) ((lifetimeMillis + bucketMillis - 1) / bucketMillis) + 2);
+    }
+
+    @Override
+    public String issue(String username) {
+        long now = clock.millis();
+        long generation = now / bucketMillis;
+        String tokenValue = generateTokenValue(generation);
+        register(username, tokenValue, generation, now + lifetimeMillis, now);
+        return tokenValue;
+    }
+
+    /**
+     * Re-inserts a previously issued token, used when recovering from durable storage
+     * @return true if the token was restored, false if it is expired, malformed or already present
+     */
+    public boolean restore(String tokenValue, String username, long expiresAtMillis) {
+        long now = clock.millis();
+        long generation = parseGeneration(tokenValue);
+        if (generation < 0 || now >= expiresAtMillis) {
+            return false;
+        }
+        TokenEntry existing = peek(tokenValue);
+        if (existing != null && !existing.isRevoked()) {
+            return false;
+        }
+        // A revoked entry is replaced: replaying a user revocation over a newer snapshot revokes tokens
+        // issued after it, and their issue records follow it in the journal
+        register(username, tokenValue, generation, expiresAtMillis, now);
+        return true;
+    }
+
+    /**
+     * Visits every live token, each user's in issue order so that restoring them evicts the same oldest token
+     */
+    public void forEachLive(LiveTokenVisitor visitor) {
+        long now = clock.millis();
+        List<String> tokens = new ArrayList<>(maxTokensPerUser);
+        for (UserSessions sessions : userSessions.values()) {
+            tokens.clear();
+            synchronized (sessions) {
+                tokens.addAll(sessions.tokens);
+            }
+            for (String tokenValue : tokens) {
+                TokenEntry entry = peek(tokenValue);
+                if (entry != null && !entry.isRevoked() && !entry.isExpiredAt(now)) {
+                    visitor.visit(tokenValue, entry.getUsername(), entry.getExpiresAtMillis());
+                }
+            }
+        }
+    }
+
+    private void register(String username, String tokenValue, long generation, long expiresAtMillis, long now) {
+        for (;;) {
+            UserSessions sessions = userSessions.computeIfAbsent(username, UserSessions::new);
+            synchronized (sessions) {
+                if (sessions.retired) {
+                    continue; // Removed by cleanup meanwhile, retry with a fresh entry
+                }
+                pruneStaleTokens(sessions, now);
+                while (sessions.tokens.size() >= maxTokensPerUser) {
+                    remove(sessions.tokens.pollFirst());
+                    LOGGER.debug("Evicted oldest token for user: {}", username);
+                }
+                TokenEntry entry = new TokenEntry(username, expiresAtMillis, sessions, sessions.epoch);
+                sessions.tokens.addLast(tokenValue);
+                Bucket bucket = bucket(generation, true);
+                if (bucket != null) {
+                    bucket.tokens.put(tokenValue, entry);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Looks up a live token
+     * Allocation free: one bucket read, one map lookup and primitive comparisons
+     * @param tokenValue the token value
+     * @return the token entry, or null if unknown, expired or revoked
+     */
+    public TokenEntry lookup(String tokenValue) {
+        if (tokenValue == null) {
+            return null;
+        }
+        long generation = parseGeneration(tokenValue);
+        if (generation < 0) {
+            return null;
+        }
+        Bucket bucket = bucket(generation, false);
+        if (bucket == null) {
+            return null;
+        }
+        TokenEntry entry = bucket.tokens.get(tokenValue);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isRevoked() || entry.isExpiredAt(clock.millis())) {
+            bucket.tokens.remove(tokenValue, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    @Override
+    public boolean isValid(String tokenValue) {
+        return lookup(tokenValue) != null;
+    }
+
+    @Override
+    public String usernameFor(String tokenValue) {
+        TokenEntry entry = lookup(tokenValue);
+        return entry != null ? entry.getUsername() : null;
+    }
+
+    @Override
+    public long expiresAtMillis(String tokenValue) {
+        TokenEntry entry = lookup(tokenValue);
+        return entry != null ? entry.getExpiresAtMillis() : -1;
+    }
+
+    @Override
+    public void revoke(String tokenValue) {
+        TokenEntry entry = remove(tokenValue);
+        if (entry != null) {
+            synchronized (entry.sessions) {
+                entry.sessions.tokens.remove(tokenValue);
+            }
+        }
+    }
+
+    /**
+     * Revokes every token of a user in constant time by bumping the user's epoch
+     * Stale entries are rejected on lookup and dropped with their bucket
+     */
+    @Override
+    public boolean revokeAllForUser(String username) {
+        UserSessions sessions = username != null ? userSessions.get(username) : null;
+        if (sessions == null) {
+            return false;
+        }
+        synchronized (sessions) {
+            sessions.epoch++;
+        }
+        return true;
+    }
+
+    /**
+     * Drops buckets whose tokens have all expired and forgets users without live tokens
+     * Cost is one step per bucket plus one per known user, never per token
+     * @return number of buckets dropped
+     */
+    @Override
+    public int cleanup() {
+        long now = clock.millis();
+        int dropped = 0;
+        for (int slot = 0; slot < ring.length(); slot++) {
+            Bucket bucket = ring.get(slot);
+            if (bucket != null && isBucketExpired(bucket.generation, now) && ring.compareAndSet(slot, bucket, null)) {
+                dropped++;
+            }
+        }
+
+        for (UserSessions sessions : userSessions.values()) {
+            synchronized (sessions) {
+                pruneStaleTokens(sessions, now);
+                if (sessions.tokens.isEmpty()) {
+                    sessions.retired = true;
+                    userSessions.remove(sessions.username, sessions);
+                }
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * @return number of stored tokens, including not yet purged expired or revoked ones
+     */
+    public int size() {
+        int size = 0;
+        for (int slot = 0; slot < ring.length(); slot++) {
+            Bucket bucket = ring.get(slot);
+            if (bucket != null) {
+                size += bucket.tokens.size();
+            }
+        }
+        return size;
+    }
+
+    private TokenEntry remove(String tokenValue) {
+        long generation = parseGeneration(tokenValue);
+        Bucket bucket = generation >= 0 ? bucket(generation, false) : null;
+        return bucket != null ? bucket.tokens.remove(tokenValue) : null;
+    }
+
+    /**
+     * Returns the bucket of a generation, replacing the stale bucket occupying its slot when creating
+     */
+    private Bucket bucket(long generation, boolean create) {
+        int slot = (int) (generation % ring.length());
+        for (;;) {
+            Bucket current = ring.get(slot);
+            if (current != null && current.generation == generation) {
+                return current;
+            }
+            if (!create || (current != null && current.generation > generation)) {
+                return null;
+            }
+            Bucket fresh = new Bucket(generation);
+            if (ring.compareAndSet(slot, current, fresh)) {
+                if (current != null) {
+                    LOGGER.debug("Dropped token bucket {} with {} entries", current.generation, current.tokens.size());
+                }
+                return fresh;
+            }
+        }
+    }
+
+    private boolean isBucketExpired(long generation, long now) {
+        // The last token of a bucket is issued just before the next generation starts
+        return (generation + 1) * bucketMillis + lifetimeMillis <= now;
+    }
+
+    /**
+     * Drops expired, revoked or already removed tokens from a user's index
+     * Bounded by the per-user limit; caller must hold the sessions lock
+     */
+    private void pruneStaleTokens(UserSessions sessions, long now) {
+        var iterator = sessions.tokens.iterator();
+        while (iterator.hasNext()) {
+            String tokenValue = iterator.next();
+            TokenEntry entry = peek(tokenValue);
+            if (entry == null || entry.isRevoked() || entry.isExpiredAt(now)) {
+                iterator.remove();
+                if (entry != null) {
+                    remove(tokenValue);
+                }
+            }
+        }
+    }
+
+    private TokenEntry peek(String tokenValue) {
+        long generation = parseGeneration(tokenValue);
+        Bucket bucket = generation >= 0 ? bucket(generation, false) : null;
+        return bucket != null ? bucket.tokens.get(tokenValue) : null;
+    }
+
+    private String generateTokenValue(long generation) {
+        byte[] bytes = new byte[TOKEN_SIZE_BYTES];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes)
+                + GENERATION_SEPARATOR + Long.toString(generation, Character.MAX_RADIX);
+    }
+
+    /**
+     * Reads the base-36 generation suffix without allocating
+     * @return the generation, or -1 if the value is not a token of this store
+     */
+    static long parseGeneration(String tokenValue) {
+        int separator = tokenValue.lastIndexOf(GENERATION_SEPARATOR);
+        if (separator < 0 || separator == tokenValue.length() - 1 || tokenValue.length() - separator > 14) {
+            return -1;
+        }
+        long generation = 0;
+        for (int i = separator + 1; i < tokenValue.length(); i++) {
+            int digit = Character.digit(tokenValue.charAt(i), Character.MAX_RADIX);
+            if (digit < 0) {
+                return -1;
+            }
+            generation = generation * Character.MAX_RADIX + digit;
+        }
+        return generation;
+    }
+
+    /**
+     * Callback for {@link #forEachLive(LiveTokenVisitor)}
+     */
+    @FunctionalInterface
+    public interface LiveTokenVisitor {
+        void visit(String tokenValue, String username, long expiresAtMillis);
+    }
+
+    /**
+     * Stored token information
+     */
+    public static final class TokenEntry {
+        private final String username;
+        private final long expiresAtMillis;
+        private final UserSessions sessions;
+        private final int epoch;
+
+        TokenEntry(String username, long expiresAtMillis, UserSessions sessions, int epoch) {
+            this.username = username;
+            this.expiresAtMillis = expiresAtMillis;
+            this.sessions = sessions;
+            this.epoch = epoch;
+        }
+
+        boolean isExpiredAt(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+
+        boolean isRevoked() {
+            return epoch != sessions.epoch;
+        }
+
+        public String getUsername() { return username; }
+        public long getExpiresAtMillis() { return expiresAtMillis; }
+    }
+
+    // One generation of tokens, dropped as a whole once all of them have expired
+    private static final class Bucket {
+        final long generation;
+        final ConcurrentMap<String, TokenEntry> tokens = new ConcurrentHashMap<>();
+
+        Bucket(long generation) {
+            this.generation = generation;
+        }
+    }
+
+    // Per-user index: live token values in issue order plus the revocation epoch
+    private static final class UserSessions {
+        final String username;
+        final ArrayDeque<String> tokens = new ArrayDeque<>();
+        volatile int epoch;
+        boolean retired;
+
+        UserSessions(String username) {
+            this.username = username;
+        }
+    }
+}
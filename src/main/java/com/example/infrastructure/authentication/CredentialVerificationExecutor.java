@@ -0,0 +1,116 @@
+package com.example.infrastructure.authentication;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated, size-bounded pool for CPU-heavy credential verification
+ * Password hashing never runs on HTTP or WebSocket I/O threads; once the bounded queue is full new attempts
+ * are rejected immediately instead of queueing up behind seconds of hashing work.
+ * Tracks time spent waiting in the queue separately from time spent hashing.
+ */
+@ApplicationScoped
+public class CredentialVerificationExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder executionNanos = new LongAdder();
+
+    /**
+     * @param threads number of verification threads, 0 for one per available processor
+     * @param queueCapacity attempts allowed to wait for a free thread
+     */
+    @Inject
+    public CredentialVerificationExecutor(
+            @ConfigProperty(name = "auth.credentials.verifier-threads", defaultValue = "0") int threads,
+            @ConfigProperty(name = "auth.credentials.queue-capacity", defaultValue = "64") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "credential-verifier-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.prestartAllCoreThreads();
+    }
+
+    /**
+     * Runs a verification task on the pool
+     * Checked failures are passed by throwing a {@link CompletionException} wrapping them
+     * @return future completed with the task result, or failed with whatever the task threw, errors included
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long enqueuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitNanos.add(startedAt - enqueuedAt);
+                T value = null;
+                Throwable failure = null;
+                try {
+                    value = task.get();
+                } catch (CompletionException e) {
+                    failure = e.getCause() != null ? e.getCause() : e;
+                } catch (Throwable e) {
+                    failure = e; // Errors included, the caller would otherwise wait forever
+                }
+                // Counted before completing, so callers that observe the result also observe the metrics
+                executionNanos.add(System.nanoTime() - startedAt);
+                completed.increment();
+                if (failure != null) {
+                    result.completeExceptionally(failure);
+                } else {
+                    result.complete(value);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+        submitted.increment();
+        return result;
+    }
+
+    /**
+     * @return counters and mean queue wait and execution time in microseconds
+     */
+    public Map<String, Long> metrics() {
+        long done = completed.sum();
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("submitted", submitted.sum());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("completed", done);
+        metrics.put("queued", (long) executor.getQueue().size());
+        metrics.put("active", (long) executor.getActiveCount());
+        metrics.put("meanQueueWaitMicros", done > 0 ? queueWaitNanos.sum() / done / 1_000 : 0);
+        metrics.put("meanHashMicros", done > 0 ? executionNanos.sum() / done / 1_000 : 0);
+        return metrics;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.infrastructure.authentication;
+
+import com.example.domain.time.EpochClock;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-memory frequency estimator whose counts halve every decay interval
+ * Count-min sketch: each key increments one counter per row and its estimate is the minimum over the rows,
+ * so estimates never undercount and memory is rows x width counters however many keys are seen.
+ * Keys are hashed with a random per-process seed, attackers cannot precompute colliding keys offline.
+ * Estimating and counting do not allocate.
+ */
+final class DecayingCountMinSketch {
+
+    private static final int ROWS = 4;
+    private static final long MIX = 0x9E3779B97F4A7C15L;
+
+    private final AtomicIntegerArray counters;
+    private final int mask;
+    private final long decayIntervalMillis;
+    private final EpochClock clock;
+    private final long seed = new SecureRandom().nextLong();
+    private final AtomicLong decayedAt;
+
+    /**
+     * @param width counters per row, rounded up to a power of two
+     * @param decayIntervalMillis interval after which every count is halved
+     * @param clock millisecond clock
+     */
+    DecayingCountMinSketch(int width, long decayIntervalMillis, EpochClock clock) {
+        int size = Integer.highestOneBit(Math.max(16, width - 1)) << 1;
+        this.counters = new AtomicIntegerArray(ROWS * size);
+        this.mask = size - 1;
+        this.decayIntervalMillis = decayIntervalMillis;
+        this.clock = clock;
+        this.decayedAt = new AtomicLong(clock.millis());
+    }
+
+    /**
+     * Counts one occurrence of a key within a namespace
+     * @return the new estimate
+     */
+    int increment(int namespace, String key) {
+        decayIfDue();
+        long hash = hash(namespace, key);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32) | 1;
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < ROWS; row++) {
+            int index = row * (mask + 1) + ((first + row * second) & mask);
+            estimate = Math.min(estimate, counters.incrementAndGet(index));
+        }
+        return estimate;
+    }
+
+    /**
+     * @return upper-bound estimate of the occurrences of a key within a namespace
+     */
+    int estimate(int namespace, String key) {
+        decayIfDue();
+        long hash = hash(namespace, key);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32) | 1;
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < ROWS; row++) {
+            estimate = Math.min(estimate, counters.get(row * (mask + 1) + ((first + row * second) & mask)));
+        }
+        return estimate;
+    }
+
+    /**
+     * @return memory held by the counters in bytes
+     */
+    long sizeInBytes() {
+        return counters.length() * (long) Integer.BYTES;
+    }
+
+    // One caller per interval wins the CAS and halves every counter, the others carry on
+    private void decayIfDue() {
+        long last = decayedAt.get();
+        long intervals = (clock.millis() - last) / decayIntervalMillis;
+        if (intervals <= 0 || !decayedAt.compareAndSet(last, last + intervals * decayIntervalMillis)) {
+            return;
+        }
+        int halvings = (int) Math.min(31, intervals);
+        for (int i = 0; i < counters.length(); i++) {
+            int value;
+            do {
+                value = counters.get(i);
+            } while (value != 0 && !counters.compareAndSet(i, value, value >>> halvings));
+        }
+    }
+
+    private long hash(int namespace, String key) {
+        long hash = seed ^ (namespace * MIX);
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * MIX;
+            hash ^= hash >>> 29;
+        }
+        hash ^= hash >>> 32;
+        hash *= MIX;
+        return hash ^ (hash >>> 29);
+    }
+}
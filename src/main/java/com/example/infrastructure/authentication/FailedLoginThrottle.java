@@ -0,0 +1,166 @@
+package com.example.infrastructure.authentication;
+
+import com.example.domain.time.EpochClock;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks failed logins per username and per client address in a decaying count-min sketch
+ * Checked before any credential work: above the delay threshold attempts are slowed down exponentially,
+ * above the block threshold they are refused until the counts decay. Memory is fixed by the sketch width,
+ * however many distinct usernames or addresses an attacker tries.
+ */
+@ApplicationScoped
+public class FailedLoginThrottle {
+
+    private static final int USERNAME = 1;
+    private static final int ADDRESS = 2;
+    private static final long BASE_DELAY_MILLIS = 250;
+
+    private final DecayingCountMinSketch failures;
+    private final Thresholds usernameThresholds;
+    private final Thresholds addressThresholds;
+    private final long maxDelayMillis;
+    private final long retryAfterSeconds;
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder blocked = new LongAdder();
+
+    /**
+     * Delay and block thresholds for one key type
+     */
+    public static final class Thresholds {
+        final int delayAfter;
+        final int blockAfter;
+
+        public Thresholds(int delayAfter, int blockAfter) {
+            this.delayAfter = delayAfter;
+            this.blockAfter = blockAfter;
+        }
+    }
+
+    /**
+     * Outcome of a throttle check, {@link #ALLOW} for the common case
+     */
+    public static final class Decision {
+        public static final Decision ALLOW = new Decision(0, false, 0);
+
+        private final long delayMillis;
+        private final boolean blocked;
+        private final long retryAfterSeconds;
+
+        private Decision(long delayMillis, boolean blocked, long retryAfterSeconds) {
+            this.delayMillis = delayMillis;
+            this.blocked = blocked;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public long getDelayMillis() { return delayMillis; }
+        public boolean isBlocked() { return blocked; }
+        public long getRetryAfterSeconds() { return retryAfterSeconds; }
+    }
+
+    @Inject
+    public FailedLoginThrottle(
+            @ConfigProperty(name = "auth.throttle.sketch-width", defaultValue = "65536") int sketchWidth,
+            @ConfigProperty(name = "auth.throttle.decay-seconds", defaultValue = "300") long decaySeconds,
+            @ConfigProperty(name = "auth.throttle.username.delay-after", defaultValue = "5") int usernameDelayAfter,
+            @ConfigProperty(name = "auth.throttle.username.block-after", defaultValue = "20") int usernameBlockAfter,
+            @ConfigProperty(name = "auth.throttle.address.delay-after", defaultValue = "20") int addressDelayAfter,
+            @ConfigProperty(name = "auth.throttle.address.block-after", defaultValue = "100") int addressBlockAfter,
+            @ConfigProperty(name = "auth.throttle.max-delay-millis", defaultValue = "4000") long maxDelayMillis,
+            EpochClock clock) {
+        this(sketchWidth, TimeUnit.SECONDS.toMillis(decaySeconds),
+                new Thresholds(usernameDelayAfter, usernameBlockAfter),
+                new Thresholds(addressDelayAfter, addressBlockAfter),
+                maxDelayMillis, clock);
+    }
+
+    public FailedLoginThrottle(int sketchWidth, long decayMillis, Thresholds usernameThresholds,
+                               Thresholds addressThresholds, long maxDelayMillis, EpochClock clock) {
+        this.failures = new DecayingCountMinSketch(sketchWidth, decayMillis, clock);
+        this.usernameThresholds = usernameThresholds;
+        this.addressThresholds = addressThresholds;
+        this.maxDelayMillis = maxDelayMillis;
+        this.retryAfterSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(decayMillis));
+    }
+
+    /**
+     * Decides how to treat a login attempt before its credentials are looked at
+     * @param username the attempted username
+     * @param clientAddress the client address, null if unknown
+     */
+    public Decision check(String username, String clientAddress) {
+        int usernameFailures = failures.estimate(USERNAME, normalize(username));
+        int addressFailures = clientAddress != null ? failures.estimate(ADDRESS, clientAddress) : 0;
+
+        if (usernameFailures >= usernameThresholds.blockAfter || addressFailures >= addressThresholds.blockAfter) {
+            blocked.increment();
+            return new Decision(0, true, retryAfterSeconds);
+        }
+        long delayMillis = Math.max(
+                delayFor(usernameFailures, usernameThresholds.delayAfter),
+                delayFor(addressFailures, addressThresholds.delayAfter));
+        if (delayMillis == 0) {
+            return Decision.ALLOW;
+        }
+        delayed.increment();
+        return new Decision(delayMillis, false, 0);
+    }
+
+    /**
+     * Reads the delay {@link #check} would currently impose, without counting the attempt
+     * @return delay in milliseconds, 0 if the attempt would be let through or refused outright
+     */
+    public long delayMillis(String username, String clientAddress) {
+        int usernameFailures = failures.estimate(USERNAME, normalize(username));
+        int addressFailures = clientAddress != null ? failures.estimate(ADDRESS, clientAddress) : 0;
+
+        if (usernameFailures >= usernameThresholds.blockAfter || addressFailures >= addressThresholds.blockAfter) {
+            return 0;
+        }
+        return Math.max(
+                delayFor(usernameFailures, usernameThresholds.delayAfter),
+                delayFor(addressFailures, addressThresholds.delayAfter));
+    }
+
+    /**
+     * Counts a failed login against both the username and the client address
+     */
+    public void recordFailure(String username, String clientAddress) {
+        failures.increment(USERNAME, normalize(username));
+        if (clientAddress != null) {
+            failures.increment(ADDRESS, clientAddress);
+        }
+    }
+
+    public long getDelayedCount() {
+        return delayed.sum();
+    }
+
+    public long getBlockedCount() {
+        return blocked.sum();
+    }
+
+    public long getSketchBytes() {
+        return failures.sizeInBytes();
+    }
+
+    // Doubles per failure above the threshold, capped
+    private long delayFor(int failureCount, int delayAfter) {
+        if (failureCount < delayAfter) {
+            return 0;
+        }
+        int doublings = Math.min(20, failureCount - delayAfter);
+        return Math.min(maxDelayMillis, BASE_DELAY_MILLIS << doublings);
+    }
+
+    // Usernames differing only in case must share a counter
+    private static String normalize(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+}
@@ -2,39 +2,69 @@ package com.example.infrastructure.authentication;
 
 import com.example.domain.authentication.AuthenticationChannel;
 import com.example.domain.authentication.AuthenticationChannelRepository;
+import com.example.domain.authentication.ChannelState;
+import com.example.domain.time.EpochClock;
+import com.example.infrastructure.metrics.Counter;
+import com.example.infrastructure.metrics.MetricsRegistry;
+import com.example.infrastructure.scheduling.TimingWheel;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.security.SecureRandom;
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.Base64;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * In-memory implementation of AuthenticationChannelRepository
  * This is an adapter implementing the port defined in the domain
+ * The number of retained channels is counted as they are added and removed, so reading it never scans the map.
+ * Every channel, consumed or never scanned, is removed by a {@link TimingWheel} timeout once it is past expiry.
+ * Live channels, retained and not yet consumed, are counted too; a channel leaves that count exactly once,
+ * when it is consumed or when it is removed unconsumed, both decided under the channel's lock.
  */
 @ApplicationScoped
 public class InMemoryAuthenticationChannelRepository implements AuthenticationChannelRepository {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(InMemoryAuthenticationChannelRepository.class);
-    private static final int CHANNEL_EXPIRY_MINUTES = 5; // Channels expire after 5 minutes
+    private static final long CHANNEL_EXPIRY_MILLIS = TimeUnit.MINUTES.toMillis(5); // Channels expire after 5 minutes
     private static final int TOKEN_SIZE_BYTES = 32;
     
     private final ConcurrentMap<String, AuthenticationChannel> channels = new ConcurrentHashMap<>();
     private final SecureRandom secureRandom = new SecureRandom();
+    private final EpochClock clock;
+    private final TimingWheel timingWheel;
+    private final LongAdder retained = new LongAdder();
+    private final LongAdder live = new LongAdder();
+    private final Counter created;
+
+    @Inject
+    public InMemoryAuthenticationChannelRepository(EpochClock clock, MetricsRegistry metrics, TimingWheel timingWheel) {
+        this.clock = clock;
+        this.timingWheel = timingWheel;
+        this.created = metrics.counter("qrlog_auth_channels_created_total", "Authentication channels created");
+        metrics.gauge("qrlog_auth_channels_retained",
+            "Authentication channels held in memory, including consumed ones kept until expiry",
+            this::getRetainedChannelCount);
+        metrics.gauge("qrlog_auth_channels_live", "Authentication channels issued and not yet consumed or expired",
+            this::getLiveChannelCount);
+    }
 
     @Override
     public AuthenticationChannel create() {
         String channelId = generateSecureChannelId();
-        Instant now = Instant.now();
-        Instant expiresAt = now.plus(CHANNEL_EXPIRY_MINUTES, ChronoUnit.MINUTES);
+        long now = clock.millis();
         
-        AuthenticationChannel channel = AuthenticationChannel.create(channelId, now, expiresAt);
+        AuthenticationChannel channel = AuthenticationChannel.create(channelId, now, now + CHANNEL_EXPIRY_MILLIS, clock);
         channels.put(channelId, channel);
+        retained.increment();
+        live.increment();
+        created.increment();
+        scheduleRemoval(channel);
         
         LOGGER.info("Created authentication channel: {}", channelId);
         return channel;
@@ -52,33 +82,53 @@ public class InMemoryAuthenticationChannelRepository implements AuthenticationCh
             return null;
         }
         
-        if (!channel.isValid()) {
+        long now = clock.millis();
+        if (channel.isExpiredAt(now)) {
             LOGGER.debug("Channel is invalid or expired: {}", channelId);
-            channels.remove(channelId); // Cleanup expired channel
+            if (channel.isPastExpiryAt(now)) {
+                remove(channel); // Consumed channels stay until expiry so their state is observable
+            }
             return null;
         }
         
         return channel;
     }
 
+    @Override
+    public AuthenticationChannel findById(String channelId) {
+        if (channelId == null || channelId.trim().isEmpty()) {
+            return null;
+        }
+        return channels.get(channelId);
+    }
+
     @Override
     public void markAsUsed(String channelId) {
         AuthenticationChannel channel = channels.get(channelId);
         if (channel != null) {
-            channels.remove(channelId);
-            LOGGER.info("Marked channel as used and removed: {}", channelId);
+            synchronized (channel) {
+                if (channel.consume() && channels.get(channelId) == channel) {
+                    live.decrement();
+                }
+            }
+            LOGGER.info("Marked channel as used: {}", channelId);
+        }
+    }
+
+    @Override
+    public void delete(String channelId) {
+        AuthenticationChannel channel = findById(channelId);
+        if (channel != null && remove(channel)) {
+            LOGGER.debug("Deleted channel: {}", channelId);
         }
     }
 
     @Override
     public void cleanupExpiredChannels() {
         int removedCount = 0;
-        var iterator = channels.entrySet().iterator();
-        
-        while (iterator.hasNext()) {
-            var entry = iterator.next();
-            if (!entry.getValue().isValid()) {
-                iterator.remove();
+        long now = clock.millis();
+        for (AuthenticationChannel channel : channels.values()) {
+            if (channel.isPastExpiryAt(now) && remove(channel)) {
                 removedCount++;
             }
         }
@@ -88,6 +138,36 @@ public class InMemoryAuthenticationChannelRepository implements AuthenticationCh
         }
     }
 
+    private void scheduleRemoval(AuthenticationChannel channel) {
+        // Past expiry means strictly after it
+        long delayMillis = Math.max(1, channel.getExpiresAtMillis() + 1 - clock.millis());
+        timingWheel.schedule(() -> removeIfPastExpiry(channel), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Runs on the wheel thread
+    private void removeIfPastExpiry(AuthenticationChannel channel) {
+        if (!channel.isPastExpiryAt(clock.millis())) {
+            scheduleRemoval(channel); // The coarse clock lags the wheel by up to one of its ticks
+            return;
+        }
+        if (remove(channel)) {
+            LOGGER.debug("Removed expired channel: {}", channel.getId());
+        }
+    }
+
+    private boolean remove(AuthenticationChannel channel) {
+        synchronized (channel) {
+            if (!channels.remove(channel.getId(), channel)) {
+                return false;
+            }
+            retained.decrement();
+            if (channel.getState() != ChannelState.CONSUMED) {
+                live.decrement();
+            }
+            return true;
+        }
+    }
+
     @Override
     public boolean existsAndValid(String channelId) {
         return findByIdIfValid(channelId) != null;
@@ -99,9 +179,13 @@ public class InMemoryAuthenticationChannelRepository implements AuthenticationCh
         return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
     
-    // For testing/monitoring purposes
-    public int getActiveChannelCount() {
-        cleanupExpiredChannels(); // Clean up before counting
-        return channels.size();
+    // For testing/monitoring purposes: channels not yet removed, expired or not, read without a sweep
+    public long getRetainedChannelCount() {
+        return retained.sum();
+    }
+
+    // Channels retained and not consumed, read without a sweep
+    public long getLiveChannelCount() {
+        return live.sum();
     }
 }
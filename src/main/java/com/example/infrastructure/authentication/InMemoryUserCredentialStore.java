@@ -0,0 +1,58 @@
+package com.example.infrastructure.authentication;
+
+import com.example.domain.authentication.UserCredentialStore;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory implementation of UserCredentialStore
+ * Simple user store for demo purposes - in real app this would be a database or a directory export
+ */
+public class InMemoryUserCredentialStore implements UserCredentialStore {
+
+    private static final int LEGACY_ITERATIONS = 10_000; // Demo users start with weak hashes, upgraded on login
+
+    private final ConcurrentMap<String, String> userStore = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a store holding the demo users
+     */
+    public static InMemoryUserCredentialStore withDemoUsers(PasswordHasher passwordHasher) {
+        InMemoryUserCredentialStore store = new InMemoryUserCredentialStore();
+        store.put("admin", passwordHasher.hash("admin123", LEGACY_ITERATIONS));
+        store.put("user", passwordHasher.hash("password", LEGACY_ITERATIONS));
+        store.put("demo", passwordHasher.hash("demo", LEGACY_ITERATIONS));
+        return store;
+    }
+
+    public void put(String username, String credentialHash) {
+        userStore.put(username, credentialHash);
+    }
+
+    @Override
+    public String findCredentialHash(String username) {
+        return username != null ? userStore.get(username) : null;
+    }
+
+    @Override
+    public boolean replaceCredentialHash(String username, String expectedHash, String newHash) {
+        return userStore.replace(username, expectedHash, newHash);
+    }
+
+    @Override
+    public boolean supportsHashUpgrade() {
+        return true;
+    }
+
+    @Override
+    public List<String> sampleCredentialHashes(int limit) {
+        return userStore.values().stream().limit(limit).toList();
+    }
+
+    @Override
+    public int size() {
+        return userStore.size();
+    }
+}
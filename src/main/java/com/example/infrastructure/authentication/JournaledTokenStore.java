@@ -0,0 +1,137 @@
+package com.example.infrastructure.authentication;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Durable token store: a {@link BucketedTokenStore} whose mutations are recorded in a {@link TokenJournal}
+ * Issue and revoke calls return once their journal record is on disk; concurrent calls share one fsync.
+ * On startup the snapshot and journal are replayed, so a restart no longer logs every user out.
+ * Evictions caused by the per-user limit are not journaled, replaying issues in order reproduces them.
+ */
+public final class JournaledTokenStore implements TokenStore, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournaledTokenStore.class);
+
+    private final BucketedTokenStore delegate;
+    private final TokenJournal journal;
+
+    private JournaledTokenStore(BucketedTokenStore delegate, TokenJournal journal) {
+        this.delegate = delegate;
+        this.journal = journal;
+    }
+
+    /**
+     * Opens the journal in a directory and rebuilds the store from it
+     * @param delegate empty in-memory store to rebuild
+     * @param directory directory holding journal and snapshot
+     * @param maxBatch maximum records per group commit
+     * @param compactThresholdBytes journal segment size that triggers a background snapshot
+     */
+    public static JournaledTokenStore open(BucketedTokenStore delegate, Path directory, int maxBatch,
+                                           long compactThresholdBytes) throws IOException {
+        long started = System.nanoTime();
+        TokenJournal journal = new TokenJournal(directory, maxBatch, compactThresholdBytes);
+        journal.recover(
+            (type, body) -> apply(delegate, type, body),
+            sink -> delegate.forEachLive((tokenValue, username, expiresAtMillis) -> {
+                try {
+                    sink.issue(tokenValue, username, expiresAtMillis);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        LOGGER.info("Token store recovered {} tokens in {} ms", delegate.size(), (System.nanoTime() - started) / 1_000_000);
+        return new JournaledTokenStore(delegate, journal);
+    }
+
+    @Override
+    public String issue(String username) {
+        String tokenValue = delegate.issue(username);
+        try {
+            await(journal.appendIssue(tokenValue, username, delegate.expiresAtMillis(tokenValue)));
+        } catch (RuntimeException e) {
+            delegate.revoke(tokenValue); // Never hand out a token that would not survive a restart
+            throw e;
+        }
+        return tokenValue;
+    }
+
+    @Override
+    public boolean isValid(String tokenValue) {
+        return delegate.isValid(tokenValue);
+    }
+
+    @Override
+    public String usernameFor(String tokenValue) {
+        return delegate.usernameFor(tokenValue);
+    }
+
+    @Override
+    public long expiresAtMillis(String tokenValue) {
+        return delegate.expiresAtMillis(tokenValue);
+    }
+
+    @Override
+    public void revoke(String tokenValue) {
+        if (tokenValue == null) {
+            return;
+        }
+        delegate.revoke(tokenValue);
+        await(journal.appendRevoke(tokenValue));
+    }
+
+    @Override
+    public boolean revokeAllForUser(String username) {
+        if (!delegate.revokeAllForUser(username)) {
+            return false;
+        }
+        await(journal.appendRevokeUser(username));
+        return true;
+    }
+
+    @Override
+    public int cleanup() {
+        return delegate.cleanup();
+    }
+
+    /**
+     * Writes a snapshot of live tokens and deletes the journal segments it covers
+     */
+    public void compact() {
+        await(journal.requestCompaction());
+    }
+
+    @Override
+    public void close() {
+        journal.close();
+    }
+
+    private static void apply(BucketedTokenStore store, byte type, ByteBuffer body) {
+        switch (type) {
+            case TokenJournal.ISSUE -> {
+                long expiresAtMillis = body.getLong();
+                String tokenValue = TokenJournal.readString(body);
+                store.restore(tokenValue, TokenJournal.readString(body), expiresAtMillis);
+            }
+            case TokenJournal.REVOKE -> store.revoke(TokenJournal.readString(body));
+            case TokenJournal.REVOKE_USER -> store.revokeAllForUser(TokenJournal.readString(body));
+            default -> LOGGER.warn("Skipping unknown token journal record type {}", type);
+        }
+    }
+
+    private static void await(CompletableFuture<Void> write) {
+        try {
+            write.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Token journal write failed", e.getCause());
+        }
+    }
+}
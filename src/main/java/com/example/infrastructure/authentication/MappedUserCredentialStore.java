@@ -0,0 +1,226 @@
+package com.example.infrastructure.authentication;
+
+import com.example.domain.authentication.UserCredentialStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-only UserCredentialStore backed by a memory-mapped index file built with {@link UserIndexWriter}
+ * Startup only maps the file, users are paged in on demand and stay off the Java heap.
+ * A lookup hashes the username, probes the slot table and compares bytes in place without allocating;
+ * only a hit copies out the credential hash.
+ * A rebuilt file renamed over the old one is detected and swapped in with one volatile write, lookups in
+ * flight keep reading the old mapping until they finish. Renaming is the only supported way to publish a new
+ * index: a mapped file rewritten or truncated in place gives readers torn data or a fault. Record offsets and
+ * lengths are bounds-checked anyway, so a damaged file fails a lookup instead of throwing out of a login.
+ */
+public class MappedUserCredentialStore implements UserCredentialStore, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MappedUserCredentialStore.class);
+
+    private final Path file;
+    private final ScheduledExecutorService reloader;
+    private volatile Index index;
+
+    /**
+     * @param file index file
+     * @param reloadIntervalMillis how often to check the file for a rebuilt version, 0 to disable
+     */
+    public MappedUserCredentialStore(Path file, long reloadIntervalMillis) throws IOException {
+        this.file = file;
+        this.index = Index.map(file);
+        LOGGER.info("Mapped user index {} with {} users", file, index.entryCount);
+
+        if (reloadIntervalMillis > 0) {
+            this.reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "user-index-reloader");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reloader.scheduleWithFixedDelay(this::reloadIfChanged, reloadIntervalMillis, reloadIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.reloader = null;
+        }
+    }
+
+    @Override
+    public String findCredentialHash(String username) {
+        return username != null ? index.find(username) : null;
+    }
+
+    /**
+     * The index is a read-only export, hash upgrades belong to the system that produces it
+     */
+    @Override
+    public boolean replaceCredentialHash(String username, String expectedHash, String newHash) {
+        return false;
+    }
+
+    @Override
+    public boolean supportsHashUpgrade() {
+        return false;
+    }
+
+    /**
+     * Reads the first records of the index, in the order the writer stored them
+     */
+    @Override
+    public List<String> sampleCredentialHashes(int limit) {
+        return index.sample(limit);
+    }
+
+    @Override
+    public int size() {
+        return index.entryCount;
+    }
+
+    /**
+     * Maps the file again if it was replaced since it was last mapped
+     * @return true if a new index was swapped in
+     */
+    public boolean reloadIfChanged() {
+        try {
+            String version = Index.version(file);
+            if (version.equals(index.version)) {
+                return false;
+            }
+            Index reloaded = Index.map(file);
+            index = reloaded;
+            LOGGER.info("Reloaded user index {} with {} users", file, reloaded.entryCount);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Failed to reload user index {}, keeping the previous one", file, e);
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    private static final class Index {
+        final MappedByteBuffer buffer;
+        final String version;
+        final int mask;
+        final int entryCount;
+        final int recordsOffset;
+
+        private Index(MappedByteBuffer buffer, String version, int slotCount, int entryCount) {
+            this.buffer = buffer;
+            this.version = version;
+            this.mask = slotCount - 1;
+            this.entryCount = entryCount;
+            this.recordsOffset = UserIndexFormat.HEADER_BYTES + slotCount * UserIndexFormat.SLOT_BYTES;
+        }
+
+        static Index map(Path file) throws IOException {
+            String version = version(file);
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    throw new IOException("User index larger than 2 GB is not supported: " + file);
+                }
+                // The mapping stays valid after the channel is closed and after the file is replaced
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            if (buffer.capacity() < UserIndexFormat.HEADER_BYTES
+                    || buffer.getInt(0) != UserIndexFormat.MAGIC
+                    || buffer.getInt(4) != UserIndexFormat.VERSION) {
+                throw new IOException("Not a user index file: " + file);
+            }
+            int slotCount = buffer.getInt(8);
+            int entryCount = buffer.getInt(12);
+            if (Integer.bitCount(slotCount) != 1 || entryCount < 0 || entryCount > slotCount
+                    || UserIndexFormat.HEADER_BYTES + (long) slotCount * UserIndexFormat.SLOT_BYTES > buffer.capacity()) {
+                throw new IOException("Corrupt user index header: " + file);
+            }
+            return new Index(buffer, version, slotCount, entryCount);
+        }
+
+        static String version(Path file) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            // File key changes on an atomic rename; time and size stand in where the file system has no keys
+            return attributes.fileKey() + ":" + attributes.lastModifiedTime().toMillis() + ":" + attributes.size();
+        }
+
+        String find(String username) {
+            long hash = UserIndexFormat.hash(username);
+            int slot = (int) hash & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                int slotOffset = UserIndexFormat.HEADER_BYTES + slot * UserIndexFormat.SLOT_BYTES;
+                long slotHash = buffer.getLong(slotOffset);
+                if (slotHash == 0) {
+                    return null;
+                }
+                if (slotHash == hash) {
+                    long record = buffer.getLong(slotOffset + 8);
+                    if (record < recordsOffset || record + 2 > buffer.capacity()) {
+                        return corrupt(slot);
+                    }
+                    int usernameLength = buffer.getShort((int) record) & 0xFFFF;
+                    int credential = (int) record + 2 + usernameLength;
+                    if (credential + 2 > buffer.capacity()) {
+                        return corrupt(slot);
+                    }
+                    if (UserIndexFormat.equalsUtf8(buffer, (int) record + 2, usernameLength, username)) {
+                        int hashLength = buffer.getShort(credential) & 0xFFFF;
+                        if (credential + 2 + hashLength > buffer.capacity()) {
+                            return corrupt(slot);
+                        }
+                        byte[] hashBytes = new byte[hashLength];
+                        buffer.get(credential + 2, hashBytes);
+                        return new String(hashBytes, StandardCharsets.US_ASCII);
+                    }
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        List<String> sample(int limit) {
+            List<String> hashes = new ArrayList<>(Math.min(limit, entryCount));
+            long record = recordsOffset;
+            while (hashes.size() < Math.min(limit, entryCount)) {
+                if (record + 2 > buffer.capacity()) {
+                    break;
+                }
+                long credential = record + 2 + (buffer.getShort((int) record) & 0xFFFF);
+                if (credential + 2 > buffer.capacity()) {
+                    break;
+                }
+                int hashLength = buffer.getShort((int) credential) & 0xFFFF;
+                if (credential + 2 + hashLength > buffer.capacity()) {
+                    break;
+                }
+                byte[] hashBytes = new byte[hashLength];
+                buffer.get((int) credential + 2, hashBytes);
+                hashes.add(new String(hashBytes, StandardCharsets.US_ASCII));
+                record = credential + 2 + hashLength;
+            }
+            return hashes;
+        }
+
+        private String corrupt(int slot) {
+            LOGGER.error("User index slot {} points outside the file, treating the user as unknown", slot);
+            return null;
+        }
+    }
+}
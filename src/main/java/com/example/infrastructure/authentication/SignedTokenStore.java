@@ -0,0 +1,322 @@
+package com.example.infrastructure.authentication;
+
+import com.example.domain.time.EpochClock;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Self-verifying token store
+ * A token carries its key ID, issue time, expiry and username and is signed with HMAC-SHA256,
+ * so any instance holding the key can verify it without a lookup and tokens cost no heap.
+ * Token layout: base64url(payload) "." base64url(mac), payload being
+ * [version:1][keyId:1][issuedAt:8][expiresAt:8][nonce:8][username:UTF-8].
+ * Invalidation goes through a {@link TokenRevocationFilter} that only holds revoked, unexpired tokens.
+ * The per-user token limit of the opaque store does not apply to this format.
+ */
+public final class SignedTokenStore implements TokenStore {
+
+    private static final byte VERSION = 1;
+    private static final int NONCE_BYTES = 8;
+    private static final int HEADER_BYTES = 18 + NONCE_BYTES;
+    private static final int MAX_USERNAME_BYTES = 1024;
+    private static final int MAC_BYTES = 32;
+    private static final int BLOCK_BYTES = 64;
+    private static final char SEPARATOR = '.';
+    private static final int[] BASE64URL = base64UrlTable();
+
+    private final SigningKey[] keys = new SigningKey[256];
+    private final SigningKey activeKey;
+    private final long lifetimeMillis;
+    private final EpochClock clock;
+    private final TokenRevocationFilter revocations;
+    // Username hash -> epoch millis before which every token of that user is revoked
+    private final ConcurrentMap<Long, Long> userCutoffs = new ConcurrentHashMap<>();
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final ThreadLocal<Verifier> verifiers = ThreadLocal.withInitial(Verifier::new);
+
+    /**
+     * @param signingKeys raw HMAC keys by key ID (0-255); keys other than the active one only verify
+     * @param activeKeyId key ID used to sign new tokens
+     * @param lifetimeMillis token lifetime
+     * @param revocationPartitionMillis width of one revocation filter partition
+     * @param clock millisecond clock used for issue times and expiry checks
+     */
+    public SignedTokenStore(Map<Integer, byte[]> signingKeys, int activeKeyId, long lifetimeMillis,
+                            long revocationPartitionMillis, EpochClock clock) {
+        for (Map.Entry<Integer, byte[]> entry : signingKeys.entrySet()) {
+            int keyId = entry.getKey();
+            if (keyId < 0 || keyId > 255) {
+                throw new IllegalArgumentException("Signing key ID must be between 0 and 255: " + keyId);
+            }
+            keys[keyId] = new SigningKey(keyId, entry.getValue());
+        }
+        if (activeKeyId < 0 || activeKeyId > 255 || keys[activeKeyId] == null) {
+            throw new IllegalArgumentException("No signing key configured for active key ID " + activeKeyId);
+        }
+        this.activeKey = keys[activeKeyId];
+        this.lifetimeMillis = lifetimeMillis;
+        this.clock = clock;
+        this.revocations = new TokenRevocationFilter(lifetimeMillis, revocationPartitionMillis);
+    }
+
+    @Override
+    public String issue(String username) {
+        byte[] usernameBytes = username.getBytes(StandardCharsets.UTF_8);
+        if (usernameBytes.length > MAX_USERNAME_BYTES) {
+            throw new IllegalArgumentException("Username too long for a signed token");
+        }
+        long now = clock.millis();
+        byte[] payload = new byte[HEADER_BYTES + usernameBytes.length];
+        payload[0] = VERSION;
+        payload[1] = (byte) activeKey.id;
+        writeLong(payload, 2, now);
+        writeLong(payload, 10, now + lifetimeMillis);
+        byte[] nonce = new byte[NONCE_BYTES];
+        secureRandom.nextBytes(nonce);
+        System.arraycopy(nonce, 0, payload, 18, NONCE_BYTES);
+        System.arraycopy(usernameBytes, 0, payload, HEADER_BYTES, usernameBytes.length);
+
+        byte[] mac = new byte[MAC_BYTES];
+        verifiers.get().hmac(activeKey, payload, payload.length, mac);
+
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payload) + SEPARATOR + encoder.encodeToString(mac);
+    }
+
+    /**
+     * Verifies signature, expiry and revocation without touching any shared map
+     * Allocation free: decoding, HMAC and comparison work on thread-local buffers
+     */
+    @Override
+    public boolean isValid(String tokenValue) {
+        return verify(tokenValue) != null;
+    }
+
+    @Override
+    public String usernameFor(String tokenValue) {
+        Verifier verifier = verify(tokenValue);
+        return verifier != null
+                ? new String(verifier.payload, HEADER_BYTES, verifier.payloadLength - HEADER_BYTES, StandardCharsets.UTF_8)
+                : null;
+    }
+
+    @Override
+    public long expiresAtMillis(String tokenValue) {
+        Verifier verifier = verify(tokenValue);
+        return verifier != null ? readLong(verifier.payload, 10) : -1;
+    }
+
+    @Override
+    public void revoke(String tokenValue) {
+        Verifier verifier = verify(tokenValue);
+        if (verifier != null) {
+            revocations.add(readLong(verifier.computed, 0), readLong(verifier.payload, 10));
+        }
+    }
+
+    /**
+     * Revokes every token issued to the user so far
+     * Records a per-user cutoff that is only consulted while at least one cutoff is live
+     */
+    @Override
+    public boolean revokeAllForUser(String username) {
+        if (username == null) {
+            return false;
+        }
+        byte[] usernameBytes = username.getBytes(StandardCharsets.UTF_8);
+        userCutoffs.merge(hash(usernameBytes, 0, usernameBytes.length), clock.millis(), Math::max);
+        return true;
+    }
+
+    @Override
+    public int cleanup() {
+        long now = clock.millis();
+        userCutoffs.values().removeIf(cutoff -> cutoff + lifetimeMillis <= now);
+        return revocations.cleanup(now);
+    }
+
+    /**
+     * @return number of revoked tokens still remembered
+     */
+    public int revokedCount() {
+        return revocations.size();
+    }
+
+    /**
+     * @return the calling thread's verifier holding the decoded token, or null if the token is not valid
+     */
+    private Verifier verify(String tokenValue) {
+        if (tokenValue == null) {
+            return null;
+        }
+        int separator = tokenValue.indexOf(SEPARATOR);
+        if (separator <= 0) {
+            return null;
+        }
+        Verifier verifier = verifiers.get();
+        int payloadLength = decode(tokenValue, 0, separator, verifier.payload);
+        if (payloadLength <= HEADER_BYTES || verifier.payload[0] != VERSION) {
+            return null;
+        }
+        int macLength = decode(tokenValue, separator + 1, tokenValue.length(), verifier.presented);
+        if (macLength != MAC_BYTES) {
+            return null;
+        }
+        SigningKey key = keys[verifier.payload[1] & 0xFF];
+        if (key == null) {
+            return null;
+        }
+        verifier.payloadLength = payloadLength;
+        verifier.hmac(key, verifier.payload, payloadLength, verifier.computed);
+        if (!constantTimeEquals(verifier.computed, verifier.presented)) {
+            return null;
+        }
+
+        long expiresAt = readLong(verifier.payload, 10);
+        if (clock.millis() >= expiresAt) {
+            return null;
+        }
+        if (revocations.contains(readLong(verifier.computed, 0), expiresAt)) {
+            return null;
+        }
+        if (!userCutoffs.isEmpty()) {
+            Long cutoff = userCutoffs.get(hash(verifier.payload, HEADER_BYTES, payloadLength));
+            if (cutoff != null && readLong(verifier.payload, 2) <= cutoff) {
+                return null;
+            }
+        }
+        return verifier;
+    }
+
+    /**
+     * Decodes unpadded base64url straight into a buffer
+     * @return number of decoded bytes, or -1 if the input is malformed or does not fit
+     */
+    private static int decode(String source, int from, int to, byte[] target) {
+        int length = to - from;
+        if (length % 4 == 1 || (length / 4) * 3 + 2 > target.length) {
+            return -1;
+        }
+        int written = 0;
+        int buffer = 0;
+        int bits = 0;
+        for (int i = from; i < to; i++) {
+            char c = source.charAt(i);
+            int value = c < 128 ? BASE64URL[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            buffer = (buffer << 6) | value;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                target[written++] = (byte) (buffer >> bits);
+            }
+        }
+        // Reject non-canonical encodings carrying stray trailing bits
+        return (buffer & ((1 << bits) - 1)) == 0 ? written : -1;
+    }
+
+    private static boolean constantTimeEquals(byte[] a, byte[] b) {
+        int diff = 0;
+        for (int i = 0; i < MAC_BYTES; i++) {
+            diff |= a[i] ^ b[i];
+        }
+        return diff == 0;
+    }
+
+    // FNV-1a, 64 bit
+    private static long hash(byte[] bytes, int from, int to) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            hash ^= bytes[i] & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static void writeLong(byte[] target, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            target[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long readLong(byte[] source, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (source[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static int[] base64UrlTable() {
+        int[] table = new int[128];
+        Arrays.fill(table, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            table[alphabet.charAt(i)] = i;
+        }
+        return table;
+    }
+
+    // HMAC key with its inner and outer padded blocks precomputed
+    private static final class SigningKey {
+        final int id;
+        final byte[] innerPad = new byte[BLOCK_BYTES];
+        final byte[] outerPad = new byte[BLOCK_BYTES];
+
+        SigningKey(int id, byte[] secret) {
+            if (secret == null || secret.length < 16) {
+                throw new IllegalArgumentException("Signing key " + id + " must be at least 16 bytes");
+            }
+            this.id = id;
+            byte[] block = secret.length > BLOCK_BYTES ? sha256().digest(secret) : secret;
+            for (int i = 0; i < BLOCK_BYTES; i++) {
+                byte b = i < block.length ? block[i] : 0;
+                innerPad[i] = (byte) (b ^ 0x36);
+                outerPad[i] = (byte) (b ^ 0x5c);
+            }
+        }
+    }
+
+    // Per-thread scratch space; HMAC is computed over MessageDigest so no digest array is allocated
+    private static final class Verifier {
+        final MessageDigest digest = sha256();
+        final byte[] payload = new byte[HEADER_BYTES + MAX_USERNAME_BYTES];
+        final byte[] presented = new byte[MAC_BYTES + 2];
+        final byte[] inner = new byte[MAC_BYTES];
+        final byte[] computed = new byte[MAC_BYTES];
+        int payloadLength;
+
+        void hmac(SigningKey key, byte[] message, int length, byte[] out) {
+            try {
+                digest.update(key.innerPad);
+                digest.update(message, 0, length);
+                digest.digest(inner, 0, MAC_BYTES);
+                digest.update(key.outerPad);
+                digest.update(inner);
+                digest.digest(out, 0, MAC_BYTES);
+            } catch (DigestException e) {
+                throw new IllegalStateException("HMAC computation failed", e);
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
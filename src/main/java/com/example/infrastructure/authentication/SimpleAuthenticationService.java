@@ -3,62 +3,154 @@ package com.example.infrastructure.authentication;
 import com.example.domain.authentication.AuthenticationCredentials;
 import com.example.domain.authentication.AuthenticationException;
 import com.example.domain.authentication.AuthenticationService;
+import com.example.domain.authentication.AuthenticationThrottledException;
 import com.example.domain.authentication.AuthenticationToken;
+import com.example.domain.authentication.TokenIntrospection;
+import com.example.domain.authentication.UserCredentialStore;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.security.SecureRandom;
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.Base64;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Simple implementation of AuthenticationService
  * In a real application, this would integrate with a proper user store and authentication system
+ * Tokens are kept by the configured {@link TokenStore}, validity checks go through the {@link TokenVerificationCache}
+ * Users come from the configured {@link UserCredentialStore}, passwords are salted PBKDF2 hashes
+ * verified on the {@link CredentialVerificationExecutor}
  */
 @ApplicationScoped
 public class SimpleAuthenticationService implements AuthenticationService {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(SimpleAuthenticationService.class);
-    private static final int TOKEN_SIZE_BYTES = 32;
-    private static final int TOKEN_EXPIRY_HOURS = 24; // Tokens expire after 24 hours
+    private static final long SATURATED_RETRY_AFTER_SECONDS = 1;
+    private static final int UNKNOWN_USER_COST_SAMPLE = 64;
     
-    private final SecureRandom secureRandom = new SecureRandom();
-    private final ConcurrentMap<String, TokenInfo> activeTokens = new ConcurrentHashMap<>();
+    private final TokenStore tokenStore;
+    private final TokenVerificationCache verificationCache;
+    private final UserCredentialStore userStore;
+    private final PasswordHasher passwordHasher;
+    private final CredentialVerificationExecutor verifier;
+    private final FailedLoginThrottle loginThrottle;
+    // Verified for unknown users so their response time matches a wrong password, at the users' median cost
+    private final String unknownUserHash;
     
-    // Simple user store for demo purposes - in real app this would be a database
-    private final ConcurrentMap<String, String> userStore = new ConcurrentHashMap<>();
-    
-    public SimpleAuthenticationService() {
-        // Initialize with some demo users
-        userStore.put("admin", "admin123");
-        userStore.put("user", "password");
-        userStore.put("demo", "demo");
+    @Inject
+    public SimpleAuthenticationService(TokenStore tokenStore, TokenVerificationCache verificationCache,
+                                       UserCredentialStore userStore, PasswordHasher passwordHasher,
+                                       CredentialVerificationExecutor verifier, FailedLoginThrottle loginThrottle) {
+        this.tokenStore = tokenStore;
+        this.verificationCache = verificationCache;
+        this.userStore = userStore;
+        this.passwordHasher = passwordHasher;
+        this.verifier = verifier;
+        this.loginThrottle = loginThrottle;
+        this.unknownUserHash = passwordHasher.hash("unknown-user", typicalIterations(userStore, passwordHasher));
+    }
+
+    /**
+     * @return median iterations of a sample of stored hashes, the configured iterations if none can be read
+     */
+    static int typicalIterations(UserCredentialStore userStore, PasswordHasher passwordHasher) {
+        int[] iterations = userStore.sampleCredentialHashes(UNKNOWN_USER_COST_SAMPLE).stream()
+            .mapToInt(passwordHasher::iterationsOf)
+            .filter(count -> count > 0)
+            .sorted()
+            .toArray();
+        return iterations.length > 0 ? iterations[iterations.length / 2] : passwordHasher.getIterations();
     }
 
     @Override
     public AuthenticationToken authenticate(AuthenticationCredentials credentials) throws AuthenticationException {
+        try {
+            return authenticateAsync(credentials).toCompletableFuture().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof AuthenticationException authenticationException) {
+                throw authenticationException;
+            }
+            throw e;
+        }
+    }
+    
+    @Override
+    public CompletionStage<AuthenticationToken> authenticateAsync(AuthenticationCredentials credentials) {
+        return authenticateAsync(credentials, null);
+    }
+    
+    /**
+     * Verifies credentials on the verification pool
+     * The failed-login throttle is consulted first: throttled attempts are delayed without holding a thread,
+     * or refused before any hashing. A full pool queue fails fast as well.
+     * Both refusals surface as {@link AuthenticationThrottledException}
+     */
+    @Override
+    public CompletionStage<AuthenticationToken> authenticateAsync(AuthenticationCredentials credentials,
+                                                                  String clientAddress) {
         String username = credentials.getUsername();
-        String password = credentials.getPassword();
-        
         LOGGER.info("Authentication attempt for user: {}", username);
         
+        FailedLoginThrottle.Decision decision = loginThrottle.check(username, clientAddress);
+        if (decision.isBlocked()) {
+            LOGGER.warn("Too many failed logins, refusing attempt for user: {} from {}", username, clientAddress);
+            return CompletableFuture.failedFuture(
+                AuthenticationThrottledException.tooManyFailures(decision.getRetryAfterSeconds()));
+        }
+        if (decision.getDelayMillis() > 0) {
+            LOGGER.debug("Delaying login for user: {} by {} ms", username, decision.getDelayMillis());
+            Executor delayed = CompletableFuture.delayedExecutor(decision.getDelayMillis(), TimeUnit.MILLISECONDS);
+            return CompletableFuture.runAsync(() -> { }, delayed)
+                .thenCompose(ignored -> submitVerification(credentials, clientAddress));
+        }
+        return submitVerification(credentials, clientAddress);
+    }
+    
+    @Override
+    public long loginDelayMillis(String username, String clientAddress) {
+        return loginThrottle.delayMillis(username, clientAddress);
+    }
+    
+    private CompletableFuture<AuthenticationToken> submitVerification(AuthenticationCredentials credentials,
+                                                                     String clientAddress) {
+        try {
+            return verifier.submit(() -> verifyAndIssue(credentials, clientAddress));
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Credential verification saturated, rejecting login for user: {}", credentials.getUsername());
+            return CompletableFuture.failedFuture(
+                AuthenticationThrottledException.verifierSaturated(SATURATED_RETRY_AFTER_SECONDS));
+        }
+    }
+    
+    private AuthenticationToken verifyAndIssue(AuthenticationCredentials credentials, String clientAddress) {
+        String username = credentials.getUsername();
+        String password = credentials.getPassword();
+        
         // Validate credentials
-        String storedPassword = userStore.get(username);
-        if (storedPassword == null || !storedPassword.equals(password)) {
+        String storedHash = userStore.findCredentialHash(username);
+        boolean verified = passwordHasher.verify(password, storedHash != null ? storedHash : unknownUserHash);
+        if (storedHash == null || !verified) {
             LOGGER.warn("Authentication failed for user: {}", username);
-            throw AuthenticationException.invalidCredentials();
+            loginThrottle.recordFailure(username, clientAddress);
+            throw new CompletionException(AuthenticationException.invalidCredentials());
         }
         
-        // Generate token
-        String tokenValue = generateSecureToken();
-        Instant expiresAt = Instant.now().plus(TOKEN_EXPIRY_HOURS, ChronoUnit.HOURS);
+        // Hashing at the configured cost is wasted on a store that cannot take the result
+        if (userStore.supportsHashUpgrade() && passwordHasher.needsRehash(storedHash)
+                && userStore.replaceCredentialHash(username, storedHash, passwordHasher.hash(password))) {
+            LOGGER.info("Upgraded password hash for user: {} to {} iterations", username, passwordHasher.getIterations());
+        }
         
-        TokenInfo tokenInfo = new TokenInfo(username, expiresAt);
-        activeTokens.put(tokenValue, tokenInfo);
+        // Generate token
+        String tokenValue = tokenStore.issue(username);
+        verificationCache.invalidateUser(username); // The issue may have evicted the user's oldest token
         
         LOGGER.info("Authentication successful for user: {}", username);
         return AuthenticationToken.of(tokenValue);
@@ -66,21 +158,12 @@ public class SimpleAuthenticationService implements AuthenticationService {
 
     @Override
     public boolean isTokenValid(AuthenticationToken token) {
-        if (token == null) {
-            return false;
-        }
-        
-        TokenInfo tokenInfo = activeTokens.get(token.getValue());
-        if (tokenInfo == null) {
-            return false;
-        }
-        
-        if (tokenInfo.isExpired()) {
-            activeTokens.remove(token.getValue()); // Cleanup expired token
-            return false;
-        }
-        
-        return true;
+        return token != null && verificationCache.introspect(token.getValue()).isActive();
+    }
+    
+    @Override
+    public TokenIntrospection introspect(String tokenValue) {
+        return verificationCache.introspect(tokenValue);
     }
     
     /**
@@ -89,12 +172,7 @@ public class SimpleAuthenticationService implements AuthenticationService {
      * @return username if token is valid, null otherwise
      */
     public String getUsernameForToken(AuthenticationToken token) {
-        if (!isTokenValid(token)) {
-            return null;
-        }
-        
-        TokenInfo tokenInfo = activeTokens.get(token.getValue());
-        return tokenInfo != null ? tokenInfo.username : null;
+        return token != null ? tokenStore.usernameFor(token.getValue()) : null;
     }
     
     /**
@@ -103,49 +181,42 @@ public class SimpleAuthenticationService implements AuthenticationService {
      */
     public void invalidateToken(AuthenticationToken token) {
         if (token != null) {
-            activeTokens.remove(token.getValue());
+            String username = tokenStore.usernameFor(token.getValue());
+            tokenStore.revoke(token.getValue());
+            verificationCache.invalidateUser(username);
             LOGGER.info("Token invalidated");
         }
     }
     
-    private String generateSecureToken() {
-        byte[] bytes = new byte[TOKEN_SIZE_BYTES];
-        secureRandom.nextBytes(bytes);
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
-    }
-    
     /**
-     * Cleanup expired tokens
+     * Revokes every token issued to a user without scanning the token store
+     * @param username the user whose sessions are revoked
      */
-    public void cleanupExpiredTokens() {
-        int removedCount = 0;
-        var iterator = activeTokens.entrySet().iterator();
-        
-        while (iterator.hasNext()) {
-            var entry = iterator.next();
-            if (entry.getValue().isExpired()) {
-                iterator.remove();
-                removedCount++;
-            }
-        }
-        
-        if (removedCount > 0) {
-            LOGGER.info("Cleaned up {} expired tokens", removedCount);
+    @Override
+    public void revokeAllForUser(String username) {
+        if (tokenStore.revokeAllForUser(username)) {
+            verificationCache.invalidateUser(username);
+            LOGGER.info("Revoked all tokens for user: {}", username);
         }
     }
     
-    // Helper class to store token information
-    private static class TokenInfo {
-        final String username;
-        final Instant expiresAt;
-        
-        TokenInfo(String username, Instant expiresAt) {
-            this.username = username;
-            this.expiresAt = expiresAt;
-        }
+    @Override
+    public Map<String, Long> metrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>(verifier.metrics());
+        metrics.put("throttleDelayed", loginThrottle.getDelayedCount());
+        metrics.put("throttleBlocked", loginThrottle.getBlockedCount());
+        metrics.put("throttleSketchBytes", loginThrottle.getSketchBytes());
+        return metrics;
+    }
+    
+    /**
+     * Cleanup expired tokens by dropping whole expired partitions
+     */
+    public void cleanupExpiredTokens() {
+        int droppedPartitions = tokenStore.cleanup();
         
-        boolean isExpired() {
-            return Instant.now().isAfter(expiresAt);
+        if (droppedPartitions > 0) {
+            LOGGER.info("Cleaned up {} expired token partitions", droppedPartitions);
         }
     }
 }
@@ -0,0 +1,96 @@
+package com.example.infrastructure.authentication;
+
+import com.example.infrastructure.execution.HandlerExecutor;
+import com.example.infrastructure.scheduling.TimingWheel;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sweeps the token store at a fixed delay, see {@link TokenStore#cleanup()}
+ * Expired buckets, users without live tokens, signed-token user cutoffs and revocation partitions are only
+ * dropped by a sweep, so without one they grow for as long as the process runs. The timing wheel keeps the
+ * schedule, the sweep itself runs on the handler executor since it visits every known user.
+ */
+@ApplicationScoped
+public class TokenCleanupScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenCleanupScheduler.class);
+
+    private final TokenStore tokenStore;
+    private final TimingWheel timingWheel;
+    private final Executor sweeper;
+    private final long intervalMillis;
+    private TimingWheel.Timeout next;
+    private boolean stopped;
+
+    /**
+     * @param intervalSeconds delay between the end of a sweep and the start of the next, 0 to disable
+     */
+    @Inject
+    public TokenCleanupScheduler(TokenStore tokenStore, TimingWheel timingWheel, HandlerExecutor handlerExecutor,
+                                 @ConfigProperty(name = "auth.tokens.cleanup-interval-seconds", defaultValue = "60") long intervalSeconds) {
+        this(tokenStore, timingWheel, handlerExecutor.executor(), TimeUnit.SECONDS.toMillis(intervalSeconds));
+    }
+
+    TokenCleanupScheduler(TokenStore tokenStore, TimingWheel timingWheel, Executor sweeper, long intervalMillis) {
+        this.tokenStore = tokenStore;
+        this.timingWheel = timingWheel;
+        this.sweeper = sweeper;
+        this.intervalMillis = intervalMillis;
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        start();
+    }
+
+    /**
+     * Schedules the first sweep one interval from now
+     */
+    synchronized void start() {
+        if (intervalMillis <= 0) {
+            LOGGER.warn("auth.tokens.cleanup-interval-seconds is 0, expired tokens are never swept");
+            return;
+        }
+        if (next == null && !stopped) {
+            scheduleNext();
+        }
+    }
+
+    @PreDestroy
+    synchronized void stop() {
+        stopped = true;
+        if (next != null) {
+            next.cancel();
+        }
+    }
+
+    private void scheduleNext() {
+        next = timingWheel.schedule(() -> sweeper.execute(this::sweep), intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void sweep() {
+        try {
+            int droppedBuckets = tokenStore.cleanup();
+            if (droppedBuckets > 0) {
+                LOGGER.info("Cleaned up {} expired token partitions", droppedBuckets);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Token cleanup failed", e);
+        } finally {
+            synchronized (this) {
+                if (!stopped) {
+                    scheduleNext();
+                }
+            }
+        }
+    }
+}
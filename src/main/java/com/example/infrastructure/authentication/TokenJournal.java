@@ -0,0 +1,536 @@
+package com.example.infrastructure.authentication;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of token events with group commit
+ * Callers enqueue records and wait on a future; a single writer thread drains every pending record,
+ * writes them in one batch and issues one fsync for the whole batch, so concurrent logins share
+ * the disk latency instead of paying it one after another.
+ * Record layout: [length:4][crc32:4][type:1][body], length covering type and body. Replay stops at
+ * the first torn or corrupt record. A batch that fails to write is cut off at the last synced offset, and if
+ * even that fails the journal refuses every later append rather than leave acknowledged records unreadable.
+ * The journal is a sequence of numbered segments. Compaction seals the current segment, opens the next one
+ * and writes a snapshot of live tokens on a background thread while appends continue; the snapshot is named
+ * after the last segment it covers, so replay skips those segments even if a crash left them behind.
+ * Records appended while the snapshot is taken land in later segments and replay idempotently over it.
+ */
+final class TokenJournal implements AutoCloseable {
+
+    static final byte ISSUE = 1;
+    static final byte REVOKE = 2;
+    static final byte REVOKE_USER = 3;
+    private static final byte COMPACT = 0; // Control entry, never written
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenJournal.class);
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final Pattern FILE_NAME = Pattern.compile("tokens-(\\d{20})(\\.journal|\\.snapshot)");
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final int maxBatch;
+    private final long compactThresholdBytes;
+    private final BlockingQueue<PendingRecord> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private final ExecutorService compactor;
+    private final ByteBuffer batchBuffer;
+    // Writer thread only, after recover
+    private FileChannel channel;
+    private long segment;
+    private long syncedBytes;
+    private CompletableFuture<Void> compaction = CompletableFuture.completedFuture(null);
+    private Snapshotter snapshotter;
+    private volatile IOException failure;
+    private volatile boolean running = true;
+
+    /**
+     * Source of live tokens written into a snapshot during compaction
+     */
+    @FunctionalInterface
+    interface Snapshotter {
+        void writeLive(RecordSink sink) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface RecordSink {
+        void issue(String tokenValue, String username, long expiresAtMillis) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface RecordVisitor {
+        void visit(byte type, ByteBuffer body);
+    }
+
+    /**
+     * @param directory directory holding the journal segments and snapshot
+     * @param maxBatch maximum records written per fsync
+     * @param compactThresholdBytes segment size that triggers compaction
+     */
+    TokenJournal(Path directory, int maxBatch, long compactThresholdBytes) throws IOException {
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.maxBatch = maxBatch;
+        this.compactThresholdBytes = compactThresholdBytes;
+        this.batchBuffer = ByteBuffer.allocateDirect(maxBatch * 256);
+        this.writer = new Thread(this::writeLoop, "token-journal-writer");
+        this.writer.setDaemon(true);
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Replays the newest snapshot, then the segments it does not cover, and starts accepting appends
+     * A torn tail left by a crash is truncated before new records are appended; a corrupt record in an
+     * older segment ends the replay there and the segments after it are discarded
+     * @return number of replayed records
+     */
+    long recover(RecordVisitor visitor, Snapshotter snapshotter) throws IOException {
+        this.snapshotter = snapshotter;
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        TreeMap<Long, Path> snapshots = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher name = FILE_NAME.matcher(file.getFileName().toString());
+                if (name.matches()) {
+                    (SEGMENT_SUFFIX.equals(name.group(2)) ? segments : snapshots).put(Long.parseLong(name.group(1)), file);
+                }
+            });
+        }
+
+        long records = 0;
+        long covered = snapshots.isEmpty() ? -1 : snapshots.lastKey();
+        if (covered >= 0) {
+            try (FileChannel snapshot = FileChannel.open(snapshots.get(covered), StandardOpenOption.READ)) {
+                records += replay(snapshot, visitor);
+            }
+        }
+        deleteCovered(covered);
+
+        segment = covered + 1;
+        boolean intact = true;
+        for (var entry : segments.tailMap(covered, false).entrySet()) {
+            if (!intact) {
+                LOGGER.warn("Discarding token journal segment {} after a corrupt record", entry.getValue());
+                Files.delete(entry.getValue());
+                continue;
+            }
+            try (FileChannel source = FileChannel.open(entry.getValue(), StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                records += replay(source, visitor);
+                if (source.position() < source.size()) {
+                    source.truncate(source.position());
+                    source.force(true);
+                    intact = false;
+                }
+            }
+            segment = entry.getKey();
+        }
+        channel = FileChannel.open(path(segment, SEGMENT_SUFFIX), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        syncedBytes = channel.size();
+        channel.position(syncedBytes);
+        syncDirectory();
+        writer.start();
+        LOGGER.info("Recovered {} token journal records", records);
+        return records;
+    }
+
+    CompletableFuture<Void> appendIssue(String tokenValue, String username, long expiresAtMillis) {
+        byte[] token = tokenValue.getBytes(StandardCharsets.UTF_8);
+        byte[] user = username.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer body = ByteBuffer.allocate(8 + 2 + token.length + 2 + user.length);
+        body.putLong(expiresAtMillis);
+        putBytes(body, token);
+        putBytes(body, user);
+        return append(ISSUE, body.array());
+    }
+
+    CompletableFuture<Void> appendRevoke(String tokenValue) {
+        return append(REVOKE, lengthPrefixed(tokenValue));
+    }
+
+    CompletableFuture<Void> appendRevokeUser(String username) {
+        return append(REVOKE_USER, lengthPrefixed(username));
+    }
+
+    static String readString(ByteBuffer body) {
+        int length = body.getShort() & 0xFFFF;
+        String value = new String(body.array(), body.arrayOffset() + body.position(), length, StandardCharsets.UTF_8);
+        body.position(body.position() + length);
+        return value;
+    }
+
+    private CompletableFuture<Void> append(byte type, byte[] body) {
+        if (body.length + 1 > MAX_RECORD_BYTES) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Journal record too large"));
+        }
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Token journal is closed"));
+        }
+        if (failure != null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Token journal failed", failure));
+        }
+        PendingRecord record = new PendingRecord(type, body);
+        queue.add(record);
+        return record.done;
+    }
+
+    private void writeLoop() {
+        List<PendingRecord> batch = new ArrayList<>(maxBatch);
+        List<PendingRecord> compactions = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, maxBatch - 1);
+                batch.removeIf(record -> {
+                    if (record.type == COMPACT) {
+                        compactions.add(record);
+                    }
+                    return record.type == COMPACT || record == PendingRecord.POISON;
+                });
+                if (failure != null) {
+                    throw new IllegalStateException("Token journal failed", failure);
+                }
+                if (!batch.isEmpty()) {
+                    writeBatch(batch);
+                    for (PendingRecord record : batch) {
+                        record.done.complete(null);
+                    }
+                }
+                batch.clear();
+                if (!compactions.isEmpty()) {
+                    compaction.join(); // An explicit request needs a snapshot covering everything written so far
+                    startCompaction(compactions);
+                } else if (syncedBytes >= compactThresholdBytes && compaction.isDone()) {
+                    startCompaction(List.of());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (IOException | RuntimeException e) {
+                LOGGER.error("Token journal write failed", e);
+                batch.forEach(record -> record.done.completeExceptionally(e));
+                compactions.forEach(record -> record.done.completeExceptionally(e));
+                if (e instanceof IOException) {
+                    discardUnsynced();
+                }
+            } finally {
+                batch.clear();
+                compactions.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingRecord> batch) throws IOException {
+        CRC32 crc = new CRC32();
+        for (PendingRecord record : batch) {
+            int length = 1 + record.body.length;
+            if (batchBuffer.remaining() < RECORD_HEADER_BYTES + length) {
+                flushBuffer();
+            }
+            if (batchBuffer.remaining() < RECORD_HEADER_BYTES + length) {
+                // Record larger than the batch buffer, write it on its own
+                ByteBuffer single = ByteBuffer.allocate(RECORD_HEADER_BYTES + length);
+                encode(single, record, crc);
+                single.flip();
+                writeFully(single);
+                continue;
+            }
+            encode(batchBuffer, record, crc);
+        }
+        flushBuffer();
+        channel.force(false); // One fsync for the whole batch
+        syncedBytes = channel.position();
+    }
+
+    /**
+     * Cuts a partly written batch off the segment so later batches do not follow torn bytes
+     * If the segment cannot be restored to its last synced length the journal fails for good
+     */
+    private void discardUnsynced() {
+        batchBuffer.clear();
+        try {
+            channel.truncate(syncedBytes);
+            channel.position(syncedBytes);
+            channel.force(true);
+        } catch (IOException e) {
+            LOGGER.error("Cannot truncate token journal segment {} to {} bytes, refusing further appends", segment,
+                    syncedBytes, e);
+            failure = e;
+        }
+    }
+
+    private void encode(ByteBuffer target, PendingRecord record, CRC32 crc) {
+        crc.reset();
+        crc.update(record.type);
+        crc.update(record.body);
+        target.putInt(1 + record.body.length);
+        target.putInt((int) crc.getValue());
+        target.put(record.type);
+        target.put(record.body);
+    }
+
+    private void flushBuffer() throws IOException {
+        batchBuffer.flip();
+        writeFully(batchBuffer);
+        batchBuffer.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Seals the current segment and snapshots live tokens in the background
+     * Runs on the writer thread, so the sealed segment holds exactly the records appended before the switch;
+     * every one of them was applied to the store first, so the snapshot taken afterwards covers them all
+     */
+    private void startCompaction(List<PendingRecord> requests) throws IOException {
+        long sealed = segment;
+        FileChannel next = FileChannel.open(path(sealed + 1, SEGMENT_SUFFIX), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        syncDirectory();
+        FileChannel previous = channel;
+        channel = next;
+        segment = sealed + 1;
+        syncedBytes = 0;
+        previous.close();
+        List<CompletableFuture<Void>> waiting = requests.stream().map(record -> record.done).toList();
+        compaction = CompletableFuture.runAsync(() -> {
+            try {
+                writeSnapshot(sealed);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, compactor).handle((ignored, error) -> {
+            if (error != null) {
+                LOGGER.error("Token journal compaction failed, segments up to {} are kept", sealed, error);
+                waiting.forEach(done -> done.completeExceptionally(error));
+            } else {
+                waiting.forEach(done -> done.complete(null));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Writes live tokens, each user's in issue order, to a snapshot covering segments up to the sealed one,
+     * then deletes the files it replaces
+     */
+    private void writeSnapshot(long sealed) throws IOException {
+        Path snapshotPath = path(sealed, SNAPSHOT_SUFFIX);
+        Path temporary = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        long[] written = {0};
+        try (FileChannel snapshot = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(256 * 1024);
+            CRC32 crc = new CRC32();
+            snapshotter.writeLive((tokenValue, username, expiresAtMillis) -> {
+                byte[] token = tokenValue.getBytes(StandardCharsets.UTF_8);
+                byte[] user = username.getBytes(StandardCharsets.UTF_8);
+                ByteBuffer body = ByteBuffer.allocate(8 + 2 + token.length + 2 + user.length);
+                body.putLong(expiresAtMillis);
+                putBytes(body, token);
+                putBytes(body, user);
+                PendingRecord record = new PendingRecord(ISSUE, body.array());
+                if (buffer.remaining() < RECORD_HEADER_BYTES + 1 + record.body.length) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        snapshot.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                encode(buffer, record, crc);
+                written[0]++;
+            });
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                snapshot.write(buffer);
+            }
+            snapshot.force(true);
+        }
+        Files.move(temporary, snapshotPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory();
+        long replacedBytes = deleteCovered(sealed);
+        LOGGER.info("Compacted token journal: {} bytes replaced by snapshot of {} live tokens", replacedBytes, written[0]);
+    }
+
+    /**
+     * Deletes segments up to and including a snapshot's and any older snapshots
+     * @return bytes of the deleted segments
+     */
+    private long deleteCovered(long covered) throws IOException {
+        long deletedBytes = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher name = FILE_NAME.matcher(file.getFileName().toString());
+                if (!name.matches()) {
+                    continue;
+                }
+                long number = Long.parseLong(name.group(1));
+                boolean isSegment = SEGMENT_SUFFIX.equals(name.group(2));
+                if (isSegment ? number <= covered : number < covered) {
+                    deletedBytes += isSegment ? Files.size(file) : 0;
+                    Files.delete(file);
+                }
+            }
+        }
+        return deletedBytes;
+    }
+
+    // Makes created, renamed and deleted files durable, not every platform can open a directory for this
+    private void syncDirectory() {
+        try (FileChannel handle = FileChannel.open(directory, StandardOpenOption.READ)) {
+            handle.force(true);
+        } catch (IOException e) {
+            LOGGER.debug("Cannot sync token journal directory {}", directory, e);
+        }
+    }
+
+    private Path path(long number, String suffix) {
+        return directory.resolve(String.format("tokens-%020d%s", number, suffix));
+    }
+
+    /**
+     * Requests a compaction, completed once the snapshot covering every record appended before it is written
+     */
+    CompletableFuture<Void> requestCompaction() {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        if (!running) {
+            done.completeExceptionally(new IllegalStateException("Token journal is closed"));
+            return done;
+        }
+        queue.add(new PendingRecord(COMPACT, new byte[0], done));
+        return done;
+    }
+
+    private long replay(FileChannel source, RecordVisitor visitor) throws IOException {
+        CRC32 crc = new CRC32();
+        long records = 0;
+        long position = 0;
+        source.position(0);
+        ByteBuffer data = ByteBuffer.allocate(1024 * 1024);
+        data.flip();
+        for (;;) {
+            if (!fill(source, data, RECORD_HEADER_BYTES)) {
+                break;
+            }
+            int length = data.getInt();
+            int checksum = data.getInt();
+            if (length < 1 || length > MAX_RECORD_BYTES || !fill(source, data, length)) {
+                break;
+            }
+            byte[] record = new byte[length];
+            data.get(record);
+            crc.reset();
+            crc.update(record);
+            if ((int) crc.getValue() != checksum) {
+                LOGGER.warn("Corrupt token journal record at offset {}, ignoring the rest", position);
+                break;
+            }
+            visitor.visit(record[0], ByteBuffer.wrap(record, 1, length - 1).slice());
+            position += RECORD_HEADER_BYTES + length;
+            records++;
+        }
+        source.position(position);
+        return records;
+    }
+
+    // Ensures the buffer holds at least the requested bytes, reading more from the file if needed
+    private static boolean fill(FileChannel source, ByteBuffer data, int needed) throws IOException {
+        if (data.remaining() >= needed) {
+            return true;
+        }
+        data.compact();
+        while (data.position() < needed) {
+            if (source.read(data) < 0) {
+                data.flip();
+                return false;
+            }
+        }
+        data.flip();
+        return true;
+    }
+
+    private static byte[] lengthPrefixed(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer body = ByteBuffer.allocate(2 + bytes.length);
+        putBytes(body, bytes);
+        return body.array();
+    }
+
+    private static void putBytes(ByteBuffer target, byte[] bytes) {
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Journal field too large");
+        }
+        target.putShort((short) bytes.length);
+        target.put(bytes);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        queue.add(PendingRecord.POISON);
+        try {
+            writer.join(5_000);
+            compactor.shutdown();
+            compactor.awaitTermination(5, TimeUnit.SECONDS);
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class PendingRecord {
+        static final PendingRecord POISON = new PendingRecord((byte) -1, new byte[0]);
+
+        final byte type;
+        final byte[] body;
+        final CompletableFuture<Void> done;
+
+        PendingRecord(byte type, byte[] body) {
+            this(type, body, new CompletableFuture<>());
+        }
+
+        PendingRecord(byte type, byte[] body, CompletableFuture<Void> done) {
+            this.type = type;
+            this.body = body;
+            this.done = done;
+        }
+    }
+}
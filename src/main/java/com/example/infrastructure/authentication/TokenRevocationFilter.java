@@ -0,0 +1,116 @@
+package com.example.infrastructure.authentication;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Compact set of revoked, not yet expired token fingerprints
+ * Fingerprints are partitioned by the expiry time of their token; once every token of a partition
+ * has expired the partition is dropped as a whole, so the filter only ever holds live revocations.
+ * Each partition is a copy-on-write sorted long array: revocations are rare, lookups are a
+ * lock-free binary search that allocates nothing.
+ */
+final class TokenRevocationFilter {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final long partitionMillis;
+    private final AtomicReferenceArray<Partition> ring;
+
+    /**
+     * @param lifetimeMillis longest token lifetime, bounds how long a revocation must be remembered
+     * @param partitionMillis width of one expiry partition
+     */
+    TokenRevocationFilter(long lifetimeMillis, long partitionMillis) {
+        this.partitionMillis = partitionMillis;
+        this.ring = new AtomicReferenceArray<>((int) ((lifetimeMillis + partitionMillis - 1) / partitionMillis) + 2);
+    }
+
+    /**
+     * Records a revoked token
+     * @param fingerprint 64-bit fingerprint of the token
+     * @param expiresAtMillis expiry of the token, after which the revocation can be forgotten
+     */
+    void add(long fingerprint, long expiresAtMillis) {
+        Partition partition = partition(expiresAtMillis / partitionMillis, true);
+        synchronized (partition) {
+            long[] current = partition.fingerprints;
+            int index = Arrays.binarySearch(current, fingerprint);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            long[] next = new long[current.length + 1];
+            System.arraycopy(current, 0, next, 0, insertAt);
+            next[insertAt] = fingerprint;
+            System.arraycopy(current, insertAt, next, insertAt + 1, current.length - insertAt);
+            partition.fingerprints = next;
+        }
+    }
+
+    /**
+     * @param fingerprint 64-bit fingerprint of the token
+     * @param expiresAtMillis expiry of the token
+     * @return true if the token has been revoked
+     */
+    boolean contains(long fingerprint, long expiresAtMillis) {
+        Partition partition = partition(expiresAtMillis / partitionMillis, false);
+        return partition != null && Arrays.binarySearch(partition.fingerprints, fingerprint) >= 0;
+    }
+
+    /**
+     * Drops partitions whose tokens have all expired
+     * @return number of dropped partitions
+     */
+    int cleanup(long nowMillis) {
+        int dropped = 0;
+        for (int slot = 0; slot < ring.length(); slot++) {
+            Partition partition = ring.get(slot);
+            if (partition != null && (partition.generation + 1) * partitionMillis <= nowMillis
+                    && ring.compareAndSet(slot, partition, null)) {
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * @return number of remembered revocations
+     */
+    int size() {
+        int size = 0;
+        for (int slot = 0; slot < ring.length(); slot++) {
+            Partition partition = ring.get(slot);
+            if (partition != null) {
+                size += partition.fingerprints.length;
+            }
+        }
+        return size;
+    }
+
+    private Partition partition(long generation, boolean create) {
+        int slot = (int) Math.floorMod(generation, (long) ring.length());
+        for (;;) {
+            Partition current = ring.get(slot);
+            if (current != null && current.generation == generation) {
+                return current;
+            }
+            if (!create || (current != null && current.generation > generation)) {
+                return null;
+            }
+            Partition fresh = new Partition(generation);
+            if (ring.compareAndSet(slot, current, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private static final class Partition {
+        final long generation;
+        volatile long[] fingerprints = EMPTY;
+
+        Partition(long generation) {
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.infrastructure.authentication;
+
+/**
+ * Storage strategy for authentication tokens
+ * Implementations decide the token format and how validity is established
+ */
+public interface TokenStore {
+
+    /**
+     * Issues a new token for a user
+     * @param username the token owner
+     * @return the token value handed to the client
+     */
+    String issue(String username);
+
+    /**
+     * Checks whether a token is known, unexpired and not revoked
+     * @param tokenValue the token value
+     * @return true if the token is valid
+     */
+    boolean isValid(String tokenValue);
+
+    /**
+     * Resolves the owner of a valid token
+     * @param tokenValue the token value
+     * @return the username, or null if the token is not valid
+     */
+    String usernameFor(String tokenValue);
+
+    /**
+     * Resolves the expiry of a valid token
+     * @param tokenValue the token value
+     * @return expiry in epoch milliseconds, or -1 if the token is not valid
+     */
+    long expiresAtMillis(String tokenValue);
+
+    /**
+     * Revokes a single token (logout)
+     * @param tokenValue the token value
+     */
+    void revoke(String tokenValue);
+
+    /**
+     * Revokes every token issued to a user
+     * @param username the token owner
+     * @return true if the user had tokens that may have been affected
+     */
+    boolean revokeAllForUser(String username);
+
+    /**
+     * Releases memory held for expired tokens or revocations
+     * @return number of dropped partitions
+     */
+    int cleanup();
+}
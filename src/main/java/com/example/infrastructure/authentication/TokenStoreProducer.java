@@ -0,0 +1,145 @@
+package com.example.infrastructure.authentication;
+
+import com.example.domain.time.EpochClock;
+import com.example.infrastructure.metrics.MetricsRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Selects the token store implementation from configuration
+ * auth.tokens.format=opaque keeps random tokens in memory, signed issues self-verifying HMAC tokens
+ * auth.tokens.journal.enabled=true makes opaque tokens survive restarts through an append-only journal
+ */
+@ApplicationScoped
+public class TokenStoreProducer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenStoreProducer.class);
+    private static final int TOKEN_EXPIRY_HOURS = 24; // Tokens expire after 24 hours
+    private static final int TOKEN_BUCKET_MINUTES = 60; // One token bucket per hour of issue time
+    private static final int GENERATED_KEY_BYTES = 32;
+
+    @Inject
+    EpochClock clock;
+
+    @Inject
+    MetricsRegistry metrics;
+
+    @ConfigProperty(name = "auth.tokens.format", defaultValue = "opaque")
+    String format;
+
+    @ConfigProperty(name = "auth.tokens.max-per-user", defaultValue = "5")
+    int maxTokensPerUser;
+
+    @ConfigProperty(name = "auth.tokens.signing.keys")
+    Optional<String> signingKeys;
+
+    @ConfigProperty(name = "auth.tokens.signing.active-key-id", defaultValue = "0")
+    int activeKeyId;
+
+    @ConfigProperty(name = "auth.tokens.journal.enabled", defaultValue = "false")
+    boolean journalEnabled;
+
+    @ConfigProperty(name = "auth.tokens.journal.directory", defaultValue = "data/tokens")
+    String journalDirectory;
+
+    @ConfigProperty(name = "auth.tokens.journal.max-batch", defaultValue = "256")
+    int journalMaxBatch;
+
+    @ConfigProperty(name = "auth.tokens.journal.compact-threshold-bytes", defaultValue = "67108864")
+    long journalCompactThresholdBytes;
+
+    @ConfigProperty(name = "auth.tokens.introspection.cache-size", defaultValue = "100000")
+    int verificationCacheSize;
+
+    @ConfigProperty(name = "auth.tokens.introspection.cache-ttl-seconds", defaultValue = "30")
+    long verificationCacheTtlSeconds;
+
+    @Produces
+    @ApplicationScoped
+    TokenStore tokenStore() {
+        long lifetimeMillis = TimeUnit.HOURS.toMillis(TOKEN_EXPIRY_HOURS);
+        long bucketMillis = TimeUnit.MINUTES.toMillis(TOKEN_BUCKET_MINUTES);
+
+        switch (format) {
+            case "opaque":
+                BucketedTokenStore store = new BucketedTokenStore(lifetimeMillis, bucketMillis, maxTokensPerUser,
+                        clock);
+                // Sums one map size per bucket, whatever the number of tokens
+                metrics.gauge("qrlog_tokens_stored", "Opaque tokens held in memory, including not yet purged ones",
+                        store::size);
+                return journalEnabled ? openJournal(store) : store;
+            case "signed":
+                if (journalEnabled) {
+                    LOGGER.warn("auth.tokens.journal.enabled is ignored for signed tokens, they survive restarts on their own");
+                }
+                LOGGER.info("Issuing signed tokens with key ID {}", activeKeyId);
+                return new SignedTokenStore(parseSigningKeys(), activeKeyId, lifetimeMillis, bucketMillis,
+                        clock);
+            default:
+                throw new IllegalArgumentException("Unknown auth.tokens.format: " + format);
+        }
+    }
+
+    @Produces
+    @ApplicationScoped
+    TokenVerificationCache tokenVerificationCache(TokenStore tokenStore) {
+        return new TokenVerificationCache(tokenStore, verificationCacheSize,
+                TimeUnit.SECONDS.toMillis(verificationCacheTtlSeconds), clock);
+    }
+
+    void closeTokenStore(@Disposes TokenStore tokenStore) {
+        if (tokenStore instanceof JournaledTokenStore journaled) {
+            journaled.close();
+        }
+    }
+
+    private JournaledTokenStore openJournal(BucketedTokenStore store) {
+        try {
+            LOGGER.info("Journaling tokens to {}", journalDirectory);
+            return JournaledTokenStore.open(store, Path.of(journalDirectory), journalMaxBatch,
+                    journalCompactThresholdBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open token journal in " + journalDirectory, e);
+        }
+    }
+
+    /**
+     * Parses "keyId:base64Key" pairs separated by commas
+     * Without configured keys a random key is generated, so tokens only verify on this instance until restart
+     */
+    private Map<Integer, byte[]> parseSigningKeys() {
+        Map<Integer, byte[]> keys = new HashMap<>();
+        if (signingKeys.isEmpty() || signingKeys.get().isBlank()) {
+            LOGGER.warn("No auth.tokens.signing.keys configured, generating an ephemeral signing key");
+            byte[] key = new byte[GENERATED_KEY_BYTES];
+            new SecureRandom().nextBytes(key);
+            keys.put(activeKeyId, key);
+            return keys;
+        }
+
+        for (String pair : signingKeys.get().split(",")) {
+            int separator = pair.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Signing keys must be formatted as keyId:base64Key");
+            }
+            int keyId = Integer.parseInt(pair.substring(0, separator).trim());
+            keys.put(keyId, Base64.getDecoder().decode(pair.substring(separator + 1).trim()));
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.infrastructure.authentication;
+
+import com.example.domain.authentication.TokenIntrospection;
+import com.example.domain.time.EpochClock;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded cache of positive token verifications in front of a {@link TokenStore}
+ * Entries live at most the configured TTL and never past the token's own expiry.
+ * Revocation is tracked with per-user generations kept in a fixed array of stripes: every revoke, revoke-all
+ * and issue (which may evict the user's oldest token) bumps the stripe after the store is updated, and an
+ * entry is only served while its stripe is still at the generation read before the store lookup.
+ * The map is split into segments, each an LRU guarded by its own lock.
+ */
+public class TokenVerificationCache {
+
+    private static final int SEGMENTS = 16;
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final TokenStore tokenStore;
+    private final long ttlMillis;
+    private final EpochClock clock;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * @param tokenStore store consulted on a miss
+     * @param maxEntries upper bound on cached tokens
+     * @param ttlMillis longest time a verification is reused
+     * @param clock millisecond clock
+     */
+    public TokenVerificationCache(TokenStore tokenStore, int maxEntries, long ttlMillis, EpochClock clock) {
+        this.tokenStore = tokenStore;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        int perSegment = Math.max(1, maxEntries / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    /**
+     * Describes a token, from the cache when a fresh entry exists
+     */
+    public TokenIntrospection introspect(String tokenValue) {
+        if (tokenValue == null || tokenValue.isEmpty()) {
+            return TokenIntrospection.inactive();
+        }
+        long now = clock.millis();
+        Segment segment = segmentFor(tokenValue);
+        Entry entry = segment.get(tokenValue);
+        if (entry != null) {
+            if (now < entry.cachedUntil && generations.get(entry.stripe) == entry.generation) {
+                return entry.introspection;
+            }
+            segment.remove(tokenValue, entry);
+        }
+
+        String username = tokenStore.usernameFor(tokenValue);
+        if (username == null) {
+            return TokenIntrospection.inactive(); // Negative results are not cached, garbage tokens would flush the cache
+        }
+        int stripe = stripe(username);
+        long generation = generations.get(stripe); // Read before the expiry lookup, a later revoke makes this entry stale
+        long expiresAtMillis = tokenStore.expiresAtMillis(tokenValue);
+        if (expiresAtMillis < 0) {
+            return TokenIntrospection.inactive();
+        }
+        TokenIntrospection introspection = TokenIntrospection.active(username, expiresAtMillis);
+        long cachedUntil = Math.min(now + ttlMillis, expiresAtMillis);
+        if (cachedUntil > now) {
+            segment.put(tokenValue, new Entry(introspection, cachedUntil, stripe, generation));
+        }
+        return introspection;
+    }
+
+    /**
+     * Invalidates every cached token of a user, call after the store has been updated
+     */
+    public void invalidateUser(String username) {
+        if (username != null) {
+            generations.incrementAndGet(stripe(username));
+        }
+    }
+
+    /**
+     * @return number of cached entries, including stale ones not yet dropped
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segmentFor(String tokenValue) {
+        int hash = tokenValue.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static int stripe(String username) {
+        int hash = username.hashCode();
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    private static final class Entry {
+        final TokenIntrospection introspection;
+        final long cachedUntil;
+        final int stripe;
+        final long generation;
+
+        Entry(TokenIntrospection introspection, long cachedUntil, int stripe, long generation) {
+            this.introspection = introspection;
+            this.cachedUntil = cachedUntil;
+            this.stripe = stripe;
+            this.generation = generation;
+        }
+    }
+
+    private static final class Segment {
+        private final LinkedHashMap<String, Entry> entries;
+
+        Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        synchronized Entry get(String tokenValue) {
+            return entries.get(tokenValue);
+        }
+
+        synchronized void put(String tokenValue, Entry entry) {
+            entries.put(tokenValue, entry);
+        }
+
+        synchronized void remove(String tokenValue, Entry entry) {
+            entries.remove(tokenValue, entry);
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
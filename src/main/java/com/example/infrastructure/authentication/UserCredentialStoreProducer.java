@@ -0,0 +1,51 @@
+package com.example.infrastructure.authentication;
+
+import com.example.domain.authentication.UserCredentialStore;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Produces;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Selects the user store implementation from configuration
+ * auth.users.index-file points at a memory-mapped user index, without it the demo users are kept in memory
+ */
+@ApplicationScoped
+public class UserCredentialStoreProducer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserCredentialStoreProducer.class);
+
+    @ConfigProperty(name = "auth.users.index-file")
+    Optional<String> indexFile;
+
+    @ConfigProperty(name = "auth.users.reload-interval-seconds", defaultValue = "10")
+    long reloadIntervalSeconds;
+
+    @Produces
+    @ApplicationScoped
+    UserCredentialStore userCredentialStore(PasswordHasher passwordHasher) {
+        if (indexFile.isEmpty() || indexFile.get().isBlank()) {
+            LOGGER.info("No auth.users.index-file configured, using in-memory demo users");
+            return InMemoryUserCredentialStore.withDemoUsers(passwordHasher);
+        }
+        try {
+            return new MappedUserCredentialStore(Path.of(indexFile.get()), TimeUnit.SECONDS.toMillis(reloadIntervalSeconds));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map user index " + indexFile.get(), e);
+        }
+    }
+
+    void closeUserCredentialStore(@Disposes UserCredentialStore userCredentialStore) {
+        if (userCredentialStore instanceof MappedUserCredentialStore mapped) {
+            mapped.close();
+        }
+    }
+}
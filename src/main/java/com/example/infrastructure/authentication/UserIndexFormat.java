@@ -0,0 +1,116 @@
+package com.example.infrastructure.authentication;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of the memory-mapped user index file shared by the writer and the reader
+ * [header:32][slots: slotCount x (usernameHash:8, recordOffset:8)][records: (len:2, username UTF-8, len:2, hash ASCII)]
+ * Slots form an open-addressed table with linear probing, hash 0 marks an empty slot.
+ * Usernames are hashed and compared straight from their chars, so a probe allocates nothing.
+ */
+final class UserIndexFormat {
+
+    static final int MAGIC = 0x51525553; // "QRUS"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int SLOT_BYTES = 16;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private UserIndexFormat() {
+    }
+
+    /**
+     * @return power-of-two slot count keeping the load factor at or below one half
+     */
+    static int slotCountFor(int entries) {
+        int slots = 2;
+        while (slots < entries * 2L) {
+            slots <<= 1;
+        }
+        return slots;
+    }
+
+    /**
+     * FNV-1a over the UTF-8 encoding of the username, never 0
+     */
+    static long hash(String username) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < username.length(); ) {
+            int codePoint = username.codePointAt(i);
+            i += Character.charCount(codePoint);
+            int width = utf8Width(codePoint);
+            for (int b = 0; b < width; b++) {
+                hash ^= utf8Byte(codePoint, width, b) & 0xFF;
+                hash *= FNV_PRIME;
+            }
+        }
+        return hash != 0 ? hash : 1;
+    }
+
+    /**
+     * Compares a username against UTF-8 bytes stored in the index
+     */
+    static boolean equalsUtf8(ByteBuffer index, int offset, int length, String username) {
+        int position = 0;
+        for (int i = 0; i < username.length(); ) {
+            int codePoint = username.codePointAt(i);
+            i += Character.charCount(codePoint);
+            int width = utf8Width(codePoint);
+            if (position + width > length) {
+                return false;
+            }
+            for (int b = 0; b < width; b++) {
+                if (index.get(offset + position++) != utf8Byte(codePoint, width, b)) {
+                    return false;
+                }
+            }
+        }
+        return position == length;
+    }
+
+    /**
+     * Encodes a username exactly as {@link #hash} and {@link #equalsUtf8} see it
+     */
+    static byte[] utf8(String username) {
+        int length = 0;
+        for (int i = 0; i < username.length(); ) {
+            int codePoint = username.codePointAt(i);
+            i += Character.charCount(codePoint);
+            length += utf8Width(codePoint);
+        }
+        byte[] bytes = new byte[length];
+        int position = 0;
+        for (int i = 0; i < username.length(); ) {
+            int codePoint = username.codePointAt(i);
+            i += Character.charCount(codePoint);
+            int width = utf8Width(codePoint);
+            for (int b = 0; b < width; b++) {
+                bytes[position++] = utf8Byte(codePoint, width, b);
+            }
+        }
+        return bytes;
+    }
+
+    private static int utf8Width(int codePoint) {
+        if (codePoint < 0x80) {
+            return 1;
+        }
+        if (codePoint < 0x800) {
+            return 2;
+        }
+        return codePoint < 0x10000 ? 3 : 4;
+    }
+
+    private static byte utf8Byte(int codePoint, int width, int index) {
+        if (width == 1) {
+            return (byte) codePoint;
+        }
+        if (index == 0) {
+            int lead = width == 2 ? 0xC0 : width == 3 ? 0xE0 : 0xF0;
+            return (byte) (lead | (codePoint >>> (6 * (width - 1))));
+        }
+        return (byte) (0x80 | ((codePoint >>> (6 * (width - 1 - index))) & 0x3F));
+    }
+}
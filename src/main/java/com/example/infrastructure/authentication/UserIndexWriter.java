@@ -0,0 +1,102 @@
+package com.example.infrastructure.authentication;
+
+import java.io.BufferedReader;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds the user index file read by {@link MappedUserCredentialStore}
+ * The file is written next to the target and renamed over it, so a running server never maps a partial file.
+ * Command line: UserIndexWriter &lt;export&gt; &lt;index&gt;, the export holding one "username&lt;TAB&gt;hash" per line
+ */
+public final class UserIndexWriter {
+
+    private UserIndexWriter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: UserIndexWriter <export> <index>");
+            System.exit(2);
+        }
+        Map<String, String> credentials = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(args[0]), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf('\t');
+                if (separator > 0) {
+                    credentials.put(line.substring(0, separator), line.substring(separator + 1).trim());
+                }
+            }
+        }
+        write(Path.of(args[1]), credentials);
+        System.out.println("Wrote " + credentials.size() + " users to " + args[1]);
+    }
+
+    /**
+     * Writes an index of username to encoded hash and atomically replaces the target file
+     */
+    public static void write(Path target, Map<String, String> credentials) throws IOException {
+        int slotCount = UserIndexFormat.slotCountFor(credentials.size());
+        long[] slotHashes = new long[slotCount];
+        long[] slotOffsets = new long[slotCount];
+        int mask = slotCount - 1;
+
+        // Records follow the slot table; place each record's slot by linear probing
+        long recordsOffset = UserIndexFormat.HEADER_BYTES + (long) slotCount * UserIndexFormat.SLOT_BYTES;
+        long offset = recordsOffset;
+        byte[][] usernames = new byte[credentials.size()][];
+        byte[][] hashes = new byte[credentials.size()][];
+        int entry = 0;
+        for (Map.Entry<String, String> credential : credentials.entrySet()) {
+            byte[] username = UserIndexFormat.utf8(credential.getKey());
+            byte[] hash = credential.getValue().getBytes(StandardCharsets.US_ASCII);
+            if (username.length > 0xFFFF || hash.length > 0xFFFF) {
+                throw new IllegalArgumentException("Username or hash too long: " + credential.getKey());
+            }
+            long usernameHash = UserIndexFormat.hash(credential.getKey());
+            int slot = (int) usernameHash & mask;
+            while (slotHashes[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slotHashes[slot] = usernameHash;
+            slotOffsets[slot] = offset;
+            usernames[entry] = username;
+            hashes[entry++] = hash;
+            offset += 2 + username.length + 2 + hash.length;
+        }
+        if (offset > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("User index larger than 2 GB is not supported");
+        }
+
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (OutputStream file = Files.newOutputStream(temporary);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(UserIndexFormat.MAGIC);
+            out.writeInt(UserIndexFormat.VERSION);
+            out.writeInt(slotCount);
+            out.writeInt(credentials.size());
+            out.writeLong(recordsOffset);
+            out.writeLong(0L);
+            for (int slot = 0; slot < slotCount; slot++) {
+                out.writeLong(slotHashes[slot]);
+                out.writeLong(slotOffsets[slot]);
+            }
+            for (int i = 0; i < entry; i++) {
+                out.writeShort(usernames[i].length);
+                out.write(usernames[i]);
+                out.writeShort(hashes[i].length);
+                out.write(hashes[i]);
+            }
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
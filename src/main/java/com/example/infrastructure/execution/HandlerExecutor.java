@@ -0,0 +1,107 @@
+package com.example.infrastructure.execution;
+
+import io.vertx.core.Vertx;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Where the REST and WebSocket adapters run their blocking work
+ * In platform mode, the default, blocking work runs on the Vert.x worker pool and WebSocket messages are handled
+ * on the I/O thread that read them, as before. In virtual mode, on Java 21 or later, each task gets its own
+ * virtual thread, WebSocket messages included, so a handler blocked on a store or a hash parks instead of
+ * holding a pool thread or an event loop. Virtual threads are looked up reflectively so the default build keeps
+ * targeting Java 17; on an older runtime virtual mode falls back to platform mode with a warning.
+ */
+@ApplicationScoped
+public class HandlerExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HandlerExecutor.class);
+    static final String PLATFORM = "platform";
+    static final String VIRTUAL = "virtual";
+
+    private final Executor workers;
+    private final ExecutorService virtualThreads;
+
+    /**
+     * @param threads platform or virtual
+     */
+    @Inject
+    public HandlerExecutor(Vertx vertx,
+                           @ConfigProperty(name = "app.execution.threads", defaultValue = PLATFORM) String threads) {
+        this(command -> vertx.executeBlocking(() -> {
+            command.run();
+            return null;
+        }, false), threads);
+    }
+
+    HandlerExecutor(Executor workers, String threads) {
+        if (!PLATFORM.equals(threads) && !VIRTUAL.equals(threads)) {
+            throw new IllegalArgumentException("app.execution.threads must be platform or virtual: " + threads);
+        }
+        this.workers = workers;
+        this.virtualThreads = VIRTUAL.equals(threads) ? newVirtualThreadPerTaskExecutor() : null;
+        LOGGER.info("REST and WebSocket handlers run on {} threads", isVirtual() ? VIRTUAL : PLATFORM);
+    }
+
+    /**
+     * @return whether handlers run on virtual threads
+     */
+    public boolean isVirtual() {
+        return virtualThreads != null;
+    }
+
+    /**
+     * @return the executor for blocking work, the worker pool or one virtual thread per task
+     */
+    public Executor executor() {
+        return isVirtual() ? virtualThreads : workers;
+    }
+
+    /**
+     * Runs blocking work off the calling thread, for resource methods that return a stage
+     * @return stage completed with the work's result, or failed with its exception
+     */
+    public <T> CompletionStage<T> supply(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(work, executor());
+    }
+
+    /**
+     * Runs a WebSocket handler: inline on the calling I/O thread in platform mode, on a virtual thread otherwise
+     * Anything the handler reads from a reused buffer must be decoded before dispatching.
+     */
+    public void dispatch(Runnable handler) {
+        if (isVirtual()) {
+            virtualThreads.execute(handler);
+        } else {
+            handler.run();
+        }
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.warn("Virtual threads need Java 21 or later, running on {}; using platform threads",
+                Runtime.version().feature());
+            return null;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (virtualThreads != null) {
+            virtualThreads.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.infrastructure.messaging;
+
+import com.example.domain.time.EpochClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Channel bus spanning several nodes over a {@link BusTransport}
+ * Each node announces the channels it holds and remembers which peers hold which channels, so a message
+ * is sent only to the peers subscribed to its channel; local subscribers are served directly.
+ * Outbound records are queued and flushed by a single thread, every record for the same peer within a
+ * flush interval shares one frame. Subscriptions are re-announced periodically and forgotten when a peer
+ * stops announcing them, which repairs lost announcements and drops departed nodes.
+ */
+public class BatchingChannelMessageBus implements ChannelMessageBus {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingChannelMessageBus.class);
+    private static final String ALL_PEERS = "";
+    private static final int MAX_CHANNEL_BYTES = 1024;
+
+    private final BusTransport transport;
+    private final int maxBatch;
+    private final long announceIntervalMillis;
+    private final EpochClock clock;
+    private final Set<String> localChannels = ConcurrentHashMap.newKeySet();
+    // channel -> peer -> last time the peer announced it
+    private final ConcurrentMap<String, ConcurrentMap<String, Long>> remoteChannels = new ConcurrentHashMap<>();
+    private final Queue<Outbound> outbound = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+    private volatile Listener listener;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder localDeliveries = new LongAdder();
+    private final LongAdder remoteDeliveries = new LongAdder();
+    private final LongAdder recordsSent = new LongAdder();
+    private final LongAdder framesSent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param transport carries frames between nodes
+     * @param maxBatch queued records that trigger a flush before the interval ends
+     * @param flushIntervalMillis longest time a record waits in the queue
+     * @param announceIntervalMillis interval between full subscription announcements
+     * @param clock millisecond clock
+     */
+    public BatchingChannelMessageBus(BusTransport transport, int maxBatch, long flushIntervalMillis,
+                                     long announceIntervalMillis, EpochClock clock) {
+        this.transport = transport;
+        this.maxBatch = maxBatch;
+        this.announceIntervalMillis = announceIntervalMillis;
+        this.clock = clock;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "channel-bus-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        transport.start(this::receive);
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        flusher.scheduleWithFixedDelay(this::announce, 0, announceIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void listen(Listener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void subscribe(String channel) {
+        if (localChannels.add(channel)) {
+            enqueue(ALL_PEERS, BusFrames.SUBSCRIBE, channel, null);
+        }
+    }
+
+    @Override
+    public void unsubscribe(String channel) {
+        if (localChannels.remove(channel)) {
+            enqueue(ALL_PEERS, BusFrames.UNSUBSCRIBE, channel, null);
+        }
+    }
+
+    @Override
+    public void publish(String channel, String message) {
+        published.increment();
+        route(BusFrames.MESSAGE, channel, message);
+    }
+
+    @Override
+    public void publishClose(String channel) {
+        route(BusFrames.CLOSE, channel, null);
+    }
+
+    @Override
+    public Map<String, Long> metrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("localSubscriptions", (long) localChannels.size());
+        metrics.put("remoteSubscriptions", (long) remoteChannels.size());
+        metrics.put("published", published.sum());
+        metrics.put("localDeliveries", localDeliveries.sum());
+        metrics.put("remoteDeliveries", remoteDeliveries.sum());
+        metrics.put("recordsSent", recordsSent.sum());
+        metrics.put("framesSent", framesSent.sum());
+        metrics.put("dropped", dropped.sum());
+        metrics.put("queued", (long) pending.get());
+        return metrics;
+    }
+
+    @Override
+    public void close() {
+        for (String channel : localChannels) {
+            enqueue(ALL_PEERS, BusFrames.UNSUBSCRIBE, channel, null);
+        }
+        localChannels.clear();
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+        transport.close();
+    }
+
+    private void route(byte type, String channel, String message) {
+        if (localChannels.contains(channel)) {
+            deliver(type, channel, message);
+            localDeliveries.increment();
+        }
+        Map<String, Long> peers = remoteChannels.get(channel);
+        if (peers != null) {
+            for (String peer : peers.keySet()) {
+                enqueue(peer, type, channel, message);
+            }
+        }
+    }
+
+    private void deliver(byte type, String channel, String message) {
+        Listener current = listener;
+        if (current == null) {
+            return;
+        }
+        if (type == BusFrames.MESSAGE) {
+            current.onMessage(channel, message);
+        } else {
+            current.onClose(channel);
+        }
+    }
+
+    private void receive(String peer, ByteBuffer frame) {
+        BusFrames.decode(frame, (type, channel, message) -> {
+            switch (type) {
+                case BusFrames.SUBSCRIBE -> remoteChannels.compute(channel, (ignored, peers) -> {
+                    ConcurrentMap<String, Long> target = peers != null ? peers : new ConcurrentHashMap<>(2);
+                    target.put(peer, clock.millis());
+                    return target;
+                });
+                case BusFrames.UNSUBSCRIBE -> remoteChannels.computeIfPresent(channel, (ignored, peers) -> {
+                    peers.remove(peer);
+                    return peers.isEmpty() ? null : peers;
+                });
+                case BusFrames.MESSAGE, BusFrames.CLOSE -> {
+                    // A peer may still route to us briefly after we unsubscribed
+                    if (localChannels.contains(channel)) {
+                        remoteDeliveries.increment();
+                        deliver(type, channel, message);
+                    }
+                }
+                default -> LOGGER.debug("Ignoring unknown bus record type {} from {}", type, peer);
+            }
+        });
+    }
+
+    private void enqueue(String peer, byte type, String channel, String message) {
+        byte[] channelBytes = BusFrames.utf8(channel);
+        byte[] messageBytes = message != null ? BusFrames.utf8(message) : null;
+        if (channelBytes.length > MAX_CHANNEL_BYTES
+                || BusFrames.recordSize(channelBytes, messageBytes) > transport.maxFrameBytes()) {
+            dropped.increment();
+            LOGGER.warn("Dropping bus record for channel {}, too large for the transport", channel);
+            return;
+        }
+        outbound.add(new Outbound(peer, type, channelBytes, messageBytes));
+        if (pending.incrementAndGet() >= maxBatch && flushScheduled.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flushQuietly);
+            } catch (RuntimeException e) {
+                flushScheduled.set(false); // Closing, the final flush in close() picks the records up
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOGGER.error("Error flushing channel bus", e);
+        }
+    }
+
+    // Only ever runs on the flusher thread, or after it has stopped
+    private void flush() {
+        flushScheduled.set(false);
+        Map<String, BusFrames.Writer> frames = new HashMap<>();
+        int maxFrameBytes = transport.maxFrameBytes();
+        Outbound record;
+        while ((record = outbound.poll()) != null) {
+            pending.decrementAndGet();
+            BusFrames.Writer writer = frames.computeIfAbsent(record.peer, ignored -> new BusFrames.Writer());
+            if (!writer.fits(BusFrames.recordSize(record.channel, record.message), maxFrameBytes)) {
+                send(record.peer, writer);
+            }
+            writer.add(record.type, record.channel, record.message);
+        }
+        frames.forEach((peer, writer) -> {
+            if (!writer.isEmpty()) {
+                send(peer, writer);
+            }
+        });
+    }
+
+    private void send(String peer, BusFrames.Writer writer) {
+        recordsSent.add(writer.records());
+        framesSent.increment();
+        ByteBuffer frame = writer.take();
+        if (peer.equals(ALL_PEERS)) {
+            transport.broadcast(frame);
+        } else {
+            transport.send(peer, frame);
+        }
+    }
+
+    private void announce() {
+        try {
+            long now = clock.millis();
+            long staleBefore = now - 3 * announceIntervalMillis;
+            for (String channel : remoteChannels.keySet()) {
+                remoteChannels.computeIfPresent(channel, (ignored, peers) -> {
+                    peers.values().removeIf(lastSeen -> lastSeen < staleBefore);
+                    return peers.isEmpty() ? null : peers;
+                });
+            }
+            for (String channel : localChannels) {
+                enqueue(ALL_PEERS, BusFrames.SUBSCRIBE, channel, null);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Error announcing channel bus subscriptions", e);
+        }
+    }
+
+    private record Outbound(String peer, byte type, byte[] channel, byte[] message) {}
+}
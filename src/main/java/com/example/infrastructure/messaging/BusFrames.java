@@ -0,0 +1,134 @@
+package com.example.infrastructure.messaging;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Wire format of a bus frame: a batch of records, each a type byte, a channel and for messages a payload
+ * Strings are UTF-8 with a short length prefix for channels and an int prefix for payloads
+ */
+final class BusFrames {
+
+    static final byte SUBSCRIBE = 1;
+    static final byte UNSUBSCRIBE = 2;
+    static final byte MESSAGE = 3;
+    static final byte CLOSE = 4;
+
+    private BusFrames() {
+    }
+
+    /**
+     * Receives the records of a decoded frame
+     */
+    interface RecordVisitor {
+        void visit(byte type, String channel, String message);
+    }
+
+    /**
+     * @return encoded size of a record
+     */
+    static int recordSize(byte[] channel, byte[] message) {
+        return 1 + Short.BYTES + channel.length + (message != null ? Integer.BYTES + message.length : 0);
+    }
+
+    static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes every record of a frame, a malformed tail is ignored
+     */
+    static void decode(ByteBuffer frame, RecordVisitor visitor) {
+        while (frame.remaining() >= 1 + Short.BYTES) {
+            byte type = frame.get();
+            String channel = readString(frame, Short.toUnsignedInt(frame.getShort()));
+            if (channel == null) {
+                return;
+            }
+            String message = null;
+            if (type == MESSAGE) {
+                if (frame.remaining() < Integer.BYTES) {
+                    return;
+                }
+                message = readString(frame, frame.getInt());
+                if (message == null) {
+                    return;
+                }
+            }
+            visitor.visit(type, channel, message);
+        }
+    }
+
+    private static String readString(ByteBuffer frame, int length) {
+        if (length < 0 || length > frame.remaining()) {
+            return null;
+        }
+        String value = new String(frame.array(), frame.arrayOffset() + frame.position(), length, StandardCharsets.UTF_8);
+        frame.position(frame.position() + length);
+        return value;
+    }
+
+    /**
+     * Accumulates records into a frame of bounded size
+     */
+    static final class Writer {
+        private byte[] buffer = new byte[512];
+        private int size;
+        private int records;
+
+        boolean fits(int recordSize, int maxFrameBytes) {
+            return size + recordSize <= maxFrameBytes;
+        }
+
+        void add(byte type, byte[] channel, byte[] message) {
+            ensure(recordSize(channel, message));
+            buffer[size++] = type;
+            putShort(channel.length);
+            System.arraycopy(channel, 0, buffer, size, channel.length);
+            size += channel.length;
+            if (message != null) {
+                putInt(message.length);
+                System.arraycopy(message, 0, buffer, size, message.length);
+                size += message.length;
+            }
+            records++;
+        }
+
+        boolean isEmpty() {
+            return records == 0;
+        }
+
+        int records() {
+            return records;
+        }
+
+        /**
+         * @return the frame so far, the writer is reset for the next one
+         */
+        ByteBuffer take() {
+            ByteBuffer frame = ByteBuffer.wrap(Arrays.copyOf(buffer, size));
+            size = 0;
+            records = 0;
+            return frame;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+
+        private void putShort(int value) {
+            buffer[size++] = (byte) (value >>> 8);
+            buffer[size++] = (byte) value;
+        }
+
+        private void putInt(int value) {
+            buffer[size++] = (byte) (value >>> 24);
+            buffer[size++] = (byte) (value >>> 16);
+            buffer[size++] = (byte) (value >>> 8);
+            buffer[size++] = (byte) value;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.infrastructure.messaging;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Moves encoded bus frames between nodes
+ * Peers are identified by opaque strings chosen by the transport; a frame received from a peer can be answered
+ * by sending to the same identifier
+ */
+public interface BusTransport extends AutoCloseable {
+
+    /**
+     * Receives frames from other nodes, called on a transport thread
+     */
+    interface Receiver {
+        void onFrame(String peer, ByteBuffer frame);
+    }
+
+    /**
+     * Starts delivering incoming frames to the receiver
+     */
+    void start(Receiver receiver);
+
+    /**
+     * Sends a frame to one peer, best effort
+     */
+    void send(String peer, ByteBuffer frame);
+
+    /**
+     * Sends a frame to every known peer, best effort
+     */
+    void broadcast(ByteBuffer frame);
+
+    /**
+     * @return largest frame the transport can carry
+     */
+    int maxFrameBytes();
+
+    @Override
+    void close();
+}
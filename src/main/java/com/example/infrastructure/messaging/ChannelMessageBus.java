@@ -0,0 +1,57 @@
+package com.example.infrastructure.messaging;
+
+import java.util.Map;
+
+/**
+ * Publish/subscribe bus for authentication channel messages
+ * A node subscribes to the channels it holds connections for; messages published on any node are
+ * delivered to the listener of every node subscribed to the channel, including the publishing one
+ */
+public interface ChannelMessageBus extends AutoCloseable {
+
+    /**
+     * Receives the messages of the channels this node is subscribed to
+     */
+    interface Listener {
+
+        void onMessage(String channel, String message);
+
+        /**
+         * The channel is finished, local connections should be closed
+         */
+        void onClose(String channel);
+    }
+
+    /**
+     * Sets the listener receiving deliveries for this node
+     */
+    void listen(Listener listener);
+
+    /**
+     * Declares that this node holds connections for a channel
+     */
+    void subscribe(String channel);
+
+    /**
+     * Declares that this node no longer holds connections for a channel
+     */
+    void unsubscribe(String channel);
+
+    /**
+     * Delivers a message to every node subscribed to the channel
+     */
+    void publish(String channel, String message);
+
+    /**
+     * Asks every node subscribed to the channel to close its connections
+     */
+    void publishClose(String channel);
+
+    /**
+     * @return counters describing the bus activity
+     */
+    Map<String, Long> metrics();
+
+    @Override
+    void close();
+}
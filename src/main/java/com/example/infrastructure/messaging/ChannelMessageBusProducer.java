@@ -0,0 +1,91 @@
+package com.example.infrastructure.messaging;
+
+import com.example.domain.time.EpochClock;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Produces;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Selects the channel bus from configuration
+ * app.bus.transport=local keeps channels on this node, udp links the nodes listed in app.bus.udp.peers,
+ * authenticating every frame with the shared app.bus.udp.key
+ */
+@ApplicationScoped
+public class ChannelMessageBusProducer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChannelMessageBusProducer.class);
+
+    @ConfigProperty(name = "app.bus.transport", defaultValue = "local")
+    String transport;
+
+    @ConfigProperty(name = "app.bus.udp.bind-address", defaultValue = "127.0.0.1")
+    String udpBindAddress;
+
+    @ConfigProperty(name = "app.bus.udp.port", defaultValue = "7420")
+    int udpPort;
+
+    @ConfigProperty(name = "app.bus.udp.peers")
+    Optional<List<String>> udpPeers;
+
+    @ConfigProperty(name = "app.bus.udp.key")
+    Optional<String> udpKey;
+
+    @ConfigProperty(name = "app.bus.udp.max-frame-age-millis", defaultValue = "10000")
+    long udpMaxFrameAgeMillis;
+
+    @ConfigProperty(name = "app.bus.max-batch", defaultValue = "256")
+    int maxBatch;
+
+    @ConfigProperty(name = "app.bus.flush-interval-millis", defaultValue = "2")
+    long flushIntervalMillis;
+
+    @ConfigProperty(name = "app.bus.announce-interval-seconds", defaultValue = "5")
+    long announceIntervalSeconds;
+
+    @Produces
+    @ApplicationScoped
+    ChannelMessageBus channelMessageBus(EpochClock clock) {
+        if (!"udp".equalsIgnoreCase(transport)) {
+            return new LocalChannelMessageBus();
+        }
+        if (udpKey.isEmpty() || udpKey.get().isBlank()) {
+            throw new IllegalStateException("app.bus.udp.key is required for the udp channel bus");
+        }
+        List<InetSocketAddress> peers = udpPeers.orElse(List.of()).stream()
+            .map(ChannelMessageBusProducer::parseAddress)
+            .toList();
+        try {
+            UdpBusTransport udp = new UdpBusTransport(new InetSocketAddress(udpBindAddress, udpPort), peers,
+                Base64.getDecoder().decode(udpKey.get().trim()), udpMaxFrameAgeMillis, clock);
+            LOGGER.info("Channel bus listening on UDP {}:{} with {} peers", udpBindAddress, udpPort, peers.size());
+            return new BatchingChannelMessageBus(udp, maxBatch, flushIntervalMillis,
+                TimeUnit.SECONDS.toMillis(announceIntervalSeconds), clock);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open channel bus on UDP " + udpBindAddress + ":" + udpPort, e);
+        }
+    }
+
+    void closeChannelMessageBus(@Disposes ChannelMessageBus channelMessageBus) {
+        channelMessageBus.close();
+    }
+
+    private static InetSocketAddress parseAddress(String hostAndPort) {
+        int separator = hostAndPort.lastIndexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Expected host:port in app.bus.udp.peers, got " + hostAndPort);
+        }
+        return new InetSocketAddress(hostAndPort.substring(0, separator).trim(),
+            Integer.parseInt(hostAndPort.substring(separator + 1).trim()));
+    }
+}
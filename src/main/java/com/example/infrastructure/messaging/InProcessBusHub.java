@@ -0,0 +1,91 @@
+package com.example.infrastructure.messaging;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Connects several bus nodes inside one JVM, standing in for the network in tests and benchmarks
+ * Every node receives on its own thread, as it would from a socket
+ */
+public class InProcessBusHub {
+
+    private static final int MAX_FRAME_BYTES = 64 * 1024;
+
+    private final ConcurrentMap<String, Node> nodes = new ConcurrentHashMap<>();
+
+    /**
+     * @return the transport of a new node reachable under the given id
+     */
+    public BusTransport connect(String nodeId) {
+        Node node = new Node(nodeId);
+        if (nodes.putIfAbsent(nodeId, node) != null) {
+            throw new IllegalArgumentException("Node already connected: " + nodeId);
+        }
+        return node;
+    }
+
+    private final class Node implements BusTransport {
+        private final String nodeId;
+        private final ExecutorService inbox;
+        private volatile Receiver receiver;
+
+        Node(String nodeId) {
+            this.nodeId = nodeId;
+            this.inbox = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "bus-hub-" + nodeId);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        @Override
+        public void start(Receiver receiver) {
+            this.receiver = receiver;
+        }
+
+        @Override
+        public void send(String peer, ByteBuffer frame) {
+            Node target = nodes.get(peer);
+            if (target != null) {
+                target.accept(nodeId, frame.duplicate());
+            }
+        }
+
+        @Override
+        public void broadcast(ByteBuffer frame) {
+            for (Node target : nodes.values()) {
+                if (target != this) {
+                    target.accept(nodeId, frame.duplicate());
+                }
+            }
+        }
+
+        @Override
+        public int maxFrameBytes() {
+            return MAX_FRAME_BYTES;
+        }
+
+        @Override
+        public void close() {
+            nodes.remove(nodeId, this);
+            inbox.shutdownNow();
+        }
+
+        private void accept(String from, ByteBuffer frame) {
+            try {
+                inbox.execute(() -> {
+                    Receiver current = receiver;
+                    if (current != null) {
+                        current.onFrame(from, frame);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Node closed, frames to it are lost as on a network
+            }
+        }
+    }
+}
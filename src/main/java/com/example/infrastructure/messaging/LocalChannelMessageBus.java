@@ -0,0 +1,58 @@
+package com.example.infrastructure.messaging;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single-node bus delivering straight to the local listener
+ */
+public class LocalChannelMessageBus implements ChannelMessageBus {
+
+    private final Set<String> subscriptions = ConcurrentHashMap.newKeySet();
+    private final LongAdder delivered = new LongAdder();
+    private volatile Listener listener;
+
+    @Override
+    public void listen(Listener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void subscribe(String channel) {
+        subscriptions.add(channel);
+    }
+
+    @Override
+    public void unsubscribe(String channel) {
+        subscriptions.remove(channel);
+    }
+
+    @Override
+    public void publish(String channel, String message) {
+        Listener current = listener;
+        if (current != null && subscriptions.contains(channel)) {
+            delivered.increment();
+            current.onMessage(channel, message);
+        }
+    }
+
+    @Override
+    public void publishClose(String channel) {
+        Listener current = listener;
+        if (current != null && subscriptions.contains(channel)) {
+            current.onClose(channel);
+        }
+    }
+
+    @Override
+    public Map<String, Long> metrics() {
+        return Map.of("subscriptions", (long) subscriptions.size(), "localDeliveries", delivered.sum());
+    }
+
+    @Override
+    public void close() {
+        subscriptions.clear();
+    }
+}
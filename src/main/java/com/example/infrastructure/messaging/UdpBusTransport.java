@@ -0,0 +1,215 @@
+package com.example.infrastructure.messaging;
+
+import com.example.domain.time.EpochClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bus transport sending each frame as one UDP datagram
+ * Only the configured peers are sent to or heard from. Every datagram carries its send time and an
+ * HMAC-SHA256 over both under a key shared by the nodes; datagrams from other addresses, with a wrong MAC
+ * or older than the maximum age are dropped without an answer, so the bus cannot be joined, fed or used
+ * to reflect traffic by anyone without the key. Frames are authenticated, not encrypted: channel IDs and
+ * messages are readable on the wire, the bus belongs on a private network.
+ * Delivery is best effort, the bus re-announces subscriptions to repair losses.
+ * Datagram layout: [sentAtMillis:8][frame][hmac:32]
+ */
+public class UdpBusTransport implements BusTransport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UdpBusTransport.class);
+    private static final int MAX_FRAME_BYTES = 60 * 1024;
+    private static final int MIN_KEY_BYTES = 16;
+    private static final int TIMESTAMP_BYTES = Long.BYTES;
+    private static final int MAC_BYTES = 32;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private final DatagramChannel socket;
+    private final Map<String, InetSocketAddress> peers;
+    private final SecretKeySpec macKey;
+    private final Mac sendMac;
+    private final long maxFrameAgeMillis;
+    private final EpochClock clock;
+    private final LongAdder rejected = new LongAdder();
+    private Thread receiverThread;
+
+    /**
+     * @param bindAddress local interface and port to receive on, port 0 picks a free one
+     * @param peers the other nodes, the only addresses frames are sent to and accepted from
+     * @param key shared HMAC key, at least 16 bytes
+     * @param maxFrameAgeMillis oldest accepted frame, also bounds the clock skew between nodes
+     * @param clock millisecond clock stamped into and checked against frames
+     */
+    public UdpBusTransport(InetSocketAddress bindAddress, List<InetSocketAddress> peers, byte[] key,
+                           long maxFrameAgeMillis, EpochClock clock) throws IOException {
+        if (key.length < MIN_KEY_BYTES) {
+            throw new IllegalArgumentException("Bus key must be at least " + MIN_KEY_BYTES + " bytes");
+        }
+        this.macKey = new SecretKeySpec(key, MAC_ALGORITHM);
+        this.sendMac = newMac();
+        this.maxFrameAgeMillis = maxFrameAgeMillis;
+        this.clock = clock;
+        Map<String, InetSocketAddress> resolved = new HashMap<>();
+        for (InetSocketAddress peer : peers) {
+            if (peer.isUnresolved()) {
+                LOGGER.warn("Cannot resolve bus peer {}, ignoring it", peer);
+                continue;
+            }
+            resolved.put(key(peer), peer);
+        }
+        this.peers = Map.copyOf(resolved);
+        this.socket = DatagramChannel.open().bind(bindAddress);
+    }
+
+    /**
+     * @return the address this node receives on
+     */
+    public InetSocketAddress localAddress() throws IOException {
+        return (InetSocketAddress) socket.getLocalAddress();
+    }
+
+    /**
+     * @return datagrams dropped for an unknown sender, a bad MAC or their age
+     */
+    public long rejectedFrames() {
+        return rejected.sum();
+    }
+
+    @Override
+    public synchronized void start(Receiver receiver) {
+        if (receiverThread != null) {
+            throw new IllegalStateException("Transport already started");
+        }
+        receiverThread = new Thread(() -> receiveLoop(receiver), "channel-bus-udp");
+        receiverThread.setDaemon(true);
+        receiverThread.start();
+    }
+
+    @Override
+    public void send(String peer, ByteBuffer frame) {
+        InetSocketAddress address = peers.get(peer);
+        if (address != null) {
+            sendTo(address, seal(frame));
+        }
+    }
+
+    @Override
+    public void broadcast(ByteBuffer frame) {
+        ByteBuffer datagram = seal(frame);
+        for (InetSocketAddress address : peers.values()) {
+            sendTo(address, datagram.duplicate());
+        }
+    }
+
+    @Override
+    public int maxFrameBytes() {
+        return MAX_FRAME_BYTES;
+    }
+
+    @Override
+    public void close() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            LOGGER.warn("Error closing bus socket", e);
+        }
+    }
+
+    // Called from the flusher thread, and from the closing thread once the flusher has stopped
+    private synchronized ByteBuffer seal(ByteBuffer frame) {
+        ByteBuffer datagram = ByteBuffer.allocate(TIMESTAMP_BYTES + frame.remaining() + MAC_BYTES);
+        datagram.putLong(clock.millis());
+        datagram.put(frame);
+        sendMac.update(datagram.array(), 0, datagram.position());
+        try {
+            sendMac.doFinal(datagram.array(), datagram.position());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        return datagram.clear();
+    }
+
+    private void sendTo(InetSocketAddress address, ByteBuffer datagram) {
+        try {
+            socket.send(datagram, address);
+        } catch (IOException e) {
+            LOGGER.debug("Cannot send bus frame to {}: {}", address, e.getMessage());
+        }
+    }
+
+    private void receiveLoop(Receiver receiver) {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        Mac receiveMac = newMac();
+        byte[] expected = new byte[MAC_BYTES];
+        while (socket.isOpen()) {
+            try {
+                buffer.clear();
+                SocketAddress source = socket.receive(buffer);
+                if (!(source instanceof InetSocketAddress sender)) {
+                    continue;
+                }
+                String peer = key(sender);
+                buffer.flip();
+                if (!peers.containsKey(peer) || !authentic(buffer, receiveMac, expected)) {
+                    rejected.increment();
+                    LOGGER.debug("Dropping bus datagram from {}", sender);
+                    continue;
+                }
+                ByteBuffer frame = ByteBuffer.allocate(buffer.limit() - TIMESTAMP_BYTES - MAC_BYTES);
+                frame.put(buffer.array(), TIMESTAMP_BYTES, frame.capacity()).flip();
+                receiver.onFrame(peer, frame);
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Error receiving bus frame", e);
+            }
+        }
+    }
+
+    private boolean authentic(ByteBuffer datagram, Mac mac, byte[] expected) {
+        int signedBytes = datagram.limit() - MAC_BYTES;
+        if (signedBytes < TIMESTAMP_BYTES) {
+            return false;
+        }
+        mac.update(datagram.array(), 0, signedBytes);
+        try {
+            mac.doFinal(expected, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] presented = new byte[MAC_BYTES];
+        datagram.get(signedBytes, presented);
+        if (!MessageDigest.isEqual(expected, presented)) {
+            return false;
+        }
+        return Math.abs(clock.millis() - datagram.getLong(0)) <= maxFrameAgeMillis;
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(macKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+        }
+    }
+
+    private static String key(InetSocketAddress address) {
+        return address.getAddress().getHostAddress() + ":" + address.getPort();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.infrastructure.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency distribution in nanoseconds, from 1 ns to one minute with two significant digits
+ * Recording goes to an HdrHistogram {@link Recorder}: wait-free and allocation free, writers never block on a
+ * reader. A snapshot swaps out the interval recorded since the previous one and folds it into a cumulative
+ * histogram, so quantiles cover the whole run. Longer samples are recorded as one minute.
+ */
+public final class LatencyHistogram {
+
+    static final long HIGHEST_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int SIGNIFICANT_DIGITS = 2;
+    static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Recorder recorder = new Recorder(1, HIGHEST_NANOS, SIGNIFICANT_DIGITS);
+    private final LongAdder sumNanos = new LongAdder();
+    private final Histogram cumulative = new Histogram(1, HIGHEST_NANOS, SIGNIFICANT_DIGITS);
+    private Histogram interval;
+
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 1), HIGHEST_NANOS);
+        recorder.recordValue(value);
+        sumNanos.add(value);
+    }
+
+    /**
+     * @return count, sum and {@link #QUANTILES} of everything recorded so far
+     */
+    public synchronized Snapshot snapshot() {
+        interval = recorder.getIntervalHistogram(interval);
+        cumulative.add(interval);
+        long[] quantileNanos = new long[QUANTILES.length];
+        for (int i = 0; i < QUANTILES.length; i++) {
+            quantileNanos[i] = cumulative.getValueAtPercentile(QUANTILES[i] * 100);
+        }
+        return new Snapshot(cumulative.getTotalCount(), sumNanos.sum(), cumulative.getMaxValue(), quantileNanos);
+    }
+
+    /**
+     * @param quantileNanos value at each of {@link #QUANTILES}, 0 when nothing was recorded
+     */
+    public record Snapshot(long count, long sumNanos, long maxNanos, long[] quantileNanos) {
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.infrastructure.metrics;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Application metrics, exported in the Prometheus text format
+ * Components register their metrics once and keep the returned {@link Counter} or {@link LatencyHistogram}, so
+ * recording is a field access and an add, with no lookup by name. Gauges are read from a supplier at export time;
+ * the suppliers return counts their owners maintain as they change, never a scan. Metrics with the same name
+ * form one family, distinguished by labels given as name, value pairs.
+ */
+@ApplicationScoped
+public class MetricsRegistry {
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final ConcurrentMap<String, Family> families = new ConcurrentSkipListMap<>();
+
+    /**
+     * @return the counter of that name and labels, created on first use
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, Type.COUNTER).children.computeIfAbsent(labels(labels), key -> new Counter());
+    }
+
+    /**
+     * @return the latency histogram of that name and labels, created on first use
+     */
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) family(name, help, Type.SUMMARY).children
+            .computeIfAbsent(labels(labels), key -> new LatencyHistogram());
+    }
+
+    /**
+     * Exports a histogram owned by another component
+     */
+    public void register(String name, String help, LatencyHistogram histogram, String... labels) {
+        family(name, help, Type.SUMMARY).children.put(labels(labels), histogram);
+    }
+
+    /**
+     * Exports a value read at export time, replacing any gauge of the same name and labels
+     */
+    public void gauge(String name, String help, LongSupplier value, String... labels) {
+        family(name, help, Type.GAUGE).children.put(labels(labels), value);
+    }
+
+    /**
+     * @return every metric in the Prometheus text exposition format 0.0.4, families sorted by name
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Family family : families.values()) {
+            out.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(family.name).append(' ').append(family.type.text).append('\n');
+            for (Map.Entry<String, Object> child : family.children.entrySet()) {
+                write(out, family, child.getKey(), child.getValue());
+            }
+        }
+        return out.toString();
+    }
+
+    private static void write(StringBuilder out, Family family, String labels, Object metric) {
+        switch (family.type) {
+            case COUNTER -> sample(out, family.name, labels).append(((Counter) metric).sum()).append('\n');
+            case GAUGE -> sample(out, family.name, labels).append(((LongSupplier) metric).getAsLong()).append('\n');
+            case SUMMARY -> {
+                LatencyHistogram.Snapshot snapshot = ((LatencyHistogram) metric).snapshot();
+                for (int i = 0; i < LatencyHistogram.QUANTILES.length; i++) {
+                    String quantile = "quantile=\"" + LatencyHistogram.QUANTILES[i] + '"';
+                    String quantileLabels = labels.isEmpty()
+                        ? '{' + quantile + '}'
+                        : labels.substring(0, labels.length() - 1) + ',' + quantile + '}';
+                    sample(out, family.name, quantileLabels)
+                        .append(snapshot.quantileNanos()[i] / NANOS_PER_SECOND).append('\n');
+                }
+                sample(out, family.name + "_sum", labels).append(snapshot.sumNanos() / NANOS_PER_SECOND).append('\n');
+                sample(out, family.name + "_count", labels).append(snapshot.count()).append('\n');
+            }
+        }
+    }
+
+    private static StringBuilder sample(StringBuilder out, String name, String labels) {
+        return out.append(name).append(labels).append(' ');
+    }
+
+    private Family family(String name, String help, Type type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(name, help, type));
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type.text);
+        }
+        return family;
+    }
+
+    /**
+     * @return the label set as written after the metric name, empty without labels
+     */
+    static String labels(String... pairs) {
+        if (pairs.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be given as name, value pairs");
+        }
+        if (pairs.length == 0) {
+            return "";
+        }
+        StringBuilder labels = new StringBuilder("{");
+        for (int i = 0; i < pairs.length; i += 2) {
+            if (i > 0) {
+                labels.append(',');
+            }
+            labels.append(pairs[i]).append("=\"");
+            for (char c : pairs[i + 1].toCharArray()) {
+                switch (c) {
+                    case '\\' -> labels.append("\\\\");
+                    case '"' -> labels.append("\\\"");
+                    case '\n' -> labels.append("\\n");
+                    default -> labels.append(c);
+                }
+            }
+            labels.append('"');
+        }
+        return labels.append('}').toString();
+    }
+
+    private enum Type {
+        COUNTER("counter"), GAUGE("gauge"), SUMMARY("summary");
+
+        final String text;
+
+        Type(String text) {
+            this.text = text;
+        }
+    }
+
+    private static final class Family {
+        final String name;
+        final String help;
+        final Type type;
+        // Keyed by label text, sorted so the export is stable
+        final ConcurrentMap<String, Object> children = new ConcurrentSkipListMap<>();
+
+        Family(String name, String help, Type type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+    }
+}
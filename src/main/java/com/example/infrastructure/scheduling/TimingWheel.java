@@ -0,0 +1,192 @@
+package com.example.infrastructure.scheduling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Hashed timing wheel for large numbers of coarse timeouts
+ * Scheduling and cancelling are O(1) and allocate one small handle, one worker thread advances the wheel
+ * every tick and runs the tasks that are due, so precision is one tick. Tasks run on the worker thread and
+ * must not block; a task that throws is logged and does not stop the wheel.
+ * Cancelled timeouts are dropped lazily when the worker reaches their bucket.
+ */
+public class TimingWheel implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimingWheel.class);
+
+    private final long tickNanos;
+    private final int mask;
+    private final Queue<Timeout>[] buckets;
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongSupplier nanoClock;
+    private final long startNanos;
+    private final Thread worker;
+    private volatile boolean running = true;
+    // Only touched by the worker
+    private long tick;
+
+    /**
+     * Handle of a scheduled task
+     */
+    public static final class Timeout {
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadlineTick;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private Timeout(Runnable task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        /**
+         * Prevents the task from running
+         * @return false if it already ran or was cancelled
+         */
+        public boolean cancel() {
+            return state.compareAndSet(WAITING, CANCELLED);
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+    }
+
+    /**
+     * @param tickMillis wheel resolution
+     * @param wheelSize buckets per revolution, rounded up to a power of two
+     */
+    public TimingWheel(long tickMillis, int wheelSize) {
+        this(tickMillis, wheelSize, System::nanoTime, true);
+    }
+
+    /**
+     * @param nanoClock monotonic nanosecond clock
+     * @param startWorker false to drive the wheel with {@link #processDueTicks()} only
+     */
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, int wheelSize, LongSupplier nanoClock, boolean startWorker) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(2, wheelSize - 1)) << 1;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.mask = size - 1;
+        this.buckets = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.nanoClock = nanoClock;
+        this.startNanos = nanoClock.getAsLong();
+        if (startWorker) {
+            this.worker = new Thread(this::run, "timing-wheel");
+            this.worker.setDaemon(true);
+            this.worker.start();
+        } else {
+            this.worker = null;
+        }
+    }
+
+    /**
+     * Runs a task once the delay has passed, rounded up to the next tick
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        long delayNanos = Math.max(0, unit.toNanos(delay));
+        long deadlineTick = (nanoClock.getAsLong() - startNanos + delayNanos + tickNanos - 1) / tickNanos;
+        Timeout timeout = new Timeout(task, deadlineTick);
+        incoming.add(timeout);
+        pending.incrementAndGet();
+        return timeout;
+    }
+
+    /**
+     * @return timeouts scheduled and not yet run or dropped after cancellation
+     */
+    public int pendingTimeouts() {
+        return pending.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (worker != null) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    /**
+     * Processes every tick that has elapsed on the clock, running what is due
+     * Called by the worker, or directly by tests of a wheel without one
+     */
+    void processDueTicks() {
+        long elapsedTicks = (nanoClock.getAsLong() - startNanos) / tickNanos;
+        while (tick < elapsedTicks) {
+            processTick();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            long sleepNanos = startNanos + (tick + 1) * tickNanos - nanoClock.getAsLong();
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+            } else {
+                processDueTicks();
+            }
+        }
+    }
+
+    private void processTick() {
+        tick++;
+        transferIncoming();
+        Queue<Timeout> bucket = buckets[(int) (tick & mask)];
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.isCancelled()) {
+                iterator.remove();
+                pending.decrementAndGet();
+            } else if (timeout.deadlineTick <= tick) {
+                iterator.remove();
+                pending.decrementAndGet();
+                if (timeout.state.compareAndSet(Timeout.WAITING, Timeout.EXPIRED)) {
+                    runQuietly(timeout.task);
+                }
+            }
+        }
+    }
+
+    private void transferIncoming() {
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            if (timeout.isCancelled()) {
+                pending.decrementAndGet();
+                continue;
+            }
+            // Already due timeouts go in the current bucket and run this tick
+            long targetTick = Math.max(timeout.deadlineTick, tick);
+            buckets[(int) (targetTick & mask)].add(timeout);
+        }
+    }
+
+    private static void runQuietly(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            LOGGER.error("Timing wheel task failed", e);
+        }
+    }
+}
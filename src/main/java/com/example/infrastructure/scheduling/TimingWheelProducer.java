@@ -0,0 +1,30 @@
+package com.example.infrastructure.scheduling;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Provides the shared timing wheel for connection timeouts
+ */
+@ApplicationScoped
+public class TimingWheelProducer {
+
+    @ConfigProperty(name = "app.timers.tick-millis", defaultValue = "100")
+    long tickMillis;
+
+    @ConfigProperty(name = "app.timers.wheel-size", defaultValue = "512")
+    int wheelSize;
+
+    @Produces
+    @Singleton
+    TimingWheel timingWheel() {
+        return new TimingWheel(tickMillis, wheelSize);
+    }
+
+    void closeTimingWheel(@Disposes TimingWheel timingWheel) {
+        timingWheel.close();
+    }
+}
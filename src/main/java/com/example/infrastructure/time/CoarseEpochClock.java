@@ -0,0 +1,41 @@
+package com.example.infrastructure.time;
+
+import com.example.domain.time.EpochClock;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EpochClock backed by a cached value refreshed by a background ticker
+ * Reading it is a single volatile load instead of a system call; the value lags real time by at most one tick,
+ * which is negligible against token and channel lifetimes measured in minutes or hours
+ */
+public final class CoarseEpochClock implements EpochClock, AutoCloseable {
+
+    private final ScheduledExecutorService ticker;
+    private volatile long millis = System.currentTimeMillis();
+
+    /**
+     * @param tickMillis refresh interval of the cached time
+     */
+    public CoarseEpochClock(long tickMillis) {
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "epoch-clock-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> millis = System.currentTimeMillis(), tickMillis, tickMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public long millis() {
+        return millis;
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.infrastructure.time;
+
+import com.example.domain.time.EpochClock;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Provides the application clock
+ * Produced as a singleton, so hot paths call the clock directly rather than through a client proxy
+ */
+@ApplicationScoped
+public class EpochClockProducer {
+
+    @ConfigProperty(name = "app.clock.tick-millis", defaultValue = "10")
+    long tickMillis;
+
+    @Produces
+    @Singleton
+    EpochClock epochClock() {
+        return tickMillis > 0 ? new CoarseEpochClock(tickMillis) : EpochClock.SYSTEM;
+    }
+
+    void closeEpochClock(@Disposes EpochClock epochClock) {
+        if (epochClock instanceof CoarseEpochClock coarse) {
+            coarse.close();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.adapters.web.assets;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.decoder.Decoder;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class StaticAssetsTest {
+
+    private static final byte[] PAGE = ("<!DOCTYPE html><html><body>"
+        + "<p>Scan the QR code with your phone to sign in.</p>".repeat(40) + "</body></html>")
+        .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void testEncodedVariantsDecodeToThePage() throws Exception {
+        StaticAssets.Asset asset = new StaticAssets(Map.of("/login.html", PAGE), true, 300).get("/login.html");
+
+        assertArrayEquals(PAGE, asset.identity().body().getBytes());
+        byte[] gzip = asset.gzip().body().getBytes();
+        assertTrue(gzip.length < PAGE.length);
+        assertArrayEquals(PAGE, new GZIPInputStream(new ByteArrayInputStream(gzip)).readAllBytes());
+
+        assumeTrue(Brotli4jLoader.isAvailable());
+        byte[] brotli = asset.brotli().body().getBytes();
+        assertTrue(brotli.length < gzip.length);
+        assertArrayEquals(PAGE, Decoder.decompress(brotli).getDecompressedData());
+    }
+
+    @Test
+    void testEncodingNegotiation() {
+        StaticAssets.Asset asset = new StaticAssets(Map.of("/qr.html", PAGE), true, 300).get("/qr.html");
+        assumeTrue(asset.brotli() != null);
+
+        assertSame(asset.identity(), asset.select(null));
+        assertSame(asset.brotli(), asset.select("gzip, deflate, br"));
+        assertSame(asset.gzip(), asset.select("gzip, deflate"));
+        assertSame(asset.gzip(), asset.select("br;q=0, gzip"));
+        assertSame(asset.gzip(), asset.select("br;q=0.5, gzip;q=0.8"));
+        assertSame(asset.brotli(), asset.select("*"));
+        assertSame(asset.identity(), asset.select("deflate"));
+        assertSame(asset.identity(), asset.select("gzip;q=0.5, identity"));
+    }
+
+    @Test
+    void testEntityTagsFollowContentAndEncoding() {
+        byte[] changed = (new String(PAGE, StandardCharsets.UTF_8) + "\n").getBytes(StandardCharsets.UTF_8);
+        StaticAssets assets = new StaticAssets(Map.of("/a.html", PAGE, "/b.html", PAGE, "/c.html", changed),
+            false, 300);
+
+        assertEquals(assets.get("/a.html").identity().etag(), assets.get("/b.html").identity().etag());
+        assertNotEquals(assets.get("/a.html").identity().etag(), assets.get("/c.html").identity().etag());
+        assertNotEquals(assets.get("/a.html").identity().etag(), assets.get("/a.html").gzip().etag());
+        assertNull(assets.get("/a.html").brotli());
+    }
+
+    @Test
+    void testIfNoneMatch() {
+        StaticAssets.Variant gzip = new StaticAssets(Map.of("/qr.html", PAGE), false, 300).get("/qr.html").gzip();
+        String etag = gzip.etag().toString();
+
+        assertTrue(gzip.matches(etag));
+        assertTrue(gzip.matches("W/" + etag));
+        assertTrue(gzip.matches("\"other\", " + etag));
+        assertTrue(gzip.matches("*"));
+        assertFalse(gzip.matches(null));
+        assertFalse(gzip.matches("\"other\""));
+        assertFalse(gzip.matches(etag.replace(".gz", "")));
+    }
+
+    @Test
+    void testIncompressibleVariantsAreDropped() {
+        StaticAssets.Asset asset = new StaticAssets(Map.of("/tiny.html", "<p>".getBytes(StandardCharsets.UTF_8)),
+            true, 300).get("/tiny.html");
+
+        assertNull(asset.gzip());
+        assertNull(asset.brotli());
+        assertSame(asset.identity(), asset.select("gzip, br"));
+    }
+}
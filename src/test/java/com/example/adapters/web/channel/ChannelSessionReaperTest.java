@@ -0,0 +1,119 @@
+package com.example.adapters.web.channel;
+
+import com.example.domain.time.ManualEpochClock;
+import com.example.infrastructure.scheduling.ManualTimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChannelSessionReaperTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    private final ManualEpochClock clock = new ManualEpochClock(100 * HOUR);
+    private final ManualTimingWheel wheel = new ManualTimingWheel(5, clock);
+    private final ChannelSessionRegistry registry = new ChannelSessionRegistry();
+    private final ChannelSessionReaper reaper = new ChannelSessionReaper(wheel, registry, clock, 50, 50);
+
+    @Test
+    void testUnresponsiveConnectionIsDropped() {
+        FakeConnection silent = new FakeConnection(false);
+        registry.register("channel", ChannelRole.DESKTOP, silent);
+        reaper.watch("channel", silent, clock.millis() + HOUR);
+
+        wheel.advance(60);
+        assertEquals(1, silent.pings);
+        assertTrue(silent.open);
+
+        wheel.advance(50);
+        assertFalse(silent.open);
+        assertEquals(0, registry.channelCount());
+        assertEquals(0, reaper.watchedCount());
+        assertEquals(1L, reaper.metrics().get("reapedIdle"));
+    }
+
+    @Test
+    void testConnectionAnsweringPingsStaysOpen() {
+        FakeConnection responsive = new FakeConnection(true);
+        registry.register("channel", ChannelRole.DESKTOP, responsive);
+        reaper.watch("channel", responsive, clock.millis() + HOUR);
+
+        wheel.advance(200);
+
+        assertEquals(4, responsive.pings);
+        assertTrue(responsive.open);
+        assertEquals(1, reaper.watchedCount());
+        assertEquals(0L, reaper.metrics().get("reapedIdle"));
+    }
+
+    @Test
+    void testConnectionIsToldAndClosedWhenItsChannelExpires() {
+        FakeConnection desktop = new FakeConnection(true);
+        registry.register("channel", ChannelRole.DESKTOP, desktop);
+        reaper.watch("channel", desktop, clock.millis() + 20);
+
+        wheel.advance(15);
+        assertTrue(desktop.open);
+        wheel.advance(10);
+        assertFalse(desktop.open);
+        assertEquals(List.of(ChannelSessionReaper.EXPIRED_MESSAGE), desktop.received);
+        assertEquals(0, registry.channelCount());
+        assertEquals(1L, reaper.metrics().get("expired"));
+    }
+
+    @Test
+    void testUnwatchedConnectionIsLeftAlone() {
+        FakeConnection desktop = new FakeConnection(false);
+        reaper.watch("channel", desktop, clock.millis() + 20);
+        reaper.unwatch(desktop);
+
+        wheel.advance(200);
+
+        assertTrue(desktop.open);
+        assertEquals(0, desktop.pings);
+        assertTrue(desktop.received.isEmpty());
+    }
+
+    private final class FakeConnection implements ChannelConnection {
+        final List<String> received = new ArrayList<>();
+        final boolean answersPings;
+        boolean open = true;
+        int pings;
+        long lastActivityMillis = clock.millis();
+
+        FakeConnection(boolean answersPings) {
+            this.answersPings = answersPings;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void sendText(String message) {
+            received.add(message);
+        }
+
+        @Override
+        public void ping() {
+            pings++;
+            if (answersPings) {
+                lastActivityMillis = clock.millis();
+            }
+        }
+
+        @Override
+        public long lastActivityMillis() {
+            return lastActivityMillis;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+}
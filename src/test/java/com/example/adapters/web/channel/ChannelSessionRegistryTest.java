@@ -0,0 +1,165 @@
+package com.example.adapters.web.channel;
+
+import com.example.domain.time.EpochClock;
+import com.example.infrastructure.messaging.BatchingChannelMessageBus;
+import com.example.infrastructure.messaging.ChannelMessageBus;
+import com.example.infrastructure.messaging.InProcessBusHub;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.example.support.Conditions.awaitCondition;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChannelSessionRegistryTest {
+
+    @Test
+    void testDesktopAndPhoneAreKeptApart() {
+        ChannelSessionRegistry registry = new ChannelSessionRegistry();
+        RecordingConnection desktop = new RecordingConnection();
+        RecordingConnection phone = new RecordingConnection();
+
+        registry.register("channel", ChannelRole.DESKTOP, desktop);
+        registry.register("channel", ChannelRole.PHONE, phone);
+
+        assertEquals(List.of(desktop), registry.connections("channel", ChannelRole.DESKTOP));
+        assertEquals(List.of(phone), registry.connections("channel", ChannelRole.PHONE));
+        assertEquals(1, registry.send("channel", ChannelRole.DESKTOP, "to-desktop"));
+        assertEquals(List.of("to-desktop"), desktop.received);
+        assertTrue(phone.received.isEmpty());
+    }
+
+    @Test
+    void testBroadcastReachesOnlyTheChannel() {
+        ChannelSessionRegistry registry = new ChannelSessionRegistry();
+        List<RecordingConnection> others = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            RecordingConnection other = new RecordingConnection();
+            others.add(other);
+            registry.register("other-" + i, ChannelRole.DESKTOP, other);
+        }
+        RecordingConnection first = new RecordingConnection();
+        RecordingConnection second = new RecordingConnection();
+        RecordingConnection phone = new RecordingConnection();
+        registry.register("target", ChannelRole.DESKTOP, first);
+        registry.register("target", ChannelRole.DESKTOP, second);
+        registry.register("target", ChannelRole.PHONE, phone);
+
+        assertEquals(3, registry.broadcast("target", "result"));
+
+        assertEquals(List.of("result"), first.received);
+        assertEquals(List.of("result"), second.received);
+        assertEquals(List.of("result"), phone.received);
+        assertTrue(others.stream().allMatch(other -> other.received.isEmpty()));
+    }
+
+    @Test
+    void testClosedConnectionsAreSkipped() {
+        ChannelSessionRegistry registry = new ChannelSessionRegistry();
+        RecordingConnection closed = new RecordingConnection();
+        closed.open = false;
+        registry.register("channel", ChannelRole.DESKTOP, closed);
+
+        assertEquals(0, registry.broadcast("channel", "result"));
+        assertTrue(closed.received.isEmpty());
+    }
+
+    @Test
+    void testLastUnregisterDropsTheChannel() {
+        ChannelSessionRegistry registry = new ChannelSessionRegistry();
+        RecordingConnection desktop = new RecordingConnection();
+        RecordingConnection phone = new RecordingConnection();
+        registry.register("channel", ChannelRole.DESKTOP, desktop);
+        registry.register("channel", ChannelRole.PHONE, phone);
+        registry.register("channel", ChannelRole.PHONE, phone);
+        assertEquals(2, registry.connectionCount());
+
+        assertTrue(registry.unregister("channel", desktop));
+        assertEquals(1, registry.channelCount());
+        assertEquals(1, registry.connectionCount());
+        assertTrue(registry.unregister("channel", phone));
+        assertFalse(registry.unregister("channel", phone));
+        assertEquals(0, registry.channelCount());
+        assertEquals(0, registry.connectionCount());
+    }
+
+    @Test
+    void testCloseChannelClosesEveryConnection() {
+        ChannelSessionRegistry registry = new ChannelSessionRegistry();
+        RecordingConnection desktop = new RecordingConnection();
+        RecordingConnection phone = new RecordingConnection();
+        registry.register("channel", ChannelRole.DESKTOP, desktop);
+        registry.register("channel", ChannelRole.PHONE, phone);
+
+        assertEquals(2, registry.closeChannel("channel"));
+
+        assertEquals(0, registry.connectionCount());
+        assertFalse(desktop.open);
+        assertFalse(phone.open);
+        assertEquals(0, registry.channelCount());
+        assertEquals(0, registry.broadcast("channel", "late"));
+    }
+
+    @Test
+    void testPublishReachesConnectionsOnAnotherNode() throws InterruptedException {
+        InProcessBusHub hub = new InProcessBusHub();
+        try (ChannelMessageBus busA = new BatchingChannelMessageBus(hub.connect("a"), 64, 1, 50, EpochClock.SYSTEM);
+             ChannelMessageBus busB = new BatchingChannelMessageBus(hub.connect("b"), 64, 1, 50, EpochClock.SYSTEM)) {
+            ChannelSessionRegistry nodeA = new ChannelSessionRegistry(busA);
+            ChannelSessionRegistry nodeB = new ChannelSessionRegistry(busB);
+            RecordingConnection desktop = new RecordingConnection();
+            RecordingConnection phone = new RecordingConnection();
+            nodeA.register("channel", ChannelRole.DESKTOP, desktop);
+            nodeB.register("channel", ChannelRole.PHONE, phone);
+            awaitCondition(() -> busB.metrics().get("remoteSubscriptions") == 1);
+
+            nodeB.publish("channel", "result");
+            awaitCondition(() -> desktop.received.contains("result"));
+            nodeB.publishClose("channel");
+            awaitCondition(() -> !desktop.open);
+
+            assertEquals(List.of("result"), phone.received);
+            assertFalse(phone.open);
+            assertEquals(0, nodeA.channelCount());
+        }
+    }
+
+    @Test
+    void testRoleParameter() {
+        assertEquals(ChannelRole.PHONE, ChannelRole.fromParameter("phone"));
+        assertEquals(ChannelRole.PHONE, ChannelRole.fromParameter("PHONE"));
+        assertEquals(ChannelRole.DESKTOP, ChannelRole.fromParameter(null));
+        assertEquals(ChannelRole.DESKTOP, ChannelRole.fromParameter("tablet"));
+    }
+
+    private static final class RecordingConnection implements ChannelConnection {
+        final List<String> received = new CopyOnWriteArrayList<>();
+        volatile boolean open = true;
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void sendText(String message) {
+            received.add(message);
+        }
+
+        @Override
+        public void ping() {
+        }
+
+        @Override
+        public long lastActivityMillis() {
+            return 0;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+}
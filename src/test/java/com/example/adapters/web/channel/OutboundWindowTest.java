@@ -0,0 +1,138 @@
+package com.example.adapters.web.channel;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundWindowTest {
+
+    @Test
+    void testMessagesBelowTheHighWaterMarkAreWritten() {
+        FakeTransport transport = new FakeTransport();
+        OutboundWindow window = new OutboundBackpressure(2, 1024, SlowConsumerPolicy.DROP)
+            .window(transport::write, transport::close);
+
+        window.send("a");
+        window.send("b");
+
+        assertEquals(List.of("a", "b"), transport.written);
+        assertFalse(window.isBackpressured());
+    }
+
+    @Test
+    void testCoalescePolicyKeepsOnlyTheNewestMessage() {
+        OutboundBackpressure backpressure = new OutboundBackpressure(1, 1024, SlowConsumerPolicy.COALESCE);
+        FakeTransport transport = new FakeTransport();
+        OutboundWindow window = backpressure.window(transport::write, transport::close);
+
+        window.send("first");
+        window.send("second");
+        window.send("third");
+
+        assertEquals(List.of("first"), transport.written);
+        assertTrue(window.isBackpressured());
+        assertEquals(1L, backpressure.metrics().get("backpressured"));
+
+        transport.completeNext(true);
+
+        assertEquals(List.of("first", "third"), transport.written);
+        assertEquals(1L, backpressure.metrics().get("coalesced"));
+
+        transport.completeNext(true);
+
+        assertFalse(window.isBackpressured());
+        assertEquals(0L, backpressure.metrics().get("backpressured"));
+        assertEquals(2L, backpressure.metrics().get("sendsCompleted"));
+        assertEquals(0L, backpressure.metrics().get("inFlightBytes"));
+    }
+
+    @Test
+    void testDropPolicyDiscardsMessagesOverTheByteMark() {
+        OutboundBackpressure backpressure = new OutboundBackpressure(100, 10, SlowConsumerPolicy.DROP);
+        FakeTransport transport = new FakeTransport();
+        OutboundWindow window = backpressure.window(transport::write, transport::close);
+
+        window.send("12345678");
+        window.send("123");
+        transport.completeNext(false);
+        window.send("123");
+
+        assertEquals(List.of("12345678", "123"), transport.written);
+        assertEquals(1L, backpressure.metrics().get("dropped"));
+        assertEquals(1L, backpressure.metrics().get("sendsFailed"));
+    }
+
+    @Test
+    void testDisconnectPolicyClosesTheConnection() {
+        OutboundBackpressure backpressure = new OutboundBackpressure(1, 1024, SlowConsumerPolicy.DISCONNECT);
+        FakeTransport transport = new FakeTransport();
+        OutboundWindow window = backpressure.window(transport::write, transport::close);
+
+        window.send("first");
+        window.send("second");
+        window.send("third");
+
+        assertEquals(List.of("first"), transport.written);
+        assertEquals(1, transport.closes);
+        assertEquals(1L, backpressure.metrics().get("disconnected"));
+        assertEquals(0L, backpressure.metrics().get("backpressured"));
+    }
+
+    @Test
+    void testCloseWritesTheCoalescedMessageFirst() {
+        FakeTransport transport = new FakeTransport();
+        OutboundWindow window = new OutboundBackpressure(1, 1024, SlowConsumerPolicy.COALESCE)
+            .window(transport::write, transport::close);
+
+        window.send("result");
+        window.send("expired");
+        window.close();
+        window.close();
+
+        assertEquals(List.of("result", "expired"), transport.written);
+        assertEquals(1, transport.closes);
+        assertEquals(List.of("write:result", "write:expired", "close"), transport.events);
+    }
+
+    @Test
+    void testSynchronousCompletionsKeepTheOrder() {
+        List<String> written = new ArrayList<>();
+        OutboundWindow window = new OutboundBackpressure(1, 1024, SlowConsumerPolicy.COALESCE)
+            .window((message, listener) -> {
+                written.add(message);
+                listener.completed(true);
+            }, () -> {});
+
+        for (int i = 0; i < 5; i++) {
+            window.send("m" + i);
+        }
+
+        assertEquals(List.of("m0", "m1", "m2", "m3", "m4"), written);
+        assertEquals(0, window.inFlightMessages());
+    }
+
+    private static final class FakeTransport {
+        final List<String> written = new ArrayList<>();
+        final List<String> events = new ArrayList<>();
+        final List<OutboundWindow.CompletionListener> pending = new ArrayList<>();
+        int closes;
+
+        void write(String message, OutboundWindow.CompletionListener listener) {
+            written.add(message);
+            events.add("write:" + message);
+            pending.add(listener);
+        }
+
+        void close() {
+            closes++;
+            events.add("close");
+        }
+
+        void completeNext(boolean succeeded) {
+            pending.remove(0).completed(succeeded);
+        }
+    }
+}
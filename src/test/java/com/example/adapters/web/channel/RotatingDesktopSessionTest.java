@@ -0,0 +1,161 @@
+package com.example.adapters.web.channel;
+
+import com.example.application.authentication.QRAuthenticationApplicationService.QRAuthenticationResponse;
+import com.example.domain.time.ManualEpochClock;
+import com.example.infrastructure.scheduling.ManualTimingWheel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RotatingDesktopSessionTest {
+
+    private static final long START_MILLIS = TimeUnit.HOURS.toMillis(100);
+
+    private final ManualEpochClock clock = new ManualEpochClock(START_MILLIS);
+    private final ManualTimingWheel wheel = new ManualTimingWheel(5, clock);
+    private final ChannelSessionRegistry registry = new ChannelSessionRegistry();
+    private final FakeConnection desktop = new FakeConnection();
+    private final List<String> retired = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void closeWheel() {
+        wheel.close();
+    }
+
+    @Test
+    void testFirstQRCodeIsPushedOnStart() {
+        RotatingDesktopSession session = session(channels(60_000), 10_000);
+
+        session.start();
+
+        assertEquals(List.of("{\"status\":\"qr\",\"channel\":\"channel-1\",\"qr\":\"qr-1\",\"expiresAt\":"
+            + (START_MILLIS + 60_000) + "}"), desktop.received);
+        assertEquals(List.of(desktop), registry.connections("channel-1", ChannelRole.DESKTOP));
+        assertEquals(1, session.channelCount());
+    }
+
+    @Test
+    void testChannelIsRotatedBeforeItExpiresAndRetiredWhenItDoes() {
+        RotatingDesktopSession session = session(channels(1500), 400);
+        session.start();
+
+        wheel.advance(1090);
+        assertEquals(1, desktop.received.size());
+        wheel.advance(20);
+        assertEquals(2, desktop.received.size());
+
+        assertTrue(desktop.received.get(1).contains("\"channel\":\"channel-2\""));
+        // The previous code is still on screen for phones that scanned it
+        assertEquals(2, session.channelCount());
+        assertEquals(1, registry.broadcast("channel-1", "late result"));
+
+        wheel.advance(380);
+        assertEquals(2, session.channelCount());
+        assertTrue(retired.isEmpty());
+        wheel.advance(20);
+        assertEquals(1, session.channelCount());
+        assertTrue(registry.connections("channel-1", ChannelRole.DESKTOP).isEmpty());
+        assertEquals(List.of(desktop), registry.connections("channel-2", ChannelRole.DESKTOP));
+        assertEquals(List.of("channel-1"), retired);
+    }
+
+    @Test
+    void testClosedSessionLeavesItsChannelsAndStopsRotating() {
+        RotatingDesktopSession session = session(channels(1200), 100);
+        session.start();
+
+        session.close();
+        wheel.advance(1300);
+
+        assertEquals(1, desktop.received.size());
+        assertEquals(0, session.channelCount());
+        assertEquals(0, registry.channelCount());
+        assertTrue(retired.isEmpty());
+    }
+
+    @Test
+    void testFailureToCreateAChannelClosesTheConnection() {
+        RotatingDesktopSession session = session(() -> {
+            throw new IllegalStateException("QR code generation failed");
+        }, 10_000);
+
+        session.start();
+
+        assertEquals(List.of(ChannelStatus.CONNECTION_ERROR.json()), desktop.received);
+        assertFalse(desktop.open);
+        assertEquals(0, registry.channelCount());
+    }
+
+    @Test
+    void testRotationWaitsForTheRateLimit() {
+        AtomicInteger permitsAsked = new AtomicInteger();
+        // The first rotation is refused for 200 ms, later ones are granted
+        RotatingDesktopSession session = new RotatingDesktopSession(desktop, registry, wheel, clock,
+            channels(1500), Runnable::run, 400, () -> permitsAsked.incrementAndGet() == 1 ? 200_000 : 0);
+        session.start();
+        assertEquals(1, desktop.received.size());
+        assertEquals(0, permitsAsked.get());
+
+        wheel.advance(1110);
+        assertEquals(1, permitsAsked.get());
+        assertEquals(1, desktop.received.size());
+
+        // Retried no sooner than the rotation floor of one second
+        wheel.advance(980);
+        assertEquals(1, desktop.received.size());
+        wheel.advance(20);
+        assertEquals(2, desktop.received.size());
+        assertEquals(2, permitsAsked.get());
+        assertTrue(desktop.received.get(1).contains("\"channel\":\"channel-2\""));
+        session.close();
+    }
+
+    private RotatingDesktopSession session(Supplier<QRAuthenticationResponse> qrSource, long leadMillis) {
+        return new RotatingDesktopSession(desktop, registry, wheel, clock, qrSource, Runnable::run, leadMillis,
+            () -> 0, retired::add);
+    }
+
+    private Supplier<QRAuthenticationResponse> channels(long lifetimeMillis) {
+        AtomicInteger created = new AtomicInteger();
+        return () -> {
+            int id = created.incrementAndGet();
+            return new QRAuthenticationResponse("qr-" + id, "channel-" + id, clock.millis() + lifetimeMillis);
+        };
+    }
+
+    private final class FakeConnection implements ChannelConnection {
+        final List<String> received = new CopyOnWriteArrayList<>();
+        volatile boolean open = true;
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void sendText(String message) {
+            received.add(message);
+        }
+
+        @Override
+        public void ping() {
+        }
+
+        @Override
+        public long lastActivityMillis() {
+            return clock.millis();
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+}
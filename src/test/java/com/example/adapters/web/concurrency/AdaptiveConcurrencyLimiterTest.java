@@ -0,0 +1,92 @@
+package com.example.adapters.web.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void testLowerPrioritiesAreShedFirst() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 8, 8, 2, 0.2);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.BACKGROUND));
+        }
+        assertFalse(limiter.tryAcquire(RequestPriority.BACKGROUND));
+
+        assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+        assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+        assertFalse(limiter.tryAcquire(RequestPriority.NORMAL));
+
+        assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+        assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+        assertFalse(limiter.tryAcquire(RequestPriority.CRITICAL));
+
+        assertEquals(8, limiter.inFlight());
+        assertEquals(1L, limiter.metrics().get("backgroundShed"));
+        assertEquals(2L, limiter.metrics().get("criticalAccepted"));
+    }
+
+    @Test
+    void testReleaseMakesRoomAgain() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 2, 0.2);
+
+        assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+        assertFalse(limiter.tryAcquire(RequestPriority.CRITICAL));
+        limiter.release(FAST, false);
+
+        assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+    }
+
+    @Test
+    void testLimitGrowsWhileLatencyHoldsUnderLoad() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200, 2, 0.2);
+
+        saturate(limiter, FAST, 50);
+
+        assertTrue(limiter.limit() > 20, "limit " + limiter.limit());
+    }
+
+    @Test
+    void testLimitShrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 4, 100, 2, 0.2);
+        saturate(limiter, FAST, 200);
+        assertEquals(100, limiter.limit());
+
+        saturate(limiter, SLOW, 30);
+
+        assertTrue(limiter.limit() < 50, "limit " + limiter.limit());
+        assertTrue(limiter.limit() >= 4);
+    }
+
+    @Test
+    void testIdleTrafficDoesNotGrowTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200, 2, 0.2);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+            limiter.release(FAST, true);
+        }
+
+        assertEquals(20, limiter.limit());
+    }
+
+    // Fills the limit, then completes every request with the same latency
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, long rttNanos, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int admitted = 0;
+            while (limiter.tryAcquire(RequestPriority.CRITICAL)) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(rttNanos, true);
+            }
+        }
+    }
+}
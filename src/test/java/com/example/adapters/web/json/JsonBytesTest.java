@@ -0,0 +1,47 @@
+package com.example.adapters.web.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonBytesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testStringsMatchJackson() throws Exception {
+        String[] values = {
+            "", "plain ascii", "data:image/png;base64,iVBORw0KGgo+/=", "quote \" and backslash \\",
+            "control \n\t\u0001", "accents àéü", "euro € and cjk 漢字", "emoji 😀"
+        };
+        for (String value : values) {
+            byte[] encoded = JsonBytes.string(value);
+
+            assertEquals(value, objectMapper.readValue(encoded, String.class), value);
+            assertEquals(JsonBytes.stringLength(value), encoded.length, value);
+        }
+    }
+
+    @Test
+    void testLoneSurrogateIsReplaced() {
+        assertEquals("\"a?b\"", new String(JsonBytes.string("a\uD800b"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testFragmentsAndValuesFillTheArrayExactly() throws Exception {
+        byte[] open = JsonBytes.fragment("{\"qr\":");
+        byte[] close = JsonBytes.fragment("}");
+        String value = "qr \"code\"";
+        byte[] out = new byte[open.length + JsonBytes.stringLength(value) + close.length];
+
+        int position = JsonBytes.write(out, 0, open);
+        position = JsonBytes.writeString(out, position, value);
+        position = JsonBytes.write(out, position, close);
+
+        assertEquals(out.length, position);
+        assertEquals(value, objectMapper.readTree(out).get("qr").asText());
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.adapters.web.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTableTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    @Test
+    void testBurstIsAllowedThenRequestsWaitForTheRate() {
+        TokenBucketTable table = new TokenBucketTable(64, 60, 3, now::get);
+
+        assertEquals(0, table.tryAcquire("10.0.0.1"));
+        assertEquals(0, table.tryAcquire("10.0.0.1"));
+        assertEquals(0, table.tryAcquire("10.0.0.1"));
+
+        long wait = table.tryAcquire("10.0.0.1");
+        assertEquals(TimeUnit.SECONDS.toMicros(1), wait);
+
+        now.addAndGet(1000);
+        assertEquals(0, table.tryAcquire("10.0.0.1"));
+        assertTrue(table.tryAcquire("10.0.0.1") > 0);
+        assertEquals(2L, table.metrics().get("rejected"));
+    }
+
+    @Test
+    void testClientsHaveTheirOwnBuckets() {
+        TokenBucketTable table = new TokenBucketTable(64, 60, 1, now::get);
+
+        assertEquals(0, table.tryAcquire("10.0.0.1"));
+        assertTrue(table.tryAcquire("10.0.0.1") > 0);
+
+        assertEquals(0, table.tryAcquire("10.0.0.2"));
+    }
+
+    @Test
+    void testIdleBucketsAreReusedByNewClients() {
+        // Two stripes of four slots
+        TokenBucketTable table = new TokenBucketTable(8, 60, 1, now::get);
+        for (int client = 0; client < 100; client++) {
+            table.tryAcquire("10.0.0." + client);
+        }
+        assertTrue(table.metrics().get("overflowed") > 0);
+
+        now.addAndGet(1000);
+        for (int client = 100; client < 108; client++) {
+            table.tryAcquire("10.0.1." + client);
+        }
+
+        assertTrue(table.metrics().get("evicted") > 0);
+    }
+
+    @Test
+    void testNewClientsShareTheOverflowBucketWhileTheTableIsBusy() {
+        TokenBucketTable table = new TokenBucketTable(8, 60, 1, now::get);
+        for (int client = 0; client < 1000; client++) {
+            table.tryAcquire("10.0.0." + client);
+        }
+
+        // At most one request per slot plus one per overflow bucket got through
+        long allowed = table.metrics().get("allowed");
+        assertTrue(allowed <= 8 + 2, "allowed " + allowed);
+    }
+
+    @Test
+    void testInvalidLimitsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketTable(64, 0, 1, now::get));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketTable(64, 60, 0, now::get));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.adapters.web.rest;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntrospectionClientsTest {
+
+    @Test
+    void testConfiguredClientsAuthenticate() {
+        IntrospectionClients clients = new IntrospectionClients(Optional.of("gateway:s3cret, billing:other"));
+
+        assertEquals("gateway", clients.authenticate(basic("gateway:s3cret")));
+        assertEquals("billing", clients.authenticate("basic " + encode("billing:other")));
+        assertNull(clients.authenticate(basic("gateway:other")));
+        assertNull(clients.authenticate(basic("unknown:s3cret")));
+        assertNull(clients.authenticate(basic("gateway")));
+        assertNull(clients.authenticate("Basic not-base64!"));
+        assertNull(clients.authenticate("Bearer s3cret"));
+        assertNull(clients.authenticate(null));
+    }
+
+    @Test
+    void testWithoutClientsEveryCallIsRefused() {
+        IntrospectionClients clients = new IntrospectionClients(Optional.empty());
+
+        assertNull(clients.authenticate(basic("gateway:s3cret")));
+        assertNull(clients.authenticate(basic(":")));
+    }
+
+    @Test
+    void testMalformedConfigurationIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new IntrospectionClients(Optional.of("gateway")));
+        assertThrows(IllegalArgumentException.class, () -> new IntrospectionClients(Optional.of("gateway:")));
+        assertThrows(IllegalArgumentException.class, () -> new IntrospectionClients(Optional.of(":s3cret")));
+    }
+
+    private static String basic(String credentials) {
+        return "Basic " + encode(credentials);
+    }
+
+    private static String encode(String credentials) {
+        return Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+}
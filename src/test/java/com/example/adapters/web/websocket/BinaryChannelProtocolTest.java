@@ -0,0 +1,109 @@
+package com.example.adapters.web.websocket;
+
+import com.example.adapters.web.channel.ChannelStatus;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryChannelProtocolTest {
+
+    @Test
+    void testAuthenticationFrameIsDecoded() {
+        ByteBuffer frame = authentication("alice", "tók:en");
+
+        var credentials = BinaryChannelProtocol.decodeAuthentication(frame);
+
+        assertEquals("alice", credentials.username());
+        assertEquals("tók:en", credentials.token());
+        assertEquals(0, frame.position());
+    }
+
+    @Test
+    void testMalformedAuthenticationFramesAreRejected() {
+        ByteBuffer valid = authentication("alice", "token");
+        ByteBuffer truncated = ByteBuffer.wrap(valid.array(), 0, valid.limit() - 1);
+        ByteBuffer trailing = ByteBuffer.allocate(valid.limit() + 1).put(valid.duplicate()).put((byte) 0).flip();
+        ByteBuffer wrongType = ByteBuffer.wrap(valid.array().clone());
+        wrongType.put(0, BinaryChannelProtocol.RESULT);
+
+        assertNull(BinaryChannelProtocol.decodeAuthentication(ByteBuffer.allocate(0)));
+        assertNull(BinaryChannelProtocol.decodeAuthentication(ByteBuffer.wrap(new byte[] {0x01, 0x00})));
+        assertNull(BinaryChannelProtocol.decodeAuthentication(truncated));
+        assertNull(BinaryChannelProtocol.decodeAuthentication(trailing));
+        assertNull(BinaryChannelProtocol.decodeAuthentication(wrongType));
+    }
+
+    @Test
+    void testPublishedResultIsEncodedAsResultFrame() {
+        ByteBuffer frame = BinaryChannelProtocol.encode("{\"status\":\"success\",\"username\":\"alice\",\"token\":\"t\"}");
+
+        assertEquals(BinaryChannelProtocol.RESULT, frame.get());
+        assertEquals("alice", string(frame));
+        assertEquals("t", string(frame));
+        assertFalse(frame.hasRemaining());
+    }
+
+    @Test
+    void testPreparedResultIsEncodedWithoutParsing() {
+        // Not JSON, only the identity of the prepared string leads to its frame
+        String message = new String("prepared result");
+        BinaryChannelProtocol.prepareResult(message, "alice", "t");
+
+        ByteBuffer first = BinaryChannelProtocol.encode(message);
+        ByteBuffer second = BinaryChannelProtocol.encode(message);
+
+        assertEquals(BinaryChannelProtocol.RESULT, first.get());
+        assertEquals("alice", string(first));
+        assertEquals("t", string(first));
+        assertEquals(BinaryChannelProtocol.RESULT, second.get(0));
+        assertTrue(second.isReadOnly());
+        assertNull(BinaryChannelProtocol.encode(new String(message)));
+    }
+
+    @Test
+    void testStatusFramesAreSharedAndReadOnly() {
+        ByteBuffer first = BinaryChannelProtocol.encode(ChannelStatus.EXPIRED.json());
+        first.get();
+        ByteBuffer second = BinaryChannelProtocol.status(ChannelStatus.EXPIRED);
+
+        assertTrue(second.isReadOnly());
+        assertEquals(2, second.remaining());
+        assertEquals(BinaryChannelProtocol.STATUS, second.get(0));
+        assertEquals(BinaryChannelProtocol.EXPIRED, second.get(1));
+        assertEquals(BinaryChannelProtocol.SERVER_ERROR, BinaryChannelProtocol.status(ChannelStatus.CONNECTION_ERROR).get(1));
+    }
+
+    @Test
+    void testStatusJsonIsBuiltOnce() {
+        assertSame(ChannelStatus.INVALID_CHANNEL.json(), ChannelStatus.INVALID_CHANNEL.json());
+        assertEquals("{\"status\":\"invalid_channel\",\"message\":\"This authentication channel does not exist or has expired\"}",
+            ChannelStatus.INVALID_CHANNEL.json());
+        assertEquals(ChannelStatus.EXPIRED, ChannelStatus.fromJson(ChannelStatus.EXPIRED.json()));
+        assertNull(ChannelStatus.fromJson("{\"status\":\"expired\"}"));
+    }
+
+    @Test
+    void testMessagesWithoutBinaryFormStayText() {
+        assertNull(BinaryChannelProtocol.encode("{\"status\":\"other\"}"));
+        assertNull(BinaryChannelProtocol.encode("not json"));
+    }
+
+    private static ByteBuffer authentication(String username, String token) {
+        byte[] usernameBytes = username.getBytes(StandardCharsets.UTF_8);
+        byte[] tokenBytes = token.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(5 + usernameBytes.length + tokenBytes.length)
+            .put(BinaryChannelProtocol.AUTH)
+            .putShort((short) usernameBytes.length).put(usernameBytes)
+            .putShort((short) tokenBytes.length).put(tokenBytes)
+            .flip();
+    }
+
+    private static String string(ByteBuffer frame) {
+        byte[] bytes = new byte[Short.toUnsignedInt(frame.getShort())];
+        frame.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
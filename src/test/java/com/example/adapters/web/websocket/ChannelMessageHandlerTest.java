@@ -0,0 +1,210 @@
+package com.example.adapters.web.websocket;
+
+import com.example.adapters.web.channel.ChannelConnection;
+import com.example.adapters.web.channel.ChannelRole;
+import com.example.adapters.web.channel.ChannelSessionRegistry;
+import com.example.adapters.web.channel.ChannelStatus;
+import com.example.adapters.web.websocket.ChannelMessageHandler.JoinResult;
+import com.example.application.authentication.QRAuthenticationApplicationService.ChannelAuthenticationResult;
+import com.example.application.authentication.QRAuthenticationApplicationService.ChannelStateResult;
+import com.example.application.authentication.QRAuthenticationApplicationService.ChannelValidationResult;
+import com.example.application.authentication.QRAuthenticationApplicationService.QRAuthenticationResponse;
+import com.example.application.authentication.QRAuthenticationApplicationService.TokenIntrospectionResult;
+import com.example.application.ports.primary.QRAuthenticationUseCases;
+import com.example.domain.authentication.AuthenticationCredentials;
+import com.example.domain.authentication.AuthenticationToken;
+import com.example.domain.authentication.TokenIntrospection;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChannelMessageHandlerTest {
+
+    private final FakeUseCases useCases = new FakeUseCases();
+    private final ChannelSessionRegistry registry = new ChannelSessionRegistry();
+    private final ChannelMessageHandler handler = new ChannelMessageHandler(useCases, registry);
+    private final FakeConnection desktop = new FakeConnection();
+
+    @Test
+    void testJoinPublishesTheTokensUsernameAndConsumesTheChannel() {
+        useCases.openChannels.add("channel");
+        useCases.activeTokens.add("token");
+        registry.register("channel", ChannelRole.DESKTOP, desktop);
+
+        JoinResult result = handler.join("channel", "token");
+
+        assertNull(result.error());
+        assertTrue(result.message().contains("\"username\":\"alice\""));
+        assertEquals(List.of(result.message()), desktop.received);
+        assertFalse(desktop.open);
+        assertFalse(useCases.openChannels.contains("channel"));
+    }
+
+    @Test
+    void testSecondJoinFindsTheChannelConsumed() {
+        useCases.openChannels.add("channel");
+        useCases.activeTokens.add("token");
+
+        handler.join("channel", "token");
+
+        assertEquals(ChannelStatus.INVALID_CHANNEL, handler.join("channel", "token").error());
+    }
+
+    @Test
+    void testInvalidTokenLeavesTheChannelOpen() {
+        useCases.openChannels.add("channel");
+        registry.register("channel", ChannelRole.DESKTOP, desktop);
+
+        assertEquals(ChannelStatus.UNAUTHORIZED, handler.join("channel", "stolen").error());
+        assertEquals(ChannelStatus.UNAUTHORIZED, handler.join("channel", null).error());
+
+        assertTrue(desktop.received.isEmpty());
+        assertTrue(useCases.openChannels.contains("channel"));
+    }
+
+    @Test
+    void testUnknownChannelIsRejectedBeforeTheToken() {
+        useCases.activeTokens.add("token");
+
+        assertEquals(ChannelStatus.INVALID_CHANNEL, handler.join("missing", "token").error());
+        assertEquals(0, useCases.introspections);
+    }
+
+    @Test
+    void testForwardedCredentialsArePublishedOnceTheChannelIsConsumed() {
+        useCases.openChannels.add("channel");
+        registry.register("channel", ChannelRole.DESKTOP, desktop);
+
+        assertNull(handler.handle("channel", "auth:alice:abc:1"));
+
+        assertEquals(1, desktop.received.size());
+        assertTrue(desktop.received.get(0).contains("\"token\":\"abc:1\""));
+        assertFalse(desktop.open);
+        assertFalse(useCases.openChannels.contains("channel"));
+    }
+
+    @Test
+    void testForwardedCredentialsOnAConsumedChannelPublishNothing() {
+        registry.register("channel", ChannelRole.DESKTOP, desktop);
+
+        assertEquals(ChannelStatus.INVALID_CHANNEL, handler.handle("channel", "auth:mallory:forged"));
+        assertEquals(ChannelStatus.INVALID_CHANNEL, handler.authenticate("channel", "mallory", "forged"));
+
+        assertTrue(desktop.received.isEmpty());
+        assertTrue(desktop.open);
+    }
+
+    @Test
+    void testBearerTokenIsReadFromTheSubprotocolsOrTheAuthorizationHeader() {
+        assertEquals("abc.1", ChannelJoinWebSocketAdapter.bearerToken("qrlog.join.v1, bearer.abc.1", null));
+        assertEquals("xyz", ChannelJoinWebSocketAdapter.bearerToken("qrlog.join.v1, bearer.abc", "Bearer xyz"));
+        assertNull(ChannelJoinWebSocketAdapter.bearerToken("qrlog.join.v1, bearer.", null));
+        assertNull(ChannelJoinWebSocketAdapter.bearerToken(null, "Basic abc"));
+    }
+
+    private static final class FakeUseCases implements QRAuthenticationUseCases {
+        final Set<String> openChannels = new HashSet<>();
+        final Set<String> activeTokens = new HashSet<>();
+        int introspections;
+
+        @Override
+        public ChannelValidationResult validateChannel(String channelId) {
+            boolean valid = openChannels.contains(channelId);
+            return new ChannelValidationResult(valid, valid ? "valid" : "invalid");
+        }
+
+        @Override
+        public boolean completeChannel(String channelId) {
+            return openChannels.remove(channelId);
+        }
+
+        @Override
+        public void discardChannel(String channelId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<TokenIntrospectionResult> introspectTokens(List<String> tokenValues) {
+            List<TokenIntrospectionResult> results = new ArrayList<>();
+            for (String token : tokenValues) {
+                introspections++;
+                results.add(new TokenIntrospectionResult(activeTokens.contains(token)
+                    ? TokenIntrospection.active("alice", Long.MAX_VALUE)
+                    : TokenIntrospection.inactive()));
+            }
+            return results;
+        }
+
+        @Override
+        public QRAuthenticationResponse createQRAuthentication(String baseUri) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AuthenticationToken authenticateUser(AuthenticationCredentials credentials) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletionStage<AuthenticationToken> authenticateUserAsync(AuthenticationCredentials credentials,
+                                                                          String clientAddress) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long loginDelayMillis(String username, String clientAddress) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ChannelAuthenticationResult authenticateViaChannel(String channelId,
+                                                                  AuthenticationCredentials credentials) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ChannelValidationResult scanChannel(String channelId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ChannelStateResult getChannelState(String channelId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class FakeConnection implements ChannelConnection {
+        final List<String> received = new ArrayList<>();
+        boolean open = true;
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void sendText(String message) {
+            received.add(message);
+        }
+
+        @Override
+        public void ping() {
+        }
+
+        @Override
+        public long lastActivityMillis() {
+            return System.currentTimeMillis();
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.domain.authentication;
 
+import com.example.domain.time.ManualEpochClock;
 import org.junit.jupiter.api.Test;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -11,7 +12,7 @@ class AuthenticationChannelTest {
     @Test
     void testCreateValidChannel() {
         String id = "test-channel-123";
-        Instant now = Instant.now();
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
         Instant expiresAt = now.plus(5, ChronoUnit.MINUTES);
         
         AuthenticationChannel channel = AuthenticationChannel.create(id, now, expiresAt);
@@ -36,6 +37,21 @@ class AuthenticationChannelTest {
         assertFalse(channel.isValid());
     }
 
+    @Test
+    void testExpiryFollowsInjectedClock() {
+        ManualEpochClock clock = new ManualEpochClock(1_000);
+        AuthenticationChannel channel = AuthenticationChannel.create("clocked-channel", 1_000, 2_000, clock);
+
+        assertTrue(channel.isValid());
+        clock.set(2_000);
+        assertFalse(channel.isExpired());
+        clock.advance(1);
+        assertTrue(channel.isExpired());
+        assertFalse(channel.isValid());
+        assertTrue(channel.isExpiredAt(2_001));
+        assertFalse(channel.isExpiredAt(1_500));
+    }
+
     @Test
     void testMarkChannelAsUsed() {
         String id = "used-channel";
@@ -67,4 +83,33 @@ class AuthenticationChannelTest {
         assertThrows(IllegalArgumentException.class, () -> 
             AuthenticationChannel.create("test", now, past));
     }
+
+    @Test
+    void testLifecycleTransitions() {
+        Instant now = Instant.now();
+        AuthenticationChannel channel = AuthenticationChannel.create("lifecycle", now, now.plus(5, ChronoUnit.MINUTES));
+        
+        assertEquals(ChannelState.ISSUED, channel.getState());
+        assertTrue(channel.markAsScanned());
+        assertFalse(channel.markAsScanned());
+        assertEquals(ChannelState.SCANNED, channel.getState());
+        
+        assertTrue(channel.markAsAuthenticated());
+        assertFalse(channel.markAsScanned()); // States never move backwards
+        assertEquals(ChannelState.AUTHENTICATED, channel.getState());
+        
+        channel.markAsUsed();
+        assertEquals(ChannelState.CONSUMED, channel.getState());
+        assertFalse(channel.isValid());
+    }
+
+    @Test
+    void testExpiredChannelReportsExpiredState() {
+        Instant now = Instant.now();
+        AuthenticationChannel channel = AuthenticationChannel.create("stale",
+            now.minus(1, ChronoUnit.HOURS), now.minus(30, ChronoUnit.MINUTES));
+        
+        assertEquals(ChannelState.EXPIRED, channel.getState());
+        assertFalse(channel.markAsScanned());
+    }
 }
@@ -0,0 +1,29 @@
+package com.example.domain.time;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * EpochClock that only moves when told to
+ * For tests that need deterministic expiry
+ */
+public final class ManualEpochClock implements EpochClock {
+
+    private final AtomicLong millis;
+
+    public ManualEpochClock(long startMillis) {
+        this.millis = new AtomicLong(startMillis);
+    }
+
+    @Override
+    public long millis() {
+        return millis.get();
+    }
+
+    public void set(long epochMillis) {
+        millis.set(epochMillis);
+    }
+
+    public long advance(long deltaMillis) {
+        return millis.addAndGet(deltaMillis);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.infrastructure.authentication;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BucketedTokenStoreTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    void testTokenExpiresAfterLifetime() {
+        AtomicLong clock = new AtomicLong(10 * HOUR);
+        BucketedTokenStore store = new BucketedTokenStore(24 * HOUR, HOUR, 5, clock::get);
+
+        String token = store.issue("user");
+        assertNotNull(store.lookup(token));
+
+        clock.addAndGet(24 * HOUR - 1);
+        assertNotNull(store.lookup(token));
+
+        clock.incrementAndGet();
+        assertNull(store.lookup(token));
+    }
+
+    @Test
+    void testCleanupDropsWholeExpiredBuckets() {
+        AtomicLong clock = new AtomicLong(10 * HOUR);
+        BucketedTokenStore store = new BucketedTokenStore(24 * HOUR, HOUR, 5, clock::get);
+
+        store.issue("a");
+        store.issue("b");
+        clock.addAndGet(2 * HOUR);
+        String recent = store.issue("c");
+        assertEquals(3, store.size());
+
+        clock.addAndGet(23 * HOUR);
+        assertEquals(1, store.cleanup());
+        assertEquals(1, store.size());
+        assertNotNull(store.lookup(recent));
+    }
+
+    @Test
+    void testSlotReuseDropsStaleGeneration() {
+        AtomicLong clock = new AtomicLong(0);
+        BucketedTokenStore store = new BucketedTokenStore(2 * HOUR, HOUR, 5, clock::get);
+
+        String old = store.issue("user");
+        clock.addAndGet(4 * HOUR); // Same ring slot, newer generation
+        String fresh = store.issue("user");
+
+        assertNull(store.lookup(old));
+        assertNotNull(store.lookup(fresh));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testForeignTokenValuesAreRejected() {
+        BucketedTokenStore store = new BucketedTokenStore(HOUR, HOUR, 5, System::currentTimeMillis);
+
+        assertNull(store.lookup("no-generation"));
+        assertNull(store.lookup("bad.!!"));
+        assertNull(store.lookup("value."));
+    }
+}
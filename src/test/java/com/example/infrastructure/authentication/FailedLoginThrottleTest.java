@@ -0,0 +1,101 @@
+package com.example.infrastructure.authentication;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FailedLoginThrottleTest {
+
+    private static final long MINUTE = 60_000L;
+
+    private final AtomicLong clock = new AtomicLong(1_000 * MINUTE);
+    private final FailedLoginThrottle throttle = new FailedLoginThrottle(4096, 5 * MINUTE,
+        new FailedLoginThrottle.Thresholds(3, 6), new FailedLoginThrottle.Thresholds(10, 20), 2_000, clock::get);
+
+    @Test
+    void testDelayGrowsThenBlocks() {
+        assertSame(FailedLoginThrottle.Decision.ALLOW, throttle.check("admin", "10.0.0.1"));
+
+        fail("admin", "10.0.0.1", 3);
+        long firstDelay = throttle.check("admin", "10.0.0.1").getDelayMillis();
+        fail("admin", "10.0.0.1", 1);
+        long secondDelay = throttle.check("admin", "10.0.0.1").getDelayMillis();
+        assertTrue(firstDelay > 0);
+        assertTrue(secondDelay > firstDelay);
+
+        fail("admin", "10.0.0.1", 2);
+        FailedLoginThrottle.Decision decision = throttle.check("admin", "10.0.0.1");
+        assertTrue(decision.isBlocked());
+        assertTrue(decision.getRetryAfterSeconds() > 0);
+    }
+
+    @Test
+    void testDelayIsReadWithoutCountingTheAttempt() {
+        assertEquals(0, throttle.delayMillis("admin", "10.0.0.1"));
+
+        fail("admin", "10.0.0.1", 3);
+        long delay = throttle.delayMillis("admin", "10.0.0.1");
+
+        assertEquals(throttle.check("admin", "10.0.0.1").getDelayMillis(), delay);
+        assertEquals(1, throttle.getDelayedCount());
+        fail("admin", "10.0.0.1", 3);
+        assertEquals(0, throttle.delayMillis("admin", "10.0.0.1"), "blocked attempts are refused, not delayed");
+    }
+
+    @Test
+    void testUsernamesAreCaseInsensitiveAndIndependent() {
+        fail("Admin", null, 6);
+
+        assertTrue(throttle.check("admin", null).isBlocked());
+        assertSame(FailedLoginThrottle.Decision.ALLOW, throttle.check("demo", null));
+    }
+
+    @Test
+    void testAddressIsThrottledAcrossUsernames() {
+        for (int i = 0; i < 20; i++) {
+            throttle.recordFailure("user" + i, "203.0.113.7");
+        }
+
+        assertTrue(throttle.check("someone-else", "203.0.113.7").isBlocked());
+        assertSame(FailedLoginThrottle.Decision.ALLOW, throttle.check("someone-else", "198.51.100.1"));
+    }
+
+    @Test
+    void testCountsDecay() {
+        fail("admin", null, 6);
+        assertTrue(throttle.check("admin", null).isBlocked());
+
+        clock.addAndGet(5 * MINUTE);
+        assertFalse(throttle.check("admin", null).isBlocked());
+
+        clock.addAndGet(10 * MINUTE);
+        assertSame(FailedLoginThrottle.Decision.ALLOW, throttle.check("admin", null));
+    }
+
+    @Test
+    void testMemoryIsFixed() {
+        long before = throttle.getSketchBytes();
+        for (int i = 0; i < 100_000; i++) {
+            throttle.recordFailure("attacker-" + i, null);
+        }
+
+        assertEquals(before, throttle.getSketchBytes());
+    }
+
+    @Test
+    void testUnrelatedFailuresRarelyCollide() {
+        for (int i = 0; i < 1_000; i++) {
+            throttle.recordFailure("attacker-" + i, null);
+        }
+
+        assertSame(FailedLoginThrottle.Decision.ALLOW, throttle.check("admin", null));
+    }
+
+    private void fail(String username, String address, int times) {
+        for (int i = 0; i < times; i++) {
+            throttle.recordFailure(username, address);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.infrastructure.authentication;
+
+import com.example.domain.authentication.AuthenticationChannel;
+import com.example.domain.time.ManualEpochClock;
+import com.example.infrastructure.metrics.MetricsRegistry;
+import com.example.infrastructure.scheduling.ManualTimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryAuthenticationChannelRepositoryTest {
+
+    private static final long EXPIRY_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final ManualEpochClock clock = new ManualEpochClock(1_000_000);
+    private final ManualTimingWheel wheel = new ManualTimingWheel(1000, clock);
+    private final InMemoryAuthenticationChannelRepository repository =
+        new InMemoryAuthenticationChannelRepository(clock, new MetricsRegistry(), wheel);
+
+    @Test
+    void testConsumedChannelIsFreedAtExpiry() {
+        AuthenticationChannel channel = repository.create();
+        repository.markAsUsed(channel.getId());
+
+        wheel.advance(EXPIRY_MILLIS - 1000);
+        assertSame(channel, repository.findById(channel.getId()), "consumed state stays observable until expiry");
+
+        wheel.advance(2000);
+        assertNull(repository.findById(channel.getId()));
+        assertEquals(0, repository.getRetainedChannelCount());
+        assertEquals(0, wheel.pendingTimeouts());
+    }
+
+    @Test
+    void testChannelThatIsNeverScannedIsFreedAtExpiry() {
+        AuthenticationChannel channel = repository.create();
+        assertEquals(1, repository.getRetainedChannelCount());
+
+        wheel.advance(EXPIRY_MILLIS + 1000);
+
+        assertNull(repository.findById(channel.getId()));
+        assertEquals(0, repository.getRetainedChannelCount());
+    }
+
+    @Test
+    void testLiveCountDropsWhenChannelsAreConsumedOrExpire() {
+        AuthenticationChannel consumed = repository.create();
+        repository.create();
+        assertEquals(2, repository.getLiveChannelCount());
+
+        repository.markAsUsed(consumed.getId());
+        repository.markAsUsed(consumed.getId());
+        assertEquals(1, repository.getLiveChannelCount());
+        assertEquals(2, repository.getRetainedChannelCount());
+
+        wheel.advance(EXPIRY_MILLIS + 1000);
+        assertEquals(0, repository.getLiveChannelCount());
+        assertEquals(0, repository.getRetainedChannelCount());
+    }
+
+    @Test
+    void testDeletedChannelIsFreedOnceAheadOfItsExpiry() {
+        AuthenticationChannel channel = repository.create();
+
+        repository.delete(channel.getId());
+        assertNull(repository.findById(channel.getId()));
+        assertEquals(0, repository.getLiveChannelCount());
+        assertEquals(0, repository.getRetainedChannelCount());
+
+        wheel.advance(EXPIRY_MILLIS + 1000);
+        assertEquals(0, repository.getLiveChannelCount());
+        assertEquals(0, repository.getRetainedChannelCount());
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.infrastructure.authentication;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournaledTokenStoreTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @TempDir
+    Path directory;
+
+    private final AtomicLong clock = new AtomicLong(100 * HOUR);
+
+    @Test
+    void testTokensSurviveRestart() throws IOException {
+        String kept;
+        String revoked;
+        String revokedByUser;
+        try (JournaledTokenStore store = open()) {
+            kept = store.issue("admin");
+            revoked = store.issue("admin");
+            revokedByUser = store.issue("user");
+            store.revoke(revoked);
+            store.revokeAllForUser("user");
+        }
+
+        try (JournaledTokenStore recovered = open()) {
+            assertTrue(recovered.isValid(kept));
+            assertEquals("admin", recovered.usernameFor(kept));
+            assertFalse(recovered.isValid(revoked));
+            assertFalse(recovered.isValid(revokedByUser));
+            assertTrue(recovered.isValid(recovered.issue("user")));
+        }
+    }
+
+    @Test
+    void testCompactionKeepsOnlyLiveTokens() throws IOException {
+        String kept;
+        try (JournaledTokenStore store = open()) {
+            kept = store.issue("admin");
+            store.revoke(store.issue("demo"));
+            store.compact();
+            assertEquals(0, Files.size(segment()));
+            try (Stream<Path> files = files()) {
+                assertEquals(2, files.count()); // The snapshot and the empty segment after it
+            }
+        }
+
+        try (JournaledTokenStore recovered = open()) {
+            assertTrue(recovered.isValid(kept));
+        }
+    }
+
+    @Test
+    void testTornTailIsIgnored() throws IOException {
+        String kept;
+        try (JournaledTokenStore store = open()) {
+            kept = store.issue("admin");
+        }
+        try (FileChannel journal = FileChannel.open(segment(), StandardOpenOption.APPEND)) {
+            journal.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 40, 1, 2}));
+        }
+
+        String fresh;
+        try (JournaledTokenStore recovered = open()) {
+            assertTrue(recovered.isValid(kept));
+            fresh = recovered.issue("demo");
+        }
+
+        // Records appended after the truncated tail replay normally
+        try (JournaledTokenStore again = open()) {
+            assertTrue(again.isValid(kept));
+            assertTrue(again.isValid(fresh));
+        }
+    }
+
+    @Test
+    void testSegmentsCoveredBySnapshotAreNotReplayed() throws IOException {
+        String revoked;
+        String reissued;
+        byte[] oldSegment;
+        try (JournaledTokenStore store = open()) {
+            revoked = store.issue("admin");
+            store.revokeAllForUser("admin");
+            reissued = store.issue("admin");
+            oldSegment = Files.readAllBytes(segment());
+            String oldSegmentName = segment().getFileName().toString();
+            store.compact();
+            // A crash between writing the snapshot and deleting the segment leaves both behind
+            Files.write(directory.resolve(oldSegmentName), oldSegment);
+        }
+
+        try (JournaledTokenStore recovered = open()) {
+            assertFalse(recovered.isValid(revoked));
+            assertTrue(recovered.isValid(reissued));
+        }
+    }
+
+    @Test
+    void testSnapshotKeepsIssueOrderPerUser() throws IOException {
+        String[] tokens = new String[5];
+        try (JournaledTokenStore store = open()) {
+            for (int i = 0; i < tokens.length; i++) {
+                tokens[i] = store.issue("admin");
+                clock.addAndGet(HOUR); // One generation bucket each, the last wraps to the first ring slot
+            }
+            store.compact();
+        }
+
+        try (JournaledTokenStore recovered = open()) {
+            recovered.issue("admin");
+            assertFalse(recovered.isValid(tokens[0]));
+            for (int i = 1; i < tokens.length; i++) {
+                assertTrue(recovered.isValid(tokens[i]));
+            }
+        }
+    }
+
+    @Test
+    void testAppendsContinueAfterCompaction() throws IOException {
+        String beforeCompaction;
+        String afterCompaction;
+        try (JournaledTokenStore store = open()) {
+            beforeCompaction = store.issue("admin");
+            store.compact();
+            afterCompaction = store.issue("demo");
+            store.revokeAllForUser("admin");
+        }
+
+        try (JournaledTokenStore recovered = open()) {
+            assertFalse(recovered.isValid(beforeCompaction));
+            assertTrue(recovered.isValid(afterCompaction));
+        }
+    }
+
+    @Test
+    void testExpiredTokensAreNotRestored() throws IOException {
+        String token;
+        try (JournaledTokenStore store = open()) {
+            token = store.issue("admin");
+        }
+        clock.addAndGet(24 * HOUR);
+
+        try (JournaledTokenStore recovered = open()) {
+            assertFalse(recovered.isValid(token));
+        }
+    }
+
+    // The segment appends currently go to
+    private Path segment() throws IOException {
+        try (Stream<Path> files = files()) {
+            return files.filter(file -> file.toString().endsWith(".journal")).max(Comparator.naturalOrder()).orElseThrow();
+        }
+    }
+
+    private Stream<Path> files() throws IOException {
+        return Files.list(directory);
+    }
+
+    private JournaledTokenStore open() throws IOException {
+        return JournaledTokenStore.open(new BucketedTokenStore(24 * HOUR, HOUR, 5, clock::get), directory, 64,
+                1024 * 1024);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.infrastructure.authentication;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedUserCredentialStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testLookupFindsEveryUser() throws IOException {
+        Map<String, String> users = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            users.put("user" + i, "hash-" + i);
+        }
+        users.put("zoë", "hash-unicode");
+        users.put("😀smile", "hash-supplementary");
+        Path index = directory.resolve("users.idx");
+        UserIndexWriter.write(index, users);
+
+        try (MappedUserCredentialStore store = new MappedUserCredentialStore(index, 0)) {
+            assertEquals(users.size(), store.size());
+            users.forEach((username, hash) -> assertEquals(hash, store.findCredentialHash(username)));
+            assertNull(store.findCredentialHash("user10000"));
+            assertNull(store.findCredentialHash("zoe"));
+            assertNull(store.findCredentialHash(""));
+            assertFalse(store.replaceCredentialHash("user1", "hash-1", "other"));
+            assertFalse(store.supportsHashUpgrade());
+        }
+    }
+
+    @Test
+    void testSampleReadsStoredHashes() throws IOException {
+        Map<String, String> users = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            users.put("user" + i, "hash-" + i);
+        }
+        Path index = directory.resolve("users.idx");
+        UserIndexWriter.write(index, users);
+
+        try (MappedUserCredentialStore store = new MappedUserCredentialStore(index, 0)) {
+            var sample = store.sampleCredentialHashes(10);
+            assertEquals(10, sample.size());
+            assertTrue(users.values().containsAll(sample));
+            assertEquals(100, store.sampleCredentialHashes(1000).size());
+        }
+    }
+
+    @Test
+    void testRebuiltFileIsSwappedIn() throws IOException {
+        Path index = directory.resolve("users.idx");
+        UserIndexWriter.write(index, Map.of("admin", "old-hash"));
+
+        try (MappedUserCredentialStore store = new MappedUserCredentialStore(index, 0)) {
+            assertFalse(store.reloadIfChanged());
+
+            UserIndexWriter.write(index, Map.of("admin", "new-hash", "demo", "demo-hash"));
+
+            assertTrue(store.reloadIfChanged());
+            assertEquals("new-hash", store.findCredentialHash("admin"));
+            assertEquals("demo-hash", store.findCredentialHash("demo"));
+        }
+    }
+
+    @Test
+    void testCorruptReplacementKeepsPreviousIndex() throws IOException {
+        Path index = directory.resolve("users.idx");
+        UserIndexWriter.write(index, Map.of("admin", "hash"));
+
+        try (MappedUserCredentialStore store = new MappedUserCredentialStore(index, 0)) {
+            Path garbage = directory.resolve("garbage");
+            Files.write(garbage, new byte[] {1, 2, 3});
+            Files.move(garbage, index, StandardCopyOption.REPLACE_EXISTING);
+
+            assertFalse(store.reloadIfChanged());
+            assertEquals("hash", store.findCredentialHash("admin"));
+        }
+    }
+
+    @Test
+    void testRecordOffsetsOutsideTheFileAreUnknownUsers() throws IOException {
+        Path index = directory.resolve("users.idx");
+        UserIndexWriter.write(index, Map.of("admin", "hash", "demo", "demo-hash"));
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(index));
+        int slotCount = bytes.getInt(8);
+        for (int slot = 0; slot < slotCount; slot++) {
+            int slotOffset = UserIndexFormat.HEADER_BYTES + slot * UserIndexFormat.SLOT_BYTES;
+            if (bytes.getLong(slotOffset) != 0) {
+                bytes.putLong(slotOffset + 8, bytes.capacity() - 1L);
+            }
+        }
+        Files.write(index, bytes.array());
+
+        try (MappedUserCredentialStore store = new MappedUserCredentialStore(index, 0)) {
+            assertNull(store.findCredentialHash("admin"));
+            assertNull(store.findCredentialHash("demo"));
+        }
+    }
+}
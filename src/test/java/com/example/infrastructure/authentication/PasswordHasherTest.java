@@ -0,0 +1,47 @@
+package com.example.infrastructure.authentication;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private final PasswordHasher hasher = new PasswordHasher(1_000);
+
+    @Test
+    void testHashVerifies() {
+        String hash = hasher.hash("secret");
+
+        assertTrue(hasher.verify("secret", hash));
+        assertFalse(hasher.verify("Secret", hash));
+    }
+
+    @Test
+    void testSaltMakesHashesDiffer() {
+        assertNotEquals(hasher.hash("secret"), hasher.hash("secret"));
+    }
+
+    @Test
+    void testMalformedHashNeverMatches() {
+        assertFalse(hasher.verify("secret", null));
+        assertFalse(hasher.verify("secret", "secret"));
+        assertFalse(hasher.verify("secret", "pbkdf2-sha256$abc$AAAA$AAAA"));
+        assertFalse(hasher.verify("secret", "pbkdf2-sha256$0$AAAA$AAAA"));
+    }
+
+    @Test
+    void testWeakerHashNeedsRehash() {
+        String weak = hasher.hash("secret", 500);
+
+        assertTrue(hasher.verify("secret", weak));
+        assertTrue(hasher.needsRehash(weak));
+        assertFalse(hasher.needsRehash(hasher.hash("secret")));
+    }
+
+    @Test
+    void testIterationsAreReadFromTheHash() {
+        assertEquals(500, hasher.iterationsOf(hasher.hash("secret", 500)));
+        assertEquals(0, hasher.iterationsOf("pbkdf2-sha256$many$salt$hash"));
+        assertEquals(0, hasher.iterationsOf("garbage"));
+    }
+}
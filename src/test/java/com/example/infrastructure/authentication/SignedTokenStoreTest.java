@@ -0,0 +1,104 @@
+package com.example.infrastructure.authentication;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SignedTokenStoreTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final byte[] KEY_1 = "first-signing-key-0123456789".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] KEY_2 = "second-signing-key-0123456789".getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicLong clock = new AtomicLong(100 * HOUR);
+
+    @Test
+    void testIssuedTokenVerifies() {
+        SignedTokenStore store = newStore(Map.of(1, KEY_1), 1);
+
+        String token = store.issue("admin");
+
+        assertTrue(store.isValid(token));
+        assertEquals("admin", store.usernameFor(token));
+        assertEquals(clock.get() + 24 * HOUR, store.expiresAtMillis(token));
+    }
+
+    @Test
+    void testTamperedTokenIsRejected() {
+        SignedTokenStore store = newStore(Map.of(1, KEY_1), 1);
+        String token = store.issue("admin");
+        char last = token.charAt(token.length() - 1);
+        String tampered = token.substring(0, token.length() - 1) + (last == 'A' ? 'Q' : 'A');
+
+        assertFalse(store.isValid(tampered));
+        assertFalse(store.isValid("garbage"));
+        assertFalse(store.isValid("abc.def"));
+    }
+
+    @Test
+    void testOtherKeyCannotForgeTokens() {
+        String token = newStore(Map.of(1, KEY_2), 1).issue("admin");
+
+        assertFalse(newStore(Map.of(1, KEY_1), 1).isValid(token));
+    }
+
+    @Test
+    void testRotatedKeyStillVerifiesOlderTokens() {
+        String oldToken = newStore(Map.of(1, KEY_1), 1).issue("admin");
+
+        SignedTokenStore rotated = newStore(Map.of(1, KEY_1, 2, KEY_2), 2);
+
+        assertTrue(rotated.isValid(oldToken));
+        assertTrue(rotated.isValid(rotated.issue("admin")));
+    }
+
+    @Test
+    void testExpiry() {
+        SignedTokenStore store = newStore(Map.of(1, KEY_1), 1);
+        String token = store.issue("user");
+
+        clock.addAndGet(24 * HOUR);
+
+        assertFalse(store.isValid(token));
+    }
+
+    @Test
+    void testRevocationIsForgottenOnceTokenExpires() {
+        SignedTokenStore store = newStore(Map.of(1, KEY_1), 1);
+        String revoked = store.issue("user");
+        String kept = store.issue("user");
+
+        store.revoke(revoked);
+
+        assertFalse(store.isValid(revoked));
+        assertTrue(store.isValid(kept));
+        assertEquals(1, store.revokedCount());
+
+        clock.addAndGet(26 * HOUR);
+        store.cleanup();
+        assertEquals(0, store.revokedCount());
+    }
+
+    @Test
+    void testRevokeAllForUser() {
+        SignedTokenStore store = newStore(Map.of(1, KEY_1), 1);
+        String userToken = store.issue("user");
+        String otherToken = store.issue("demo");
+
+        store.revokeAllForUser("user");
+        clock.incrementAndGet();
+        String fresh = store.issue("user");
+
+        assertFalse(store.isValid(userToken));
+        assertTrue(store.isValid(otherToken));
+        assertTrue(store.isValid(fresh));
+    }
+
+    private SignedTokenStore newStore(Map<Integer, byte[]> keys, int activeKeyId) {
+        return new SignedTokenStore(keys, activeKeyId, 24 * HOUR, HOUR, clock::get);
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.infrastructure.authentication;
+
+import com.example.domain.authentication.AuthenticationCredentials;
+import com.example.domain.authentication.AuthenticationException;
+import com.example.domain.authentication.AuthenticationThrottledException;
+import com.example.domain.authentication.AuthenticationToken;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimpleAuthenticationServiceTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final int ITERATIONS = 20_000;
+    private static final PasswordHasher HASHER = new PasswordHasher(ITERATIONS);
+
+    @Test
+    void testValidLoginIssuesValidToken() throws AuthenticationException {
+        SimpleAuthenticationService service = newService(5);
+
+        AuthenticationToken token = service.authenticate(AuthenticationCredentials.of("admin", "admin123"));
+
+        assertTrue(service.isTokenValid(token));
+        assertEquals("admin", service.getUsernameForToken(token));
+    }
+
+    @Test
+    void testInvalidPasswordIsRejected() {
+        SimpleAuthenticationService service = newService(5);
+
+        assertThrows(AuthenticationException.class, () ->
+            service.authenticate(AuthenticationCredentials.of("admin", "wrong")));
+    }
+
+    @Test
+    void testOldestTokenEvictedAboveUserLimit() throws AuthenticationException {
+        SimpleAuthenticationService service = newService(2);
+        AuthenticationCredentials credentials = AuthenticationCredentials.of("user", "password");
+
+        AuthenticationToken first = service.authenticate(credentials);
+        AuthenticationToken second = service.authenticate(credentials);
+        AuthenticationToken third = service.authenticate(credentials);
+
+        assertFalse(service.isTokenValid(first));
+        assertTrue(service.isTokenValid(second));
+        assertTrue(service.isTokenValid(third));
+    }
+
+    @Test
+    void testRevokeAllForUser() throws AuthenticationException {
+        SimpleAuthenticationService service = newService(5);
+        AuthenticationToken userToken = service.authenticate(AuthenticationCredentials.of("user", "password"));
+        AuthenticationToken otherToken = service.authenticate(AuthenticationCredentials.of("demo", "demo"));
+
+        service.revokeAllForUser("user");
+
+        assertFalse(service.isTokenValid(userToken));
+        assertTrue(service.isTokenValid(otherToken));
+
+        // New logins after revocation are valid again
+        AuthenticationToken fresh = service.authenticate(AuthenticationCredentials.of("user", "password"));
+        assertTrue(service.isTokenValid(fresh));
+    }
+
+    @Test
+    void testLogoutInvalidatesCachedVerification() throws AuthenticationException {
+        SimpleAuthenticationService service = newService(5);
+        AuthenticationToken token = service.authenticate(AuthenticationCredentials.of("admin", "admin123"));
+        assertTrue(service.isTokenValid(token));
+
+        service.invalidateToken(token);
+
+        assertFalse(service.isTokenValid(token));
+        assertFalse(service.introspect(token.getValue()).isActive());
+    }
+
+    @Test
+    void testLoginUpgradesWeakHash() throws AuthenticationException {
+        InMemoryUserCredentialStore users = InMemoryUserCredentialStore.withDemoUsers(HASHER);
+        SimpleAuthenticationService service = newService(users, 5);
+        String legacyHash = users.findCredentialHash("demo");
+
+        service.authenticate(AuthenticationCredentials.of("demo", "demo"));
+
+        String upgraded = users.findCredentialHash("demo");
+        assertNotEquals(legacyHash, upgraded);
+        assertTrue(upgraded.startsWith("pbkdf2-sha256$" + ITERATIONS + "$"));
+        assertTrue(service.isTokenValid(service.authenticate(AuthenticationCredentials.of("demo", "demo"))));
+    }
+
+    @Test
+    void testReadOnlyStoreIsNotHashedForAnUpgrade() throws AuthenticationException {
+        AtomicInteger hashes = new AtomicInteger();
+        PasswordHasher countingHasher = new PasswordHasher(ITERATIONS) {
+            @Override
+            public String hash(String password) {
+                hashes.incrementAndGet();
+                return super.hash(password);
+            }
+        };
+        InMemoryUserCredentialStore users = new InMemoryUserCredentialStore() {
+            @Override
+            public boolean supportsHashUpgrade() {
+                return false;
+            }
+        };
+        users.put("demo", countingHasher.hash("demo", ITERATIONS / 2));
+        BucketedTokenStore tokenStore = new BucketedTokenStore(HOUR * 24, HOUR, 5, System::currentTimeMillis);
+        SimpleAuthenticationService service = new SimpleAuthenticationService(tokenStore,
+            new TokenVerificationCache(tokenStore, 1000, HOUR, System::currentTimeMillis),
+            users, countingHasher, new CredentialVerificationExecutor(1, 16), newThrottle());
+
+        service.authenticate(AuthenticationCredentials.of("demo", "demo"));
+
+        assertEquals(0, hashes.get());
+        assertTrue(users.findCredentialHash("demo").startsWith("pbkdf2-sha256$" + ITERATIONS / 2 + "$"));
+    }
+
+    @Test
+    void testUnknownUsersCostTheMedianOfStoredHashes() {
+        InMemoryUserCredentialStore users = new InMemoryUserCredentialStore();
+        users.put("a", HASHER.hash("a", 1000));
+        users.put("b", HASHER.hash("b", 3000));
+        users.put("c", HASHER.hash("c", 3000));
+        users.put("broken", "not-a-hash");
+
+        assertEquals(3000, SimpleAuthenticationService.typicalIterations(users, HASHER));
+        assertEquals(ITERATIONS, SimpleAuthenticationService.typicalIterations(new InMemoryUserCredentialStore(), HASHER));
+    }
+
+    @Test
+    void testSaturatedVerifierRejectsImmediately() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CredentialVerificationExecutor verifier = new CredentialVerificationExecutor(1, 1);
+        // Occupy the only thread, then the only queue slot
+        verifier.submit(() -> {
+            started.countDown();
+            return awaitQuietly(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        verifier.submit(() -> awaitQuietly(release));
+        BucketedTokenStore tokenStore = new BucketedTokenStore(HOUR * 24, HOUR, 5, System::currentTimeMillis);
+        SimpleAuthenticationService service = new SimpleAuthenticationService(tokenStore,
+            new TokenVerificationCache(tokenStore, 1000, HOUR, System::currentTimeMillis),
+            InMemoryUserCredentialStore.withDemoUsers(HASHER), HASHER, verifier, newThrottle());
+
+        AuthenticationThrottledException rejected = assertThrows(AuthenticationThrottledException.class, () ->
+            service.authenticate(AuthenticationCredentials.of("admin", "admin123")));
+
+        assertTrue(rejected.getRetryAfterSeconds() > 0);
+        assertEquals(1L, service.metrics().get("rejected"));
+        release.countDown();
+    }
+
+    @Test
+    void testVerifierErrorFailsTheFuture() throws InterruptedException {
+        CredentialVerificationExecutor verifier = new CredentialVerificationExecutor(1, 1);
+
+        CompletableFuture<Object> result = verifier.submit(() -> {
+            throw new StackOverflowError();
+        });
+
+        ExecutionException failed = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(StackOverflowError.class, failed.getCause());
+        verifier.shutdown();
+    }
+
+    @Test
+    void testRepeatedFailuresAreRefusedBeforeHashing() {
+        SimpleAuthenticationService service = newService(5);
+        AuthenticationCredentials wrong = AuthenticationCredentials.of("admin", "wrong");
+        for (int i = 0; i < 3; i++) {
+            assertThrows(AuthenticationException.class, () -> service.authenticate(wrong));
+        }
+        long completedBefore = service.metrics().get("completed");
+
+        AuthenticationThrottledException refused = assertThrows(AuthenticationThrottledException.class, () ->
+            service.authenticate(AuthenticationCredentials.of("admin", "admin123")));
+
+        assertTrue(refused.getRetryAfterSeconds() > 0);
+        assertEquals(completedBefore, service.metrics().get("completed"));
+        assertEquals(1L, service.metrics().get("throttleBlocked"));
+    }
+
+    @Test
+    void testDelayedAttemptsReportTheirDelayWithoutCountingIt() {
+        BucketedTokenStore tokenStore = new BucketedTokenStore(HOUR * 24, HOUR, 5, System::currentTimeMillis);
+        SimpleAuthenticationService service = new SimpleAuthenticationService(tokenStore,
+            new TokenVerificationCache(tokenStore, 1000, HOUR, System::currentTimeMillis),
+            InMemoryUserCredentialStore.withDemoUsers(HASHER), HASHER, new CredentialVerificationExecutor(1, 16),
+            new FailedLoginThrottle(1024, HOUR, new FailedLoginThrottle.Thresholds(1, 100),
+                new FailedLoginThrottle.Thresholds(100, 100), 10, System::currentTimeMillis));
+        assertEquals(0, service.loginDelayMillis("admin", "10.0.0.1"));
+
+        CompletableFuture<AuthenticationToken> first = service.authenticateAsync(
+            AuthenticationCredentials.of("admin", "wrong"), "10.0.0.1").toCompletableFuture();
+        assertThrows(CompletionException.class, first::join);
+        assertTrue(service.loginDelayMillis("admin", "10.0.0.1") > 0);
+        assertEquals(0L, service.metrics().get("throttleDelayed"));
+
+        AuthenticationToken token = service.authenticateAsync(AuthenticationCredentials.of("admin", "admin123"),
+            "10.0.0.1").toCompletableFuture().join();
+
+        assertEquals(1L, service.metrics().get("throttleDelayed"));
+        assertTrue(service.isTokenValid(token));
+    }
+
+    private static FailedLoginThrottle newThrottle() {
+        return new FailedLoginThrottle(1024, HOUR, new FailedLoginThrottle.Thresholds(100, 3),
+            new FailedLoginThrottle.Thresholds(100, 100), 10, System::currentTimeMillis);
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static SimpleAuthenticationService newService(int maxTokensPerUser) {
+        return newService(InMemoryUserCredentialStore.withDemoUsers(HASHER), maxTokensPerUser);
+    }
+
+    private static SimpleAuthenticationService newService(InMemoryUserCredentialStore users, int maxTokensPerUser) {
+        BucketedTokenStore tokenStore = new BucketedTokenStore(HOUR * 24, HOUR, maxTokensPerUser, System::currentTimeMillis);
+        return new SimpleAuthenticationService(tokenStore,
+            new TokenVerificationCache(tokenStore, 1000, HOUR, System::currentTimeMillis),
+            users, HASHER, new CredentialVerificationExecutor(2, 16), newThrottle());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.infrastructure.authentication;
+
+import com.example.domain.time.ManualEpochClock;
+import com.example.infrastructure.scheduling.ManualTimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenCleanupSchedulerTest {
+
+    private static final long LIFETIME_MILLIS = 10_000;
+    private static final long BUCKET_MILLIS = 1000;
+    private static final byte[] KEY = "cleanup-signing-key-0123456789".getBytes(StandardCharsets.UTF_8);
+
+    private final ManualEpochClock clock = new ManualEpochClock(1_000_000);
+    private final ManualTimingWheel wheel = new ManualTimingWheel(100, clock);
+
+    @Test
+    void testSweepsDropExpiredOpaqueTokens() {
+        BucketedTokenStore store = new BucketedTokenStore(LIFETIME_MILLIS, BUCKET_MILLIS, 5, clock);
+        new TokenCleanupScheduler(store, wheel, Runnable::run, 1000).start();
+        store.issue("alice");
+        assertEquals(1, store.size());
+
+        wheel.advance(LIFETIME_MILLIS + 2 * BUCKET_MILLIS);
+
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void testSweepsForgetRevocationsOfExpiredSignedTokens() {
+        SignedTokenStore store = new SignedTokenStore(Map.of(1, KEY), 1, LIFETIME_MILLIS, BUCKET_MILLIS, clock);
+        new TokenCleanupScheduler(store, wheel, Runnable::run, 1000).start();
+        store.revoke(store.issue("alice"));
+        assertEquals(1, store.revokedCount());
+
+        wheel.advance(LIFETIME_MILLIS + 2 * BUCKET_MILLIS);
+
+        assertEquals(0, store.revokedCount());
+    }
+
+    @Test
+    void testStoppedSchedulerNoLongerSweeps() {
+        SignedTokenStore store = new SignedTokenStore(Map.of(1, KEY), 1, LIFETIME_MILLIS, BUCKET_MILLIS, clock);
+        TokenCleanupScheduler scheduler = new TokenCleanupScheduler(store, wheel, Runnable::run, 1000);
+        scheduler.start();
+        wheel.advance(3000);
+
+        scheduler.stop();
+        store.revoke(store.issue("alice"));
+        wheel.advance(LIFETIME_MILLIS + 2 * BUCKET_MILLIS);
+
+        assertEquals(1, store.revokedCount());
+        assertEquals(0, wheel.pendingTimeouts());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.infrastructure.authentication;
+
+import com.example.domain.authentication.TokenIntrospection;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenVerificationCacheTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final long MINUTE = 60_000L;
+
+    private final AtomicLong clock = new AtomicLong(100 * HOUR);
+    private final BucketedTokenStore store = new BucketedTokenStore(24 * HOUR, HOUR, 2, clock::get);
+    private final TokenVerificationCache cache = new TokenVerificationCache(store, 1000, MINUTE, clock::get);
+
+    @Test
+    void testActiveTokenIsDescribedAndCached() {
+        String token = store.issue("admin");
+
+        TokenIntrospection introspection = cache.introspect(token);
+
+        assertTrue(introspection.isActive());
+        assertEquals("admin", introspection.getUsername());
+        assertEquals(clock.get() + 24 * HOUR, introspection.getExpiresAtMillis());
+        assertEquals(1, cache.size());
+        assertSame(introspection, cache.introspect(token));
+    }
+
+    @Test
+    void testUnknownTokensAreNotCached() {
+        assertFalse(cache.introspect("garbage").isActive());
+        assertFalse(cache.introspect(null).isActive());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testRevocationInvalidatesCachedEntry() {
+        String token = store.issue("admin");
+        cache.introspect(token);
+
+        store.revoke(token);
+        assertTrue(cache.introspect(token).isActive(), "Served from cache until invalidated");
+        cache.invalidateUser("admin");
+
+        assertFalse(cache.introspect(token).isActive());
+    }
+
+    @Test
+    void testEntryNeverOutlivesToken() {
+        TokenVerificationCache longTtl = new TokenVerificationCache(store, 1000, 48 * HOUR, clock::get);
+        String token = store.issue("admin");
+        assertTrue(longTtl.introspect(token).isActive());
+
+        clock.addAndGet(24 * HOUR);
+
+        assertFalse(longTtl.introspect(token).isActive());
+    }
+
+    @Test
+    void testCacheIsBounded() {
+        BucketedTokenStore source = new BucketedTokenStore(24 * HOUR, HOUR, 1, clock::get);
+        TokenVerificationCache bounded = new TokenVerificationCache(source, 32, MINUTE, clock::get);
+        for (int i = 0; i < 1000; i++) {
+            bounded.introspect(source.issue("user" + i));
+        }
+
+        assertTrue(bounded.size() <= 32);
+    }
+}
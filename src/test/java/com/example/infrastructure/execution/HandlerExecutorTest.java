@@ -0,0 +1,58 @@
+package com.example.infrastructure.execution;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HandlerExecutorTest {
+
+    @Test
+    void testPlatformModeSuppliesOnTheWorkers() throws Exception {
+        List<Runnable> submitted = new CopyOnWriteArrayList<>();
+        Executor workers = command -> {
+            submitted.add(command);
+            command.run();
+        };
+        HandlerExecutor executor = new HandlerExecutor(workers, HandlerExecutor.PLATFORM);
+
+        assertFalse(executor.isVirtual());
+        assertEquals("done", executor.supply(() -> "done").toCompletableFuture().get(1, TimeUnit.SECONDS));
+        assertEquals(1, submitted.size());
+        assertSame(workers, executor.executor());
+    }
+
+    @Test
+    void testPlatformModeDispatchesOnTheCallingThread() {
+        HandlerExecutor executor = new HandlerExecutor(command -> fail("no worker expected"), HandlerExecutor.PLATFORM);
+        Thread caller = Thread.currentThread();
+        Thread[] ranOn = new Thread[1];
+
+        executor.dispatch(() -> ranOn[0] = Thread.currentThread());
+
+        assertSame(caller, ranOn[0]);
+    }
+
+    @Test
+    void testVirtualModeNeedsJava21() throws Exception {
+        HandlerExecutor executor = new HandlerExecutor(Runnable::run, HandlerExecutor.VIRTUAL);
+        try {
+            assertEquals(Runtime.version().feature() >= 21, executor.isVirtual());
+            Thread caller = Thread.currentThread();
+            Thread ranOn = executor.supply(Thread::currentThread).toCompletableFuture().get(1, TimeUnit.SECONDS);
+            // Falls back to the workers, here the calling thread, before Java 21
+            assertEquals(!executor.isVirtual(), ranOn == caller);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testUnknownModeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new HandlerExecutor(Runnable::run, "green"));
+    }
+}
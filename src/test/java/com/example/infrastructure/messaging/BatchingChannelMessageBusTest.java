@@ -0,0 +1,155 @@
+package com.example.infrastructure.messaging;
+
+import com.example.domain.time.EpochClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.support.Conditions.awaitCondition;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchingChannelMessageBusTest {
+
+    private final List<ChannelMessageBus> buses = new ArrayList<>();
+
+    @AfterEach
+    void closeBuses() {
+        buses.forEach(ChannelMessageBus::close);
+    }
+
+    @Test
+    void testMessageReachesTheNodeHoldingTheChannel() throws InterruptedException {
+        InProcessBusHub hub = new InProcessBusHub();
+        RecordingListener desktopNode = new RecordingListener();
+        RecordingListener phoneNode = new RecordingListener();
+        ChannelMessageBus a = newBus(hub.connect("a"), desktopNode);
+        ChannelMessageBus b = newBus(hub.connect("b"), phoneNode);
+
+        a.subscribe("channel");
+        awaitCondition(() -> b.metrics().get("remoteSubscriptions") == 1);
+        b.publish("channel", "result");
+
+        assertEquals("channel:result", desktopNode.received.poll(5, TimeUnit.SECONDS));
+        assertTrue(phoneNode.received.isEmpty(), "b does not hold the channel");
+    }
+
+    @Test
+    void testOnlySubscribedNodesReceive() throws InterruptedException {
+        InProcessBusHub hub = new InProcessBusHub();
+        RecordingListener holder = new RecordingListener();
+        ChannelMessageBus a = newBus(hub.connect("a"), holder);
+        ChannelMessageBus b = newBus(hub.connect("b"), new RecordingListener());
+        ChannelMessageBus c = newBus(hub.connect("c"), new RecordingListener());
+
+        a.subscribe("channel");
+        c.subscribe("elsewhere");
+        awaitCondition(() -> b.metrics().get("remoteSubscriptions") == 2);
+        b.publish("channel", "result");
+
+        assertEquals("channel:result", holder.received.poll(5, TimeUnit.SECONDS));
+        assertEquals(0L, c.metrics().get("remoteDeliveries"));
+        assertEquals(1L, b.metrics().get("recordsSent"), "b holds no channels, its only record is the message");
+    }
+
+    @Test
+    void testLocalSubscriberIsServedWithoutTheTransport() throws InterruptedException {
+        InProcessBusHub hub = new InProcessBusHub();
+        RecordingListener listener = new RecordingListener();
+        ChannelMessageBus a = newBus(hub.connect("a"), listener);
+
+        a.subscribe("channel");
+        a.publish("channel", "result");
+        a.publishClose("channel");
+
+        assertEquals("channel:result", listener.received.poll());
+        assertEquals("channel:closed", listener.received.poll());
+        assertEquals(2L, a.metrics().get("localDeliveries"));
+    }
+
+    @Test
+    void testUnsubscribeStopsDelivery() throws InterruptedException {
+        InProcessBusHub hub = new InProcessBusHub();
+        RecordingListener listener = new RecordingListener();
+        ChannelMessageBus a = newBus(hub.connect("a"), listener);
+        ChannelMessageBus b = newBus(hub.connect("b"), new RecordingListener());
+
+        a.subscribe("channel");
+        awaitCondition(() -> b.metrics().get("remoteSubscriptions") == 1);
+        a.unsubscribe("channel");
+        awaitCondition(() -> b.metrics().get("remoteSubscriptions") == 0);
+        b.publish("channel", "late");
+
+        assertNull(listener.received.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testMessagesToOnePeerAreBatched() throws InterruptedException {
+        InProcessBusHub hub = new InProcessBusHub();
+        RecordingListener listener = new RecordingListener();
+        ChannelMessageBus a = newBus(hub.connect("a"), listener);
+        // Flushes are mostly triggered by the batch size, the interval only picks up the remainder
+        ChannelMessageBus b = track(new BatchingChannelMessageBus(hub.connect("b"), 100, 200, 60_000,
+            EpochClock.SYSTEM));
+
+        a.subscribe("channel");
+        awaitCondition(() -> b.metrics().get("remoteSubscriptions") == 1);
+        for (int i = 0; i < 1000; i++) {
+            b.publish("channel", "message-" + i);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("channel:message-" + i, listener.received.poll(5, TimeUnit.SECONDS));
+        }
+        assertTrue(b.metrics().get("framesSent") <= 20, "frames: " + b.metrics().get("framesSent"));
+    }
+
+    @Test
+    void testUdpLoopback() throws Exception {
+        List<InetSocketAddress> addresses = UdpBusTransportTest.freeLoopbackAddresses(2);
+        byte[] key = UdpBusTransportTest.KEY;
+        UdpBusTransport transportA = new UdpBusTransport(addresses.get(0), List.of(addresses.get(1)), key, 10_000,
+            EpochClock.SYSTEM);
+        UdpBusTransport transportB = new UdpBusTransport(addresses.get(1), List.of(addresses.get(0)), key, 10_000,
+            EpochClock.SYSTEM);
+        RecordingListener desktopNode = new RecordingListener();
+        ChannelMessageBus a = newBus(transportA, desktopNode);
+        ChannelMessageBus b = newBus(transportB, new RecordingListener());
+
+        a.subscribe("channel");
+        awaitCondition(() -> b.metrics().get("remoteSubscriptions") == 1);
+        b.publish("channel", "over-udp");
+
+        assertEquals("channel:over-udp", desktopNode.received.poll(5, TimeUnit.SECONDS));
+    }
+
+    private ChannelMessageBus newBus(BusTransport transport, RecordingListener listener) {
+        ChannelMessageBus bus = track(new BatchingChannelMessageBus(transport, 64, 1, 50, EpochClock.SYSTEM));
+        bus.listen(listener);
+        return bus;
+    }
+
+    private ChannelMessageBus track(ChannelMessageBus bus) {
+        buses.add(bus);
+        return bus;
+    }
+
+    private static final class RecordingListener implements ChannelMessageBus.Listener {
+        final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onMessage(String channel, String message) {
+            received.add(channel + ":" + message);
+        }
+
+        @Override
+        public void onClose(String channel) {
+            received.add(channel + ":closed");
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.infrastructure.messaging;
+
+import com.example.domain.time.EpochClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UdpBusTransportTest {
+
+    static final byte[] KEY = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final List<UdpBusTransport> transports = new ArrayList<>();
+
+    @AfterEach
+    void closeTransports() {
+        transports.forEach(UdpBusTransport::close);
+    }
+
+    @Test
+    void testFramesFromConfiguredPeerArrive() throws Exception {
+        List<InetSocketAddress> addresses = freeLoopbackAddresses(2);
+        BlockingQueue<String> received = receiving(open(addresses.get(0), addresses.get(1), KEY, EpochClock.SYSTEM));
+        UdpBusTransport sender = open(addresses.get(1), addresses.get(0), KEY, EpochClock.SYSTEM);
+
+        sender.broadcast(frame("hello"));
+
+        assertEquals(addresses.get(1).getAddress().getHostAddress() + ":" + addresses.get(1).getPort() + " hello",
+            received.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testFramesUnderAnotherKeyAreDropped() throws Exception {
+        List<InetSocketAddress> addresses = freeLoopbackAddresses(2);
+        UdpBusTransport receiver = open(addresses.get(0), addresses.get(1), KEY, EpochClock.SYSTEM);
+        BlockingQueue<String> received = receiving(receiver);
+        byte[] otherKey = "fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.US_ASCII);
+        UdpBusTransport sender = open(addresses.get(1), addresses.get(0), otherKey, EpochClock.SYSTEM);
+
+        sender.broadcast(frame("forged"));
+
+        assertNull(received.poll(200, TimeUnit.MILLISECONDS));
+        assertEquals(1, receiver.rejectedFrames());
+    }
+
+    @Test
+    void testFramesFromUnknownAddressesAreDropped() throws Exception {
+        List<InetSocketAddress> addresses = freeLoopbackAddresses(3);
+        UdpBusTransport receiver = open(addresses.get(0), addresses.get(1), KEY, EpochClock.SYSTEM);
+        BlockingQueue<String> received = receiving(receiver);
+        // Holds the key but is not one of the receiver's peers
+        UdpBusTransport stranger = open(addresses.get(2), addresses.get(0), KEY, EpochClock.SYSTEM);
+
+        stranger.broadcast(frame("intruder"));
+        try (DatagramChannel raw = DatagramChannel.open()) {
+            raw.send(frame("raw"), addresses.get(0));
+        }
+
+        assertNull(received.poll(200, TimeUnit.MILLISECONDS));
+        assertEquals(2, receiver.rejectedFrames());
+    }
+
+    @Test
+    void testStaleFramesAreDropped() throws Exception {
+        List<InetSocketAddress> addresses = freeLoopbackAddresses(2);
+        UdpBusTransport receiver = open(addresses.get(0), addresses.get(1), KEY, EpochClock.SYSTEM);
+        BlockingQueue<String> received = receiving(receiver);
+        UdpBusTransport sender = open(addresses.get(1), addresses.get(0), KEY,
+            () -> System.currentTimeMillis() - 60_000);
+
+        sender.broadcast(frame("replayed"));
+
+        assertNull(received.poll(200, TimeUnit.MILLISECONDS));
+        assertEquals(1, receiver.rejectedFrames());
+    }
+
+    /**
+     * Reserves distinct loopback ports, so transports can name each other as peers before binding
+     */
+    static List<InetSocketAddress> freeLoopbackAddresses(int count) throws IOException {
+        List<DatagramChannel> reserved = new ArrayList<>();
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        try {
+            for (int i = 0; i < count; i++) {
+                DatagramChannel channel = DatagramChannel.open()
+                    .bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+                reserved.add(channel);
+                addresses.add((InetSocketAddress) channel.getLocalAddress());
+            }
+        } finally {
+            for (DatagramChannel channel : reserved) {
+                channel.close();
+            }
+        }
+        return addresses;
+    }
+
+    private UdpBusTransport open(InetSocketAddress bind, InetSocketAddress peer, byte[] key, EpochClock clock)
+            throws IOException {
+        UdpBusTransport transport = new UdpBusTransport(bind, List.of(peer), key, 10_000, clock);
+        transports.add(transport);
+        return transport;
+    }
+
+    private static BlockingQueue<String> receiving(UdpBusTransport transport) {
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        transport.start((peer, frame) -> received.add(peer + " " + StandardCharsets.UTF_8.decode(frame)));
+        return received;
+    }
+
+    private static ByteBuffer frame(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
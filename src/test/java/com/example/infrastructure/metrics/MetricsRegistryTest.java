@@ -0,0 +1,87 @@
+package com.example.infrastructure.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    @Test
+    void testPrometheusTextFormat() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("requests_total", "Requests", "endpoint", "qr").add(3);
+        registry.counter("requests_total", "Requests", "endpoint", "login").increment();
+        AtomicLong open = new AtomicLong(7);
+        registry.gauge("channels", "Open channels", open::get);
+        open.set(8);
+
+        assertEquals("""
+            # HELP channels Open channels
+            # TYPE channels gauge
+            channels 8
+            # HELP requests_total Requests
+            # TYPE requests_total counter
+            requests_total{endpoint="login"} 1
+            requests_total{endpoint="qr"} 3
+            """, registry.scrape());
+    }
+
+    @Test
+    void testSameNameAndLabelsShareOneMetric() {
+        MetricsRegistry registry = new MetricsRegistry();
+
+        assertSame(registry.counter("a_total", "A", "k", "v"), registry.counter("a_total", "A", "k", "v"));
+        assertNotSame(registry.counter("a_total", "A", "k", "v"), registry.counter("a_total", "A", "k", "w"));
+        assertSame(registry.histogram("b_seconds", "B"), registry.histogram("b_seconds", "B"));
+        assertThrows(IllegalArgumentException.class, () -> registry.histogram("a_total", "A"));
+        assertThrows(IllegalArgumentException.class, () -> registry.counter("c_total", "C", "k"));
+    }
+
+    @Test
+    void testSummaryQuantilesInSeconds() {
+        MetricsRegistry registry = new MetricsRegistry();
+        LatencyHistogram latency = registry.histogram("latency_seconds", "Latency", "endpoint", "qr");
+        for (int millis = 1; millis <= 1000; millis++) {
+            latency.record(millis * 1_000_000L);
+        }
+
+        String text = registry.scrape();
+
+        assertTrue(text.contains("# TYPE latency_seconds summary\n"));
+        assertEquals(0.5, quantile(text, "latency_seconds{endpoint=\"qr\",quantile=\"0.5\"}"), 0.005);
+        assertEquals(0.99, quantile(text, "latency_seconds{endpoint=\"qr\",quantile=\"0.99\"}"), 0.01);
+        assertEquals(500.5, quantile(text, "latency_seconds_sum{endpoint=\"qr\"}"), 1e-6);
+        assertTrue(text.contains("latency_seconds_count{endpoint=\"qr\"} 1000\n"));
+    }
+
+    @Test
+    void testSnapshotsAccumulate() {
+        LatencyHistogram latency = new LatencyHistogram();
+        latency.record(1_000);
+        assertEquals(1, latency.snapshot().count());
+
+        latency.record(2_000);
+        latency.record(LatencyHistogram.HIGHEST_NANOS * 2);
+        LatencyHistogram.Snapshot snapshot = latency.snapshot();
+
+        assertEquals(3, snapshot.count());
+        assertEquals(3_000 + LatencyHistogram.HIGHEST_NANOS, snapshot.sumNanos());
+        assertTrue(snapshot.maxNanos() >= LatencyHistogram.HIGHEST_NANOS * 0.99);
+    }
+
+    @Test
+    void testLabelValuesAreEscaped() {
+        assertEquals("", MetricsRegistry.labels());
+        assertEquals("{path=\"a\\\"b\\\\c\\nd\",role=\"phone\"}",
+            MetricsRegistry.labels("path", "a\"b\\c\nd", "role", "phone"));
+    }
+
+    private static double quantile(String text, String sample) {
+        int start = text.indexOf(sample + ' ');
+        assertTrue(start >= 0, sample);
+        int end = text.indexOf('\n', start);
+        return Double.parseDouble(text.substring(start + sample.length() + 1, end));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.infrastructure.scheduling;
+
+import com.example.domain.time.ManualEpochClock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Timing wheel without a worker thread, for tests
+ * Time only passes through {@link #advance(long)}, one tick at a time, and the epoch clock moves along
+ * with it, so deadlines derived from either agree and due tasks run on the calling thread.
+ */
+public final class ManualTimingWheel extends TimingWheel {
+
+    private final long tickMillis;
+    private final AtomicLong nanos;
+    private final ManualEpochClock clock;
+
+    public ManualTimingWheel(long tickMillis, ManualEpochClock clock) {
+        this(tickMillis, clock, new AtomicLong());
+    }
+
+    private ManualTimingWheel(long tickMillis, ManualEpochClock clock, AtomicLong nanos) {
+        super(tickMillis, 64, nanos::get, false);
+        this.tickMillis = tickMillis;
+        this.nanos = nanos;
+        this.clock = clock;
+    }
+
+    /**
+     * Moves both clocks forward, running every task that falls due on the way
+     */
+    public void advance(long millis) {
+        for (long elapsed = 0; elapsed < millis; elapsed += tickMillis) {
+            long step = Math.min(tickMillis, millis - elapsed);
+            nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(step));
+            clock.advance(step);
+            processDueTicks();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.infrastructure.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void testTaskRunsOnceItsDelayHasPassed() {
+        AtomicLong nanos = new AtomicLong();
+        TimingWheel wheel = new TimingWheel(10, 8, nanos::get, false);
+        List<String> ran = new ArrayList<>();
+
+        wheel.schedule(() -> ran.add("task"), 35, TimeUnit.MILLISECONDS);
+        nanos.set(3 * TICK_NANOS);
+        wheel.processDueTicks();
+        assertTrue(ran.isEmpty());
+
+        nanos.set(4 * TICK_NANOS);
+        wheel.processDueTicks();
+        assertEquals(List.of("task"), ran);
+        assertEquals(0, wheel.pendingTimeouts());
+    }
+
+    @Test
+    void testDelaysLongerThanOneRevolution() {
+        AtomicLong nanos = new AtomicLong();
+        TimingWheel wheel = new TimingWheel(10, 8, nanos::get, false);
+        List<String> ran = new ArrayList<>();
+
+        wheel.schedule(() -> ran.add("short"), 20, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> ran.add("long"), 100, TimeUnit.MILLISECONDS); // Same bucket, two revolutions later
+        nanos.set(2 * TICK_NANOS);
+        wheel.processDueTicks();
+        assertEquals(List.of("short"), ran);
+
+        nanos.set(9 * TICK_NANOS);
+        wheel.processDueTicks();
+        assertEquals(List.of("short"), ran);
+
+        nanos.set(10 * TICK_NANOS);
+        wheel.processDueTicks();
+        assertEquals(List.of("short", "long"), ran);
+    }
+
+    @Test
+    void testCancelledTaskNeverRuns() {
+        AtomicLong nanos = new AtomicLong();
+        TimingWheel wheel = new TimingWheel(10, 8, nanos::get, false);
+        List<String> ran = new ArrayList<>();
+
+        TimingWheel.Timeout timeout = wheel.schedule(() -> ran.add("task"), 10, TimeUnit.MILLISECONDS);
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        nanos.set(5 * TICK_NANOS);
+        wheel.processDueTicks();
+
+        assertTrue(ran.isEmpty());
+        assertEquals(0, wheel.pendingTimeouts());
+    }
+
+    @Test
+    void testFailingTaskDoesNotStopTheWheel() {
+        AtomicLong nanos = new AtomicLong();
+        TimingWheel wheel = new TimingWheel(10, 8, nanos::get, false);
+        List<String> ran = new ArrayList<>();
+
+        wheel.schedule(() -> { throw new IllegalStateException("boom"); }, 10, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> ran.add("after"), 10, TimeUnit.MILLISECONDS);
+        nanos.set(TICK_NANOS);
+        wheel.processDueTicks();
+
+        assertEquals(List.of("after"), ran);
+    }
+
+    @Test
+    void testWorkerRunsTasks() throws InterruptedException {
+        try (TimingWheel wheel = new TimingWheel(5, 64)) {
+            CountDownLatch ran = new CountDownLatch(100);
+            for (int i = 0; i < 100; i++) {
+                wheel.schedule(ran::countDown, i, TimeUnit.MILLISECONDS);
+            }
+            assertTrue(ran.await(5, TimeUnit.SECONDS));
+        }
+    }
+}
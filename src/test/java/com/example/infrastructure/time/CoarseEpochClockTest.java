@@ -0,0 +1,33 @@
+package com.example.infrastructure.time;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoarseEpochClockTest {
+
+    @Test
+    void testStaysWithinOneTickOfSystemTime() throws InterruptedException {
+        try (CoarseEpochClock clock = new CoarseEpochClock(5)) {
+            long before = System.currentTimeMillis();
+            Thread.sleep(50);
+            long cached = clock.millis();
+            long after = System.currentTimeMillis();
+
+            assertTrue(cached > before, "cached time should have advanced with the ticker");
+            assertTrue(cached <= after, "cached time never runs ahead of the system clock");
+        }
+    }
+
+    @Test
+    void testReadsAreMonotonicWhileTicking() throws InterruptedException {
+        try (CoarseEpochClock clock = new CoarseEpochClock(1)) {
+            long previous = clock.millis();
+            for (int i = 0; i < 1000; i++) {
+                long current = clock.millis();
+                assertTrue(current >= previous);
+                previous = current;
+            }
+        }
+    }
+}
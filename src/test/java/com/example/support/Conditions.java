@@ -0,0 +1,26 @@
+package com.example.support;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Waiting for work done on other threads, for tests that cannot drive time themselves
+ */
+public final class Conditions {
+
+    private Conditions() {
+    }
+
+    /**
+     * Polls until the condition holds, failing after five seconds
+     */
+    public static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+}